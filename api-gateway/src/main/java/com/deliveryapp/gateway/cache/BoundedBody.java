@@ -0,0 +1,65 @@
+package com.deliveryapp.gateway.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Keeps a copy of a response body only while it is small enough to be
+ * worth keeping, so no response is ever held in memory beyond a limit.
+ */
+public final class BoundedBody {
+
+    private BoundedBody() {
+    }
+
+    /**
+     * Holds the body back until it is complete or has grown past
+     * {@code maxBytes}. A complete body is passed to {@code onComplete}
+     * before anything is written, so the callback may still change the
+     * response headers and status; it returns whether the body is to be
+     * written. A larger body calls {@code onOverflow} and is then written as
+     * it arrives, starting with the part held so far.
+     */
+    public static Flux<DataBuffer> hold(Publisher<? extends DataBuffer> body, int maxBytes, DataBufferFactory factory,
+                                        Predicate<byte[]> onComplete, Runnable onOverflow) {
+        AtomicLong size = new AtomicLong();
+        AtomicBoolean overflowed = new AtomicBoolean();
+        return Flux.from(body)
+                .cast(DataBuffer.class)
+                // once past the limit every further buffer closes a chunk of its own
+                .bufferUntil(buffer -> size.addAndGet(buffer.readableByteCount()) > maxBytes)
+                .concatMap(chunk -> {
+                    if (size.get() > maxBytes) {
+                        if (overflowed.compareAndSet(false, true)) {
+                            onOverflow.run();
+                        }
+                        return Flux.fromIterable(chunk);
+                    }
+                    // only the last chunk of a body that stayed within the limit gets here
+                    byte[] bytes = toBytes(chunk);
+                    return onComplete.test(bytes) ? Flux.just(factory.wrap(bytes)) : Flux.empty();
+                })
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    private static byte[] toBytes(List<DataBuffer> buffers) {
+        int length = buffers.stream().mapToInt(DataBuffer::readableByteCount).sum();
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        for (DataBuffer buffer : buffers) {
+            int count = buffer.readableByteCount();
+            buffer.read(bytes, offset, count);
+            offset += count;
+            DataBufferUtils.release(buffer);
+        }
+        return bytes;
+    }
+}
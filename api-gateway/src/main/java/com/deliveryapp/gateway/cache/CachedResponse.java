@@ -0,0 +1,58 @@
+package com.deliveryapp.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A buffered upstream response. The body is kept as bytes so it can be
+ * written again for any number of requests.
+ */
+public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, String etag, Instant storedAt) {
+
+    // lower case; CORS headers are set per request and never kept either
+    private static final Set<String> UNSTORED_HEADERS = Set.of(
+            "content-length", "transfer-encoding", "connection", "date", "vary", "etag");
+    private static final List<MediaType> STREAMING_TYPES =
+            List.of(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_NDJSON);
+
+    /** Snapshot of a response without its hop-by-hop and per-request headers. */
+    public static CachedResponse of(HttpStatusCode status, HttpHeaders headers, byte[] body, String etag) {
+        HttpHeaders kept = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (!UNSTORED_HEADERS.contains(lower) && !lower.startsWith("access-control-")) {
+                kept.put(name, List.copyOf(values));
+            }
+        });
+        return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(kept), body, etag, Instant.now());
+    }
+
+    /** Whether a response with these headers can be buffered at all. */
+    public static boolean isBufferable(HttpHeaders headers) {
+        if (headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        MediaType contentType = headers.getContentType();
+        return contentType == null || STREAMING_TYPES.stream().noneMatch(contentType::isCompatibleWith);
+    }
+
+    /** Writes this response; headers already set on {@code response}, such as CORS, win. */
+    public Mono<Void> writeTo(ServerHttpResponse response) {
+        HttpHeaders target = response.getHeaders();
+        headers.forEach(target::putIfAbsent);
+        if (etag != null) {
+            target.setETag(etag);
+        }
+        response.setStatusCode(status);
+        target.setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
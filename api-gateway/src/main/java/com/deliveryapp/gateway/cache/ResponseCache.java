@@ -0,0 +1,99 @@
+package com.deliveryapp.gateway.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Bounded response store of one route. Entries are fresh for the route's
+ * TTL and then kept as last-known-good copies for up to {@code maxStale}
+ * more; the least recently used entry is evicted when the store is full.
+ *
+ * <p>Every invalidation bumps a generation counter; a response is only
+ * stored if no invalidation happened since its request started, so a read
+ * racing with a write cannot put the old state back.
+ */
+public class ResponseCache {
+
+    private final Duration ttl;
+    private final Duration maxStale;
+    private final int maxEntries;
+    private final Consumer<Integer> onEviction;
+
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile long generation;
+
+    public ResponseCache(Duration ttl, Duration maxStale, int maxEntries, Consumer<Integer> onEviction) {
+        this.ttl = ttl;
+        this.maxStale = maxStale;
+        this.maxEntries = maxEntries;
+        this.onEviction = onEviction;
+    }
+
+    /** Returns the entry if it is still fresh. */
+    public synchronized CachedResponse get(String key) {
+        return find(key, ttl);
+    }
+
+    /** Returns the entry even if it expired, as long as it is within {@code maxStale}. */
+    public synchronized CachedResponse getStale(String key) {
+        return find(key, ttl.plus(maxStale));
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * Stores a response read while the store was at {@code readGeneration}.
+     *
+     * @return whether the response was stored
+     */
+    public synchronized boolean put(String key, CachedResponse response, long readGeneration) {
+        if (readGeneration != generation) {
+            return false;
+        }
+        entries.put(key, response);
+        int evicted = 0;
+        Iterator<Map.Entry<String, CachedResponse>> it = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+            evicted++;
+        }
+        if (evicted > 0) {
+            onEviction.accept(evicted);
+        }
+        return true;
+    }
+
+    /** Removes the entries whose key matches and returns how many there were. */
+    public synchronized int invalidate(Predicate<String> keys) {
+        generation++;
+        int before = entries.size();
+        entries.keySet().removeIf(keys);
+        return before - entries.size();
+    }
+
+    private CachedResponse find(String key, Duration maxAge) {
+        CachedResponse entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        Instant now = Instant.now();
+        if (entry.storedAt().plus(ttl).plus(maxStale).isBefore(now)) {
+            entries.remove(key);
+            onEviction.accept(1);
+            return null;
+        }
+        return entry.storedAt().plus(maxAge).isBefore(now) ? null : entry;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -40,7 +40,11 @@ public class CorsConfig {
         corsConfig.setExposedHeaders(Arrays.asList(
             "Content-Type",
             "Authorization",
-            "X-Total-Count"
+            "X-Total-Count",
+            "ETag",
+            "X-Cache",
+            "Retry-After",
+            "X-RateLimit-Remaining"
         ));
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,10 @@
+package com.deliveryapp.gateway.config;
+
+import com.deliveryapp.gateway.fallback.FallbackProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(FallbackProperties.class)
+public class FallbackConfig {
+}
@@ -0,0 +1,32 @@
+package com.deliveryapp.gateway.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+@Configuration
+public class RateLimitConfig {
+
+    /**
+     * Rate limit key: the client address. X-Forwarded-For is set by the
+     * client and only trusted for the hops added by our own proxies, of
+     * which there are {@code app.rate-limit.trusted-proxies}; with none the
+     * peer address is used.
+     */
+    @Bean
+    public KeyResolver clientKeyResolver(@Value("${app.rate-limit.trusted-proxies:0}") int trustedProxies) {
+        RemoteAddressResolver resolver = trustedProxies > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxies)
+                : new RemoteAddressResolver() { };
+        return exchange -> {
+            InetSocketAddress remote = resolver.resolve(exchange);
+            return Mono.just(remote != null ? remote.getHostString() : "unknown");
+        };
+    }
+}
@@ -0,0 +1,148 @@
+package com.deliveryapp.gateway.controller;
+
+import com.deliveryapp.gateway.cache.CachedResponse;
+import com.deliveryapp.gateway.cache.ResponseCache;
+import com.deliveryapp.gateway.fallback.FallbackProperties;
+import com.deliveryapp.gateway.fallback.QueuedWrite;
+import com.deliveryapp.gateway.fallback.WriteBacklog;
+import com.deliveryapp.gateway.filter.ResponseCacheGatewayFilterFactory;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Targets of the routes' circuit breaker fallbackUri. GETs are answered
+ * with the route's last cached response, marked stale, when there is one.
+ * Writes rejected by an open circuit were never sent, so they are held and
+ * answered with 202; writes that failed in flight may or may not have been
+ * applied and get a 503.
+ */
+@RestController
+@RequestMapping("/fallback")
+@RequiredArgsConstructor
+@Slf4j
+public class FallbackController {
+
+    private static final Set<HttpMethod> WRITE_METHODS =
+            Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    private final ResponseCacheGatewayFilterFactory responseCacheFactory;
+    private final WriteBacklog writeBacklog;
+    private final FallbackProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @RequestMapping("/{service}")
+    public Mono<ResponseEntity<?>> fallback(@PathVariable String service, ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI original = originalUri(exchange);
+        Throwable cause = exchange.getAttribute(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        HttpMethod method = exchange.getRequest().getMethod();
+        log.warn("Fallback for {} {} ({}): {}", method, original.getRawPath(), service,
+                cause != null ? cause.toString() : "no cause");
+
+        if (method == HttpMethod.GET) {
+            return Mono.just(serveStale(route, original, exchange.getRequest().getHeaders(), service));
+        }
+        if (WRITE_METHODS.contains(method) && route != null && cause instanceof CallNotPermittedException) {
+            return hold(route, method, original, exchange, service);
+        }
+        meterRegistry.counter("gateway.fallback.unavailable", "service", service).increment();
+        return Mono.just(unavailable(service, original));
+    }
+
+    private ResponseEntity<?> serveStale(Route route, URI original, HttpHeaders requestHeaders, String service) {
+        ResponseCache cache = route != null ? responseCacheFactory.cacheFor(route.getId()) : null;
+        CachedResponse stale = cache != null
+                ? cache.getStale(ResponseCacheGatewayFilterFactory.keyOf(original, requestHeaders)) : null;
+        if (stale == null) {
+            meterRegistry.counter("gateway.fallback.unavailable", "service", service).increment();
+            return unavailable(service, original);
+        }
+        meterRegistry.counter("gateway.fallback.stale", "service", service).increment();
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(stale.headers());
+        if (stale.etag() != null) {
+            headers.setETag(stale.etag());
+        }
+        headers.set(ResponseCacheGatewayFilterFactory.CACHE_HEADER, "STALE");
+        headers.set(HttpHeaders.AGE, String.valueOf(Duration.between(stale.storedAt(), Instant.now()).toSeconds()));
+        headers.set(HttpHeaders.WARNING, "110 - \"Response is Stale\"");
+        return ResponseEntity.status(stale.status()).headers(headers).body(stale.body());
+    }
+
+    private Mono<ResponseEntity<?>> hold(Route route, HttpMethod method, URI original,
+                                         ServerWebExchange exchange, String service) {
+        URI target = UriComponentsBuilder.fromUri(route.getUri())
+                .replacePath(original.getRawPath())
+                .replaceQuery(original.getRawQuery())
+                .build(true)
+                .toUri();
+        return DataBufferUtils.join(exchange.getRequest().getBody(), properties.getMaxBodyBytes())
+                .map(buffer -> {
+                    byte[] body = new byte[buffer.readableByteCount()];
+                    buffer.read(body);
+                    DataBufferUtils.release(buffer);
+                    return body;
+                })
+                .defaultIfEmpty(new byte[0])
+                .<ResponseEntity<?>>map(body -> {
+                    QueuedWrite write = new QueuedWrite(UUID.randomUUID().toString(), method, target,
+                            WriteBacklog.replayHeaders(exchange.getRequest().getHeaders()), body, Instant.now());
+                    if (!writeBacklog.offer(write)) {
+                        meterRegistry.counter("gateway.fallback.unavailable", "service", service).increment();
+                        return unavailable(service, original);
+                    }
+                    meterRegistry.counter("gateway.fallback.writes.held", "service", service).increment();
+                    Map<String, Object> accepted = new LinkedHashMap<>();
+                    accepted.put("status", "QUEUED");
+                    accepted.put("id", write.id());
+                    accepted.put("message", "The " + service + " service is unavailable; the request will be applied once it recovers");
+                    return ResponseEntity.status(HttpStatus.ACCEPTED).body(accepted);
+                })
+                .onErrorResume(DataBufferLimitException.class, e -> {
+                    meterRegistry.counter("gateway.fallback.unavailable", "service", service).increment();
+                    return Mono.just(unavailable(service, original));
+                });
+    }
+
+    private static ResponseEntity<?> unavailable(String service, URI original) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("error", "Service Unavailable");
+        body.put("message", "The " + service + " service is temporarily unavailable");
+        body.put("path", original.getRawPath());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(body);
+    }
+
+    private static URI originalUri(ServerWebExchange exchange) {
+        Set<URI> originals = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR);
+        return originals != null && !originals.isEmpty() ? originals.iterator().next() : exchange.getRequest().getURI();
+    }
+}
@@ -0,0 +1,34 @@
+package com.deliveryapp.gateway.controller;
+
+import com.deliveryapp.gateway.stream.UpdateHub;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * Server-sent event streams replacing client-side polling of orders and
+ * deliveries. Served by the gateway itself, not routed to a service.
+ */
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+public class StreamController {
+
+    private final UpdateHub updateHub;
+
+    @GetMapping(path = "/orders/{id}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<JsonNode>> order(@PathVariable Long id) {
+        return updateHub.subscribe(UpdateHub.ORDERS, id);
+    }
+
+    @GetMapping(path = "/deliveries/{id}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<JsonNode>> delivery(@PathVariable Long id) {
+        return updateHub.subscribe(UpdateHub.DELIVERIES, id);
+    }
+}
@@ -0,0 +1,33 @@
+package com.deliveryapp.gateway.fallback;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the circuit breaker fallbacks, bound from
+ * {@code app.fallback.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.fallback")
+public class FallbackProperties {
+
+    /** Writes held while circuits are open; beyond this they are refused. */
+    private int queueCapacity = 1000;
+
+    /** Interval at which held writes are retried. */
+    private Duration replayInterval = Duration.ofSeconds(5);
+
+    /**
+     * Longest wait for the backend's answer to a replay; the write stays
+     * held and is retried on the next interval.
+     */
+    private Duration replayTimeout = Duration.ofSeconds(10);
+
+    /** Held writes older than this are dropped instead of replayed. */
+    private Duration maxQueueAge = Duration.ofMinutes(10);
+
+    /** Largest request body a write may have to be held. */
+    private int maxBodyBytes = 256 * 1024;
+}
@@ -0,0 +1,11 @@
+package com.deliveryapp.gateway.fallback;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.net.URI;
+import java.time.Instant;
+
+/** A write accepted while its backend's circuit was open. */
+public record QueuedWrite(String id, HttpMethod method, URI uri, HttpHeaders headers, byte[] body, Instant acceptedAt) {
+}
@@ -0,0 +1,141 @@
+package com.deliveryapp.gateway.fallback;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Holds writes that arrived while their backend's circuit was open and
+ * replays them in arrival order once the backend answers again. Only
+ * writes that were never sent are held, but a replay that times out or
+ * fails after reaching the backend is retried, so a backend may receive the
+ * same write more than once. Every attempt carries the held write's id in
+ * {@value #REPLAY_HEADER}; nothing deduplicates on it yet, so only hold
+ * writes the backend can apply twice without harm or recognise by that id.
+ * A write the backend refuses with a 4xx is dropped and logged; the client
+ * already got its 202 and is not told.
+ */
+@Component
+@Slf4j
+public class WriteBacklog {
+
+    public static final String REPLAY_HEADER = "X-Replayed-Write";
+
+    private final WebClient webClient;
+    private final FallbackProperties properties;
+    private final BlockingQueue<QueuedWrite> queue;
+
+    private final Counter replayedCounter;
+    private final Counter refusedCounter;
+    private final Counter expiredCounter;
+    private Disposable replayer;
+
+    public WriteBacklog(@LoadBalanced WebClient.Builder webClientBuilder,
+                        FallbackProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.webClient = webClientBuilder.build();
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+
+        this.replayedCounter = meterRegistry.counter("gateway.fallback.writes.replayed");
+        this.refusedCounter = meterRegistry.counter("gateway.fallback.writes.refused");
+        this.expiredCounter = meterRegistry.counter("gateway.fallback.writes.expired");
+        Gauge.builder("gateway.fallback.writes.pending", queue, BlockingQueue::size)
+                .description("Writes waiting for their backend to recover")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        replayer = Flux.interval(properties.getReplayInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> replayNext(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (replayer != null) {
+            replayer.dispose();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Shutting down with {} held writes not replayed", queue.size());
+        }
+    }
+
+    /** @return whether the write was accepted */
+    public boolean offer(QueuedWrite write) {
+        return queue.offer(write);
+    }
+
+    /** Replays held writes until the queue is empty or the backend fails again. */
+    private Mono<Void> replayNext() {
+        QueuedWrite next = queue.peek();
+        if (next == null) {
+            return Mono.empty();
+        }
+        if (next.acceptedAt().plus(properties.getMaxQueueAge()).isBefore(Instant.now())) {
+            queue.remove(next);
+            expiredCounter.increment();
+            log.warn("Dropped held write {} {} {} after {}", next.id(), next.method(), next.uri(),
+                    properties.getMaxQueueAge());
+            return replayNext();
+        }
+        return send(next)
+                .flatMap(status -> {
+                    queue.remove(next);
+                    if (status.is4xxClientError()) {
+                        refusedCounter.increment();
+                        log.warn("Held write {} {} {} refused with {}", next.id(), next.method(), next.uri(), status);
+                    } else {
+                        replayedCounter.increment();
+                    }
+                    return replayNext();
+                })
+                .onErrorResume(e -> {
+                    log.debug("Replay of held writes paused: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<HttpStatusCode> send(QueuedWrite write) {
+        return webClient.method(write.method())
+                .uri(write.uri())
+                .headers(headers -> {
+                    headers.addAll(write.headers());
+                    headers.set(REPLAY_HEADER, write.id());
+                })
+                .bodyValue(write.body())
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+                .timeout(properties.getReplayTimeout())
+                .flatMap(status -> status.is5xxServerError()
+                        ? Mono.error(new IllegalStateException("backend answered " + status))
+                        : Mono.just(status));
+    }
+
+    /** Headers of the original request a replay carries over. */
+    public static HttpHeaders replayHeaders(HttpHeaders original) {
+        HttpHeaders kept = new HttpHeaders();
+        for (String name : new String[] {HttpHeaders.CONTENT_TYPE, HttpHeaders.ACCEPT, HttpHeaders.AUTHORIZATION}) {
+            if (original.containsKey(name)) {
+                kept.put(name, original.get(name));
+            }
+        }
+        return kept;
+    }
+}
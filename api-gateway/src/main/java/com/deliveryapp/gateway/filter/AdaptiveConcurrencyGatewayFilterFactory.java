@@ -0,0 +1,108 @@
+package com.deliveryapp.gateway.filter;
+
+import com.deliveryapp.gateway.ratelimit.AimdLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Caps the requests a route has in flight and answers the excess with 503
+ * before it reaches the backend. The cap adapts to observed latency (see
+ * {@link AimdLimiter}); timeouts, circuit breaker fallbacks and 429/503/504
+ * responses count as overload.
+ *
+ * <pre>
+ * filters:
+ *   - name: AdaptiveConcurrency
+ *     args:
+ *       latencyThreshold: 500ms
+ *       maxLimit: 100
+ * </pre>
+ */
+@Component
+public class AdaptiveConcurrencyGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AdaptiveConcurrencyGatewayFilterFactory.Config> {
+
+    private static final Set<Integer> OVERLOAD_STATUSES = Set.of(429, 503, 504);
+
+    private final MeterRegistry meterRegistry;
+
+    public AdaptiveConcurrencyGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("latencyThreshold", "maxLimit");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String route = config.getRouteId();
+        AimdLimiter limiter = new AimdLimiter(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit(),
+                config.getLatencyThreshold().toNanos(), config.getBackoffRatio());
+        Counter rejected = meterRegistry.counter("gateway.concurrency.rejected", "route", route);
+        Gauge.builder("gateway.concurrency.limit", limiter, AimdLimiter::getLimit)
+                .tag("route", route)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in-flight", limiter, AimdLimiter::getInFlight)
+                .tag("route", route)
+                .register(meterRegistry);
+
+        return (exchange, chain) -> {
+            if (!limiter.tryAcquire()) {
+                rejected.increment();
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                return response.setComplete();
+            }
+            long start = System.nanoTime();
+            return chain.filter(exchange).doFinally(signal -> {
+                if (signal == SignalType.CANCEL) {
+                    limiter.release();
+                    return;
+                }
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                boolean overloaded = signal == SignalType.ON_ERROR
+                        || exchange.getAttribute(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR) != null
+                        || (status != null && OVERLOAD_STATUSES.contains(status.value()));
+                limiter.release(System.nanoTime() - start, overloaded);
+            });
+        };
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+
+        private int initialLimit = 20;
+
+        private int minLimit = 2;
+
+        private int maxLimit = 200;
+
+        /** Responses slower than this shrink the limit. */
+        private Duration latencyThreshold = Duration.ofMillis(500);
+
+        /** Factor applied to the limit on overload. */
+        private double backoffRatio = 0.9;
+
+        private String routeId;
+    }
+}
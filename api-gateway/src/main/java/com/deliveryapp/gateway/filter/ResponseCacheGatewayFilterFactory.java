@@ -0,0 +1,268 @@
+package com.deliveryapp.gateway.filter;
+
+import com.deliveryapp.gateway.cache.BoundedBody;
+import com.deliveryapp.gateway.cache.CachedResponse;
+import com.deliveryapp.gateway.cache.ResponseCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Caches successful GET responses of a route, keyed by path, query and
+ * Accept header. Responses carry an ETag and a matching If-None-Match is
+ * answered with 304. A successful POST, PUT, PATCH or DELETE through the
+ * route evicts the entries of the resource it touched and the listings of
+ * its collection; changes made behind the gateway are only picked up once
+ * the TTL runs out.
+ *
+ * <pre>
+ * filters:
+ *   - name: ResponseCache
+ *     args:
+ *       ttl: 5s
+ *       maxEntries: 1000
+ * </pre>
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_HEADER = "X-Cache";
+
+    private static final Set<HttpMethod> WRITE_METHODS =
+            Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ResponseCache> caches = new ConcurrentHashMap<>();
+
+    public ResponseCacheGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl", "maxEntries");
+    }
+
+    /** Returns the store of a route, if the route has this filter. */
+    public ResponseCache cacheFor(String routeId) {
+        return caches.get(routeId);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String route = config.getRouteId();
+        ResponseCache cache = new ResponseCache(config.getTtl(), config.getMaxStale(), config.getMaxEntries(),
+                evicted -> meterRegistry.counter("gateway.cache.evictions", "route", route).increment(evicted));
+        caches.put(route, cache);
+        Gauge.builder("gateway.cache.size", caches, c -> c.containsKey(route) ? c.get(route).size() : 0)
+                .tag("route", route)
+                .description("Responses held by the route's cache")
+                .register(meterRegistry);
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            HttpMethod method = request.getMethod();
+
+            if (WRITE_METHODS.contains(method)) {
+                String path = request.getPath().value();
+                return chain.filter(exchange).then(Mono.fromRunnable(() -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    // a write held by the fallback has not changed anything yet
+                    boolean fellBack = exchange.getAttribute(
+                            ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR) != null;
+                    if (status != null && status.is2xxSuccessful() && !fellBack) {
+                        int removed = cache.invalidate(affectedBy(path));
+                        meterRegistry.counter("gateway.cache.invalidations", "route", route).increment(removed);
+                    }
+                }));
+            }
+            if (method != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+
+            String key = keyOf(request);
+            if (!noCache(request)) {
+                CachedResponse cached = cache.get(key);
+                if (cached != null) {
+                    meterRegistry.counter("gateway.cache.hits", "route", route).increment();
+                    return writeCached(exchange, cached);
+                }
+            }
+            meterRegistry.counter("gateway.cache.misses", "route", route).increment();
+            CachingResponse response = new CachingResponse(exchange, cache, key, config.getMaxBodyBytes());
+            return chain.filter(exchange.mutate().response(response).build());
+        };
+    }
+
+    public static String keyOf(ServerHttpRequest request) {
+        return keyOf(request.getURI(), request.getHeaders());
+    }
+
+    public static String keyOf(URI uri, HttpHeaders headers) {
+        String query = uri.getRawQuery();
+        String accept = headers.getFirst(HttpHeaders.ACCEPT);
+        return uri.getRawPath() + (query != null ? "?" + query : "") + " " + (accept != null ? accept : "");
+    }
+
+    /**
+     * Entries affected by a write to {@code path}: everything below the
+     * resource it names, and the collection's listings and lookups that are
+     * not addressed by id, since the changed resource may appear in them.
+     */
+    static Predicate<String> affectedBy(String path) {
+        String[] segments = path.split("/");
+        if (segments.length < 3) {
+            return key -> true;
+        }
+        String collection = "/" + segments[1] + "/" + segments[2];
+        String resource = segments.length > 3 && isId(segments[3]) ? collection + "/" + segments[3] : null;
+        return key -> {
+            String keyPath = key.substring(0, key.indexOf(' ')).split("\\?", 2)[0];
+            if (!keyPath.equals(collection) && !keyPath.startsWith(collection + "/")) {
+                return false;
+            }
+            if (resource != null && (keyPath.equals(resource) || keyPath.startsWith(resource + "/"))) {
+                return true;
+            }
+            String[] keySegments = keyPath.split("/");
+            return keySegments.length <= 3 || !isId(keySegments[3]);
+        };
+    }
+
+    private static boolean isId(String segment) {
+        return !segment.isEmpty() && segment.chars().allMatch(Character::isDigit);
+    }
+
+    private static boolean noCache(ServerHttpRequest request) {
+        String cacheControl = request.getHeaders().getCacheControl();
+        return cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    }
+
+    private static boolean notModified(ServerHttpRequest request, String etag) {
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        return ifNoneMatch.contains(etag) || ifNoneMatch.contains("*");
+    }
+
+    private static Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().set(CACHE_HEADER, "HIT");
+        response.getHeaders().set(HttpHeaders.AGE,
+                String.valueOf(Duration.between(cached.storedAt(), Instant.now()).toSeconds()));
+
+        if (notModified(exchange.getRequest(), cached.etag())) {
+            cached.headers().forEach(response.getHeaders()::putIfAbsent);
+            response.getHeaders().setETag(cached.etag());
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        return cached.writeTo(response);
+    }
+
+    /** Stores the upstream response on its way to the client. */
+    private static final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final ResponseCache cache;
+        private final String key;
+        private final int maxBodyBytes;
+        private final long generation;
+
+        CachingResponse(ServerWebExchange exchange, ResponseCache cache, String key, int maxBodyBytes) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.cache = cache;
+            this.key = key;
+            this.maxBodyBytes = maxBodyBytes;
+            this.generation = cache.generation();
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!cacheable()) {
+                return super.writeWith(body);
+            }
+            HttpHeaders headers = getHeaders();
+            if (headers.getContentLength() > maxBodyBytes) {
+                headers.set(CACHE_HEADER, "MISS");
+                return super.writeWith(body);
+            }
+            return super.writeWith(BoundedBody.hold(body, maxBodyBytes, bufferFactory(), bytes -> {
+                String etag = headers.getETag() != null
+                        ? headers.getETag() : "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+                headers.setETag(etag);
+                headers.set(CACHE_HEADER, "MISS");
+                cache.put(key, CachedResponse.of(getStatusCode(), headers, bytes, etag), generation);
+
+                if (notModified(exchange.getRequest(), etag)) {
+                    setStatusCode(HttpStatus.NOT_MODIFIED);
+                    headers.remove(HttpHeaders.CONTENT_LENGTH);
+                    return false;
+                }
+                return true;
+            }, () -> headers.set(CACHE_HEADER, "MISS")));
+        }
+
+        private boolean cacheable() {
+            // a fallback answered for the backend; what it writes is not the backend's state
+            if (exchange.getAttribute(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR) != null) {
+                return false;
+            }
+            HttpHeaders headers = getHeaders();
+            if (getStatusCode() == null || getStatusCode().value() != HttpStatus.OK.value()
+                    || !CachedResponse.isBufferable(headers)) {
+                return false;
+            }
+            String cacheControl = headers.getCacheControl();
+            return cacheControl == null || !(cacheControl.contains("no-store") || cacheControl.contains("private"));
+        }
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+
+        /** How long a response is served from the cache. */
+        private Duration ttl = Duration.ofSeconds(10);
+
+        /** How long an expired response is kept for the circuit breaker fallback. */
+        private Duration maxStale = Duration.ofMinutes(10);
+
+        /** Responses kept per route; the least recently used are evicted beyond this. */
+        private int maxEntries = 1000;
+
+        /**
+         * Larger responses are passed through without being stored; at most
+         * this much of a response is held before it reaches the client.
+         */
+        private int maxBodyBytes = 256 * 1024;
+
+        private String routeId;
+    }
+}
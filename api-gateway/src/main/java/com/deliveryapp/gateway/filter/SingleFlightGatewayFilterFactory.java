@@ -0,0 +1,144 @@
+package com.deliveryapp.gateway.filter;
+
+import com.deliveryapp.gateway.cache.BoundedBody;
+import com.deliveryapp.gateway.cache.CachedResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collapses concurrent identical GETs of a route into one upstream call.
+ * The first request goes upstream; requests with the same path, query and
+ * Accept header arriving while it is in flight wait for its response and
+ * get a copy. Only 2xx responses are shared; if the first request yields
+ * anything else (another status, a streamed or oversized body, an error, a
+ * cancelled client) the waiting requests go upstream themselves.
+ *
+ * <pre>
+ * filters:
+ *   - name: SingleFlight
+ * </pre>
+ */
+@Component
+public class SingleFlightGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<SingleFlightGatewayFilterFactory.Config> {
+
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlightGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("maxBodyBytes");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String route = config.getRouteId();
+        Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+        Counter upstream = meterRegistry.counter("gateway.singleflight.upstream", "route", route);
+        Counter collapsed = meterRegistry.counter("gateway.singleflight.collapsed", "route", route);
+        Counter fallthrough = meterRegistry.counter("gateway.singleflight.fallthrough", "route", route);
+        Gauge.builder("gateway.singleflight.in-flight", inFlight, Map::size)
+                .tag("route", route)
+                .description("Distinct GETs currently being fetched")
+                .register(meterRegistry);
+
+        return (exchange, chain) -> {
+            if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            String key = ResponseCacheGatewayFilterFactory.keyOf(exchange.getRequest());
+            Sinks.One<CachedResponse> own = Sinks.one();
+            Sinks.One<CachedResponse> leader = inFlight.putIfAbsent(key, own);
+
+            if (leader != null) {
+                return leader.asMono()
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(shared -> {
+                            if (shared.isPresent()) {
+                                collapsed.increment();
+                                return shared.get().writeTo(exchange.getResponse());
+                            }
+                            fallthrough.increment();
+                            return chain.filter(exchange);
+                        });
+            }
+
+            upstream.increment();
+            Runnable release = () -> inFlight.remove(key, own);
+            SharingResponse response = new SharingResponse(exchange.getResponse(), own, release, config.getMaxBodyBytes());
+            return chain.filter(exchange.mutate().response(response).build())
+                    .doFinally(signal -> {
+                        release.run();
+                        own.tryEmitEmpty();
+                    });
+        };
+    }
+
+    /** Hands the upstream response to the waiting requests before writing it. */
+    private static final class SharingResponse extends ServerHttpResponseDecorator {
+
+        private final Sinks.One<CachedResponse> sink;
+        private final Runnable release;
+        private final int maxBodyBytes;
+
+        SharingResponse(ServerHttpResponse delegate, Sinks.One<CachedResponse> sink, Runnable release,
+                        int maxBodyBytes) {
+            super(delegate);
+            this.sink = sink;
+            this.release = release;
+            this.maxBodyBytes = maxBodyBytes;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            // later arrivals must not join a response that is already complete
+            release.run();
+            // a failure is the leader's own; the others get their chance at an answer
+            if (getStatusCode() == null || !getStatusCode().is2xxSuccessful()
+                    || !CachedResponse.isBufferable(getHeaders())
+                    || getHeaders().getContentLength() > maxBodyBytes) {
+                sink.tryEmitEmpty();
+                return super.writeWith(body);
+            }
+            return super.writeWith(BoundedBody.hold(body, maxBodyBytes, bufferFactory(), bytes -> {
+                sink.tryEmitValue(CachedResponse.of(getStatusCode(), getHeaders(), bytes, null));
+                return true;
+            }, sink::tryEmitEmpty));
+        }
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+
+        /**
+         * Larger responses are not shared; waiting requests then go upstream.
+         * At most this much of a response is held before it reaches the client.
+         */
+        private int maxBodyBytes = 1024 * 1024;
+
+        private String routeId;
+    }
+}
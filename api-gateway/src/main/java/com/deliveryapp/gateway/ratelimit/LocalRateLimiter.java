@@ -0,0 +1,111 @@
+package com.deliveryapp.gateway.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory token bucket rate limiter for the RequestRateLimiter filter.
+ * Each route limits every client key to its own bucket and can also cap
+ * the route as a whole. Limits are per gateway instance; no shared store
+ * is involved.
+ *
+ * <pre>
+ * - name: RequestRateLimiter
+ *   args:
+ *     rate-limiter: "#{@localRateLimiter}"
+ *     key-resolver: "#{@clientKeyResolver}"
+ *     local-rate-limiter.replenish-rate: 20
+ *     local-rate-limiter.burst-capacity: 40
+ *     local-rate-limiter.route-replenish-rate: 200
+ * </pre>
+ */
+@Component
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    private static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    private static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+
+    /** Client buckets kept before full ones are swept out. */
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private static final Config DEFAULT_CONFIG = new Config();
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public LocalRateLimiter(ConfigurationService configurationService, MeterRegistry meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, DEFAULT_CONFIG);
+        long now = System.nanoTime();
+
+        TokenBucket client = bucket(routeId + "|" + id, config.getReplenishRate(), config.getBurstCapacity(), now);
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put(REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+
+        if (!client.tryConsume(now)) {
+            return Mono.just(reject(routeId, "client", client, headers, now));
+        }
+        if (config.getRouteReplenishRate() > 0) {
+            int routeCapacity = config.getRouteBurstCapacity() > 0
+                    ? config.getRouteBurstCapacity() : config.getRouteReplenishRate();
+            TokenBucket route = bucket(routeId, config.getRouteReplenishRate(), routeCapacity, now);
+            if (!route.tryConsume(now)) {
+                client.refund();
+                return Mono.just(reject(routeId, "route", route, headers, now));
+            }
+        }
+        headers.put(REMAINING_HEADER, String.valueOf(client.remaining(now)));
+        return Mono.just(new Response(true, headers));
+    }
+
+    private Response reject(String routeId, String scope, TokenBucket bucket, Map<String, String> headers, long now) {
+        meterRegistry.counter("gateway.ratelimit.rejected", "route", routeId, "scope", scope).increment();
+        headers.put(REMAINING_HEADER, "0");
+        headers.put("Retry-After", String.valueOf(bucket.secondsUntilToken(now)));
+        return new Response(false, headers);
+    }
+
+    private TokenBucket bucket(String key, int rate, int capacity, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() > SWEEP_THRESHOLD) {
+            buckets.values().removeIf(b -> b.isFull(now));
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(rate, capacity, now));
+    }
+
+    @Data
+    public static class Config {
+
+        /** Requests per second each client may make on the route. */
+        private int replenishRate = 20;
+
+        /** Requests a client may burst above its rate. */
+        private int burstCapacity = 40;
+
+        /** Requests per second for the whole route; 0 disables the route limit. */
+        private int routeReplenishRate;
+
+        /** Burst for the whole route; defaults to the route rate. */
+        private int routeBurstCapacity;
+    }
+}
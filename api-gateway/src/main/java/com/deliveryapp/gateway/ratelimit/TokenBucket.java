@@ -0,0 +1,60 @@
+package com.deliveryapp.gateway.ratelimit;
+
+/**
+ * Token bucket refilled continuously at a fixed rate. Time is passed in by
+ * the caller as {@link System#nanoTime()} values.
+ */
+final class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double tokensPerSecond, int capacity, long now) {
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+    synchronized boolean tryConsume(long now) {
+        refill(now);
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /** Gives back a token taken by a request that was rejected elsewhere. */
+    synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    synchronized long remaining(long now) {
+        refill(now);
+        return (long) tokens;
+    }
+
+    /** Seconds until the next token is available, at least 1. */
+    synchronized long secondsUntilToken(long now) {
+        refill(now);
+        double missing = Math.max(0, 1 - tokens);
+        return Math.max(1, (long) Math.ceil(missing / tokensPerNano / 1_000_000_000d));
+    }
+
+    /** A full bucket behaves like a new one and can be dropped. */
+    synchronized boolean isFull(long now) {
+        refill(now);
+        return tokens >= capacity;
+    }
+
+    private void refill(long now) {
+        if (now > refilledAt) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.deliveryapp.gateway.stream;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the server-sent events channel, bound from
+ * {@code app.stream.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.stream")
+public class StreamProperties {
+
+    /** Interval at which each watched entity is read from its service. */
+    private Duration pollInterval = Duration.ofSeconds(2);
+
+    /** Upstream read timeout; a timed out read is retried on the next tick. */
+    private Duration upstreamTimeout = Duration.ofSeconds(5);
+
+    /** How long an upstream poller outlives its last subscriber. */
+    private Duration idleGrace = Duration.ofSeconds(10);
+
+    /** Interval of keep-alive comments sent to idle connections. */
+    private Duration heartbeat = Duration.ofSeconds(20);
+
+    /** Events buffered per subscriber; the oldest are dropped beyond this. */
+    private int subscriberBuffer = 256;
+
+    /** Tracking entries read per delivery poll. */
+    private int maxPointsPerPoll = 200;
+}
@@ -0,0 +1,209 @@
+package com.deliveryapp.gateway.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Fans out order and delivery updates to server-sent event subscribers.
+ * Each watched entity has a single upstream poller shared by all of its
+ * subscribers; it starts with the first subscriber and stops shortly after
+ * the last one leaves. Every subscriber gets its own bounded buffer, so a
+ * slow client loses its oldest events instead of holding back the others.
+ *
+ * <p>Event names: {@code order} and {@code delivery} carry the full entity
+ * whenever it changes, {@code location} a tracking point, and {@code end}
+ * is sent once the entity reached a final status or no longer exists.
+ */
+@Component
+@Slf4j
+public class UpdateHub {
+
+    public static final String ORDERS = "orders";
+    public static final String DELIVERIES = "deliveries";
+
+    private static final Set<String> FINAL_ORDER_STATUSES = Set.of("COMPLETED", "CANCELLED");
+    private static final Set<String> FINAL_DELIVERY_STATUSES = Set.of("DELIVERED", "FAILED", "CANCELLED");
+    private static final String LOCATION = "LOCATION";
+    private static final String END = "end";
+
+    private final WebClient webClient;
+    private final StreamProperties properties;
+
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Counter droppedCounter;
+
+    public UpdateHub(@LoadBalanced WebClient.Builder webClientBuilder,
+                     StreamProperties properties,
+                     MeterRegistry meterRegistry) {
+        this.webClient = webClientBuilder.build();
+        this.properties = properties;
+
+        this.droppedCounter = meterRegistry.counter("gateway.stream.dropped");
+        Gauge.builder("gateway.stream.topics", topics, Map::size)
+                .description("Entities with an active upstream poller")
+                .register(meterRegistry);
+        Gauge.builder("gateway.stream.subscribers", subscribers, AtomicInteger::get)
+                .description("Open event stream connections")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Subscribes to the updates of one order or delivery. The latest known
+     * state is replayed first, then changes follow as they are observed.
+     */
+    public Flux<ServerSentEvent<JsonNode>> subscribe(String kind, Long id) {
+        String key = kind + ":" + id;
+        Topic topic = topics.computeIfAbsent(key, k -> new Topic(k, ORDERS.equals(kind) ? orderFeed(id) : deliveryFeed(id)));
+
+        Flux<ServerSentEvent<JsonNode>> updates = Flux.defer(() -> Flux.fromIterable(List.copyOf(topic.latest.values())))
+                .concatWith(topic.events)
+                .onBackpressureBuffer(properties.getSubscriberBuffer(), dropped -> droppedCounter.increment(),
+                        BufferOverflowStrategy.DROP_OLDEST);
+
+        return updates.publish(shared -> Flux.merge(shared, heartbeats(shared)))
+                .doOnSubscribe(s -> subscribers.incrementAndGet())
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    private Flux<ServerSentEvent<JsonNode>> heartbeats(Flux<ServerSentEvent<JsonNode>> until) {
+        return Flux.interval(properties.getHeartbeat())
+                .map(tick -> ServerSentEvent.<JsonNode>builder().comment("keep-alive").build())
+                .takeUntilOther(until.then(Mono.just(true)));
+    }
+
+    private Flux<ServerSentEvent<JsonNode>> orderFeed(Long id) {
+        AtomicReference<String> lastVersion = new AtomicReference<>();
+        return poll(() -> fetch("lb://order-service/api/orders/" + id)
+                .map(order -> {
+                    String version = order.path("status").asText() + "@" + order.path("updatedAt").asText();
+                    if (Objects.equals(lastVersion.getAndSet(version), version)) {
+                        return List.<ServerSentEvent<JsonNode>>of();
+                    }
+                    List<ServerSentEvent<JsonNode>> events = new ArrayList<>(2);
+                    events.add(event("order", order));
+                    if (FINAL_ORDER_STATUSES.contains(order.path("status").asText())) {
+                        events.add(end("final-status"));
+                    }
+                    return events;
+                }));
+    }
+
+    /**
+     * Follows the delivery's tracking log with its id cursor. The delivery
+     * itself is only re-read when the log shows a status change.
+     */
+    private Flux<ServerSentEvent<JsonNode>> deliveryFeed(Long id) {
+        String deliveryUri = "lb://delivery-service/api/deliveries/" + id;
+        AtomicLong cursor = new AtomicLong(-1);
+        return poll(() -> {
+            // the first read only needs the current position and the cursor
+            String trackUri = cursor.get() < 0
+                    ? deliveryUri + "/track?maxPoints=1"
+                    : deliveryUri + "/track?since=" + cursor.get() + "&maxPoints=" + properties.getMaxPointsPerPoll();
+            boolean first = cursor.get() < 0;
+            return fetch(trackUri).flatMap(timeline -> {
+                long next = timeline.path("nextSince").asLong(Math.max(cursor.get(), 0));
+
+                List<ServerSentEvent<JsonNode>> events = new ArrayList<>();
+                boolean statusChanged = first;
+                for (JsonNode point : timeline.path("points")) {
+                    if (LOCATION.equals(point.path("status").asText())) {
+                        events.add(event("location", point));
+                    } else {
+                        statusChanged = true;
+                    }
+                }
+                if (first && events.size() > 1) {
+                    events = new ArrayList<>(events.subList(events.size() - 1, events.size()));
+                }
+                if (!statusChanged) {
+                    cursor.set(next);
+                    return Mono.just(events);
+                }
+                // the cursor only moves once the delivery was read, so a failed read is retried in full
+                List<ServerSentEvent<JsonNode>> withDelivery = events;
+                return fetch(deliveryUri).map(delivery -> {
+                    cursor.set(next);
+                    withDelivery.add(event("delivery", delivery));
+                    if (FINAL_DELIVERY_STATUSES.contains(delivery.path("status").asText())) {
+                        withDelivery.add(end("final-status"));
+                    }
+                    return withDelivery;
+                });
+            });
+        });
+    }
+
+    /**
+     * Runs {@code read} every poll interval, skipping ticks while a read is
+     * still in flight, until an {@code end} event was produced. Failed reads
+     * are retried on the next tick; a missing entity ends the feed.
+     */
+    private Flux<ServerSentEvent<JsonNode>> poll(Supplier<Mono<List<ServerSentEvent<JsonNode>>>> read) {
+        return Flux.interval(Duration.ZERO, properties.getPollInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> read.get()
+                        .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.just(List.of(end("not-found"))))
+                        .onErrorResume(e -> {
+                            log.debug("Stream poll failed, retrying on next tick: {}", e.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .concatMapIterable(events -> events)
+                .takeUntil(e -> END.equals(e.event()));
+    }
+
+    private Mono<JsonNode> fetch(String uri) {
+        return webClient.get().uri(uri)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(properties.getUpstreamTimeout());
+    }
+
+    private static ServerSentEvent<JsonNode> event(String name, JsonNode data) {
+        return ServerSentEvent.<JsonNode>builder().event(name).data(data).build();
+    }
+
+    private static ServerSentEvent<JsonNode> end(String reason) {
+        return event(END, JsonNodeFactory.instance.objectNode().put("reason", reason));
+    }
+
+    /** Shared upstream feed of one entity plus the latest event of each name. */
+    private final class Topic {
+
+        private final Map<String, ServerSentEvent<JsonNode>> latest = new ConcurrentHashMap<>();
+        private final Flux<ServerSentEvent<JsonNode>> events;
+
+        private Topic(String key, Flux<ServerSentEvent<JsonNode>> feed) {
+            this.events = feed
+                    .doOnNext(e -> latest.put(e.event(), e))
+                    .doFinally(signal -> topics.remove(key, this))
+                    .publish()
+                    .refCount(1, properties.getIdleGrace());
+        }
+    }
+}
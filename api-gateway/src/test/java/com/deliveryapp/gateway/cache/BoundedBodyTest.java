@@ -0,0 +1,74 @@
+package com.deliveryapp.gateway.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Bodies held back by {@link BoundedBody} while small, passed through once larger. */
+class BoundedBodyTest {
+
+    private static final DefaultDataBufferFactory FACTORY = DefaultDataBufferFactory.sharedInstance;
+
+    private final List<String> completed = new ArrayList<>();
+    private final AtomicInteger overflows = new AtomicInteger();
+
+    @Test
+    void handsACompleteBodyToTheCallbackBeforeWritingIt() {
+        List<String> written = hold(10, true, "abc", "def");
+
+        assertThat(completed).containsExactly("abcdef");
+        assertThat(written).containsExactly("abcdef");
+        assertThat(overflows).hasValue(0);
+    }
+
+    @Test
+    void writesNothingWhenTheCallbackSaysSo() {
+        assertThat(hold(10, false, "abc", "def")).isEmpty();
+        assertThat(completed).containsExactly("abcdef");
+    }
+
+    @Test
+    void passesALargerBodyThroughWholeAndInOrder() {
+        List<String> written = hold(5, true, "abc", "def", "ghi", "jkl");
+
+        // the part held so far goes out first, then every buffer as it comes
+        assertThat(String.join("", written)).isEqualTo("abcdefghijkl");
+        assertThat(written).hasSizeGreaterThan(1);
+        assertThat(completed).isEmpty();
+        assertThat(overflows).hasValue(1);
+    }
+
+    @Test
+    void passesThroughABodyOverflowingInItsFirstBuffer() {
+        List<String> written = hold(5, true, "abcdefgh", "ij");
+
+        assertThat(String.join("", written)).isEqualTo("abcdefghij");
+        assertThat(completed).isEmpty();
+        assertThat(overflows).hasValue(1);
+    }
+
+    private List<String> hold(int maxBytes, boolean write, String... chunks) {
+        Flux<DataBuffer> body = Flux.fromArray(chunks)
+            .map(chunk -> FACTORY.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+        return BoundedBody.hold(body, maxBytes, FACTORY, bytes -> {
+                completed.add(new String(bytes, StandardCharsets.UTF_8));
+                return write;
+            }, overflows::incrementAndGet)
+            .map(buffer -> {
+                String text = buffer.toString(StandardCharsets.UTF_8);
+                DataBufferUtils.release(buffer);
+                return text;
+            })
+            .collectList()
+            .block();
+    }
+}
@@ -0,0 +1,167 @@
+package com.deliveryapp.gateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The route filter of {@link ResponseCacheGatewayFilterFactory} in front of
+ * a stand-in backend: conditional requests, bodies too large to keep, and
+ * the entries a write evicts.
+ */
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private static final String ROUTE = "orders";
+    private static final String ORDER = "{\"id\":12,\"status\":\"PENDING\"}";
+
+    private final ResponseCacheGatewayFilterFactory factory =
+        new ResponseCacheGatewayFilterFactory(new SimpleMeterRegistry());
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void answersAMatchingIfNoneMatchWith304() {
+        GatewayFilter filter = filter(1024);
+        MockServerWebExchange first = get("/api/orders/12");
+        filter.filter(first, backend(HttpStatus.OK, ORDER)).block();
+        String etag = first.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange revalidation = get("/api/orders/12", etag);
+        filter.filter(revalidation, backend(HttpStatus.OK, ORDER)).block();
+
+        assertThat(first.getResponse().getBodyAsString().block()).isEqualTo(ORDER);
+        assertThat(etag).isNotNull();
+        MockServerHttpResponse response = revalidation.getResponse();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER)).isEqualTo("HIT");
+        assertThat(response.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(response.getBodyAsString().block()).isEmpty();
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void answersAMatchingIfNoneMatchWith304OnAMissToo() {
+        GatewayFilter filter = filter(1024);
+        MockServerWebExchange first = get("/api/orders/12");
+        filter.filter(first, backend(HttpStatus.OK, ORDER)).block();
+        String etag = first.getResponse().getHeaders().getETag();
+        factory.cacheFor(ROUTE).invalidate(key -> true);
+
+        MockServerWebExchange revalidation = get("/api/orders/12", etag);
+        filter.filter(revalidation, backend(HttpStatus.OK, ORDER)).block();
+
+        assertThat(revalidation.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(revalidation.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER))
+            .isEqualTo("MISS");
+        assertThat(revalidation.getResponse().getBodyAsString().block()).isEmpty();
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void passesALargerBodyThroughWithoutKeepingIt() {
+        GatewayFilter filter = filter(16);
+        MockServerWebExchange exchange = get("/api/orders");
+
+        filter.filter(exchange, backend(HttpStatus.OK, "[" + ORDER + "," + ORDER + "]")).block();
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("[" + ORDER + "," + ORDER + "]");
+        assertThat(exchange.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER))
+            .isEqualTo("MISS");
+        assertThat(factory.cacheFor(ROUTE).size()).isZero();
+    }
+
+    @Test
+    void aWriteEvictsItsResourceAndTheCollectionsListings() {
+        GatewayFilter filter = filter(1024);
+        for (String path : new String[] {"/api/orders/12", "/api/orders/13", "/api/orders", "/api/customers/12"}) {
+            filter.filter(get(path), backend(HttpStatus.OK, ORDER)).block();
+        }
+
+        MockServerWebExchange update = MockServerWebExchange.from(MockServerHttpRequest.put("/api/orders/12/status"));
+        filter.filter(update, backend(HttpStatus.OK, ORDER)).block();
+
+        assertThat(factory.cacheFor(ROUTE).size()).isEqualTo(2);
+        filter.filter(get("/api/orders/13"), backend(HttpStatus.OK, ORDER)).block();
+        filter.filter(get("/api/customers/12"), backend(HttpStatus.OK, ORDER)).block();
+        assertThat(upstreamCalls).hasValue(5);
+    }
+
+    @Test
+    void aFailedWriteEvictsNothing() {
+        GatewayFilter filter = filter(1024);
+        filter.filter(get("/api/orders/12"), backend(HttpStatus.OK, ORDER)).block();
+
+        MockServerWebExchange update = MockServerWebExchange.from(MockServerHttpRequest.put("/api/orders/12"));
+        filter.filter(update, backend(HttpStatus.CONFLICT, "{}")).block();
+
+        assertThat(factory.cacheFor(ROUTE).size()).isOne();
+    }
+
+    @Test
+    void writesToAResourceAffectItsSubtreeAndTheListingsNotAddressedById() {
+        Predicate<String> affected = ResponseCacheGatewayFilterFactory.affectedBy("/api/orders/12/status");
+
+        assertThat(affected)
+            .accepts("/api/orders/12 application/json", "/api/orders/12/items ", "/api/orders ",
+                "/api/orders?status=PENDING&limit=20 ", "/api/orders/summary ", "/api/orders/customer/3 ")
+            .rejects("/api/orders/13 ", "/api/orders/120 ", "/api/customers ", "/api/customers/12 ",
+                "/api/ordersx ");
+    }
+
+    @Test
+    void writesToACollectionLeaveTheResourcesAlone() {
+        Predicate<String> affected = ResponseCacheGatewayFilterFactory.affectedBy("/api/orders");
+
+        assertThat(affected)
+            .accepts("/api/orders ", "/api/orders?ids=1,2 ", "/api/orders/summary ")
+            .rejects("/api/orders/12 ", "/api/orders/12/items ", "/api/customers ");
+        assertThat(ResponseCacheGatewayFilterFactory.affectedBy("/api")).accepts("/api/orders/12 ", "/api/customers ");
+    }
+
+    private GatewayFilter filter(int maxBodyBytes) {
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setRouteId(ROUTE);
+        config.setMaxBodyBytes(maxBodyBytes);
+        return factory.apply(config);
+    }
+
+    private static MockServerWebExchange get(String path, String... ifNoneMatch) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(path).accept(MediaType.APPLICATION_JSON);
+        if (ifNoneMatch.length > 0) {
+            request.ifNoneMatch(ifNoneMatch);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    /** Answers with {@code body}, sent a few bytes at a time and without a Content-Length. */
+    private GatewayFilterChain backend(HttpStatus status, String body) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(status);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().set(HttpHeaders.CACHE_CONTROL, "max-age=0");
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            Flux<DataBuffer> chunks = Flux.range(0, (bytes.length + 7) / 8)
+                .map(i -> response.bufferFactory().wrap(
+                    Arrays.copyOfRange(bytes, i * 8, Math.min(bytes.length, i * 8 + 8))));
+            return response.writeWith(chunks);
+        };
+    }
+}
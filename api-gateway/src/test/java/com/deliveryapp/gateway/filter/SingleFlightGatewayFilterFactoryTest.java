@@ -0,0 +1,122 @@
+package com.deliveryapp.gateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A request arriving while an identical one is in flight through
+ * {@link SingleFlightGatewayFilterFactory}: it gets a copy of a 2xx answer
+ * and goes upstream itself after anything else.
+ */
+class SingleFlightGatewayFilterFactoryTest {
+
+    private static final String ROUTE = "orders";
+    private static final String ORDER = "{\"id\":12,\"status\":\"PENDING\"}";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GatewayFilter filter = filter();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    // holds the first upstream answer back until the second request is waiting on it
+    private final Sinks.Empty<Void> answer = Sinks.empty();
+
+    @Test
+    void sharesASuccessfulAnswerWithTheWaitingRequest() throws Exception {
+        GatewayFilterChain backend = backend(HttpStatus.OK);
+        MockServerWebExchange leader = get("/api/orders/12");
+        MockServerWebExchange follower = get("/api/orders/12");
+
+        concurrently(leader, follower, backend);
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(leader.getResponse().getBodyAsString().block()).isEqualTo(ORDER);
+        assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo(ORDER);
+        assertThat(count("gateway.singleflight.collapsed")).isEqualTo(1);
+        assertThat(count("gateway.singleflight.fallthrough")).isZero();
+    }
+
+    @Test
+    void sendsTheWaitingRequestUpstreamAfterAnError() throws Exception {
+        GatewayFilterChain backend = backend(HttpStatus.SERVICE_UNAVAILABLE);
+        MockServerWebExchange leader = get("/api/orders/12");
+        MockServerWebExchange follower = get("/api/orders/12");
+
+        concurrently(leader, follower, backend);
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(leader.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        // the backend has recovered by the time the second request reaches it
+        assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo(ORDER);
+        assertThat(count("gateway.singleflight.collapsed")).isZero();
+        assertThat(count("gateway.singleflight.fallthrough")).isEqualTo(1);
+    }
+
+    @Test
+    void leavesDifferentRequestsAlone() throws Exception {
+        GatewayFilterChain backend = backend(HttpStatus.OK);
+
+        concurrently(get("/api/orders/12"), get("/api/orders/13"), backend);
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(count("gateway.singleflight.collapsed")).isZero();
+    }
+
+    /** Starts both requests, then lets the first upstream call answer. */
+    private void concurrently(MockServerWebExchange first, MockServerWebExchange second, GatewayFilterChain backend)
+            throws Exception {
+        CompletableFuture<Void> leading = filter.filter(first, backend).toFuture();
+        CompletableFuture<Void> waiting = filter.filter(second, backend).toFuture();
+        assertThat(leading).isNotDone();
+
+        answer.tryEmitEmpty();
+
+        leading.get(5, TimeUnit.SECONDS);
+        waiting.get(5, TimeUnit.SECONDS);
+    }
+
+    private GatewayFilter filter() {
+        SingleFlightGatewayFilterFactory.Config config = new SingleFlightGatewayFilterFactory.Config();
+        config.setRouteId(ROUTE);
+        return new SingleFlightGatewayFilterFactory(meterRegistry).apply(config);
+    }
+
+    private static MockServerWebExchange get(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path).accept(MediaType.APPLICATION_JSON));
+    }
+
+    /** Answers the first call with {@code firstStatus} once released, and every later one with 200 right away. */
+    private GatewayFilterChain backend(HttpStatus firstStatus) {
+        return exchange -> {
+            boolean first = upstreamCalls.incrementAndGet() == 1;
+            ServerHttpResponse response = exchange.getResponse();
+            return (first ? answer.asMono() : Mono.<Void>empty()).then(Mono.defer(() -> {
+                response.setStatusCode(first ? firstStatus : HttpStatus.OK);
+                response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                byte[] body = (response.getStatusCode().is2xxSuccessful() ? ORDER : "{}")
+                    .getBytes(StandardCharsets.UTF_8);
+                return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+            }));
+        };
+    }
+
+    private double count(String meter) {
+        return meterRegistry.get(meter).tag("route", ROUTE).counter().count();
+    }
+}
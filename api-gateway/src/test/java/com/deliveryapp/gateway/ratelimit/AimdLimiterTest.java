@@ -0,0 +1,134 @@
+package com.deliveryapp.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** How {@link AimdLimiter} moves its limit with the latency of the responses released. */
+class AimdLimiterTest {
+
+    // long enough that only the first slow response of a test counts
+    private static final long THRESHOLD = TimeUnit.HOURS.toNanos(1);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = THRESHOLD + 1;
+
+    @Test
+    void admitsUpToItsLimit() {
+        AimdLimiter limiter = new AimdLimiter(3, 1, 100, THRESHOLD, 0.5);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(3);
+
+        limiter.release();
+
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void growsWithRoundsOfFastResponses() {
+        AimdLimiter limiter = new AimdLimiter(10, 1, 100, THRESHOLD, 0.5);
+
+        for (int round = 0; round < 10; round++) {
+            int admitted = acquireAll(limiter);
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(FAST, false);
+            }
+        }
+
+        // only the first half of each round's releases see the limit in use: about half a step per round
+        assertThat(limiter.getLimit()).isEqualTo(14);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void doesNotGrowALimitThatIsNotUsed() {
+        AimdLimiter limiter = new AimdLimiter(10, 1, 100, THRESHOLD, 0.5);
+
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void neverGrowsPastItsMaximum() {
+        AimdLimiter limiter = new AimdLimiter(10, 1, 12, THRESHOLD, 0.5);
+
+        for (int round = 0; round < 200; round++) {
+            int admitted = acquireAll(limiter);
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(FAST, false);
+            }
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(12);
+    }
+
+    @Test
+    void cutsTheLimitOnceForABurstOfSlowResponses() {
+        AimdLimiter limiter = new AimdLimiter(20, 1, 100, THRESHOLD, 0.5);
+        acquireAll(limiter);
+
+        limiter.release(SLOW, false);
+        limiter.release(SLOW, false);
+        limiter.release(FAST, true);
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void cutsTheLimitOnAnOverloadSignal() {
+        AimdLimiter limiter = new AimdLimiter(20, 1, 100, THRESHOLD, 0.5);
+        limiter.tryAcquire();
+
+        limiter.release(FAST, true);
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void neverCutsBelowItsMinimum() {
+        AimdLimiter limiter = new AimdLimiter(4, 3, 100, 0, 0.5);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.release(1, false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void leavesTheLimitAloneOnAReleaseWithoutLatency() {
+        AimdLimiter limiter = new AimdLimiter(10, 1, 100, THRESHOLD, 0.5);
+        int admitted = acquireAll(limiter);
+
+        for (int i = 0; i < admitted; i++) {
+            limiter.release();
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void clampsTheInitialLimit() {
+        assertThat(new AimdLimiter(500, 1, 100, THRESHOLD, 0.5).getLimit()).isEqualTo(100);
+        assertThat(new AimdLimiter(0, 2, 100, THRESHOLD, 0.5).getLimit()).isEqualTo(2);
+    }
+
+    private static int acquireAll(AimdLimiter limiter) {
+        int admitted = 0;
+        while (limiter.tryAcquire()) {
+            admitted++;
+        }
+        return admitted;
+    }
+}
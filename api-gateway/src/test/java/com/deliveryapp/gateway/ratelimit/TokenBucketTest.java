@@ -0,0 +1,92 @@
+package com.deliveryapp.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Bursts, refills and refunds of {@link TokenBucket}, on a clock the test moves itself. */
+class TokenBucketTest {
+
+    private static final long START = 1_000_000_000L;
+
+    @Test
+    void letsABurstUpToItsCapacityThrough() {
+        TokenBucket bucket = new TokenBucket(10, 5, START);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryConsume(START)).isTrue();
+        }
+
+        assertThat(bucket.tryConsume(START)).isFalse();
+        assertThat(bucket.remaining(START)).isZero();
+    }
+
+    @Test
+    void refillsAtItsRate() {
+        TokenBucket bucket = new TokenBucket(10, 5, START);
+        drain(bucket, START);
+
+        // 10 per second is one every 100 ms
+        assertThat(bucket.tryConsume(START + millis(99))).isFalse();
+        assertThat(bucket.tryConsume(START + millis(101))).isTrue();
+        assertThat(bucket.tryConsume(START + millis(150))).isFalse();
+        assertThat(bucket.remaining(START + millis(450))).isEqualTo(3);
+    }
+
+    @Test
+    void neverHoldsMoreThanItsCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 5, START);
+        bucket.tryConsume(START);
+
+        long later = START + TimeUnit.MINUTES.toNanos(10);
+
+        assertThat(bucket.isFull(later)).isTrue();
+        assertThat(bucket.remaining(later)).isEqualTo(5);
+        bucket.refund();
+        assertThat(bucket.remaining(later)).isEqualTo(5);
+    }
+
+    @Test
+    void takesARefundedTokenBack() {
+        TokenBucket bucket = new TokenBucket(10, 2, START);
+        drain(bucket, START);
+
+        bucket.refund();
+
+        assertThat(bucket.tryConsume(START)).isTrue();
+        assertThat(bucket.tryConsume(START)).isFalse();
+    }
+
+    @Test
+    void tellsHowManySecondsUntilTheNextToken() {
+        // one token every 4 seconds
+        TokenBucket bucket = new TokenBucket(0.25, 1, START);
+        drain(bucket, START);
+
+        assertThat(bucket.secondsUntilToken(START + millis(500))).isEqualTo(4);
+        assertThat(bucket.secondsUntilToken(START + millis(3500))).isEqualTo(1);
+        // never less than a second, even with a token waiting
+        assertThat(bucket.secondsUntilToken(START + millis(5000))).isEqualTo(1);
+    }
+
+    @Test
+    void ignoresAClockReadingOlderThanItsLastRefill() {
+        TokenBucket bucket = new TokenBucket(10, 1, START);
+        drain(bucket, START + millis(500));
+
+        assertThat(bucket.tryConsume(START)).isFalse();
+        assertThat(bucket.tryConsume(START + millis(650))).isTrue();
+    }
+
+    private static void drain(TokenBucket bucket, long now) {
+        while (bucket.tryConsume(now)) {
+            // empties the bucket
+        }
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
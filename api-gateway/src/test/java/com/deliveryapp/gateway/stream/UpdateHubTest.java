@@ -0,0 +1,265 @@
+package com.deliveryapp.gateway.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Events {@link UpdateHub} sends its subscribers, polling a stand-in for
+ * order-service and delivery-service.
+ */
+class UpdateHubTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String DELIVERY = "lb://delivery-service/api/deliveries/5";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StreamProperties properties = new StreamProperties();
+    private final Map<String, AtomicInteger> reads = new ConcurrentHashMap<>();
+    private volatile Function<URI, ClientResponse> backend = uri -> respond(HttpStatus.NOT_FOUND, "{}");
+
+    @Test
+    void replaysTheLatestStateToALaterSubscriberWithoutAnotherRead() {
+        // only the read made when the poller starts
+        properties.setPollInterval(Duration.ofHours(1));
+        backend = uri -> respond(HttpStatus.OK, order("PENDING", "10:00"));
+        UpdateHub hub = hub();
+        List<ServerSentEvent<JsonNode>> first = new CopyOnWriteArrayList<>();
+        Disposable subscription = hub.subscribe(UpdateHub.ORDERS, 7L).subscribe(first::add);
+        try {
+            await(() -> first.size() == 1);
+
+            ServerSentEvent<JsonNode> replayed = hub.subscribe(UpdateHub.ORDERS, 7L).blockFirst(TIMEOUT);
+
+            assertThat(replayed.event()).isEqualTo("order");
+            assertThat(replayed.data().path("status").asText()).isEqualTo("PENDING");
+            assertThat(reads("/api/orders/7")).isEqualTo(1);
+            assertThat(gauge("gateway.stream.topics")).isEqualTo(1);
+        } finally {
+            subscription.dispose();
+        }
+    }
+
+    @Test
+    void sendsAnOrderOnlyWhenItChangesAndEndsOnAFinalStatus() {
+        properties.setPollInterval(Duration.ofMillis(20));
+        AtomicInteger polls = new AtomicInteger();
+        backend = uri -> {
+            int poll = polls.incrementAndGet();
+            // the same state for a few polls, then one change, then the final status
+            String body = poll < 5 ? order("PENDING", "10:00") : poll < 10 ? order("CONFIRMED", "10:05")
+                : order("COMPLETED", "10:30");
+            return respond(HttpStatus.OK, body);
+        };
+
+        List<ServerSentEvent<JsonNode>> events = hub().subscribe(UpdateHub.ORDERS, 7L).collectList().block(TIMEOUT);
+
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("order", "order", "order", "end");
+        assertThat(events).extracting(e -> e.data().path("status").asText())
+            .startsWith("PENDING", "CONFIRMED", "COMPLETED");
+        assertThat(events.get(3).data().path("reason").asText()).isEqualTo("final-status");
+    }
+
+    @Test
+    void endsTheStreamOfAnEntityThatDoesNotExist() {
+        List<ServerSentEvent<JsonNode>> events = hub().subscribe(UpdateHub.ORDERS, 404L).collectList().block(TIMEOUT);
+
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("end");
+        assertThat(events.get(0).data().path("reason").asText()).isEqualTo("not-found");
+    }
+
+    @Test
+    void retriesAFailedReadOnTheNextTick() {
+        properties.setPollInterval(Duration.ofMillis(20));
+        AtomicInteger polls = new AtomicInteger();
+        backend = uri -> polls.incrementAndGet() < 3
+            ? respond(HttpStatus.SERVICE_UNAVAILABLE, "{}")
+            : respond(HttpStatus.OK, order("CANCELLED", "10:00"));
+
+        List<ServerSentEvent<JsonNode>> events = hub().subscribe(UpdateHub.ORDERS, 7L).collectList().block(TIMEOUT);
+
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("order", "end");
+        assertThat(polls).hasValue(3);
+    }
+
+    @Test
+    void followsTheTrackingLogAndReadsTheDeliveryOnStatusChanges() {
+        properties.setPollInterval(Duration.ofMillis(20));
+        properties.setMaxPointsPerPoll(50);
+        backend = uri -> switch (uri.toString()) {
+            // the first read: the current position and the cursor
+            case DELIVERY + "/track?maxPoints=1" -> respond(HttpStatus.OK,
+                "{\"nextSince\":10,\"points\":[" + location(10) + "]}");
+            case DELIVERY + "/track?since=10&maxPoints=50" -> respond(HttpStatus.OK,
+                "{\"nextSince\":12,\"points\":[" + location(11) + "," + location(12) + "]}");
+            case DELIVERY + "/track?since=12&maxPoints=50" -> respond(HttpStatus.OK,
+                "{\"nextSince\":14,\"points\":[" + location(13) + ",{\"id\":14,\"status\":\"DELIVERED\"}]}");
+            case DELIVERY -> respond(HttpStatus.OK,
+                "{\"id\":5,\"status\":\"" + (reads("/api/deliveries/5") == 1 ? "IN_TRANSIT" : "DELIVERED") + "\"}");
+            default -> respond(HttpStatus.OK, "{\"nextSince\":14,\"points\":[]}");
+        };
+
+        List<ServerSentEvent<JsonNode>> events = hub().subscribe(UpdateHub.DELIVERIES, 5L).collectList().block(TIMEOUT);
+
+        assertThat(events).extracting(ServerSentEvent::event)
+            .containsExactly("location", "delivery", "location", "location", "location", "delivery", "end");
+        assertThat(events).filteredOn(e -> "location".equals(e.event())).extracting(e -> e.data().path("id").asLong())
+            .containsExactly(10L, 11L, 12L, 13L);
+        // read when the stream starts and when the log showed a status entry, not on every poll
+        assertThat(reads("/api/deliveries/5")).isEqualTo(2);
+    }
+
+    @Test
+    void stopsPollingOnceTheLastSubscriberHasLeft() {
+        properties.setPollInterval(Duration.ofMillis(20));
+        properties.setIdleGrace(Duration.ofMillis(50));
+        backend = uri -> respond(HttpStatus.OK, order("PENDING", "10:00"));
+        UpdateHub hub = hub();
+
+        hub.subscribe(UpdateHub.ORDERS, 7L).blockFirst(TIMEOUT);
+        await(() -> gauge("gateway.stream.topics") == 0);
+        int readsAfterStop = reads("/api/orders/7");
+        sleep(200);
+
+        assertThat(reads("/api/orders/7")).isEqualTo(readsAfterStop);
+        assertThat(gauge("gateway.stream.subscribers")).isZero();
+    }
+
+    @Test
+    void dropsTheOldestEventsOfASubscriberThatFallsBehind() {
+        properties.setSubscriberBuffer(16);
+        backend = uri -> {
+            String url = uri.toString();
+            if (url.endsWith("/track?maxPoints=1")) {
+                return respond(HttpStatus.OK, "{\"nextSince\":10,\"points\":[" + location(10) + "]}");
+            }
+            if (url.contains("/track?since=10")) {
+                StringBuilder points = new StringBuilder(location(11));
+                for (long id = 12; id <= 1000; id++) {
+                    points.append(',').append(location(id));
+                }
+                return respond(HttpStatus.OK, "{\"nextSince\":1001,\"points\":[" + points
+                    + ",{\"id\":1001,\"status\":\"DELIVERED\"}]}");
+            }
+            return respond(HttpStatus.OK,
+                "{\"id\":5,\"status\":\"" + (reads("/api/deliveries/5") == 1 ? "IN_TRANSIT" : "DELIVERED") + "\"}");
+        };
+        properties.setPollInterval(Duration.ofMillis(20));
+        List<ServerSentEvent<JsonNode>> received = new CopyOnWriteArrayList<>();
+        AtomicBoolean done = new AtomicBoolean();
+        BaseSubscriber<ServerSentEvent<JsonNode>> slow = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(ServerSentEvent<JsonNode> event) {
+                received.add(event);
+            }
+
+            @Override
+            protected void hookFinally(SignalType type) {
+                done.set(true);
+            }
+        };
+        hub().subscribe(UpdateHub.DELIVERIES, 5L).subscribe(slow);
+
+        // the feed runs to its end while the subscriber takes nothing
+        await(() -> gauge("gateway.stream.topics") == 0);
+        slow.request(Long.MAX_VALUE);
+        await(done::get);
+
+        double dropped = meterRegistry.get("gateway.stream.dropped").counter().count();
+        // 991 locations, 2 deliveries and the end
+        assertThat(dropped).isPositive();
+        assertThat(received.size() + dropped).isEqualTo(994);
+        assertThat(received).extracting(ServerSentEvent::event).endsWith("location", "delivery", "end");
+        assertThat(received.get(received.size() - 3).data().path("id").asLong()).isEqualTo(1000);
+    }
+
+    @Test
+    void sendsHeartbeatsOnAnIdleStream() {
+        properties.setPollInterval(Duration.ofHours(1));
+        properties.setHeartbeat(Duration.ofMillis(20));
+        backend = uri -> respond(HttpStatus.OK, order("PENDING", "10:00"));
+
+        List<ServerSentEvent<JsonNode>> events = hub().subscribe(UpdateHub.ORDERS, 7L).take(3).collectList().block(TIMEOUT);
+
+        assertThat(events.get(0).event()).isEqualTo("order");
+        assertThat(events.subList(1, 3)).allSatisfy(e -> assertThat(e.comment()).isEqualTo("keep-alive"));
+    }
+
+    private UpdateHub hub() {
+        WebClient.Builder webClient = WebClient.builder().exchangeFunction(request -> {
+            reads.computeIfAbsent(request.url().getPath(), path -> new AtomicInteger()).incrementAndGet();
+            return Mono.fromSupplier(() -> backend.apply(request.url()));
+        });
+        return new UpdateHub(webClient, properties, meterRegistry);
+    }
+
+    private int reads(String path) {
+        AtomicInteger count = reads.get(path);
+        return count != null ? count.get() : 0;
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private static ClientResponse respond(HttpStatus status, String json) {
+        return ClientResponse.create(status)
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .body(json)
+            .build();
+    }
+
+    private static String order(String status, String updatedAt) {
+        return "{\"id\":7,\"status\":\"" + status + "\",\"updatedAt\":\"2026-03-02T" + updatedAt + ":00\"}";
+    }
+
+    private static String location(long id) {
+        return "{\"id\":" + id + ",\"status\":\"LOCATION\",\"latitude\":48.845,\"longitude\":2.295}";
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            sleep(10);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
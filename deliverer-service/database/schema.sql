@@ -128,6 +128,9 @@ CREATE TABLE IF NOT EXISTS deliverer_performance (
     successful_deliveries INTEGER DEFAULT 0,
     failed_deliveries INTEGER DEFAULT 0,
     average_delivery_time INTEGER, -- in minutes
+    total_delivery_time INTEGER DEFAULT 0, -- in minutes, over timed_deliveries
+    timed_deliveries INTEGER DEFAULT 0, -- deliveries with a known duration
+    duration_histogram TEXT, -- comma-separated counts per duration bucket, see DurationHistogram
     total_distance DECIMAL(10, 2), -- in km
     average_rating DECIMAL(3, 2),
     customer_complaints INTEGER DEFAULT 0,
@@ -138,6 +141,14 @@ CREATE TABLE IF NOT EXISTS deliverer_performance (
     FOREIGN KEY (deliverer_id) REFERENCES deliverers(id) ON DELETE CASCADE
 );
 
+-- Table: deliverer_processed_deliveries
+-- Deliveries already counted in deliverer_performance; makes redelivered completion events harmless
+CREATE TABLE IF NOT EXISTS deliverer_processed_deliveries (
+    delivery_id INTEGER PRIMARY KEY, -- Reference to delivery in Delivery Service
+    deliverer_id INTEGER NOT NULL,
+    processed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
 -- Table: deliverer_ratings
 CREATE TABLE IF NOT EXISTS deliverer_ratings (
     id INTEGER PRIMARY KEY AUTOINCREMENT,
@@ -164,8 +175,11 @@ CREATE INDEX IF NOT EXISTS idx_deliverer_shifts_shift_date ON deliverer_shifts(s
 CREATE INDEX IF NOT EXISTS idx_deliverer_shifts_status ON deliverer_shifts(status);
 CREATE INDEX IF NOT EXISTS idx_deliverer_locations_deliverer_id ON deliverer_locations(deliverer_id);
 CREATE INDEX IF NOT EXISTS idx_deliverer_locations_timestamp ON deliverer_locations(timestamp);
+CREATE INDEX IF NOT EXISTS idx_deliverer_locations_latest ON deliverer_locations(deliverer_id, id);
 CREATE INDEX IF NOT EXISTS idx_deliverer_performance_deliverer_id ON deliverer_performance(deliverer_id);
 CREATE INDEX IF NOT EXISTS idx_deliverer_performance_period ON deliverer_performance(period_start, period_end);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_deliverer_performance_deliverer_period ON deliverer_performance(deliverer_id, period_start, period_end);
+CREATE INDEX IF NOT EXISTS idx_deliverer_processed_deliveries_processed_at ON deliverer_processed_deliveries(processed_at);
 CREATE INDEX IF NOT EXISTS idx_deliverer_ratings_deliverer_id ON deliverer_ratings(deliverer_id);
 CREATE INDEX IF NOT EXISTS idx_deliverer_ratings_delivery_id ON deliverer_ratings(delivery_id);
 
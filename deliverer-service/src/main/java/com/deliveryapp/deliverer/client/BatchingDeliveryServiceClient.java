@@ -0,0 +1,58 @@
+package com.deliveryapp.deliverer.client;
+
+import com.deliveryapp.deliverer.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link DeliveryServiceClient} injected everywhere. Lookups by id made
+ * concurrently are sent to delivery-service as one batch request; everything
+ * else goes straight to the Feign client.
+ */
+@Component
+@Primary
+public class BatchingDeliveryServiceClient implements DeliveryServiceClient {
+
+    private final DeliveryServiceClient feignClient;
+    private final BatchingLoader<Long, DeliveryDTO> deliveries;
+
+    public BatchingDeliveryServiceClient(@Qualifier("deliveryServiceFeignClient") DeliveryServiceClient feignClient,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${app.downstream.batching.window:5ms}") Duration window,
+                                         @Value("${app.downstream.batching.max-batch-size:100}") int maxBatchSize) {
+        this.feignClient = feignClient;
+        this.deliveries = new BatchingLoader<>("delivery-service",
+                ids -> feignClient.getDeliveriesByIds(ids).stream()
+                        .collect(Collectors.toMap(DeliveryDTO::getId, Function.identity(), (a, b) -> a)),
+                window, maxBatchSize, meterRegistry);
+    }
+
+    /** @throws ResourceNotFoundException if delivery-service has no such delivery */
+    @Override
+    public DeliveryDTO getDeliveryById(Long id) {
+        DeliveryDTO delivery = deliveries.load(id);
+        if (delivery == null) {
+            throw new ResourceNotFoundException("Delivery not found with ID: " + id);
+        }
+        return delivery;
+    }
+
+    @Override
+    public List<DeliveryDTO> getDeliveriesByIds(Collection<Long> ids) {
+        return feignClient.getDeliveriesByIds(ids);
+    }
+
+    @Override
+    public List<DeliveryDTO> getDeliveriesByDelivererId(Long delivererId) {
+        return feignClient.getDeliveriesByDelivererId(delivererId);
+    }
+}
@@ -0,0 +1,120 @@
+package com.deliveryapp.deliverer.client;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Coalesces single-key lookups made at about the same time into one batch
+ * call. The first lookup of a batch waits up to the window for others to
+ * join, or until the batch is full, then makes the batch call on its own
+ * thread and hands every waiting caller its value. No extra threads are
+ * involved, and a lookup alone in its window costs one window of latency.
+ *
+ * <p>Batch sizes are recorded as {@code deliverer.downstream.batch.size}.
+ */
+public class BatchingLoader<K, V> {
+
+    private final Function<List<K>, Map<K, V>> batchCall;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSizes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Batch<K, V> open;
+
+    /**
+     * @param batchCall loads the values of a list of distinct keys; keys
+     *                  without a value are left out of the returned map
+     */
+    public BatchingLoader(String service, Function<List<K>, Map<K, V>> batchCall,
+                          Duration window, int maxBatchSize, MeterRegistry meterRegistry) {
+        this.batchCall = batchCall;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizes = DistributionSummary.builder("deliverer.downstream.batch.size")
+                .description("Keys per coalesced batch call")
+                .tag("service", service)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the value of the key, or null if the batch call returned none
+     * @throws RuntimeException the error of the batch call, if it failed
+     */
+    public V load(K key) {
+        Batch<K, V> batch;
+        CompletableFuture<V> result;
+        boolean leader = false;
+        lock.lock();
+        try {
+            if (open == null) {
+                open = new Batch<>();
+                leader = true;
+            }
+            batch = open;
+            result = batch.pending.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (batch.pending.size() >= maxBatchSize) {
+                open = null;
+                batch.full.countDown();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (leader) {
+            awaitWindow(batch);
+            execute(batch);
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private void awaitWindow(Batch<K, V> batch) {
+        try {
+            batch.full.await(windowNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            if (open == batch) {
+                open = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Runs once the batch is closed, so its keys no longer change. */
+    private void execute(Batch<K, V> batch) {
+        batchSizes.record(batch.pending.size());
+        try {
+            Map<K, V> values = batchCall.apply(new ArrayList<>(batch.pending.keySet()));
+            batch.pending.forEach((key, future) -> future.complete(values.get(key)));
+        } catch (RuntimeException e) {
+            batch.pending.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private static final class Batch<K, V> {
+
+        /** Guarded by the loader's lock until the batch is closed. */
+        private final Map<K, CompletableFuture<V>> pending = new HashMap<>();
+        private final CountDownLatch full = new CountDownLatch(1);
+    }
+}
@@ -5,13 +5,15 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Feign Client to communicate with Delivery Service via Eureka
- * The name "delivery-service" is resolved by Eureka Service Discovery
+ * The name "delivery-service" is resolved by Eureka Service Discovery.
+ * Callers get {@link BatchingDeliveryServiceClient}, which coalesces lookups by id.
  */
-@FeignClient(name = "delivery-service")
+@FeignClient(name = "delivery-service", qualifiers = "deliveryServiceFeignClient", primary = false)
 public interface DeliveryServiceClient {
     
     @GetMapping("/api/deliveries/{id}")
@@ -19,6 +21,10 @@ public interface DeliveryServiceClient {
     
     @GetMapping("/api/deliveries")
     List<DeliveryDTO> getDeliveriesByDelivererId(@RequestParam("delivererId") Long delivererId);
+    
+    /** At most 200 ids; unknown ids are left out of the result. */
+    @GetMapping("/api/deliveries")
+    List<DeliveryDTO> getDeliveriesByIds(@RequestParam("ids") Collection<Long> ids);
 }
 
 // DTO for communication
@@ -0,0 +1,106 @@
+package com.deliveryapp.deliverer.config;
+
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.support.RetryTemplate;
+
+/**
+ * RabbitMQ topology for delivery events and a listener container factory
+ * that hands messages to listeners in batches.
+ */
+@Configuration
+public class MessagingConfig {
+
+    @Bean
+    public TopicExchange deliveryExchange(@Value("${app.messaging.delivery-exchange}") String name) {
+        return new TopicExchange(name, true, false);
+    }
+
+    /**
+     * Rejected completion events are dead-lettered rather than lost. A queue
+     * declared before without these arguments must be deleted once, since
+     * RabbitMQ refuses to redeclare it with different ones.
+     */
+    @Bean
+    public Queue deliveryFinishedQueue(@Value("${app.messaging.delivery-finished-queue}") String name,
+                                       @Value("${app.messaging.dead-letter-exchange}") String deadLetterExchange,
+                                       @Value("${app.messaging.delivery-finished-dead-letter-queue}") String deadLetterQueue) {
+        return QueueBuilder.durable(name)
+                .deadLetterExchange(deadLetterExchange)
+                .deadLetterRoutingKey(deadLetterQueue)
+                .build();
+    }
+
+    @Bean
+    public DirectExchange deadLetterExchange(@Value("${app.messaging.dead-letter-exchange}") String name) {
+        return new DirectExchange(name, true, false);
+    }
+
+    @Bean
+    public Queue deliveryFinishedDeadLetterQueue(
+            @Value("${app.messaging.delivery-finished-dead-letter-queue}") String name) {
+        return QueueBuilder.durable(name).build();
+    }
+
+    @Bean
+    public Binding deliveryFinishedDeadLetterBinding(Queue deliveryFinishedDeadLetterQueue,
+                                                     DirectExchange deadLetterExchange) {
+        return BindingBuilder.bind(deliveryFinishedDeadLetterQueue).to(deadLetterExchange)
+                .with(deliveryFinishedDeadLetterQueue.getName());
+    }
+
+    @Bean
+    public Binding deliveryFinishedBinding(Queue deliveryFinishedQueue, TopicExchange deliveryExchange,
+                                           @Value("${app.messaging.delivery-finished-routing-key}") String routingKey) {
+        return BindingBuilder.bind(deliveryFinishedQueue).to(deliveryExchange).with(routingKey);
+    }
+
+    @Bean
+    public MessageConverter jsonMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory batchListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter jsonMessageConverter,
+            @Value("${app.messaging.batch-size:200}") int batchSize,
+            @Value("${app.messaging.batch-receive-timeout:500}") long receiveTimeout) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(jsonMessageConverter);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(batchSize);
+        // Deliver a partial batch once no new message arrives within this time
+        factory.setReceiveTimeout(receiveTimeout);
+        // listeners retry themselves; a batch they give up on goes to the dead-letter exchange
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+
+    /** Retries of single events by listeners whose batch failed. */
+    @Bean
+    public RetryTemplate listenerRetryTemplate(
+            @Value("${app.messaging.retry.max-attempts:3}") int maxAttempts,
+            @Value("${app.messaging.retry.initial-interval:200}") long initialInterval,
+            @Value("${app.messaging.retry.multiplier:5}") double multiplier,
+            @Value("${app.messaging.retry.max-interval:5000}") long maxInterval) {
+        return RetryTemplate.builder()
+                .maxAttempts(maxAttempts)
+                .exponentialBackoff(initialInterval, multiplier, maxInterval)
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.deliveryapp.deliverer.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.Set;
+
+/**
+ * Lets services exchange Smile, Jackson's binary encoding of JSON, instead of
+ * JSON text. Responses are content-negotiated: a request accepting
+ * {@value #SMILE} gets Smile, anything else keeps getting JSON. The Smile
+ * converter is built from Boot's ObjectMapper settings, so both encodings
+ * carry the same fields and date formats.
+ *
+ * <p>Feign clients named in {@code app.feign.binary-clients} ask for Smile,
+ * with JSON as the fallback for a service that cannot produce it. Request
+ * bodies stay JSON: Feign encodes them before interceptors run.
+ *
+ * <p>order-service and delivery-service carry the same class: each of the three both answers
+ * and makes Feign calls, and each service is built on its own, from its
+ * own directory, with no module shared between them. Keep the copies alike.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    public static final String SMILE = "application/x-jackson-smile";
+
+    private static final String SMILE_OR_JSON = SMILE + ", application/json;q=0.9";
+
+    /** Replaces Spring's default Smile converter, which ignores the spring.jackson.* settings. */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public RequestInterceptor binaryWireFormatInterceptor(@Value("${app.feign.binary-clients:}") Set<String> binaryClients) {
+        return template -> {
+            if (template.feignTarget() != null && binaryClients.contains(template.feignTarget().name())) {
+                template.removeHeader(HttpHeaders.ACCEPT);
+                template.header(HttpHeaders.ACCEPT, SMILE_OR_JSON);
+            }
+        };
+    }
+}
@@ -1,7 +1,11 @@
 package com.deliveryapp.deliverer.controller;
 
 import com.deliveryapp.deliverer.dto.DelivererDTO;
+import com.deliveryapp.deliverer.dto.DelivererPositionDTO;
+import com.deliveryapp.deliverer.dto.LocationUpdateDTO;
+import com.deliveryapp.deliverer.exception.BadRequestException;
 import com.deliveryapp.deliverer.service.DelivererService;
+import com.deliveryapp.deliverer.service.LocationTracker;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,7 +21,10 @@ import java.util.List;
 @Slf4j
 public class DelivererController {
 
+    private static final int MAX_BATCH_IDS = 200;
+
     private final DelivererService delivererService;
+    private final LocationTracker locationTracker;
 
     @PostMapping
     public ResponseEntity<DelivererDTO> create(@Valid @RequestBody DelivererDTO dto) {
@@ -38,12 +45,31 @@ public class DelivererController {
         return ResponseEntity.ok(delivererService.getAll());
     }
 
+    /**
+     * Batch lookup for other services: the deliverers with the given ids, at
+     * most {@value #MAX_BATCH_IDS} per request. Unknown ids are left out.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<DelivererDTO>> getByIds(@RequestParam List<Long> ids) {
+        log.info("REST request to get {} deliverers by ID", ids.size());
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new BadRequestException("At most " + MAX_BATCH_IDS + " ids per request");
+        }
+        return ResponseEntity.ok(delivererService.getByIds(ids));
+    }
+
     @GetMapping("/available")
     public ResponseEntity<List<DelivererDTO>> getAvailable() {
         log.info("REST request to get available deliverers");
         return ResponseEntity.ok(delivererService.getAvailable());
     }
 
+    @GetMapping("/available/positions")
+    public ResponseEntity<List<DelivererPositionDTO>> getAvailablePositions() {
+        log.info("REST request to get positions of available deliverers");
+        return ResponseEntity.ok(delivererService.getAvailablePositions());
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<DelivererDTO> update(
             @PathVariable Long id,
@@ -65,6 +91,24 @@ public class DelivererController {
         return ResponseEntity.ok(delivererService.getLocation(id));
     }
 
+    @PostMapping("/{id}/location")
+    public ResponseEntity<Void> recordLocation(
+            @PathVariable Long id,
+            @Valid @RequestBody LocationUpdateDTO update) {
+        log.debug("REST request to record location for deliverer ID: {}", id);
+        locationTracker.record(id, update);
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping("/locations")
+    public ResponseEntity<java.util.Map<String, Object>> recordLocations(@RequestBody List<LocationUpdateDTO> updates) {
+        log.debug("REST request to record {} deliverer locations", updates.size());
+        int accepted = locationTracker.recordAll(updates);
+        return ResponseEntity.accepted().body(java.util.Map.of(
+                "accepted", accepted,
+                "rejected", updates.size() - accepted));
+    }
+
     @GetMapping("/{id}/performance")
     public ResponseEntity<java.util.Map<String, Object>> getPerformance(@PathVariable Long id) {
         log.info("REST request to get performance for deliverer ID: {}", id);
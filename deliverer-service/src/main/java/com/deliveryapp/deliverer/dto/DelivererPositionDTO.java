@@ -0,0 +1,24 @@
+package com.deliveryapp.deliverer.dto;
+
+import com.deliveryapp.deliverer.entity.VehicleType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last known position of an available deliverer, used by delivery-service
+ * to build its assignment index.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DelivererPositionDTO {
+
+    private Long delivererId;
+    private VehicleType vehicleType;
+    private double latitude;
+    private double longitude;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,37 @@
+package com.deliveryapp.deliverer.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A GPS ping from a deliverer's device. {@code delivererId} is only read by
+ * the bulk endpoint; {@code timestamp} defaults to the time of receipt.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationUpdateDTO {
+
+    private Long delivererId;
+
+    @NotNull(message = "Latitude is required")
+    @DecimalMin("-90.0")
+    @DecimalMax("90.0")
+    private Double latitude;
+
+    @NotNull(message = "Longitude is required")
+    @DecimalMin("-180.0")
+    @DecimalMax("180.0")
+    private Double longitude;
+
+    private Double accuracy;
+    private Double speed;
+    private Double heading;
+    private LocalDateTime timestamp;
+}
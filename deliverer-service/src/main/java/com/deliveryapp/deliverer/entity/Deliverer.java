@@ -79,13 +79,15 @@ public class Deliverer {
     @Column(precision = 3, scale = 2)
     private BigDecimal rating = BigDecimal.ZERO;
 
-    @Column(name = "total_deliveries")
+    // Maintained by PerformanceAggregator with increments; never written back from a loaded entity
+
+    @Column(name = "total_deliveries", updatable = false)
     private Integer totalDeliveries = 0;
 
-    @Column(name = "successful_deliveries")
+    @Column(name = "successful_deliveries", updatable = false)
     private Integer successfulDeliveries = 0;
 
-    @Column(name = "failed_deliveries")
+    @Column(name = "failed_deliveries", updatable = false)
     private Integer failedDeliveries = 0;
 
     @Column(name = "profile_photo_url", length = 500)
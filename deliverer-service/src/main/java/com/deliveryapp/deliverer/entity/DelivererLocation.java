@@ -0,0 +1,45 @@
+package com.deliveryapp.deliverer.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "deliverer_locations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DelivererLocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "deliverer_id", nullable = false)
+    private Long delivererId;
+
+    @Column(nullable = false, precision = 10, scale = 8)
+    private BigDecimal latitude;
+
+    @Column(nullable = false, precision = 11, scale = 8)
+    private BigDecimal longitude;
+
+    @Column(name = "location_name")
+    private String locationName;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal accuracy;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal speed;
+
+    @Column(precision = 5, scale = 2)
+    private BigDecimal heading;
+
+    @Column(name = "timestamp")
+    private LocalDateTime timestamp;
+}
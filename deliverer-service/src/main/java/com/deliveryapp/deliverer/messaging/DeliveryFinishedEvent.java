@@ -0,0 +1,32 @@
+package com.deliveryapp.deliverer.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Consumed from delivery-service when a delivery reaches DELIVERED or
+ * FAILED. Duration and distance are null when delivery-service did not know
+ * them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryFinishedEvent {
+
+    public static final String DELIVERED = "DELIVERED";
+
+    private Long deliveryId;
+    private String deliveryNumber;
+    private Long delivererId;
+    /** DELIVERED or FAILED */
+    private String outcome;
+    private LocalDateTime pickedUpAt;
+    private LocalDateTime finishedAt;
+    /** Minutes from pickup to the end of the delivery. */
+    private Integer durationMinutes;
+    private BigDecimal distanceKm;
+}
@@ -0,0 +1,56 @@
+package com.deliveryapp.deliverer.messaging;
+
+import com.deliveryapp.deliverer.service.PerformanceAggregator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feeds finished deliveries into the deliverers' performance aggregates.
+ * Messages are received in batches and applied in one transaction; if that
+ * fails, the batch is retried one event at a time, with backoff, so a
+ * single bad event cannot block the others.
+ *
+ * <p>If some events still fail, the whole batch is rejected and RabbitMQ
+ * moves it to the dead-letter queue. Sending it back to the main queue is
+ * safe: deliveries already recorded are skipped.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeliveryFinishedListener {
+
+    private final PerformanceAggregator performanceAggregator;
+    private final RetryTemplate listenerRetryTemplate;
+
+    @RabbitListener(queues = "${app.messaging.delivery-finished-queue}", containerFactory = "batchListenerContainerFactory")
+    public void onDeliveriesFinished(List<DeliveryFinishedEvent> events) {
+        log.debug("Received {} delivery-finished events", events.size());
+        try {
+            performanceAggregator.record(events);
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} delivery-finished events failed, retrying individually", events.size(), e);
+        }
+
+        List<Long> failed = new ArrayList<>();
+        for (DeliveryFinishedEvent event : events) {
+            try {
+                listenerRetryTemplate.execute(context -> performanceAggregator.record(List.of(event)));
+            } catch (RuntimeException e) {
+                log.error("Could not record finished delivery {}", event.getDeliveryId(), e);
+                failed.add(event.getDeliveryId());
+            }
+        }
+        if (!failed.isEmpty()) {
+            throw new AmqpRejectAndDontRequeueException("Finished deliveries " + failed
+                    + " could not be recorded; dead-lettering the batch of " + events.size());
+        }
+    }
+}
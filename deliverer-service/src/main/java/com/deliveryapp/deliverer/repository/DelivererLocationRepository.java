@@ -0,0 +1,22 @@
+package com.deliveryapp.deliverer.repository;
+
+import com.deliveryapp.deliverer.entity.DelivererLocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DelivererLocationRepository extends JpaRepository<DelivererLocation, Long> {
+
+    Optional<DelivererLocation> findFirstByDelivererIdOrderByIdDesc(Long delivererId);
+
+    /** Most recent location of each of the given deliverers. */
+    @Query("SELECT l FROM DelivererLocation l WHERE l.delivererId IN :delivererIds AND l.id = " +
+           "(SELECT MAX(l2.id) FROM DelivererLocation l2 WHERE l2.delivererId = l.delivererId)")
+    List<DelivererLocation> findLatestByDelivererIdIn(@Param("delivererIds") Collection<Long> delivererIds);
+}
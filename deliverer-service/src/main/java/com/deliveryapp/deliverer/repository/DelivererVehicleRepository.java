@@ -4,6 +4,7 @@ import com.deliveryapp.deliverer.entity.DelivererVehicle;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +13,6 @@ public interface DelivererVehicleRepository extends JpaRepository<DelivererVehic
     List<DelivererVehicle> findByDeliverer_IdAndIsActiveTrue(Long delivererId);
 
     List<DelivererVehicle> findByDeliverer_Id(Long delivererId);
+
+    List<DelivererVehicle> findByDeliverer_IdInAndIsActiveTrue(Collection<Long> delivererIds);
 }
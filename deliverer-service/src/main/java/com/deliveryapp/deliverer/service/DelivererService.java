@@ -1,22 +1,28 @@
 package com.deliveryapp.deliverer.service;
 
 import com.deliveryapp.deliverer.dto.DelivererDTO;
+import com.deliveryapp.deliverer.dto.DelivererPositionDTO;
 import com.deliveryapp.deliverer.entity.Deliverer;
+import com.deliveryapp.deliverer.entity.DelivererLocation;
 import com.deliveryapp.deliverer.entity.DelivererStatus;
 import com.deliveryapp.deliverer.entity.DelivererVehicle;
 import com.deliveryapp.deliverer.entity.VehicleType;
 import com.deliveryapp.deliverer.exception.DuplicateResourceException;
 import com.deliveryapp.deliverer.exception.ResourceNotFoundException;
+import com.deliveryapp.deliverer.generator.IdGenerator;
+import com.deliveryapp.deliverer.repository.DelivererLocationRepository;
 import com.deliveryapp.deliverer.repository.DelivererRepository;
 import com.deliveryapp.deliverer.repository.DelivererVehicleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +36,12 @@ public class DelivererService {
 
     private final DelivererRepository delivererRepository;
     private final DelivererVehicleRepository vehicleRepository;
+    private final DelivererLocationRepository locationRepository;
+    private final LocationTracker locationTracker;
+    private final VehicleTypeCache vehicleTypeCache;
+    private final PerformanceAggregator performanceAggregator;
+    private final IdGenerator idGenerator;
+    private final ApplicationEventPublisher eventPublisher;
 
     public DelivererDTO create(DelivererDTO dto) {
         log.info("Creating deliverer with email: {}", dto.getEmail());
@@ -69,6 +81,7 @@ public class DelivererService {
             v.setLicensePlate("PENDING-" + saved.getId());
             v.setIsActive(true);
             vehicleRepository.save(v);
+            eventPublisher.publishEvent(VehiclesChangedEvent.of(saved.getId()));
         }
 
         log.info("Deliverer created: {}", saved.getEmployeeNumber());
@@ -82,16 +95,63 @@ public class DelivererService {
         return toDto(d);
     }
 
+    /** Deliverers with the given ids, in no particular order; unknown ids are left out. */
+    @Transactional(readOnly = true)
+    public List<DelivererDTO> getByIds(Collection<Long> ids) {
+        return toDtos(delivererRepository.findAllById(ids));
+    }
+
     @Transactional(readOnly = true)
     public List<DelivererDTO> getAll() {
-        return delivererRepository.findAll().stream().map(this::toDto).collect(Collectors.toList());
+        return toDtos(delivererRepository.findAll());
     }
 
     @Transactional(readOnly = true)
     public List<DelivererDTO> getAvailable() {
-        return delivererRepository.findByStatus(DelivererStatus.ACTIVE).stream()
-                .map(this::toDto)
+        return toDtos(delivererRepository.findByStatus(DelivererStatus.ACTIVE));
+    }
+
+    /**
+     * Latest positions of all ACTIVE deliverers that have reported one, with
+     * their active vehicle type. Vehicle types not cached are loaded with one
+     * query, and so are any positions not already held by the location tracker.
+     */
+    @Transactional(readOnly = true)
+    public List<DelivererPositionDTO> getAvailablePositions() {
+        List<Long> ids = delivererRepository.findByStatus(DelivererStatus.ACTIVE).stream()
+                .map(Deliverer::getId)
                 .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, VehicleType> vehicleTypes = vehicleTypeCache.getAll(ids);
+
+        // Positions reported since startup are in memory; only the rest come from the database
+        List<DelivererLocation> locations = new ArrayList<>(ids.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            DelivererLocation l = locationTracker.getLatest(id);
+            if (l != null) {
+                locations.add(l);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            locations.addAll(locationRepository.findLatestByDelivererIdIn(missing));
+        }
+
+        List<DelivererPositionDTO> positions = new ArrayList<>(locations.size());
+        for (DelivererLocation l : locations) {
+            positions.add(new DelivererPositionDTO(
+                    l.getDelivererId(),
+                    vehicleTypes.get(l.getDelivererId()),
+                    l.getLatitude().doubleValue(),
+                    l.getLongitude().doubleValue(),
+                    l.getTimestamp()));
+        }
+        return positions;
     }
 
     public DelivererDTO update(Long id, DelivererDTO dto) {
@@ -124,18 +184,28 @@ public class DelivererService {
             throw new ResourceNotFoundException("Deliverer not found with ID: " + id);
         }
         delivererRepository.deleteById(id);
+        locationTracker.forget(id);
+        eventPublisher.publishEvent(VehiclesChangedEvent.of(id));
         log.info("Deliverer deleted: {}", id);
     }
 
     @Transactional(readOnly = true)
     public Map<String, Object> getLocation(Long id) {
-        Deliverer d = delivererRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Deliverer not found with ID: " + id));
+        DelivererLocation l = locationTracker.getLatest(id);
+        if (l == null) {
+            if (!delivererRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Deliverer not found with ID: " + id);
+            }
+            l = locationRepository.findFirstByDelivererIdOrderByIdDesc(id).orElse(null);
+        }
         Map<String, Object> map = new HashMap<>();
-        map.put("delivererId", d.getId());
-        map.put("latitude", null);
-        map.put("longitude", null);
-        map.put("updatedAt", null);
+        map.put("delivererId", id);
+        map.put("latitude", l != null ? l.getLatitude() : null);
+        map.put("longitude", l != null ? l.getLongitude() : null);
+        map.put("accuracy", l != null ? l.getAccuracy() : null);
+        map.put("speed", l != null ? l.getSpeed() : null);
+        map.put("heading", l != null ? l.getHeading() : null);
+        map.put("updatedAt", l != null ? l.getTimestamp() : null);
         return map;
     }
 
@@ -143,22 +213,43 @@ public class DelivererService {
     public Map<String, Object> getPerformance(Long id) {
         Deliverer d = delivererRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Deliverer not found with ID: " + id));
+        int total = d.getTotalDeliveries() != null ? d.getTotalDeliveries() : 0;
+        int successful = d.getSuccessfulDeliveries() != null ? d.getSuccessfulDeliveries() : 0;
         Map<String, Object> map = new HashMap<>();
-        map.put("totalDeliveries", d.getTotalDeliveries() != null ? d.getTotalDeliveries() : 0);
-        map.put("successfulDeliveries", d.getSuccessfulDeliveries() != null ? d.getSuccessfulDeliveries() : 0);
+        map.put("totalDeliveries", total);
+        map.put("successfulDeliveries", successful);
         map.put("failedDeliveries", d.getFailedDeliveries() != null ? d.getFailedDeliveries() : 0);
+        map.put("successRate", PerformanceAggregator.successRate(successful, total));
         map.put("rating", d.getRating() != null ? d.getRating() : BigDecimal.ZERO);
         map.put("delivererId", d.getId());
+        map.put("last7Days", performanceAggregator.window(id, 7));
+        map.put("last30Days", performanceAggregator.window(id, 30));
         return map;
     }
 
     private String generateEmployeeNumber() {
-        String ts = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long n = delivererRepository.count() + 1;
-        return "DLV-" + ts + "-" + String.format("%04d", n);
+        return "DLV-" + idGenerator.nextId();
     }
 
     private DelivererDTO toDto(Deliverer d) {
+        return toDto(d, vehicleTypeCache.get(d.getId()));
+    }
+
+    /** Converts a list, looking up the vehicle types of all its deliverers at once. */
+    private List<DelivererDTO> toDtos(List<Deliverer> deliverers) {
+        if (deliverers.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, VehicleType> vehicleTypes = vehicleTypeCache.getAll(
+                deliverers.stream().map(Deliverer::getId).collect(Collectors.toList()));
+        List<DelivererDTO> dtos = new ArrayList<>(deliverers.size());
+        for (Deliverer d : deliverers) {
+            dtos.add(toDto(d, vehicleTypes.get(d.getId())));
+        }
+        return dtos;
+    }
+
+    private static DelivererDTO toDto(Deliverer d, VehicleType vehicleType) {
         DelivererDTO o = new DelivererDTO();
         o.setId(d.getId());
         o.setEmployeeNumber(d.getEmployeeNumber());
@@ -183,9 +274,7 @@ public class DelivererService {
         o.setProfilePhotoUrl(d.getProfilePhotoUrl());
         o.setCreatedAt(d.getCreatedAt());
         o.setUpdatedAt(d.getUpdatedAt());
-
-        vehicleRepository.findByDeliverer_Id(d.getId()).stream().findFirst()
-                .ifPresent(v -> o.setVehicleType(v.getVehicleType()));
+        o.setVehicleType(vehicleType);
 
         return o;
     }
@@ -0,0 +1,73 @@
+package com.deliveryapp.deliverer.service;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Counts of delivery durations in fixed minute buckets. Histograms of
+ * different days add up, which lets percentiles over a window be computed
+ * from the daily rows alone. Stored as comma-separated counts.
+ */
+final class DurationHistogram {
+
+    /** Upper bounds of the buckets in minutes; a last, open bucket holds everything longer. */
+    static final int[] BOUNDS = {5, 10, 15, 20, 25, 30, 40, 50, 60, 75, 90, 120, 180, 240};
+
+    private final long[] counts = new long[BOUNDS.length + 1];
+
+    static DurationHistogram parse(String stored) {
+        DurationHistogram histogram = new DurationHistogram();
+        if (stored != null && !stored.isBlank()) {
+            String[] parts = stored.split(",");
+            // a histogram written with fewer buckets keeps its counts in the leading ones
+            for (int i = 0; i < Math.min(parts.length, histogram.counts.length); i++) {
+                histogram.counts[i] = Long.parseLong(parts[i].trim());
+            }
+        }
+        return histogram;
+    }
+
+    void add(int minutes) {
+        int bucket = Arrays.binarySearch(BOUNDS, minutes);
+        counts[bucket >= 0 ? bucket : -bucket - 1]++;
+    }
+
+    void merge(DurationHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+
+    long count() {
+        return Arrays.stream(counts).sum();
+    }
+
+    /**
+     * Estimates the {@code q} quantile, interpolating linearly within its
+     * bucket. Returns null for an empty histogram; durations in the open
+     * bucket are reported as its lower bound.
+     */
+    Integer percentile(double q) {
+        long total = count();
+        if (total == 0) {
+            return null;
+        }
+        double rank = q * total;
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0 && seen + counts[i] >= rank) {
+                if (i == BOUNDS.length) {
+                    return BOUNDS[BOUNDS.length - 1];
+                }
+                int lower = i == 0 ? 0 : BOUNDS[i - 1];
+                return (int) Math.round(lower + (BOUNDS[i] - lower) * (rank - seen) / counts[i]);
+            }
+            seen += counts[i];
+        }
+        return BOUNDS[BOUNDS.length - 1];
+    }
+
+    String format() {
+        return Arrays.stream(counts).mapToObj(Long::toString).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,294 @@
+package com.deliveryapp.deliverer.service;
+
+import com.deliveryapp.deliverer.dto.LocationUpdateDTO;
+import com.deliveryapp.deliverer.entity.Deliverer;
+import com.deliveryapp.deliverer.entity.DelivererLocation;
+import com.deliveryapp.deliverer.exception.ResourceNotFoundException;
+import com.deliveryapp.deliverer.repository.DelivererRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ingests deliverer GPS pings. The latest position per deliverer is kept in
+ * a concurrent map and served from memory; every ping is also queued and a
+ * scheduled flusher appends the queued pings to deliverer_locations as one
+ * JDBC batch per run. When the queue is full, history rows are dropped (and
+ * counted) but the latest position is still updated.
+ *
+ * <p>A batch that fails to write is held and tried again on later runs,
+ * with exponential backoff, ahead of the pings queued behind it. After
+ * {@code app.locations.max-attempts} failures its pings are written one at
+ * a time, so only those that cannot be written are dropped. Pings of
+ * deliverers deleted in the meantime are left out of every write.
+ */
+@Service
+@Slf4j
+public class LocationTracker {
+
+    private static final String INSERT_LOCATION =
+            "INSERT INTO deliverer_locations (deliverer_id, latitude, longitude, accuracy, speed, heading, timestamp) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final long FORGOTTEN_RETENTION_MILLIS = 5 * 60 * 1000;
+
+    private final DelivererRepository delivererRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int flushBatchSize;
+    private final int maxAttempts;
+    private final long retryInitialInterval;
+    private final long retryMaxInterval;
+
+    private final Map<Long, DelivererLocation> latest = new ConcurrentHashMap<>();
+    private final Set<Long> knownDeliverers = ConcurrentHashMap.newKeySet();
+    // deleted deliverers and when they were deleted, kept for longer than a failed batch can be held
+    private final Map<Long, Long> forgottenDeliverers = new ConcurrentHashMap<>();
+    private final BlockingQueue<DelivererLocation> pending;
+
+    // guarded by flush(boolean), which is synchronized
+    private List<DelivererLocation> failedBatch = List.of();
+    private int failedAttempts;
+    private long retryAt;
+
+    private final Counter receivedCounter;
+    private final Counter droppedCounter;
+    private final Counter flushedCounter;
+    private final Counter retriedCounter;
+
+    public LocationTracker(DelivererRepository delivererRepository,
+                           JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.locations.buffer-capacity:100000}") int bufferCapacity,
+                           @Value("${app.locations.flush-batch-size:5000}") int flushBatchSize,
+                           @Value("${app.locations.max-attempts:5}") int maxAttempts,
+                           @Value("${app.locations.retry-initial-interval:1000}") long retryInitialInterval,
+                           @Value("${app.locations.retry-max-interval:30000}") long retryMaxInterval) {
+        this.delivererRepository = delivererRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.flushBatchSize = flushBatchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryInitialInterval = retryInitialInterval;
+        this.retryMaxInterval = retryMaxInterval;
+        this.pending = new ArrayBlockingQueue<>(bufferCapacity);
+
+        this.receivedCounter = meterRegistry.counter("deliverer.locations.received");
+        this.droppedCounter = meterRegistry.counter("deliverer.locations.dropped");
+        this.flushedCounter = meterRegistry.counter("deliverer.locations.flushed");
+        this.retriedCounter = meterRegistry.counter("deliverer.locations.retried");
+        Gauge.builder("deliverer.locations.pending", pending, BlockingQueue::size)
+                .description("Location pings waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a ping for a single deliverer.
+     *
+     * @throws ResourceNotFoundException if the deliverer does not exist
+     */
+    public void record(Long delivererId, LocationUpdateDTO update) {
+        if (!knownDeliverers.contains(delivererId)) {
+            if (forgottenDeliverers.containsKey(delivererId) || !delivererRepository.existsById(delivererId)) {
+                throw new ResourceNotFoundException("Deliverer not found with ID: " + delivererId);
+            }
+            knownDeliverers.add(delivererId);
+        }
+        accept(delivererId, update);
+    }
+
+    /**
+     * Records pings for many deliverers. Unknown deliverers are looked up with
+     * one query; pings for deliverers that do not exist, or with an invalid
+     * position, are rejected.
+     *
+     * @return the number of accepted pings
+     */
+    public int recordAll(Collection<LocationUpdateDTO> updates) {
+        Set<Long> unknown = new HashSet<>();
+        for (LocationUpdateDTO update : updates) {
+            if (update.getDelivererId() != null && !knownDeliverers.contains(update.getDelivererId())) {
+                unknown.add(update.getDelivererId());
+            }
+        }
+        if (!unknown.isEmpty()) {
+            delivererRepository.findAllById(unknown).stream()
+                    .map(Deliverer::getId)
+                    .forEach(knownDeliverers::add);
+        }
+
+        int accepted = 0;
+        for (LocationUpdateDTO update : updates) {
+            if (update.getDelivererId() != null && knownDeliverers.contains(update.getDelivererId())
+                    && isValidPosition(update)) {
+                accept(update.getDelivererId(), update);
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    public DelivererLocation getLatest(Long delivererId) {
+        return latest.get(delivererId);
+    }
+
+    /**
+     * Drops what is held for a deleted deliverer. Pings still queued, held
+     * by a failed batch or recorded concurrently are left out when written.
+     */
+    public void forget(Long delivererId) {
+        forgottenDeliverers.put(delivererId, System.currentTimeMillis());
+        knownDeliverers.remove(delivererId);
+        latest.remove(delivererId);
+        pending.removeIf(l -> delivererId.equals(l.getDelivererId()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.locations.flush-interval:1000}")
+    public void flush() {
+        flush(false);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush(true);
+    }
+
+    private synchronized void flush(boolean shuttingDown) {
+        long forgottenBefore = System.currentTimeMillis() - retryMaxInterval * maxAttempts - FORGOTTEN_RETENTION_MILLIS;
+        forgottenDeliverers.values().removeIf(forgottenAt -> forgottenAt < forgottenBefore);
+
+        if (!failedBatch.isEmpty()) {
+            if (!shuttingDown && System.currentTimeMillis() < retryAt) {
+                return;
+            }
+            retriedCounter.increment();
+            if (!writeOrHold(failedBatch, shuttingDown)) {
+                return;
+            }
+        }
+        List<DelivererLocation> batch = new ArrayList<>(Math.min(flushBatchSize, pending.size()));
+        while (pending.drainTo(batch, flushBatchSize) > 0) {
+            if (!writeOrHold(batch, shuttingDown)) {
+                return;
+            }
+            batch = new ArrayList<>(Math.min(flushBatchSize, pending.size()));
+        }
+    }
+
+    private void accept(Long delivererId, LocationUpdateDTO update) {
+        DelivererLocation location = new DelivererLocation();
+        location.setDelivererId(delivererId);
+        location.setLatitude(BigDecimal.valueOf(update.getLatitude()));
+        location.setLongitude(BigDecimal.valueOf(update.getLongitude()));
+        location.setAccuracy(toDecimal(update.getAccuracy()));
+        location.setSpeed(toDecimal(update.getSpeed()));
+        location.setHeading(toDecimal(update.getHeading()));
+        location.setTimestamp(update.getTimestamp() != null ? update.getTimestamp() : LocalDateTime.now());
+
+        // Pings can arrive out of order; only a newer one replaces the current position
+        latest.merge(delivererId, location,
+                (current, next) -> next.getTimestamp().isBefore(current.getTimestamp()) ? current : next);
+        if (forgottenDeliverers.containsKey(delivererId)) {
+            // deleted while this ping was being recorded
+            latest.remove(delivererId);
+            return;
+        }
+        receivedCounter.increment();
+        if (!pending.offer(location)) {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * Writes the batch. If that fails it is held for a later run and false is
+     * returned, unless it has used up its attempts or the service is shutting
+     * down, in which case its pings are written one at a time.
+     */
+    private boolean writeOrHold(List<DelivererLocation> batch, boolean shuttingDown) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (DelivererLocation l : batch) {
+            if (!forgottenDeliverers.containsKey(l.getDelivererId())) {
+                rows.add(toRow(l));
+            }
+        }
+        if (rows.isEmpty()) {
+            release();
+            return true;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_LOCATION, rows));
+            flushedCounter.increment(rows.size());
+            release();
+            return true;
+        } catch (RuntimeException e) {
+            failedAttempts++;
+            if (failedAttempts < maxAttempts && !shuttingDown) {
+                long backoff = Math.min(retryInitialInterval << Math.min(failedAttempts - 1, 20), retryMaxInterval);
+                log.warn("Failed to write {} location pings (attempt {} of {}), retrying in {} ms",
+                        rows.size(), failedAttempts, maxAttempts, backoff, e);
+                failedBatch = batch;
+                retryAt = System.currentTimeMillis() + backoff;
+                return false;
+            }
+            log.error("Failed to write {} location pings after {} attempts, writing them one at a time",
+                    rows.size(), failedAttempts, e);
+            writeEach(rows);
+            release();
+            return true;
+        }
+    }
+
+    private void writeEach(List<Object[]> rows) {
+        for (Object[] row : rows) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(INSERT_LOCATION, row));
+                flushedCounter.increment();
+            } catch (RuntimeException e) {
+                droppedCounter.increment();
+                log.error("Dropped location ping of deliverer {}: {}", row[0], e.getMessage());
+            }
+        }
+    }
+
+    private void release() {
+        failedBatch = List.of();
+        failedAttempts = 0;
+    }
+
+    private static Object[] toRow(DelivererLocation l) {
+        return new Object[] {
+                l.getDelivererId(), l.getLatitude(), l.getLongitude(),
+                l.getAccuracy(), l.getSpeed(), l.getHeading(), Timestamp.valueOf(l.getTimestamp())
+        };
+    }
+
+    private static boolean isValidPosition(LocationUpdateDTO update) {
+        return update.getLatitude() != null && Math.abs(update.getLatitude()) <= 90
+                && update.getLongitude() != null && Math.abs(update.getLongitude()) <= 180;
+    }
+
+    private static BigDecimal toDecimal(Double value) {
+        return value != null ? BigDecimal.valueOf(value) : null;
+    }
+}
@@ -0,0 +1,281 @@
+package com.deliveryapp.deliverer.service;
+
+import com.deliveryapp.deliverer.messaging.DeliveryFinishedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains deliverer performance from finished deliveries. Each event adds
+ * to the deliverer's lifetime counters on the deliverers row and to one
+ * daily row of deliverer_performance (period_start = period_end = the day
+ * the delivery finished). Rolling windows are answered by adding up at most
+ * one row per day of the window, never by reading delivery history.
+ *
+ * <p>A batch is applied in one transaction: daily rows it touches are read
+ * with one query, merged in memory and written back as one batch of upserts.
+ * Events are at-least-once, so delivery ids already counted are skipped.
+ */
+@Service
+@Slf4j
+public class PerformanceAggregator {
+
+    private static final String SELECT_KNOWN_DELIVERERS = "SELECT id FROM deliverers WHERE id IN (:ids)";
+
+    private static final String SELECT_PROCESSED =
+            "SELECT delivery_id FROM deliverer_processed_deliveries WHERE delivery_id IN (:ids)";
+
+    private static final String INSERT_PROCESSED =
+            "INSERT INTO deliverer_processed_deliveries (delivery_id, deliverer_id, processed_at) VALUES (?, ?, ?)";
+
+    private static final String SELECT_DAYS =
+            "SELECT deliverer_id, period_start, total_deliveries, successful_deliveries, failed_deliveries, " +
+            "total_delivery_time, timed_deliveries, total_distance, duration_histogram FROM deliverer_performance " +
+            "WHERE deliverer_id IN (:ids) AND period_start = period_end AND period_start IN (:days)";
+
+    private static final String SELECT_WINDOW =
+            "SELECT deliverer_id, period_start, total_deliveries, successful_deliveries, failed_deliveries, " +
+            "total_delivery_time, timed_deliveries, total_distance, duration_histogram FROM deliverer_performance " +
+            "WHERE deliverer_id = :id AND period_start = period_end AND period_start >= :since";
+
+    private static final String UPSERT_DAY =
+            "INSERT INTO deliverer_performance (deliverer_id, period_start, period_end, total_deliveries, " +
+            "successful_deliveries, failed_deliveries, total_delivery_time, timed_deliveries, average_delivery_time, " +
+            "total_distance, duration_histogram) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (deliverer_id, period_start, period_end) DO UPDATE SET " +
+            "total_deliveries = excluded.total_deliveries, successful_deliveries = excluded.successful_deliveries, " +
+            "failed_deliveries = excluded.failed_deliveries, total_delivery_time = excluded.total_delivery_time, " +
+            "timed_deliveries = excluded.timed_deliveries, average_delivery_time = excluded.average_delivery_time, " +
+            "total_distance = excluded.total_distance, duration_histogram = excluded.duration_histogram";
+
+    private static final String UPDATE_TOTALS =
+            "UPDATE deliverers SET total_deliveries = COALESCE(total_deliveries, 0) + ?, " +
+            "successful_deliveries = COALESCE(successful_deliveries, 0) + ?, " +
+            "failed_deliveries = COALESCE(failed_deliveries, 0) + ? WHERE id = ?";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Duration dedupeRetention;
+    private final Counter recordedCounter;
+    private final Counter duplicateCounter;
+
+    public PerformanceAggregator(NamedParameterJdbcTemplate jdbcTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.performance.dedupe-retention:P30D}") Duration dedupeRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dedupeRetention = dedupeRetention;
+        this.recordedCounter = meterRegistry.counter("deliverer.performance.recorded");
+        this.duplicateCounter = meterRegistry.counter("deliverer.performance.duplicates");
+    }
+
+    /** @return the number of events counted, excluding duplicates and unknown deliverers */
+    @Transactional
+    public int record(List<DeliveryFinishedEvent> events) {
+        Map<Long, DeliveryFinishedEvent> byDelivery = new LinkedHashMap<>();
+        for (DeliveryFinishedEvent event : events) {
+            if (event.getDeliveryId() != null && event.getDelivererId() != null) {
+                byDelivery.putIfAbsent(event.getDeliveryId(), event);
+            }
+        }
+        if (byDelivery.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> processed = jdbcTemplate.queryForList(SELECT_PROCESSED,
+                new MapSqlParameterSource("ids", byDelivery.keySet()), Long.class);
+        processed.forEach(byDelivery::remove);
+        duplicateCounter.increment(processed.size());
+
+        Set<Long> delivererIds = new HashSet<>();
+        byDelivery.values().forEach(event -> delivererIds.add(event.getDelivererId()));
+        Set<Long> known = delivererIds.isEmpty() ? Set.of() : new HashSet<>(jdbcTemplate.queryForList(
+                SELECT_KNOWN_DELIVERERS, new MapSqlParameterSource("ids", delivererIds), Long.class));
+        byDelivery.values().removeIf(event -> {
+            if (!known.contains(event.getDelivererId())) {
+                log.warn("Ignoring finished delivery {} of unknown deliverer {}", event.getDeliveryId(), event.getDelivererId());
+                return true;
+            }
+            return false;
+        });
+        if (byDelivery.isEmpty()) {
+            return 0;
+        }
+
+        Map<DayKey, DayStats> days = loadDays(byDelivery.values());
+        Map<Long, long[]> totals = new HashMap<>();
+        for (DeliveryFinishedEvent event : byDelivery.values()) {
+            boolean delivered = DeliveryFinishedEvent.DELIVERED.equals(event.getOutcome());
+            days.computeIfAbsent(DayKey.of(event), k -> new DayStats()).add(event, delivered);
+            long[] t = totals.computeIfAbsent(event.getDelivererId(), k -> new long[3]);
+            t[0]++;
+            t[delivered ? 1 : 2]++;
+        }
+
+        List<Object[]> dayRows = new ArrayList<>(days.size());
+        days.forEach((key, stats) -> dayRows.add(stats.toRow(key)));
+        jdbcTemplate.getJdbcTemplate().batchUpdate(UPSERT_DAY, dayRows);
+
+        List<Object[]> totalRows = new ArrayList<>(totals.size());
+        totals.forEach((delivererId, t) -> totalRows.add(new Object[] {t[0], t[1], t[2], delivererId}));
+        jdbcTemplate.getJdbcTemplate().batchUpdate(UPDATE_TOTALS, totalRows);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> processedRows = new ArrayList<>(byDelivery.size());
+        byDelivery.values().forEach(event -> processedRows.add(new Object[] {event.getDeliveryId(), event.getDelivererId(), now}));
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_PROCESSED, processedRows);
+
+        recordedCounter.increment(byDelivery.size());
+        log.debug("Recorded {} finished deliveries for {} deliverers", byDelivery.size(), totals.size());
+        return byDelivery.size();
+    }
+
+    /**
+     * Performance over the last {@code days} days including today, from at
+     * most {@code days} daily rows.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> window(Long delivererId, int days) {
+        DayStats sum = new DayStats();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", delivererId)
+                .addValue("since", LocalDate.now().minusDays(days - 1L).toString());
+        jdbcTemplate.query(SELECT_WINDOW, params, (RowCallbackHandler) rs -> sum.merge(DayStats.read(rs)));
+        return sum.toMap();
+    }
+
+    @Scheduled(cron = "${app.performance.purge-cron:0 15 3 * * *}")
+    @Transactional
+    public void purgeProcessed() {
+        Timestamp before = Timestamp.valueOf(LocalDateTime.now().minus(dedupeRetention));
+        int deleted = jdbcTemplate.getJdbcTemplate().update(
+                "DELETE FROM deliverer_processed_deliveries WHERE processed_at < ?", before);
+        if (deleted > 0) {
+            log.info("Purged {} processed delivery ids older than {}", deleted, before);
+        }
+    }
+
+    private Map<DayKey, DayStats> loadDays(Iterable<DeliveryFinishedEvent> events) {
+        Set<Long> delivererIds = new HashSet<>();
+        Set<String> dayValues = new HashSet<>();
+        for (DeliveryFinishedEvent event : events) {
+            delivererIds.add(event.getDelivererId());
+            dayValues.add(DayKey.of(event).day().toString());
+        }
+        Map<DayKey, DayStats> days = new HashMap<>();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", delivererIds)
+                .addValue("days", dayValues);
+        jdbcTemplate.query(SELECT_DAYS, params, (RowCallbackHandler) rs -> days.put(
+                new DayKey(rs.getLong("deliverer_id"), LocalDate.parse(rs.getString("period_start"))),
+                DayStats.read(rs)));
+        return days;
+    }
+
+    private record DayKey(Long delivererId, LocalDate day) {
+
+        static DayKey of(DeliveryFinishedEvent event) {
+            LocalDate day = event.getFinishedAt() != null ? event.getFinishedAt().toLocalDate() : LocalDate.now();
+            return new DayKey(event.getDelivererId(), day);
+        }
+    }
+
+    /** Mergeable counters of one deliverer over one or more days. */
+    private static final class DayStats {
+
+        private long total;
+        private long successful;
+        private long failed;
+        private long totalMinutes;
+        private long timed;
+        private BigDecimal distance = BigDecimal.ZERO;
+        private DurationHistogram histogram = new DurationHistogram();
+
+        static DayStats read(java.sql.ResultSet rs) throws java.sql.SQLException {
+            DayStats stats = new DayStats();
+            stats.total = rs.getLong("total_deliveries");
+            stats.successful = rs.getLong("successful_deliveries");
+            stats.failed = rs.getLong("failed_deliveries");
+            stats.totalMinutes = rs.getLong("total_delivery_time");
+            stats.timed = rs.getLong("timed_deliveries");
+            BigDecimal distance = rs.getBigDecimal("total_distance");
+            stats.distance = distance != null ? distance : BigDecimal.ZERO;
+            stats.histogram = DurationHistogram.parse(rs.getString("duration_histogram"));
+            return stats;
+        }
+
+        void add(DeliveryFinishedEvent event, boolean delivered) {
+            total++;
+            if (delivered) {
+                successful++;
+            } else {
+                failed++;
+            }
+            // only completed deliveries say how long a delivery takes
+            if (delivered && event.getDurationMinutes() != null && event.getDurationMinutes() >= 0) {
+                totalMinutes += event.getDurationMinutes();
+                timed++;
+                histogram.add(event.getDurationMinutes());
+            }
+            if (event.getDistanceKm() != null) {
+                distance = distance.add(event.getDistanceKm());
+            }
+        }
+
+        void merge(DayStats other) {
+            total += other.total;
+            successful += other.successful;
+            failed += other.failed;
+            totalMinutes += other.totalMinutes;
+            timed += other.timed;
+            distance = distance.add(other.distance);
+            histogram.merge(other.histogram);
+        }
+
+        Object[] toRow(DayKey key) {
+            String day = key.day().toString();
+            return new Object[] {
+                    key.delivererId(), day, day, total, successful, failed, totalMinutes, timed,
+                    timed > 0 ? totalMinutes / timed : null, distance, histogram.format()
+            };
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("totalDeliveries", total);
+            map.put("successfulDeliveries", successful);
+            map.put("failedDeliveries", failed);
+            map.put("successRate", successRate(successful, total));
+            map.put("averageDeliveryMinutes", timed > 0 ? totalMinutes / timed : null);
+            map.put("p50DeliveryMinutes", histogram.percentile(0.5));
+            map.put("p95DeliveryMinutes", histogram.percentile(0.95));
+            map.put("distanceKm", distance);
+            return map;
+        }
+    }
+
+    static BigDecimal successRate(long successful, long total) {
+        return total > 0
+                ? BigDecimal.valueOf(successful).divide(BigDecimal.valueOf(total), 4, RoundingMode.HALF_UP)
+                : null;
+    }
+}
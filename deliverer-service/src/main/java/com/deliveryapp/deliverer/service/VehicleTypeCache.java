@@ -0,0 +1,98 @@
+package com.deliveryapp.deliverer.service;
+
+import com.deliveryapp.deliverer.entity.DelivererVehicle;
+import com.deliveryapp.deliverer.entity.VehicleType;
+import com.deliveryapp.deliverer.repository.DelivererVehicleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of the active vehicle type of each deliverer. Lookups
+ * for several deliverers load the ones not cached with a single IN query;
+ * deliverers without an active vehicle are cached too, as empty.
+ *
+ * <p>Entries are dropped after the transaction that changed a deliverer's
+ * vehicles commits, see {@link VehiclesChangedEvent}. A load that raced
+ * with such a commit is not stored.
+ */
+@Component
+public class VehicleTypeCache {
+
+    private final DelivererVehicleRepository vehicleRepository;
+    private final Map<Long, Optional<VehicleType>> types = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public VehicleTypeCache(DelivererVehicleRepository vehicleRepository, MeterRegistry meterRegistry) {
+        this.vehicleRepository = vehicleRepository;
+        this.hitCounter = meterRegistry.counter("deliverer.vehicle-types.hits");
+        this.missCounter = meterRegistry.counter("deliverer.vehicle-types.misses");
+        Gauge.builder("deliverer.vehicle-types.size", types, Map::size)
+                .description("Deliverers whose active vehicle type is cached")
+                .register(meterRegistry);
+    }
+
+    public VehicleType get(Long delivererId) {
+        return getAll(List.of(delivererId)).get(delivererId);
+    }
+
+    /**
+     * Active vehicle types of the given deliverers, with one query at most.
+     * Deliverers without an active vehicle are absent from the result.
+     */
+    public Map<Long, VehicleType> getAll(Collection<Long> delivererIds) {
+        Map<Long, VehicleType> result = new HashMap<>(delivererIds.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : delivererIds) {
+            Optional<VehicleType> cached = types.get(id);
+            if (cached == null) {
+                missing.add(id);
+            } else {
+                cached.ifPresent(type -> result.put(id, type));
+            }
+        }
+        hitCounter.increment(delivererIds.size() - missing.size());
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        missCounter.increment(missing.size());
+        long readGeneration = generation.get();
+        Map<Long, VehicleType> loaded = new HashMap<>();
+        for (DelivererVehicle v : vehicleRepository.findByDeliverer_IdInAndIsActiveTrue(missing)) {
+            loaded.putIfAbsent(v.getDeliverer().getId(), v.getVehicleType());
+        }
+        result.putAll(loaded);
+
+        if (generation.get() == readGeneration) {
+            for (Long id : missing) {
+                types.put(id, Optional.ofNullable(loaded.get(id)));
+            }
+            // an eviction may have run between the check and the puts
+            if (generation.get() != readGeneration) {
+                missing.forEach(types::remove);
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehiclesChanged(VehiclesChangedEvent event) {
+        generation.incrementAndGet();
+        event.delivererIds().forEach(types::remove);
+    }
+}
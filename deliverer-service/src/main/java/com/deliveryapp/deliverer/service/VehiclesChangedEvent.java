@@ -0,0 +1,14 @@
+package com.deliveryapp.deliverer.service;
+
+import java.util.Set;
+
+/**
+ * Published when vehicles of deliverers are added, changed or removed, so
+ * the {@link VehicleTypeCache} drops their entries once the change commits.
+ */
+public record VehiclesChangedEvent(Set<Long> delivererIds) {
+
+    public static VehiclesChangedEvent of(Long delivererId) {
+        return new VehiclesChangedEvent(Set.of(delivererId));
+    }
+}
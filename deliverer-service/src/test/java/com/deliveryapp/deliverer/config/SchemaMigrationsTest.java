@@ -0,0 +1,73 @@
+package com.deliveryapp.deliverer.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Brings a database created by an earlier {@code database/schema.sql} up to
+ * date with the current one.
+ */
+class SchemaMigrationsTest {
+
+    private static final String SCHEMA = "file:database/schema.sql";
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void addsTheDurationColumnsAndKeepsOneRowPerDelivererAndPeriod() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + dataDir.resolve("old.db"), true);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("""
+            CREATE TABLE deliverer_performance (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                deliverer_id INTEGER NOT NULL,
+                period_start DATE NOT NULL,
+                period_end DATE NOT NULL,
+                total_deliveries INTEGER DEFAULT 0,
+                successful_deliveries INTEGER DEFAULT 0,
+                failed_deliveries INTEGER DEFAULT 0,
+                average_delivery_time INTEGER,
+                total_distance DECIMAL(10, 2),
+                average_rating DECIMAL(3, 2),
+                customer_complaints INTEGER DEFAULT 0,
+                late_deliveries INTEGER DEFAULT 0,
+                on_time_deliveries INTEGER DEFAULT 0,
+                early_deliveries INTEGER DEFAULT 0,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)""");
+        String insert = "INSERT INTO deliverer_performance (deliverer_id, period_start, period_end, total_deliveries) VALUES (?, ?, ?, ?)";
+        jdbc.update(insert, 1, "2026-09-01", "2026-09-30", 250);
+        jdbc.update(insert, 1, "2026-09-01", "2026-09-30", 251);
+        jdbc.update(insert, 2, "2026-09-01", "2026-09-30", 195);
+
+        SchemaMigrations.apply(dataSource, SCHEMA);
+        SchemaMigrations.apply(dataSource, SCHEMA);
+
+        assertThat(jdbc.queryForList("SELECT total_deliveries FROM deliverer_performance ORDER BY id", Integer.class))
+            .containsExactly(250, 195);
+        assertThat(jdbc.queryForMap(
+            "SELECT total_delivery_time, timed_deliveries, duration_histogram FROM deliverer_performance WHERE deliverer_id = 2"))
+            .containsEntry("total_delivery_time", 0)
+            .containsEntry("timed_deliveries", 0)
+            .containsEntry("duration_histogram", null);
+        assertThat(jdbc.queryForObject(
+            "SELECT COUNT(*) FROM sqlite_master WHERE name = 'idx_deliverer_performance_deliverer_period'", Integer.class)).isOne();
+        dataSource.destroy();
+    }
+
+    @Test
+    void leavesTheDatabaseAloneWithoutAScript() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + dataDir.resolve("empty.db"), true);
+
+        SchemaMigrations.apply(dataSource, "file:" + dataDir.resolve("missing.sql"));
+
+        assertThat(new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM sqlite_master", Integer.class)).isZero();
+        dataSource.destroy();
+    }
+}
@@ -0,0 +1,49 @@
+package com.deliveryapp.deliverer.controller;
+
+import com.deliveryapp.deliverer.service.DelivererService;
+import com.deliveryapp.deliverer.service.LocationTracker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Errors of {@code /api/deliverers} requests as answered by the exception handler. */
+@WebMvcTest(value = DelivererController.class, properties = {
+    "spring.cloud.config.enabled=false",
+    "eureka.client.enabled=false"
+})
+class DelivererControllerTest {
+
+    @MockBean
+    private DelivererService delivererService;
+
+    @MockBean
+    private LocationTracker locationTracker;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void answersTooManyIdsWithAnErrorResponse() throws Exception {
+        String ids = LongStream.rangeClosed(1, 201).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        mockMvc.perform(get("/api/deliverers").param("ids", ids))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.status").value(400))
+            .andExpect(jsonPath("$.error").value("Bad Request"))
+            .andExpect(jsonPath("$.message").value("At most 200 ids per request"))
+            .andExpect(jsonPath("$.path").value("/api/deliverers"));
+        verify(delivererService, never()).getByIds(any());
+    }
+}
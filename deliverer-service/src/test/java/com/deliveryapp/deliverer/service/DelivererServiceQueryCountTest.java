@@ -0,0 +1,160 @@
+package com.deliveryapp.deliverer.service;
+
+import com.deliveryapp.deliverer.dto.DelivererDTO;
+import com.deliveryapp.deliverer.entity.DelivererStatus;
+import com.deliveryapp.deliverer.entity.VehicleType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements the deliverer listings run, with Hibernate
+ * statistics, to keep them from looking up the active vehicle of each
+ * deliverer on its own: a list costs the same number of statements whatever
+ * its size, and one less once {@link VehicleTypeCache} holds its vehicle types.
+ */
+@SpringBootTest(properties = {
+    "spring.cloud.config.enabled=false",
+    "eureka.client.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.rabbitmq.listener.simple.auto-startup=false",
+    "app.sqlite.schema-script=file:database/schema.sql",
+    "app.locations.flush-interval=3600000"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DelivererServiceQueryCountTest {
+
+    private static final int DELIVERERS = 120;
+
+    // not a @TempDir: the per-class instance starts the context before JUnit sets static @TempDir fields
+    private static final Path dataDir = createDataDir();
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dataDir.resolve("deliverers.db"));
+    }
+
+    private static Path createDataDir() {
+        try {
+            return Files.createTempDirectory("deliverers");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterAll
+    void deleteDataDir() throws IOException {
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Autowired
+    private DelivererService delivererService;
+
+    @Autowired
+    private VehicleTypeCache vehicleTypeCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<Long> delivererIds = new ArrayList<>();
+
+    @BeforeAll
+    void createDeliverers() {
+        VehicleType[] types = VehicleType.values();
+        for (int n = 0; n < DELIVERERS; n++) {
+            // every third deliverer has no vehicle
+            VehicleType type = n % 3 == 2 ? null : types[n % types.length];
+            delivererIds.add(delivererService.create(deliverer(n, type)).getId());
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void emptyCacheAndResetStatistics() {
+        vehicleTypeCache.onVehiclesChanged(new VehiclesChangedEvent(new HashSet<>(delivererIds)));
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 30, 120})
+    void getByIdsRunsTwoStatementsWhateverTheNumberOfDeliverers(int count) {
+        List<DelivererDTO> deliverers = delivererService.getByIds(delivererIds.subList(0, count));
+
+        assertThat(deliverers).hasSize(count);
+        assertVehicleTypes(deliverers);
+        // the deliverers, then the active vehicles of all of them
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 30, 120})
+    void getByIdsRunsOneStatementOnceTheVehicleTypesAreCached(int count) {
+        List<Long> ids = delivererIds.subList(0, count);
+        delivererService.getByIds(ids);
+        statistics.clear();
+
+        List<DelivererDTO> deliverers = delivererService.getByIds(ids);
+
+        assertVehicleTypes(deliverers);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getAllAndGetAvailableRunTwoStatements() {
+        assertVehicleTypes(delivererService.getAll());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        vehicleTypeCache.onVehiclesChanged(new VehiclesChangedEvent(new HashSet<>(delivererIds)));
+        statistics.clear();
+
+        assertThat(delivererService.getAvailable()).hasSize(DELIVERERS / 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private void assertVehicleTypes(List<DelivererDTO> deliverers) {
+        VehicleType[] types = VehicleType.values();
+        assertThat(deliverers).allSatisfy(d -> {
+            int n = delivererIds.indexOf(d.getId());
+            assertThat(d.getVehicleType()).isEqualTo(n % 3 == 2 ? null : types[n % types.length]);
+        });
+    }
+
+    private static DelivererDTO deliverer(int n, VehicleType vehicleType) {
+        DelivererDTO dto = new DelivererDTO();
+        dto.setFirstName("First" + n);
+        dto.setLastName("Last" + n);
+        dto.setEmail("deliverer" + n + "@example.com");
+        dto.setPhone("06000000" + n);
+        dto.setAddress(n + " Test Street");
+        dto.setCity("Paris");
+        dto.setPostalCode("75001");
+        dto.setStatus(n % 2 == 0 ? DelivererStatus.ACTIVE : DelivererStatus.INACTIVE);
+        dto.setVehicleType(vehicleType);
+        return dto;
+    }
+}
@@ -0,0 +1,226 @@
+package com.deliveryapp.deliverer.service;
+
+import com.deliveryapp.deliverer.dto.LocationUpdateDTO;
+import com.deliveryapp.deliverer.entity.Deliverer;
+import com.deliveryapp.deliverer.exception.ResourceNotFoundException;
+import com.deliveryapp.deliverer.repository.DelivererRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.StatementCallback;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Pings taken in by {@link LocationTracker}: the latest position kept in
+ * memory, and the history written behind, against the real schema. Failed
+ * writes are caused by a trigger.
+ */
+class LocationTrackerTest {
+
+    private static final long PARIS = 1L;
+    private static final long LYON = 2L;
+    private static final LocalDateTime NOON = LocalDateTime.of(2026, 3, 2, 12, 0);
+
+    @TempDir
+    Path dataDir;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private final DelivererRepository delivererRepository = mock(DelivererRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + dataDir.resolve("deliverers.db"), true);
+        jdbc = new JdbcTemplate(dataSource);
+        String schema = Files.readString(Path.of("database/schema.sql"));
+        jdbc.execute((StatementCallback<Integer>) statement -> statement.executeUpdate(schema));
+        given(delivererRepository.existsById(any())).willAnswer(call -> Set.of(PARIS, LYON).contains(call.getArgument(0)));
+        given(delivererRepository.findAllById(any())).willAnswer(call -> {
+            Iterable<Long> ids = call.getArgument(0);
+            List<Deliverer> found = new ArrayList<>();
+            ids.forEach(id -> {
+                if (id == PARIS || id == LYON) {
+                    Deliverer deliverer = new Deliverer();
+                    deliverer.setId(id);
+                    found.add(deliverer);
+                }
+            });
+            return found;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void keepsTheNewestPingAsTheLatestPositionAndWritesEveryPing() {
+        LocationTracker tracker = tracker(100, 1);
+        tracker.record(PARIS, ping(48.85, 2.35, NOON));
+        // arrives late: part of the history, but not the current position
+        tracker.record(PARIS, ping(48.80, 2.30, NOON.minusMinutes(1)));
+
+        assertThat(tracker.getLatest(PARIS).getLatitude()).isEqualByComparingTo("48.85");
+        assertThat(rows()).isZero();
+
+        tracker.flush();
+
+        assertThat(rows()).isEqualTo(2);
+        assertThat(count("deliverer.locations.flushed")).isEqualTo(2);
+        // the deliverer is looked up once
+        verify(delivererRepository, times(1)).existsById(PARIS);
+    }
+
+    @Test
+    void rejectsThePingOfAnUnknownDeliverer() {
+        LocationTracker tracker = tracker(100, 1);
+
+        assertThatThrownBy(() -> tracker.record(404L, ping(48.85, 2.35, NOON)))
+            .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(tracker.getLatest(404L)).isNull();
+    }
+
+    @Test
+    void acceptsTheValidPingsOfKnownDeliverersInABatch() {
+        LocationTracker tracker = tracker(100, 1);
+        LocationUpdateDTO unknown = ping(48.85, 2.35, NOON);
+        unknown.setDelivererId(404L);
+        LocationUpdateDTO offTheMap = ping(95.0, 2.35, NOON);
+        offTheMap.setDelivererId(LYON);
+
+        int accepted = tracker.recordAll(List.of(
+            ping(PARIS, 48.85, 2.35), ping(LYON, 45.76, 4.83), unknown, offTheMap, ping(null, 48.85, 2.35)));
+
+        assertThat(accepted).isEqualTo(2);
+        assertThat(tracker.getLatest(LYON).getLatitude()).isEqualByComparingTo("45.76");
+        verify(delivererRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void dropsHistoryButKeepsThePositionWhenTheBufferIsFull() {
+        LocationTracker tracker = tracker(2, 1);
+
+        for (int i = 0; i < 3; i++) {
+            tracker.record(PARIS, ping(48.80 + i / 100.0, 2.35, NOON.plusSeconds(i)));
+        }
+        tracker.flush();
+
+        assertThat(tracker.getLatest(PARIS).getLatitude()).isEqualByComparingTo("48.82");
+        assertThat(rows()).isEqualTo(2);
+        assertThat(count("deliverer.locations.dropped")).isEqualTo(1);
+    }
+
+    @Test
+    void retriesAFailedBatchAheadOfTheNewerPings() {
+        LocationTracker tracker = tracker(100, 3);
+        tracker.record(PARIS, ping(48.85, 2.35, NOON));
+        rejectPings("1 = 1");
+
+        tracker.flush();
+
+        assertThat(rows()).isZero();
+        allowPings();
+        tracker.record(PARIS, ping(48.86, 2.35, NOON.plusSeconds(10)));
+        tracker.flush();
+
+        assertThat(jdbc.queryForList("SELECT latitude FROM deliverer_locations ORDER BY id", Double.class))
+            .containsExactly(48.85, 48.86);
+        assertThat(count("deliverer.locations.retried")).isEqualTo(1);
+        assertThat(count("deliverer.locations.dropped")).isZero();
+    }
+
+    @Test
+    void writesABatchPingByPingOnceItsAttemptsAreUsedUp() {
+        LocationTracker tracker = tracker(100, 2);
+        tracker.record(PARIS, ping(48.85, 2.35, NOON));
+        tracker.record(LYON, ping(45.76, 4.83, NOON));
+        // only Lyon's ping can never be written
+        rejectPings("NEW.deliverer_id = " + LYON);
+
+        tracker.flush();
+        tracker.flush();
+
+        assertThat(jdbc.queryForList("SELECT deliverer_id FROM deliverer_locations", Long.class)).containsExactly(PARIS);
+        assertThat(count("deliverer.locations.flushed")).isEqualTo(1);
+        assertThat(count("deliverer.locations.dropped")).isEqualTo(1);
+    }
+
+    @Test
+    void leavesThePingsOfAForgottenDelivererOutOfAHeldBatch() {
+        LocationTracker tracker = tracker(100, 3);
+        tracker.record(PARIS, ping(48.85, 2.35, NOON));
+        tracker.record(LYON, ping(45.76, 4.83, NOON));
+        rejectPings("1 = 1");
+        tracker.flush();
+
+        tracker.forget(LYON);
+        allowPings();
+        tracker.flush();
+
+        assertThat(jdbc.queryForList("SELECT deliverer_id FROM deliverer_locations", Long.class)).containsExactly(PARIS);
+        assertThat(tracker.getLatest(LYON)).isNull();
+        assertThatThrownBy(() -> tracker.record(LYON, ping(45.76, 4.83, NOON)))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    /** Retries come right away: the backoff starts at 0 ms. */
+    private LocationTracker tracker(int bufferCapacity, int maxAttempts) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        return new LocationTracker(delivererRepository, jdbc, transactionTemplate, meterRegistry,
+            bufferCapacity, 1000, maxAttempts, 0, 0);
+    }
+
+    private void rejectPings(String when) {
+        jdbc.execute("CREATE TRIGGER reject_ping BEFORE INSERT ON deliverer_locations WHEN " + when
+            + " BEGIN SELECT RAISE(ABORT, 'disk I/O error'); END");
+    }
+
+    private void allowPings() {
+        jdbc.execute("DROP TRIGGER reject_ping");
+    }
+
+    private int rows() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM deliverer_locations", Integer.class);
+    }
+
+    private double count(String counter) {
+        return meterRegistry.get(counter).counter().count();
+    }
+
+    private static LocationUpdateDTO ping(Long delivererId, double latitude, double longitude) {
+        LocationUpdateDTO update = ping(latitude, longitude, NOON);
+        update.setDelivererId(delivererId);
+        return update;
+    }
+
+    private static LocationUpdateDTO ping(double latitude, double longitude, LocalDateTime timestamp) {
+        LocationUpdateDTO update = new LocationUpdateDTO();
+        update.setLatitude(latitude);
+        update.setLongitude(longitude);
+        update.setTimestamp(timestamp);
+        return update;
+    }
+}
@@ -0,0 +1,136 @@
+package com.deliveryapp.deliverer.service;
+
+import com.deliveryapp.deliverer.messaging.DeliveryFinishedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.StatementCallback;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Daily rows written by {@link PerformanceAggregator}, and the averages and
+ * percentiles read back from their duration histograms, against the real
+ * schema.
+ */
+class PerformanceAggregatorTest {
+
+    private static final long DELIVERER_ID = 1L;
+
+    @TempDir
+    Path dataDir;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private PerformanceAggregator aggregator;
+    private final AtomicLong nextDeliveryId = new AtomicLong(1);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + dataDir.resolve("deliverers.db"), true);
+        jdbc = new JdbcTemplate(dataSource);
+        String schema = Files.readString(Path.of("database/schema.sql"));
+        jdbc.execute((StatementCallback<Integer>) statement -> statement.executeUpdate(schema));
+        jdbc.update("""
+            INSERT INTO deliverers (id, employee_number, first_name, last_name, email, phone, address, city, postal_code, hire_date)
+            VALUES (?, 'EMP-1', 'Lucas', 'Moreau', 'lucas.moreau@email.com', '+33600000000', '1 Rue', 'Paris', '75001', '2024-01-01')""",
+            DELIVERER_ID);
+        aggregator = new PerformanceAggregator(new NamedParameterJdbcTemplate(jdbc), new SimpleMeterRegistry(), Duration.ofDays(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void readsPercentilesFromTheHistogramsOfEveryDayInTheWindow() {
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+        LocalDateTime today = LocalDateTime.now();
+        aggregator.record(delivered(yesterday, 12, 10));
+        // two batches for the same day merge into its stored histogram
+        aggregator.record(delivered(today, 35, 4));
+        aggregator.record(delivered(today, 35, 6));
+
+        Map<String, Object> window = aggregator.window(DELIVERER_ID, 7);
+
+        assertThat(window).containsEntry("totalDeliveries", 20L)
+            .containsEntry("averageDeliveryMinutes", 23L)
+            // ten in (10, 15] and ten in (30, 40], interpolated within the bucket
+            .containsEntry("p50DeliveryMinutes", 15)
+            .containsEntry("p95DeliveryMinutes", 39);
+        assertThat(jdbc.queryForObject(
+            "SELECT duration_histogram FROM deliverer_performance WHERE period_start = ?", String.class, today.toLocalDate().toString()))
+            .isEqualTo("0,0,0,0,0,0,10,0,0,0,0,0,0,0,0");
+        assertThat(aggregator.window(DELIVERER_ID, 1)).containsEntry("p50DeliveryMinutes", 35);
+    }
+
+    @Test
+    void leavesFailedAndUntimedDeliveriesOutOfTheHistogram() {
+        LocalDateTime now = LocalDateTime.now();
+        List<DeliveryFinishedEvent> events = new ArrayList<>(delivered(now, 20, 2));
+        events.add(event(now, "FAILED", 90));
+        events.add(event(now, DeliveryFinishedEvent.DELIVERED, null));
+
+        aggregator.record(events);
+
+        assertThat(aggregator.window(DELIVERER_ID, 1))
+            .containsEntry("totalDeliveries", 4L)
+            .containsEntry("failedDeliveries", 1L)
+            .containsEntry("averageDeliveryMinutes", 20L)
+            .containsEntry("p95DeliveryMinutes", 20);
+    }
+
+    @Test
+    void reportsDurationsBeyondTheLastBoundAsThatBound() {
+        aggregator.record(delivered(LocalDateTime.now(), 300, 3));
+
+        assertThat(aggregator.window(DELIVERER_ID, 1))
+            .containsEntry("averageDeliveryMinutes", 300L)
+            .containsEntry("p50DeliveryMinutes", 240);
+    }
+
+    @Test
+    void countsRedeliveredEventsOnce() {
+        List<DeliveryFinishedEvent> events = delivered(LocalDateTime.now(), 12, 5);
+
+        assertThat(aggregator.record(events)).isEqualTo(5);
+        assertThat(aggregator.record(events)).isZero();
+
+        assertThat(aggregator.window(DELIVERER_ID, 1)).containsEntry("totalDeliveries", 5L);
+        assertThat(DurationHistogram.parse(jdbc.queryForObject(
+            "SELECT duration_histogram FROM deliverer_performance WHERE period_start = ?", String.class,
+            LocalDate.now().toString())).count()).isEqualTo(5);
+    }
+
+    private List<DeliveryFinishedEvent> delivered(LocalDateTime finishedAt, int minutes, int count) {
+        List<DeliveryFinishedEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(event(finishedAt, DeliveryFinishedEvent.DELIVERED, minutes));
+        }
+        return events;
+    }
+
+    private DeliveryFinishedEvent event(LocalDateTime finishedAt, String outcome, Integer minutes) {
+        long deliveryId = nextDeliveryId.getAndIncrement();
+        return new DeliveryFinishedEvent(deliveryId, "DEL-" + deliveryId, DELIVERER_ID, outcome,
+            minutes == null ? null : finishedAt.minusMinutes(minutes), finishedAt, minutes, BigDecimal.ONE);
+    }
+}
@@ -13,6 +13,8 @@ CREATE TABLE IF NOT EXISTS deliveries (
     pickup_address TEXT NOT NULL,
     pickup_city VARCHAR(100) NOT NULL,
     pickup_postal_code VARCHAR(20) NOT NULL,
+    pickup_latitude DECIMAL(10, 8), -- used for automatic assignment
+    pickup_longitude DECIMAL(11, 8),
     delivery_address TEXT NOT NULL,
     delivery_city VARCHAR(100) NOT NULL,
     delivery_postal_code VARCHAR(20) NOT NULL,
@@ -91,8 +93,21 @@ CREATE TABLE IF NOT EXISTS delivery_notifications (
     FOREIGN KEY (delivery_id) REFERENCES deliveries(id) ON DELETE CASCADE
 );
 
+-- Table: delivery_outbox
+-- Events written in the same transaction as the delivery change, relayed to the broker afterwards
+CREATE TABLE IF NOT EXISTS delivery_outbox (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    delivery_id INTEGER NOT NULL,
+    event_type VARCHAR(100) NOT NULL, -- DeliveryFinished
+    payload TEXT NOT NULL, -- JSON
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP -- NULL until relayed
+);
+
 -- Indexes for better query performance
-CREATE INDEX IF NOT EXISTS idx_deliveries_order_id ON deliveries(order_id);
+-- one delivery per order: redelivered or concurrent ready-for-delivery events cannot create a second one
+DROP INDEX IF EXISTS idx_deliveries_order_id;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_deliveries_order_id ON deliveries(order_id);
 CREATE INDEX IF NOT EXISTS idx_deliveries_deliverer_id ON deliveries(deliverer_id);
 CREATE INDEX IF NOT EXISTS idx_deliveries_status ON deliveries(status);
 CREATE INDEX IF NOT EXISTS idx_deliveries_created_at ON deliveries(created_at);
@@ -104,6 +119,8 @@ CREATE INDEX IF NOT EXISTS idx_delivery_issues_delivery_id ON delivery_issues(de
 CREATE INDEX IF NOT EXISTS idx_delivery_issues_resolution_status ON delivery_issues(resolution_status);
 CREATE INDEX IF NOT EXISTS idx_delivery_notifications_delivery_id ON delivery_notifications(delivery_id);
 CREATE INDEX IF NOT EXISTS idx_delivery_notifications_sent_status ON delivery_notifications(sent_status);
+CREATE INDEX IF NOT EXISTS idx_delivery_outbox_unpublished ON delivery_outbox(id) WHERE published_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_delivery_outbox_published_at ON delivery_outbox(published_at);
 
 -- Trigger to update updated_at timestamp on deliveries
 CREATE TRIGGER IF NOT EXISTS update_deliveries_timestamp 
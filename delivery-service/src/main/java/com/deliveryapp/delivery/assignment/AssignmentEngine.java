@@ -0,0 +1,115 @@
+package com.deliveryapp.delivery.assignment;
+
+import com.deliveryapp.delivery.entity.Delivery;
+import com.deliveryapp.delivery.entity.DeliveryStatus;
+import com.deliveryapp.delivery.repository.DeliveryRepository;
+import com.deliveryapp.delivery.service.TrackingLog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Assigns PENDING_ASSIGNMENT deliveries to the nearest deliverer whose
+ * vehicle can reach the pickup point. Deliveries without pickup coordinates,
+ * or with nobody in range, stay pending and are retried on the next run.
+ * Assignments are written with a conditional update, so a delivery changed
+ * in the meantime is left alone and its deliverer returned to the index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AssignmentEngine {
+
+    private final DeliveryRepository deliveryRepository;
+    private final DelivererIndex delivererIndex;
+    private final AssignmentProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final TrackingLog trackingLog;
+
+    @Scheduled(fixedDelayString = "${app.assignment.interval:5000}")
+    public void assignPending() {
+        if (delivererIndex.size() == 0) {
+            return;
+        }
+        long cursor = 0;
+        int assigned = 0;
+        List<Delivery> batch;
+        do {
+            batch = deliveryRepository.findAssignable(cursor, PageRequest.of(0, properties.getBatchSize()));
+            if (batch.isEmpty()) {
+                break;
+            }
+            assigned += assign(batch);
+            cursor = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == properties.getBatchSize() && delivererIndex.size() > 0);
+
+        if (assigned > 0) {
+            log.info("Assigned {} pending deliveries", assigned);
+        }
+    }
+
+    /**
+     * Tries to assign a single delivery right away.
+     *
+     * @return whether a deliverer was assigned
+     */
+    public boolean assign(Delivery delivery) {
+        return assign(List.of(delivery)) == 1;
+    }
+
+    private int assign(List<Delivery> deliveries) {
+        List<Delivery> candidates = new ArrayList<>();
+        List<SpatialGrid.Match> matches = new ArrayList<>();
+        for (Delivery delivery : deliveries) {
+            if (delivery.getPickupLatitude() == null || delivery.getPickupLongitude() == null) {
+                continue;
+            }
+            Optional<SpatialGrid.Match> match = delivererIndex.claimNearest(
+                    delivery.getPickupLatitude().doubleValue(), delivery.getPickupLongitude().doubleValue());
+            if (match.isPresent()) {
+                candidates.add(delivery);
+                matches.add(match.get());
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        int[] updated = new int[candidates.size()];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < candidates.size(); i++) {
+                    updated[i] = deliveryRepository.assignIfPending(
+                            candidates.get(i).getId(), matches.get(i).entry().delivererId());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} assignments", candidates.size(), e);
+            matches.forEach(delivererIndex::release);
+            return 0;
+        }
+
+        int assigned = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            SpatialGrid.Match match = matches.get(i);
+            if (updated[i] == 1) {
+                assigned++;
+                trackingLog.appendStatus(candidates.get(i).getId(), DeliveryStatus.ASSIGNED,
+                        "Assigned to deliverer " + match.entry().delivererId());
+                log.debug("Delivery {} assigned to deliverer {} ({} km away)",
+                        candidates.get(i).getDeliveryNumber(), match.entry().delivererId(),
+                        String.format("%.2f", match.distanceKm()));
+            } else {
+                delivererIndex.release(match);
+            }
+        }
+        return assigned;
+    }
+}
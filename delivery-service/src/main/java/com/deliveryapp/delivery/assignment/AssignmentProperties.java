@@ -0,0 +1,46 @@
+package com.deliveryapp.delivery.assignment;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of the automatic assignment engine, bound from
+ * {@code app.assignment.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.assignment")
+public class AssignmentProperties {
+
+    /** Edge length of a spatial index cell in km. */
+    private double cellSizeKm = 2;
+
+    /** Milliseconds between refreshes of the deliverer index. */
+    private long indexRefreshInterval = 15000;
+
+    /** Age after which the index is refreshed before a synchronous assignment. */
+    private Duration indexMaxAge = Duration.ofSeconds(60);
+
+    /** Milliseconds between runs over pending deliveries. */
+    private long interval = 5000;
+
+    /** Pending deliveries loaded per query. */
+    private int batchSize = 500;
+
+    /** Maximum distance to the pickup per vehicle type, in km. */
+    private Map<String, Double> maxRangeKm = new HashMap<>();
+
+    /** Range for deliverers whose vehicle type is unknown or not configured. */
+    private double defaultRangeKm = 5;
+
+    public double rangeFor(String vehicleType) {
+        return vehicleType == null ? defaultRangeKm : maxRangeKm.getOrDefault(vehicleType, defaultRangeKm);
+    }
+
+    public double maxRange() {
+        return maxRangeKm.values().stream().mapToDouble(Double::doubleValue).reduce(defaultRangeKm, Math::max);
+    }
+}
@@ -0,0 +1,105 @@
+package com.deliveryapp.delivery.assignment;
+
+import com.deliveryapp.delivery.client.DelivererPositionDTO;
+import com.deliveryapp.delivery.client.DelivererServiceClient;
+import com.deliveryapp.delivery.entity.DeliveryStatus;
+import com.deliveryapp.delivery.repository.DeliveryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory spatial index of deliverers that can take a new delivery. It is
+ * rebuilt periodically from deliverer-service positions, excluding deliverers
+ * that already have an active delivery. Deliverers claimed by an assignment
+ * are removed immediately and kept out of rebuilds until the assignment is
+ * visible in the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DelivererIndex {
+
+    private static final List<DeliveryStatus> BUSY_STATUSES = List.of(
+            DeliveryStatus.ASSIGNED, DeliveryStatus.PICKED_UP, DeliveryStatus.IN_TRANSIT, DeliveryStatus.ARRIVED);
+
+    private final DelivererServiceClient delivererServiceClient;
+    private final DeliveryRepository deliveryRepository;
+    private final AssignmentProperties properties;
+
+    private final Map<Long, Instant> recentlyClaimed = new ConcurrentHashMap<>();
+    private SpatialGrid grid;
+    private volatile Instant refreshedAt = Instant.EPOCH;
+
+    @Scheduled(fixedDelayString = "${app.assignment.index-refresh-interval:15000}")
+    public void refresh() {
+        List<DelivererPositionDTO> positions;
+        try {
+            positions = delivererServiceClient.getAvailablePositions();
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh deliverer index, keeping the previous one: {}", e.getMessage());
+            return;
+        }
+        rebuild(positions);
+    }
+
+    /** Replaces the index with the given deliverer-service positions. */
+    public void rebuild(List<DelivererPositionDTO> positions) {
+        Set<Long> busy = deliveryRepository.findDelivererIdsByStatusIn(BUSY_STATUSES);
+        Instant claimCutoff = Instant.now().minus(properties.getIndexMaxAge());
+        recentlyClaimed.values().removeIf(claimedAt -> claimedAt.isBefore(claimCutoff));
+
+        SpatialGrid next = new SpatialGrid(properties.getCellSizeKm());
+        for (DelivererPositionDTO p : positions) {
+            if (!busy.contains(p.getDelivererId()) && !recentlyClaimed.containsKey(p.getDelivererId())) {
+                next.add(new SpatialGrid.Entry(p.getDelivererId(), p.getVehicleType(),
+                        p.getLatitude(), p.getLongitude(), properties.rangeFor(p.getVehicleType())));
+            }
+        }
+        synchronized (this) {
+            grid = next;
+        }
+        refreshedAt = Instant.now();
+        log.debug("Deliverer index refreshed with {} of {} positions", next.size(), positions.size());
+    }
+
+    public boolean isStale() {
+        return refreshedAt.plus(properties.getIndexMaxAge()).isBefore(Instant.now());
+    }
+
+    /**
+     * Removes and returns the nearest deliverer able to reach the given pickup
+     * point, if any.
+     */
+    public synchronized Optional<SpatialGrid.Match> claimNearest(double latitude, double longitude) {
+        if (grid == null) {
+            return Optional.empty();
+        }
+        Optional<SpatialGrid.Match> match = grid.nearest(latitude, longitude, properties.maxRange());
+        match.ifPresent(m -> {
+            grid.remove(m.entry().delivererId());
+            recentlyClaimed.put(m.entry().delivererId(), Instant.now());
+        });
+        return match;
+    }
+
+    /** Puts back a deliverer whose claim could not be used. */
+    public synchronized void release(SpatialGrid.Match match) {
+        recentlyClaimed.remove(match.entry().delivererId());
+        if (grid != null) {
+            grid.add(match.entry());
+        }
+    }
+
+    public synchronized int size() {
+        return grid == null ? 0 : grid.size();
+    }
+}
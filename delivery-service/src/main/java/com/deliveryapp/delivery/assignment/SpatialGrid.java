@@ -0,0 +1,118 @@
+package com.deliveryapp.delivery.assignment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Uniform latitude/longitude grid of deliverer positions. A nearest-neighbour
+ * query only visits the cells around the query point, ring by ring, so its
+ * cost depends on the local density rather than on the total number of
+ * deliverers. Not thread-safe; {@link DelivererIndex} guards access.
+ */
+final class SpatialGrid {
+
+    static final double KM_PER_DEGREE = 111.32;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    record Entry(long delivererId, String vehicleType, double latitude, double longitude, double rangeKm) {
+    }
+
+    record Match(Entry entry, double distanceKm) {
+    }
+
+    private final double cellKm;
+    private final double cellDegrees;
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+    private final Map<Long, Entry> byDeliverer = new HashMap<>();
+
+    SpatialGrid(double cellKm) {
+        this.cellKm = cellKm;
+        this.cellDegrees = cellKm / KM_PER_DEGREE;
+    }
+
+    void add(Entry entry) {
+        remove(entry.delivererId());
+        byDeliverer.put(entry.delivererId(), entry);
+        cells.computeIfAbsent(cellOf(entry.latitude(), entry.longitude()), k -> new ArrayList<>(4)).add(entry);
+    }
+
+    boolean remove(long delivererId) {
+        Entry entry = byDeliverer.remove(delivererId);
+        if (entry == null) {
+            return false;
+        }
+        long cell = cellOf(entry.latitude(), entry.longitude());
+        List<Entry> entries = cells.get(cell);
+        entries.remove(entry);
+        if (entries.isEmpty()) {
+            cells.remove(cell);
+        }
+        return true;
+    }
+
+    int size() {
+        return byDeliverer.size();
+    }
+
+    /**
+     * Closest entry within {@code maxKm} of the point whose own range covers
+     * the distance to it.
+     */
+    Optional<Match> nearest(double latitude, double longitude, double maxKm) {
+        int row = index(latitude);
+        int col = index(longitude);
+        // Columns narrow away from the equator; use the narrowest width within reach as the ring bound
+        double edgeLatitude = Math.min(89.0, Math.abs(latitude) + maxKm / KM_PER_DEGREE);
+        double minCellKm = Math.max(cellKm * Math.cos(Math.toRadians(edgeLatitude)), 0.001);
+        int maxRing = (int) Math.ceil(maxKm / minCellKm);
+
+        Entry best = null;
+        double bestKm = Double.MAX_VALUE;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Anything in this ring is at least ring - 1 whole cells away
+            if (best != null && (ring - 1) * minCellKm > bestKm) {
+                break;
+            }
+            for (int dr = -ring; dr <= ring; dr++) {
+                int step = (Math.abs(dr) == ring) ? 1 : Math.max(2 * ring, 1);
+                for (int dc = -ring; dc <= ring; dc += step) {
+                    List<Entry> entries = cells.get(key(row + dr, col + dc));
+                    if (entries == null) {
+                        continue;
+                    }
+                    for (Entry entry : entries) {
+                        double km = distanceKm(latitude, longitude, entry.latitude(), entry.longitude());
+                        if (km < bestKm && km <= maxKm && km <= entry.rangeKm()) {
+                            best = entry;
+                            bestKm = km;
+                        }
+                    }
+                }
+            }
+        }
+        return best == null ? Optional.empty() : Optional.of(new Match(best, bestKm));
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return key(index(latitude), index(longitude));
+    }
+
+    private int index(double degrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+}
@@ -0,0 +1,57 @@
+package com.deliveryapp.delivery.client;
+
+import com.deliveryapp.delivery.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The {@link DelivererServiceClient} injected everywhere. Lookups by id made
+ * concurrently are sent to deliverer-service as one batch request;
+ * everything else goes straight to the Feign client.
+ */
+@Component
+@Primary
+public class BatchingDelivererServiceClient implements DelivererServiceClient {
+
+    private final DelivererServiceClient feignClient;
+    private final BatchingLoader<Long, DelivererDTO> deliverers;
+
+    public BatchingDelivererServiceClient(@Qualifier("delivererServiceFeignClient") DelivererServiceClient feignClient,
+                                          DownstreamProperties properties,
+                                          MeterRegistry meterRegistry) {
+        this.feignClient = feignClient;
+        this.deliverers = new BatchingLoader<>("deliverer-service",
+            ids -> BatchingOrderServiceClient.byId(feignClient.getDeliverersByIds(ids), DelivererDTO::getId),
+            properties.getBatching().getWindow(), properties.getBatching().getMaxBatchSize(), meterRegistry);
+    }
+
+    /** @throws ResourceNotFoundException if deliverer-service has no such deliverer */
+    @Override
+    public DelivererDTO getDelivererById(Long id) {
+        DelivererDTO deliverer = deliverers.load(id);
+        if (deliverer == null) {
+            throw new ResourceNotFoundException("Deliverer not found with ID: " + id);
+        }
+        return deliverer;
+    }
+
+    @Override
+    public List<DelivererDTO> getDeliverersByIds(Collection<Long> ids) {
+        return feignClient.getDeliverersByIds(ids);
+    }
+
+    @Override
+    public List<DelivererDTO> getAvailableDeliverers() {
+        return feignClient.getAvailableDeliverers();
+    }
+
+    @Override
+    public List<DelivererPositionDTO> getAvailablePositions() {
+        return feignClient.getAvailablePositions();
+    }
+}
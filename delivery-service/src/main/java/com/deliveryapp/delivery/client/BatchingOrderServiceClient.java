@@ -0,0 +1,69 @@
+package com.deliveryapp.delivery.client;
+
+import com.deliveryapp.delivery.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link OrderServiceClient} injected everywhere. Lookups by id made
+ * concurrently are sent to order-service as one batch request; everything
+ * else goes straight to the Feign client.
+ */
+@Component
+@Primary
+public class BatchingOrderServiceClient implements OrderServiceClient {
+
+    private final OrderServiceClient feignClient;
+    private final BatchingLoader<Long, OrderDTO> orders;
+
+    public BatchingOrderServiceClient(@Qualifier("orderServiceFeignClient") OrderServiceClient feignClient,
+                                      DownstreamProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.feignClient = feignClient;
+        this.orders = new BatchingLoader<>("order-service",
+            ids -> byId(feignClient.getOrdersByIds(ids), OrderDTO::getId),
+            properties.getBatching().getWindow(), properties.getBatching().getMaxBatchSize(), meterRegistry);
+    }
+
+    /** @throws ResourceNotFoundException if order-service has no such order */
+    @Override
+    public OrderDTO getOrderById(Long id) {
+        OrderDTO order = orders.load(id);
+        if (order == null) {
+            throw new ResourceNotFoundException("Order not found with ID: " + id);
+        }
+        return order;
+    }
+
+    @Override
+    public List<OrderDTO> getOrdersByIds(Collection<Long> ids) {
+        return feignClient.getOrdersByIds(ids);
+    }
+
+    @Override
+    public OrderPageDTO getOrdersByStatus(String status, Long cursor, int limit) {
+        return feignClient.getOrdersByStatus(status, cursor, limit);
+    }
+
+    @Override
+    public OrderDTO getOrderByOrderNumber(String orderNumber) {
+        return feignClient.getOrderByOrderNumber(orderNumber);
+    }
+
+    @Override
+    public OrderDTO updateOrderStatus(Long id, OrderStatusUpdateDTO statusUpdate) {
+        return feignClient.updateOrderStatus(id, statusUpdate);
+    }
+
+    static <V> Map<Long, V> byId(List<V> values, Function<V, Long> id) {
+        return values.stream().collect(Collectors.toMap(id, Function.identity(), (a, b) -> a));
+    }
+}
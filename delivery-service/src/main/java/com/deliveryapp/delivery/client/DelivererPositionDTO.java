@@ -0,0 +1,19 @@
+package com.deliveryapp.delivery.client;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last known position of an available deliverer as returned by
+ * deliverer-service.
+ */
+@Data
+public class DelivererPositionDTO {
+
+    private Long delivererId;
+    private String vehicleType;
+    private double latitude;
+    private double longitude;
+    private LocalDateTime updatedAt;
+}
@@ -3,19 +3,30 @@ package com.deliveryapp.delivery.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Collection;
 
 /**
  * Feign Client to communicate with Deliverer Service via Eureka
- * The name "deliverer-service" is resolved by Eureka Service Discovery
+ * The name "deliverer-service" is resolved by Eureka Service Discovery.
+ * Callers get {@link BatchingDelivererServiceClient}, which coalesces lookups by id.
  */
-@FeignClient(name = "deliverer-service")
+@FeignClient(name = "deliverer-service", qualifiers = "delivererServiceFeignClient", primary = false)
 public interface DelivererServiceClient {
     
     @GetMapping("/api/deliverers/{id}")
     DelivererDTO getDelivererById(@PathVariable("id") Long id);
     
+    /** At most 200 ids; unknown ids are left out of the result. */
+    @GetMapping("/api/deliverers")
+    java.util.List<DelivererDTO> getDeliverersByIds(@RequestParam("ids") Collection<Long> ids);
+    
     @GetMapping("/api/deliverers/available")
     java.util.List<DelivererDTO> getAvailableDeliverers();
+    
+    @GetMapping("/api/deliverers/available/positions")
+    java.util.List<DelivererPositionDTO> getAvailablePositions();
 }
 
 // DTO for communication
@@ -0,0 +1,56 @@
+package com.deliveryapp.delivery.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Deadlines and hedging of calls made through {@link ScatterGather}, and
+ * batching of lookups by id, bound from {@code app.downstream.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.downstream")
+public class DownstreamProperties {
+
+    /** Threads running downstream calls when request handling is not on virtual threads. */
+    private int poolSize = 64;
+
+    /** Settings for services without an entry in {@link #services}. */
+    private Call defaults = new Call();
+
+    /** Settings per downstream service, keyed by its Eureka name. */
+    private Map<String, Call> services = new HashMap<>();
+
+    /** Coalescing of lookups by id, see {@link BatchingLoader}. */
+    private Batching batching = new Batching();
+
+    public Call forService(String service) {
+        return services.getOrDefault(service, defaults);
+    }
+
+    @Data
+    public static class Batching {
+
+        /** How long the first lookup of a batch waits for others to join it. */
+        private Duration window = Duration.ofMillis(5);
+
+        /** A batch is sent as soon as it holds this many ids; the services accept at most 200. */
+        private int maxBatchSize = 100;
+    }
+
+    @Data
+    public static class Call {
+
+        /** How long a caller waits for the call, hedged attempt included. */
+        private Duration deadline = Duration.ofSeconds(3);
+
+        /**
+         * A second attempt of a read is sent when the first has not answered
+         * after this long, and the first answer wins. Unset disables hedging.
+         */
+        private Duration hedgeAfter;
+    }
+}
@@ -12,6 +12,7 @@ public class OrderDTO {
     private String deliveryAddress;
     private String deliveryCity;
     private String deliveryPostalCode;
+    private Long version;
 
     public Long getId() {
         return id;
@@ -60,7 +61,12 @@ public class OrderDTO {
     public void setDeliveryPostalCode(String deliveryPostalCode) {
         this.deliveryPostalCode = deliveryPostalCode;
     }
-}
-
 
+    public Long getVersion() {
+        return version;
+    }
 
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,17 @@
+package com.deliveryapp.delivery.client;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A page of orders as returned by order-service's cursor-paged listing.
+ */
+@Data
+public class OrderPageDTO {
+
+    private List<OrderDTO> items = new ArrayList<>();
+    private Long nextCursor;
+    private boolean hasMore;
+}
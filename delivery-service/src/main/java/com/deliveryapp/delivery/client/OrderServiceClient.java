@@ -5,17 +5,32 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Feign Client to communicate with Order Service via Eureka
- * The name "order-service" is resolved by Eureka Service Discovery
+ * The name "order-service" is resolved by Eureka Service Discovery.
+ * Callers get {@link BatchingOrderServiceClient}, which coalesces lookups by id.
  */
-@FeignClient(name = "order-service")
+@FeignClient(name = "order-service", qualifiers = "orderServiceFeignClient", primary = false)
 public interface OrderServiceClient {
     
     @GetMapping("/api/orders/{id}")
     OrderDTO getOrderById(@PathVariable("id") Long id);
     
+    /** At most 200 ids; unknown ids are left out of the result. */
+    @GetMapping("/api/orders")
+    List<OrderDTO> getOrdersByIds(@RequestParam("ids") Collection<Long> ids);
+    
+    /** Orders of a status, newest first; pass the previous page's nextCursor to continue. At most 200 per page. */
+    @GetMapping("/api/orders")
+    OrderPageDTO getOrdersByStatus(@RequestParam("status") String status,
+                                   @RequestParam(value = "cursor", required = false) Long cursor,
+                                   @RequestParam("limit") int limit);
+    
     @GetMapping("/api/orders/number/{orderNumber}")
     OrderDTO getOrderByOrderNumber(@PathVariable("orderNumber") String orderNumber);
     
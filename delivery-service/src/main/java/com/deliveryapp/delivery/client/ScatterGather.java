@@ -0,0 +1,197 @@
+package com.deliveryapp.delivery.client;
+
+import com.deliveryapp.delivery.exception.DownstreamUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs calls to other services concurrently so that a caller needing
+ * several independent results waits for the slowest call instead of their
+ * sum. Each call completes within its service's deadline, successfully or
+ * with a {@link TimeoutException}; reads can be hedged with a second
+ * attempt, which the load balancer usually sends to another instance.
+ *
+ * <p>Callers start all their calls first, then collect each result with
+ * {@link #required} or {@link #optional} depending on whether they can go on
+ * without it. Latencies are recorded per service and outcome as
+ * {@code delivery.downstream.latency}.
+ */
+@Component
+@Slf4j
+public class ScatterGather {
+
+    private final DownstreamProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AsyncTaskExecutor executor;
+
+    public ScatterGather(DownstreamProperties properties,
+                         MeterRegistry meterRegistry,
+                         @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.executor = virtualThreads ? virtualThreadExecutor() : pooledExecutor(properties.getPoolSize());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    /** Starts a call that must not be sent twice. */
+    public <T> CompletableFuture<T> call(String service, Supplier<T> call) {
+        return start(service, call, false);
+    }
+
+    /** Starts an idempotent call, hedged if the service has a hedge delay. */
+    public <T> CompletableFuture<T> read(String service, Supplier<T> call) {
+        return start(service, call, true);
+    }
+
+    /**
+     * Waits for a result the caller cannot do without. Errors of the call
+     * are rethrown as they are; a missed deadline becomes a
+     * {@link DownstreamUnavailableException}.
+     */
+    public static <T> T required(CompletableFuture<T> future, String what) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof TimeoutException) {
+                throw new DownstreamUnavailableException(what + " did not answer in time", cause);
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new DownstreamUnavailableException(what + " failed", cause);
+        }
+    }
+
+    /** Waits for a result the caller can do without, returning {@code fallback} if the call failed. */
+    public static <T> T optional(CompletableFuture<T> future, T fallback, String what) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.warn("{} unavailable, continuing without it: {}", what, cause.toString());
+            return fallback;
+        }
+    }
+
+    private <T> CompletableFuture<T> start(String service, Supplier<T> call, boolean hedgeable) {
+        DownstreamProperties.Call settings = properties.forService(service);
+        long startedAt = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger attempts = new AtomicInteger(1);
+
+        attempt(call, result, attempts, false, service);
+        if (hedgeable && settings.getHedgeAfter() != null && !result.isDone()) {
+            Executor delayed = CompletableFuture.delayedExecutor(settings.getHedgeAfter().toMillis(), TimeUnit.MILLISECONDS);
+            delayed.execute(() -> {
+                if (!result.isDone()) {
+                    attempts.incrementAndGet();
+                    attempt(call, result, attempts, true, service);
+                }
+            });
+        }
+
+        result.orTimeout(settings.getDeadline().toMillis(), TimeUnit.MILLISECONDS);
+        result.whenComplete((value, error) -> latencyTimer(service, outcome(error))
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS));
+        return result;
+    }
+
+    /**
+     * The first attempt to succeed completes the result; it fails only once
+     * every attempt has. When all threads are busy a first attempt runs on
+     * the caller's thread and a hedge is not sent.
+     */
+    private <T> void attempt(Supplier<T> call, CompletableFuture<T> result, AtomicInteger attempts,
+                             boolean hedge, String service) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(call, executor);
+        } catch (RejectedExecutionException e) {
+            if (hedge) {
+                attempts.decrementAndGet();
+                return;
+            }
+            future = runInline(call);
+        }
+        if (hedge) {
+            meterRegistry.counter("delivery.downstream.hedges", "service", service).increment();
+        }
+        future.whenComplete((value, error) -> {
+            if (error == null) {
+                if (result.complete(value) && hedge) {
+                    meterRegistry.counter("delivery.downstream.hedges.won", "service", service).increment();
+                }
+            } else if (attempts.decrementAndGet() == 0) {
+                result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            }
+        });
+    }
+
+    private static <T> CompletableFuture<T> runInline(Supplier<T> call) {
+        try {
+            return CompletableFuture.completedFuture(call.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Timer latencyTimer(String service, String outcome) {
+        return Timer.builder("delivery.downstream.latency")
+                .description("Time callers waited for a downstream call, hedged attempts included")
+                .tag("service", service)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String outcome(Throwable error) {
+        if (error == null) {
+            return "success";
+        }
+        return error instanceof TimeoutException ? "timeout" : "error";
+    }
+
+    private static AsyncTaskExecutor virtualThreadExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("downstream-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    private static AsyncTaskExecutor pooledExecutor(int size) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("downstream-");
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(0);
+        // no queue: a call waiting behind others would only eat into its deadline
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,10 @@
+package com.deliveryapp.delivery.config;
+
+import com.deliveryapp.delivery.assignment.AssignmentProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AssignmentProperties.class)
+public class AssignmentConfig {
+}
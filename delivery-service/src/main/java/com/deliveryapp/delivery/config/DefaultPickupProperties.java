@@ -0,0 +1,21 @@
+package com.deliveryapp.delivery.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+
+/**
+ * Pickup location used for deliveries created from order events, which do
+ * not carry one. Bound from {@code app.delivery.default-pickup.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.delivery.default-pickup")
+public class DefaultPickupProperties {
+
+    private String address;
+    private String city;
+    private String postalCode;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+}
@@ -1,6 +1,9 @@
 package com.deliveryapp.delivery.config;
 
+import com.deliveryapp.delivery.client.DownstreamProperties;
 import feign.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -9,10 +12,12 @@ import org.springframework.context.annotation.Configuration;
  * Enables logging and error handling for service-to-service communication
  */
 @Configuration
+@EnableConfigurationProperties(DownstreamProperties.class)
 public class FeignConfig {
     
+    /** FULL copies every request and response body into the log, which binary bodies make useless. */
     @Bean
-    Logger.Level feignLoggerLevel() {
-        return Logger.Level.FULL;
+    Logger.Level feignLoggerLevel(@Value("${app.feign.logger-level:BASIC}") Logger.Level level) {
+        return level;
     }
 }
@@ -0,0 +1,143 @@
+package com.deliveryapp.delivery.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.support.RetryTemplate;
+
+/**
+ * RabbitMQ topology for consumed order events and published delivery
+ * events, and a listener container factory that hands messages to listeners
+ * in batches.
+ */
+@Configuration
+@EnableConfigurationProperties(DefaultPickupProperties.class)
+public class MessagingConfig {
+
+    @Bean
+    public TopicExchange orderExchange(@Value("${app.messaging.order-exchange}") String name) {
+        return new TopicExchange(name, true, false);
+    }
+
+    /**
+     * Rejected ready-for-delivery events are dead-lettered rather than lost.
+     * A queue declared before without these arguments must be deleted once,
+     * since RabbitMQ refuses to redeclare it with different ones.
+     */
+    @Bean
+    public Queue orderReadyQueue(@Value("${app.messaging.order-ready-queue}") String name,
+                                 @Value("${app.messaging.dead-letter-exchange}") String deadLetterExchange,
+                                 @Value("${app.messaging.order-ready-dead-letter-queue}") String deadLetterQueue) {
+        return QueueBuilder.durable(name)
+                .deadLetterExchange(deadLetterExchange)
+                .deadLetterRoutingKey(deadLetterQueue)
+                .build();
+    }
+
+    @Bean
+    public DirectExchange deadLetterExchange(@Value("${app.messaging.dead-letter-exchange}") String name) {
+        return new DirectExchange(name, true, false);
+    }
+
+    @Bean
+    public Queue orderReadyDeadLetterQueue(@Value("${app.messaging.order-ready-dead-letter-queue}") String name) {
+        return QueueBuilder.durable(name).build();
+    }
+
+    @Bean
+    public Binding orderReadyDeadLetterBinding(Queue orderReadyDeadLetterQueue, DirectExchange deadLetterExchange) {
+        return BindingBuilder.bind(orderReadyDeadLetterQueue).to(deadLetterExchange)
+                .with(orderReadyDeadLetterQueue.getName());
+    }
+
+    @Bean
+    public Binding orderReadyBinding(Queue orderReadyQueue, TopicExchange orderExchange,
+                                     @Value("${app.messaging.order-ready-routing-key}") String routingKey) {
+        return BindingBuilder.bind(orderReadyQueue).to(orderExchange).with(routingKey);
+    }
+
+    /**
+     * Status changes, address changes and deletions feed the order projection
+     * each instance holds, so every instance gets its own queue, removed when
+     * it disconnects. Changes made meanwhile are covered by the warm-up on
+     * the next start.
+     */
+    @Bean
+    public Queue orderChangesQueue(@Value("${app.messaging.order-changes-queue-prefix}") String prefix) {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(prefix));
+    }
+
+    @Bean
+    public Binding orderStatusChangesBinding(Queue orderChangesQueue, TopicExchange orderExchange,
+                                             @Value("${app.messaging.order-status-routing-key}") String routingKey) {
+        return BindingBuilder.bind(orderChangesQueue).to(orderExchange).with(routingKey);
+    }
+
+    @Bean
+    public Binding orderAddressChangesBinding(Queue orderChangesQueue, TopicExchange orderExchange,
+                                              @Value("${app.messaging.order-address-routing-key}") String routingKey) {
+        return BindingBuilder.bind(orderChangesQueue).to(orderExchange).with(routingKey);
+    }
+
+    @Bean
+    public Binding orderDeletionsBinding(Queue orderChangesQueue, TopicExchange orderExchange,
+                                         @Value("${app.messaging.order-deleted-routing-key}") String routingKey) {
+        return BindingBuilder.bind(orderChangesQueue).to(orderExchange).with(routingKey);
+    }
+
+    @Bean
+    public TopicExchange deliveryExchange(@Value("${app.messaging.delivery-exchange}") String name) {
+        return new TopicExchange(name, true, false);
+    }
+
+    @Bean
+    public MessageConverter jsonMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory batchListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter jsonMessageConverter,
+            @Value("${app.messaging.batch-size:100}") int batchSize,
+            @Value("${app.messaging.batch-receive-timeout:500}") long receiveTimeout) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(jsonMessageConverter);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(batchSize);
+        // Deliver a partial batch once no new message arrives within this time
+        factory.setReceiveTimeout(receiveTimeout);
+        // listeners retry themselves; a batch they give up on goes to the dead-letter exchange, if any
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+
+    /** Retries of single events by listeners whose batch failed. */
+    @Bean
+    public RetryTemplate listenerRetryTemplate(
+            @Value("${app.messaging.retry.max-attempts:3}") int maxAttempts,
+            @Value("${app.messaging.retry.initial-interval:200}") long initialInterval,
+            @Value("${app.messaging.retry.multiplier:5}") double multiplier,
+            @Value("${app.messaging.retry.max-interval:5000}") long maxInterval) {
+        return RetryTemplate.builder()
+                .maxAttempts(maxAttempts)
+                .exponentialBackoff(initialInterval, multiplier, maxInterval)
+                .build();
+    }
+}
@@ -0,0 +1,10 @@
+package com.deliveryapp.delivery.config;
+
+import com.deliveryapp.delivery.projection.OrderProjectionProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(OrderProjectionProperties.class)
+public class OrderProjectionConfig {
+}
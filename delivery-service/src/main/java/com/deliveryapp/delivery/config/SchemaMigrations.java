@@ -0,0 +1,142 @@
+package com.deliveryapp.delivery.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Brings the database up to date with {@code database/schema.sql} when the
+ * service starts. The Dockerfile creates the database from that script when
+ * the image is built, but the data volume keeps the database an earlier
+ * version created, without the columns, tables and indexes added since.
+ * Before the data source is handed out, on the writer connection and in one
+ * transaction:
+ * <ol>
+ * <li>columns added since are added to the tables that exist, since
+ * {@code CREATE TABLE IF NOT EXISTS} leaves those alone;</li>
+ * <li>rows that would break a unique index added since are removed;</li>
+ * <li>the script runs; every statement in it can be repeated.</li>
+ * </ol>
+ * Nothing is done when the script is not found, e.g. when running outside
+ * the container without {@code app.sqlite.schema-script}.
+ */
+@Slf4j
+final class SchemaMigrations {
+
+    private record Column(String table, String name, String definition) {
+    }
+
+    private static final List<Column> ADDED_COLUMNS = List.of(
+        new Column("deliveries", "pickup_latitude", "DECIMAL(10, 8)"),
+        new Column("deliveries", "pickup_longitude", "DECIMAL(11, 8)"));
+
+    private static final List<String> DELIVERY_CHILD_TABLES = List.of(
+        "delivery_tracking", "delivery_status_history", "delivery_issues", "delivery_notifications", "delivery_outbox");
+
+    private SchemaMigrations() {
+    }
+
+    static void apply(DataSource dataSource, String scriptLocation) {
+        Resource script = new DefaultResourceLoader().getResource(scriptLocation);
+        if (!script.exists()) {
+            log.info("No schema script at {}, leaving the database schema as it is", scriptLocation);
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                for (Column column : ADDED_COLUMNS) {
+                    addColumn(connection, statement, column);
+                }
+                removeDuplicateDeliveries(connection, statement);
+                statement.executeUpdate(script.getContentAsString(StandardCharsets.UTF_8));
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not bring the database schema up to date with " + scriptLocation, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Database schema up to date with {}", scriptLocation);
+    }
+
+    private static void addColumn(Connection connection, Statement statement, Column column) throws SQLException {
+        if (exists(connection, "table", column.table()) && !hasColumn(connection, column.table(), column.name())) {
+            log.info("Adding column {}.{}", column.table(), column.name());
+            statement.executeUpdate("ALTER TABLE " + column.table() + " ADD COLUMN " + column.name() + " " + column.definition());
+        }
+    }
+
+    /**
+     * Orders that got two deliveries before {@code uq_deliveries_order_id}
+     * existed keep the delivery that got furthest: the one with a deliverer,
+     * else the first created. The others go, with the rows that refer to
+     * them, since foreign keys are not enforced.
+     */
+    private static void removeDuplicateDeliveries(Connection connection, Statement statement) throws SQLException {
+        if (!exists(connection, "table", "deliveries") || exists(connection, "index", "uq_deliveries_order_id")) {
+            return;
+        }
+        statement.executeUpdate("""
+            CREATE TEMP TABLE duplicate_deliveries AS
+            SELECT id FROM (
+                SELECT id, ROW_NUMBER() OVER (
+                    PARTITION BY order_id ORDER BY deliverer_id IS NULL, id) AS rank
+                FROM deliveries)
+            WHERE rank > 1""");
+        try {
+            int duplicates = count(statement, "SELECT COUNT(*) FROM duplicate_deliveries");
+            if (duplicates > 0) {
+                log.warn("Removing {} duplicate deliveries before creating uq_deliveries_order_id", duplicates);
+                for (String table : DELIVERY_CHILD_TABLES) {
+                    if (exists(connection, "table", table)) {
+                        statement.executeUpdate("DELETE FROM " + table + " WHERE delivery_id IN (SELECT id FROM duplicate_deliveries)");
+                    }
+                }
+                statement.executeUpdate("DELETE FROM deliveries WHERE id IN (SELECT id FROM duplicate_deliveries)");
+            }
+        } finally {
+            statement.executeUpdate("DROP TABLE duplicate_deliveries");
+        }
+    }
+
+    private static boolean exists(Connection connection, String type, String name) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement("SELECT 1 FROM sqlite_master WHERE type = ? AND name = ?")) {
+            query.setString(1, type);
+            query.setString(2, name);
+            try (ResultSet rs = query.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement("SELECT 1 FROM pragma_table_info(?) WHERE name = ?")) {
+            query.setString(1, table);
+            query.setString(2, column);
+            try (ResultSet rs = query.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static int count(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
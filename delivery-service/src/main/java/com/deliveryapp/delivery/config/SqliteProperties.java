@@ -0,0 +1,34 @@
+package com.deliveryapp.delivery.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Connection and pragma settings for the SQLite database, bound from
+ * {@code app.sqlite.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.sqlite")
+public class SqliteProperties {
+
+    /** Journal mode; WAL lets readers run while a write is in progress. */
+    private String journalMode = "WAL";
+
+    /** NORMAL is durable across application crashes in WAL mode and avoids an fsync per commit. */
+    private String synchronous = "NORMAL";
+
+    /** Milliseconds a connection waits on a locked database before failing with SQLITE_BUSY. */
+    private int busyTimeout = 5000;
+
+    /** Bytes of the database file to memory-map for reads; 0 disables mmap. */
+    private long mmapSize = 268435456L;
+
+    /** Number of pooled read-only connections. Writes always go through a single connection. */
+    private int readerPoolSize = 4;
+
+    /** Milliseconds a caller waits for a pooled connection. */
+    private long connectionTimeout = 30000;
+
+    /** Schema the database is brought up to date with on startup, see {@link SchemaMigrations}. */
+    private String schemaScript = "file:/app/database/schema.sql";
+}
@@ -1,14 +1,20 @@
 package com.deliveryapp.delivery.controller;
 
 import com.deliveryapp.delivery.dto.DeliveryDTO;
+import com.deliveryapp.delivery.dto.TrackingPointDTO;
+import com.deliveryapp.delivery.dto.TrackingTimelineDTO;
+import com.deliveryapp.delivery.exception.BadRequestException;
+import com.deliveryapp.delivery.service.DeliveryOrchestrationService;
 import com.deliveryapp.delivery.service.DeliveryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,7 +23,10 @@ import java.util.List;
 @Slf4j
 public class DeliveryController {
 
+    private static final int MAX_BATCH_IDS = 200;
+
     private final DeliveryService deliveryService;
+    private final DeliveryOrchestrationService orchestrationService;
 
     @PostMapping
     public ResponseEntity<DeliveryDTO> create(@Valid @RequestBody DeliveryDTO dto) {
@@ -26,12 +35,37 @@ public class DeliveryController {
         return new ResponseEntity<>(created, HttpStatus.CREATED);
     }
 
+    /**
+     * Creates the delivery of an order from the order itself, picked up at
+     * the default pickup point, and assigns the nearest available deliverer
+     * right away when there is one in range.
+     */
+    @PostMapping("/from-order/{orderId}")
+    public ResponseEntity<DeliveryDTO> createFromOrder(@PathVariable Long orderId) {
+        log.info("REST request to create delivery from order ID: {}", orderId);
+        DeliveryDTO created = orchestrationService.createDeliveryFromOrder(orderId);
+        return new ResponseEntity<>(created, HttpStatus.CREATED);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<DeliveryDTO> getById(@PathVariable Long id) {
         log.info("REST request to get delivery by ID: {}", id);
         return ResponseEntity.ok(deliveryService.getById(id));
     }
 
+    /**
+     * Batch lookup for other services: the deliveries with the given ids, at
+     * most {@value #MAX_BATCH_IDS} per request. Unknown ids are left out.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<DeliveryDTO>> getByIds(@RequestParam List<Long> ids) {
+        log.info("REST request to get {} deliveries by ID", ids.size());
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new BadRequestException("At most " + MAX_BATCH_IDS + " ids per request");
+        }
+        return ResponseEntity.ok(deliveryService.getByIds(ids));
+    }
+
     @GetMapping
     public ResponseEntity<List<DeliveryDTO>> getAll(
             @RequestParam(required = false) Long delivererId) {
@@ -58,8 +92,22 @@ public class DeliveryController {
     }
 
     @GetMapping("/{id}/track")
-    public ResponseEntity<List<java.util.Map<String, Object>>> getTracking(@PathVariable Long id) {
-        log.info("REST request to get tracking for delivery ID: {}", id);
-        return ResponseEntity.ok(deliveryService.getTracking(id));
+    public ResponseEntity<TrackingTimelineDTO> getTracking(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer maxPoints) {
+        log.debug("REST request to get tracking for delivery ID: {}, since: {}", id, since);
+        return ResponseEntity.ok(deliveryService.getTracking(id, since, from, to, maxPoints));
+    }
+
+    @PostMapping("/{id}/track")
+    public ResponseEntity<Void> addTrackingPoint(
+            @PathVariable Long id,
+            @Valid @RequestBody TrackingPointDTO point) {
+        log.debug("REST request to add tracking point for delivery ID: {}", id);
+        deliveryService.addTrackingPoint(id, point);
+        return ResponseEntity.accepted().build();
     }
 }
@@ -37,6 +37,9 @@ public class DeliveryDTO {
     @Size(max = 20)
     private String pickupPostalCode;
 
+    private BigDecimal pickupLatitude;
+    private BigDecimal pickupLongitude;
+
     @NotBlank(message = "Delivery address is required")
     private String deliveryAddress;
 
@@ -0,0 +1,28 @@
+package com.deliveryapp.delivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Tracking entries of a delivery in log order. Pass {@code nextSince} back as
+ * the {@code since} request parameter to fetch only newer entries.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrackingTimelineDTO {
+
+    private Long deliveryId;
+
+    private List<TrackingPointDTO> points;
+
+    /** Location points in range before downsampling. */
+    private long totalLocations;
+
+    private boolean downsampled;
+
+    private Long nextSince;
+}
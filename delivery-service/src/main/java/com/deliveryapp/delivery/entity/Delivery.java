@@ -24,7 +24,7 @@ public class Delivery {
     @Column(name = "delivery_number", nullable = false, unique = true, length = 50)
     private String deliveryNumber;
 
-    @Column(name = "order_id", nullable = false)
+    @Column(name = "order_id", nullable = false, unique = true)
     private Long orderId;
 
     @Column(name = "order_number", nullable = false, length = 50)
@@ -46,6 +46,12 @@ public class Delivery {
     @Column(name = "pickup_postal_code", nullable = false, length = 20)
     private String pickupPostalCode;
 
+    @Column(name = "pickup_latitude", precision = 10, scale = 8)
+    private BigDecimal pickupLatitude;
+
+    @Column(name = "pickup_longitude", precision = 11, scale = 8)
+    private BigDecimal pickupLongitude;
+
     @Column(name = "delivery_address", nullable = false, columnDefinition = "TEXT")
     private String deliveryAddress;
 
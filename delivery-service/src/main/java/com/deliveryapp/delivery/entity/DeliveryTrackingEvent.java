@@ -0,0 +1,48 @@
+package com.deliveryapp.delivery.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entry of the append-only tracking log of a delivery: either a location
+ * point ({@code status} = LOCATION) or a status change.
+ */
+@Entity
+@Table(name = "delivery_tracking")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryTrackingEvent {
+
+    public static final String LOCATION = "LOCATION";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "delivery_id", nullable = false)
+    private Long deliveryId;
+
+    @Column(precision = 10, scale = 8)
+    private BigDecimal latitude;
+
+    @Column(precision = 11, scale = 8)
+    private BigDecimal longitude;
+
+    @Column(name = "location_name")
+    private String locationName;
+
+    @Column(nullable = false, length = 50)
+    private String status;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(name = "timestamp")
+    private LocalDateTime timestamp;
+}
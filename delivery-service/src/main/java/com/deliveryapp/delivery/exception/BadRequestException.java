@@ -0,0 +1,12 @@
+package com.deliveryapp.delivery.exception;
+
+/**
+ * A request the client has to change before sending it again, answered
+ * with 400 Bad Request.
+ */
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
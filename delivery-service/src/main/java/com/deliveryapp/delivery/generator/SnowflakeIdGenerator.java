@@ -0,0 +1,94 @@
+package com.deliveryapp.delivery.generator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style id generator: 41 bits of milliseconds since a custom epoch,
+ * 10 bits of node id and 12 bits of per-millisecond sequence.
+ * <p>
+ * The timestamp and sequence are packed into a single {@link AtomicLong} and
+ * advanced with a CAS loop, so ids are generated without locks and without a
+ * database round trip. When the sequence overflows within one millisecond the
+ * carry simply moves the packed timestamp forward; the clock catches up on the
+ * next call, which keeps ids unique and monotonic even if the wall clock
+ * steps backwards.
+ * <p>
+ * Ids are only unique across instances whose node ids differ, so every
+ * deployed instance must be given its own through
+ * {@code app.id-generator.node-id}. A node id derived from the host name may
+ * collide between replicas and is only used for local runs, with no active
+ * profile or the {@code dev} profile; any other profile fails to start
+ * without one.
+ */
+@Component
+@Slf4j
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private final long nodeId;
+
+    /** (timestamp << SEQUENCE_BITS) | sequence of the last id handed out. */
+    private final AtomicLong state = new AtomicLong();
+
+    @Autowired
+    public SnowflakeIdGenerator(@Value("${app.id-generator.node-id:-1}") long nodeId, Environment environment) {
+        this(nodeId >= 0 ? nodeId : localNodeId(environment));
+    }
+
+    public SnowflakeIdGenerator(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        log.info("Snowflake id generator initialised with node ID: {}", this.nodeId);
+    }
+
+    @Override
+    public long nextId() {
+        long now = System.currentTimeMillis() - EPOCH;
+        long next;
+        long prev;
+        do {
+            prev = state.get();
+            next = Math.max(now << SEQUENCE_BITS, prev + 1);
+        } while (!state.compareAndSet(prev, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    private static long localNodeId(Environment environment) {
+        List<String> profiles = List.of(environment.getActiveProfiles());
+        if (!profiles.isEmpty() && !profiles.contains("dev")) {
+            throw new IllegalStateException("app.id-generator.node-id (ID_GENERATOR_NODE_ID) must be set with profiles "
+                + profiles + ": a node ID derived from the host name may collide between replicas");
+        }
+        long nodeId = deriveNodeId();
+        log.warn("No node ID configured, using {} derived from the host name; set ID_GENERATOR_NODE_ID when deploying", nodeId);
+        return nodeId;
+    }
+
+    private static long deriveNodeId() {
+        try {
+            String host = InetAddress.getLocalHost().getHostName();
+            return (host.hashCode() & Integer.MAX_VALUE) % (MAX_NODE_ID + 1);
+        } catch (Exception e) {
+            return ProcessHandle.current().pid() % (MAX_NODE_ID + 1);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.deliveryapp.delivery.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published once per delivery when it first reaches DELIVERED or FAILED
+ * with a deliverer assigned; deliverer-service aggregates it into the
+ * deliverer's performance. Duration and distance are null when unknown.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryFinishedEvent {
+
+    private Long deliveryId;
+    private String deliveryNumber;
+    private Long delivererId;
+    /** DELIVERED or FAILED */
+    private String outcome;
+    private LocalDateTime pickedUpAt;
+    private LocalDateTime finishedAt;
+    /** Minutes from pickup to the end of the delivery. */
+    private Integer durationMinutes;
+    private BigDecimal distanceKm;
+}
@@ -0,0 +1,65 @@
+package com.deliveryapp.delivery.messaging;
+
+import com.deliveryapp.delivery.entity.Delivery;
+import com.deliveryapp.delivery.entity.DeliveryOutboxEvent;
+import com.deliveryapp.delivery.repository.DeliveryOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Records delivery events in the delivery_outbox table, in the transaction
+ * that changes the delivery; {@link DeliveryOutboxRelay} publishes them
+ * afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeliveryOutbox {
+
+    public static final String DELIVERY_FINISHED = "DeliveryFinished";
+
+    private final DeliveryOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    /** Records that {@code delivery} has just reached DELIVERED or FAILED. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordFinished(Delivery delivery) {
+        LocalDateTime finishedAt = delivery.getActualDeliveryTime() != null
+                ? delivery.getActualDeliveryTime() : LocalDateTime.now();
+        Integer duration = delivery.getActualDuration();
+        if (duration == null && delivery.getActualPickupTime() != null
+                && !finishedAt.isBefore(delivery.getActualPickupTime())) {
+            duration = (int) Duration.between(delivery.getActualPickupTime(), finishedAt).toMinutes();
+        }
+        BigDecimal distance = delivery.getActualDistance();
+
+        DeliveryOutboxEvent event = new DeliveryOutboxEvent();
+        event.setDeliveryId(delivery.getId());
+        event.setEventType(DELIVERY_FINISHED);
+        event.setPayload(toJson(new DeliveryFinishedEvent(
+                delivery.getId(),
+                delivery.getDeliveryNumber(),
+                delivery.getDelivererId(),
+                delivery.getStatus().name(),
+                delivery.getActualPickupTime(),
+                finishedAt,
+                duration,
+                distance)));
+        outboxRepository.save(event);
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + payload.getClass().getSimpleName(), e);
+        }
+    }
+}
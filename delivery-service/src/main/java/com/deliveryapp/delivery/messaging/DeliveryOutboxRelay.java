@@ -0,0 +1,140 @@
+package com.deliveryapp.delivery.messaging;
+
+import com.deliveryapp.delivery.entity.DeliveryOutboxEvent;
+import com.deliveryapp.delivery.repository.DeliveryOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes delivery outbox events to the delivery exchange, waiting for the
+ * broker's confirm before marking them published. Delivery is at-least-once;
+ * consumers deduplicate by delivery id. A failed publish stops the run so
+ * events stay in order, and is retried on the next one.
+ */
+@Component
+@Slf4j
+public class DeliveryOutboxRelay {
+
+    private final DeliveryOutboxRepository outboxRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final String exchange;
+    private final String finishedRoutingKey;
+    private final int batchSize;
+    private final long confirmTimeout;
+    private final Duration retention;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final AtomicLong pending = new AtomicLong();
+
+    public DeliveryOutboxRelay(DeliveryOutboxRepository outboxRepository,
+                               RabbitTemplate rabbitTemplate,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.messaging.delivery-exchange}") String exchange,
+                               @Value("${app.messaging.delivery-finished-routing-key}") String finishedRoutingKey,
+                               @Value("${app.outbox.batch-size:200}") int batchSize,
+                               @Value("${app.outbox.confirm-timeout:5000}") long confirmTimeout,
+                               @Value("${app.outbox.retention:P7D}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.exchange = exchange;
+        this.finishedRoutingKey = finishedRoutingKey;
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+        this.retention = retention;
+
+        this.publishedCounter = meterRegistry.counter("delivery.outbox.published");
+        this.failedCounter = meterRegistry.counter("delivery.outbox.failed");
+        Gauge.builder("delivery.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events not yet published")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:1000}")
+    public void relay() {
+        List<DeliveryOutboxEvent> batch;
+        do {
+            batch = readTransaction.execute(status ->
+                    outboxRepository.findByPublishedAtIsNullOrderByIdAsc(PageRequest.of(0, batchSize)));
+            if (batch.isEmpty() || publishBatch(batch) < batch.size()) {
+                break;
+            }
+        } while (batch.size() == batchSize);
+        pending.set(readTransaction.execute(status -> outboxRepository.countByPublishedAtIsNull()));
+    }
+
+    @Scheduled(cron = "${app.outbox.purge-cron:0 30 * * * *}")
+    public void purgePublished() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        Integer deleted = writeTransaction.execute(status -> outboxRepository.deletePublishedBefore(before));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} published outbox events older than {}", deleted, before);
+        }
+    }
+
+    private int publishBatch(List<DeliveryOutboxEvent> batch) {
+        List<Long> published = new ArrayList<>(batch.size());
+        for (DeliveryOutboxEvent event : batch) {
+            try {
+                publish(event);
+                published.add(event.getId());
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                log.warn("Failed to publish outbox event {} ({}) for delivery {}: {}",
+                        event.getId(), event.getEventType(), event.getDeliveryId(), e.getMessage());
+                break;
+            }
+        }
+        if (!published.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            writeTransaction.executeWithoutResult(status -> outboxRepository.markPublished(published, now));
+            publishedCounter.increment(published.size());
+        }
+        return published.size();
+    }
+
+    private void publish(DeliveryOutboxEvent event) {
+        if (!DeliveryOutbox.DELIVERY_FINISHED.equals(event.getEventType())) {
+            throw new IllegalStateException("No routing key for event type " + event.getEventType());
+        }
+        Message message = MessageBuilder.withBody(event.getPayload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setMessageId(String.valueOf(event.getId()))
+                .setType(event.getEventType())
+                .setHeader("deliveryId", event.getDeliveryId())
+                .build();
+        rabbitTemplate.invoke(operations -> {
+            operations.send(exchange, finishedRoutingKey, message);
+            operations.waitForConfirmsOrDie(confirmTimeout);
+            return null;
+        });
+    }
+}
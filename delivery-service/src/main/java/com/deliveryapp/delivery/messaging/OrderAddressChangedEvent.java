@@ -0,0 +1,25 @@
+package com.deliveryapp.delivery.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Consumed from order-service when the delivery address of an order changes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderAddressChangedEvent {
+
+    private Long orderId;
+    private String orderNumber;
+    private String status;
+    private String deliveryAddress;
+    private String deliveryCity;
+    private String deliveryPostalCode;
+    private Long version;
+    private LocalDateTime changedAt;
+}
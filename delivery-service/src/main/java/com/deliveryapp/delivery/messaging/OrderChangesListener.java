@@ -0,0 +1,54 @@
+package com.deliveryapp.delivery.messaging;
+
+import com.deliveryapp.delivery.projection.OrderProjection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Keeps the {@link OrderProjection} of this instance up to date. Every
+ * instance consumes its own queue, since each holds its own projection.
+ * The queue receives several event types, told apart by the AMQP type
+ * order-service sets; events of other types are ignored.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderChangesListener {
+
+    static final String STATUS_CHANGED = "OrderStatusChanged";
+    static final String ADDRESS_CHANGED = "OrderAddressChanged";
+    static final String DELETED = "OrderDeleted";
+
+    private final OrderProjection orderProjection;
+    private final ObjectMapper objectMapper;
+
+    @RabbitListener(queues = "#{orderChangesQueue.name}", containerFactory = "batchListenerContainerFactory")
+    public void onOrdersChanged(List<Message> messages) {
+        log.debug("Received {} order change events", messages.size());
+        for (Message message : messages) {
+            String type = message.getMessageProperties().getType();
+            try {
+                switch (type == null ? "" : type) {
+                    case STATUS_CHANGED -> orderProjection.apply(read(message, OrderStatusChangedEvent.class));
+                    case ADDRESS_CHANGED -> orderProjection.apply(read(message, OrderAddressChangedEvent.class));
+                    case DELETED -> orderProjection.apply(read(message, OrderDeletedEvent.class));
+                    default -> log.debug("Ignoring order event of type {}", type);
+                }
+            } catch (IOException e) {
+                // the projection only caches orders; a copy missed here expires and is looked up again
+                log.warn("Could not read {} event {}: {}", type, message.getMessageProperties().getMessageId(), e.getMessage());
+            }
+        }
+    }
+
+    private <T> T read(Message message, Class<T> type) throws IOException {
+        return objectMapper.readValue(message.getBody(), type);
+    }
+}
@@ -0,0 +1,22 @@
+package com.deliveryapp.delivery.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Consumed from order-service when an order is deleted; {@code version} is
+ * the last version the order had.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDeletedEvent {
+
+    private Long orderId;
+    private String orderNumber;
+    private Long version;
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,56 @@
+package com.deliveryapp.delivery.messaging;
+
+import com.deliveryapp.delivery.service.DeliveryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates deliveries for orders that became ready for delivery. Messages are
+ * received in batches and written in one transaction; if that fails, the
+ * batch is retried one event at a time, with backoff, so a single bad event
+ * cannot block the others.
+ *
+ * <p>If some events still fail, the whole batch is rejected and RabbitMQ
+ * moves it to the dead-letter queue. Sending it back to the main queue is
+ * safe: orders that already got their delivery are skipped.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderReadyForDeliveryListener {
+
+    private final DeliveryService deliveryService;
+    private final RetryTemplate listenerRetryTemplate;
+
+    @RabbitListener(queues = "${app.messaging.order-ready-queue}", containerFactory = "batchListenerContainerFactory")
+    public void onOrdersReady(List<OrderReadyForDeliveryEvent> events) {
+        log.info("Received {} ready-for-delivery events", events.size());
+        try {
+            deliveryService.createDeliveriesForOrders(events);
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} ready-for-delivery events failed, retrying individually", events.size(), e);
+        }
+
+        List<Long> failed = new ArrayList<>();
+        for (OrderReadyForDeliveryEvent event : events) {
+            try {
+                listenerRetryTemplate.execute(context -> deliveryService.createDeliveriesForOrders(List.of(event)));
+            } catch (RuntimeException e) {
+                log.error("Could not create delivery for order {}", event.getOrderNumber(), e);
+                failed.add(event.getOrderId());
+            }
+        }
+        if (!failed.isEmpty()) {
+            throw new AmqpRejectAndDontRequeueException("No delivery could be created for orders " + failed
+                    + "; dead-lettering the batch of " + events.size());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.deliveryapp.delivery.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Consumed from order-service on every status change, creation included.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusChangedEvent {
+
+    private Long orderId;
+    private String orderNumber;
+    private Long customerId;
+    private String oldStatus;
+    private String newStatus;
+    private String deliveryAddress;
+    private String deliveryCity;
+    private String deliveryPostalCode;
+    private Long version;
+    private LocalDateTime changedAt;
+}
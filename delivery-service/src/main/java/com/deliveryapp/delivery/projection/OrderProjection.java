@@ -0,0 +1,136 @@
+package com.deliveryapp.delivery.projection;
+
+import com.deliveryapp.delivery.client.OrderPageDTO;
+import com.deliveryapp.delivery.client.OrderServiceClient;
+import com.deliveryapp.delivery.messaging.OrderAddressChangedEvent;
+import com.deliveryapp.delivery.messaging.OrderDeletedEvent;
+import com.deliveryapp.delivery.messaging.OrderStatusChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Local copy of the orders delivery-service creates deliveries for, so that
+ * creating one does not need a call to order-service. It is loaded with the
+ * orders that may still need a delivery when the service starts, and kept
+ * up to date from order-service's status-changed, address-changed and
+ * deleted events.
+ *
+ * <p>Events and lookups may arrive out of order; a copy never replaces one
+ * with a higher version. Deleted orders are held as such until they expire,
+ * and are not found. Orders that are not held are looked up in order-service
+ * and kept. Hit rates are exported as
+ * {@code cache.gets{cache=delivery.order-projection}}.
+ */
+@Component
+@Slf4j
+public class OrderProjection {
+
+    private final OrderServiceClient orderServiceClient;
+    private final OrderProjectionProperties properties;
+    private final Cache<Long, ProjectedOrder> orders;
+    private final Counter appliedEvents;
+    private final Counter staleEvents;
+
+    public OrderProjection(OrderServiceClient orderServiceClient,
+                           OrderProjectionProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.orderServiceClient = orderServiceClient;
+        this.properties = properties;
+        this.orders = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, orders, "delivery.order-projection");
+        this.appliedEvents = meterRegistry.counter("delivery.order-projection.events", "outcome", "applied");
+        this.staleEvents = meterRegistry.counter("delivery.order-projection.events", "outcome", "stale");
+    }
+
+    /** Returns the order if it is held, without calling order-service. */
+    public Optional<ProjectedOrder> find(Long orderId) {
+        return Optional.ofNullable(orders.getIfPresent(orderId)).filter(order -> !order.deleted());
+    }
+
+    /**
+     * Returns the order, looking it up in order-service if it is not held.
+     *
+     * @throws com.deliveryapp.delivery.exception.ResourceNotFoundException if order-service has no such order
+     */
+    public ProjectedOrder get(Long orderId) {
+        return find(orderId).orElseGet(() -> load(orderId));
+    }
+
+    /** Looks the order up in order-service and keeps it. */
+    public ProjectedOrder load(Long orderId) {
+        return put(ProjectedOrder.of(orderServiceClient.getOrderById(orderId)));
+    }
+
+    public void apply(OrderStatusChangedEvent event) {
+        apply(ProjectedOrder.of(event));
+    }
+
+    public void apply(OrderAddressChangedEvent event) {
+        apply(ProjectedOrder.of(event));
+    }
+
+    public void apply(OrderDeletedEvent event) {
+        apply(ProjectedOrder.of(event));
+    }
+
+    /**
+     * Loads the orders that may still need a delivery. It runs before the
+     * service reports itself ready; if order-service cannot be reached the
+     * service starts with what was loaded and fills in on first use.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        int loaded = 0;
+        try {
+            for (String status : properties.getWarmUpStatuses()) {
+                Long cursor = null;
+                OrderPageDTO page;
+                do {
+                    int limit = Math.min(properties.getWarmUpPageSize(), properties.getWarmUpMaxOrders() - loaded);
+                    if (limit <= 0) {
+                        break;
+                    }
+                    page = orderServiceClient.getOrdersByStatus(status, cursor, limit);
+                    page.getItems().forEach(order -> put(ProjectedOrder.of(order)));
+                    loaded += page.getItems().size();
+                    cursor = page.getNextCursor();
+                } while (page.isHasMore());
+            }
+            log.info("Order projection warmed up with {} orders", loaded);
+        } catch (RuntimeException e) {
+            log.warn("Order projection warm-up stopped after {} orders: {}", loaded, e.getMessage());
+        }
+    }
+
+    public long size() {
+        return orders.estimatedSize();
+    }
+
+    private void apply(ProjectedOrder incoming) {
+        if (put(incoming) == incoming) {
+            appliedEvents.increment();
+        } else {
+            staleEvents.increment();
+        }
+    }
+
+    /** Keeps {@code incoming} unless a later copy is held, and returns the copy held. */
+    private ProjectedOrder put(ProjectedOrder incoming) {
+        return orders.asMap().merge(incoming.id(), incoming,
+                (current, next) -> next.olderThan(current) ? current : next);
+    }
+}
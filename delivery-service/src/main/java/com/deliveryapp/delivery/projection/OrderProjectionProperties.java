@@ -0,0 +1,35 @@
+package com.deliveryapp.delivery.projection;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Size, freshness and warm-up of the local order projection, bound from
+ * {@code app.order-projection.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.order-projection")
+public class OrderProjectionProperties {
+
+    /** Orders held; the least valuable are evicted beyond this. */
+    private long maxEntries = 50000;
+
+    /**
+     * Age after which an order is dropped and looked up again, so a change
+     * whose event was missed is not served forever.
+     */
+    private Duration ttl = Duration.ofMinutes(30);
+
+    /** Statuses of the orders loaded at startup, those that may still need a delivery. */
+    private List<String> warmUpStatuses = new ArrayList<>(List.of("CONFIRMED", "PROCESSING", "READY_FOR_DELIVERY"));
+
+    /** Orders loaded at startup at most, over all statuses. */
+    private int warmUpMaxOrders = 20000;
+
+    /** Orders per page read from order-service during warm-up; order-service allows up to 200. */
+    private int warmUpPageSize = 200;
+}
@@ -0,0 +1,58 @@
+package com.deliveryapp.delivery.projection;
+
+import com.deliveryapp.delivery.client.OrderDTO;
+import com.deliveryapp.delivery.messaging.OrderAddressChangedEvent;
+import com.deliveryapp.delivery.messaging.OrderDeletedEvent;
+import com.deliveryapp.delivery.messaging.OrderStatusChangedEvent;
+
+/**
+ * The part of an order delivery-service needs, as held by
+ * {@link OrderProjection}. {@code version} is order-service's version of the
+ * order, which increases with every update and orders the copies received
+ * by event and by lookup; it is null when order-service did not send one.
+ * A deleted order is held as a copy with {@code deleted} set, so that a
+ * late copy of the order cannot bring it back.
+ */
+public record ProjectedOrder(Long id,
+                             String orderNumber,
+                             String status,
+                             String deliveryAddress,
+                             String deliveryCity,
+                             String deliveryPostalCode,
+                             Long version,
+                             boolean deleted) {
+
+    public static ProjectedOrder of(OrderDTO order) {
+        return new ProjectedOrder(order.getId(), order.getOrderNumber(), order.getStatus(),
+                order.getDeliveryAddress(), order.getDeliveryCity(), order.getDeliveryPostalCode(),
+                order.getVersion(), false);
+    }
+
+    public static ProjectedOrder of(OrderStatusChangedEvent event) {
+        return new ProjectedOrder(event.getOrderId(), event.getOrderNumber(), event.getNewStatus(),
+                event.getDeliveryAddress(), event.getDeliveryCity(), event.getDeliveryPostalCode(),
+                event.getVersion(), false);
+    }
+
+    public static ProjectedOrder of(OrderAddressChangedEvent event) {
+        return new ProjectedOrder(event.getOrderId(), event.getOrderNumber(), event.getStatus(),
+                event.getDeliveryAddress(), event.getDeliveryCity(), event.getDeliveryPostalCode(),
+                event.getVersion(), false);
+    }
+
+    public static ProjectedOrder of(OrderDeletedEvent event) {
+        return new ProjectedOrder(event.getOrderId(), event.getOrderNumber(), null,
+                null, null, null, event.getVersion(), true);
+    }
+
+    /**
+     * Whether this copy is known to predate {@code other}. The deletion of an
+     * order carries its last version, so it wins over a copy of that version.
+     */
+    public boolean olderThan(ProjectedOrder other) {
+        if (version == null || other.version == null) {
+            return false;
+        }
+        return version < other.version || (version.equals(other.version) && other.deleted && !deleted);
+    }
+}
@@ -2,11 +2,17 @@ package com.deliveryapp.delivery.repository;
 
 import com.deliveryapp.delivery.entity.Delivery;
 import com.deliveryapp.delivery.entity.DeliveryStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
@@ -15,9 +21,26 @@ public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
 
     List<Delivery> findByOrderId(Long orderId);
 
+    @Query("SELECT d.orderId FROM Delivery d WHERE d.orderId IN :orderIds")
+    Set<Long> findExistingOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
     List<Delivery> findByDelivererId(Long delivererId);
 
     List<Delivery> findByStatus(DeliveryStatus status);
 
     boolean existsByDeliveryNumber(String deliveryNumber);
+
+    @Query("SELECT DISTINCT d.delivererId FROM Delivery d WHERE d.status IN :statuses AND d.delivererId IS NOT NULL")
+    Set<Long> findDelivererIdsByStatusIn(@Param("statuses") Collection<DeliveryStatus> statuses);
+
+    /** Pending deliveries with a pickup location, in id order after the cursor. */
+    @Query("SELECT d FROM Delivery d WHERE d.status = com.deliveryapp.delivery.entity.DeliveryStatus.PENDING_ASSIGNMENT " +
+           "AND d.pickupLatitude IS NOT NULL AND d.pickupLongitude IS NOT NULL AND d.id > :cursor ORDER BY d.id")
+    List<Delivery> findAssignable(@Param("cursor") Long cursor, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Delivery d SET d.delivererId = :delivererId, " +
+           "d.status = com.deliveryapp.delivery.entity.DeliveryStatus.ASSIGNED " +
+           "WHERE d.id = :id AND d.status = com.deliveryapp.delivery.entity.DeliveryStatus.PENDING_ASSIGNMENT")
+    int assignIfPending(@Param("id") Long id, @Param("delivererId") Long delivererId);
 }
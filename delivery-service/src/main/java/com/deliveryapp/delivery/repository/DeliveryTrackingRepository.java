@@ -0,0 +1,38 @@
+package com.deliveryapp.delivery.repository;
+
+import com.deliveryapp.delivery.entity.DeliveryTrackingEvent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+@Repository
+public interface DeliveryTrackingRepository extends JpaRepository<DeliveryTrackingEvent, Long> {
+
+    // idx_delivery_tracking_delivery_id carries the rowid, so it also serves the id cursor and ordering
+    String RANGE = "FROM DeliveryTrackingEvent t WHERE t.deliveryId = :deliveryId AND t.id > :since " +
+                   "AND (:from IS NULL OR t.timestamp >= :from) AND (:to IS NULL OR t.timestamp <= :to)";
+
+    @Query("SELECT COUNT(t) " + RANGE + " AND t.status = '" + DeliveryTrackingEvent.LOCATION + "'")
+    long countLocations(@Param("deliveryId") Long deliveryId, @Param("since") Long since,
+                        @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT t " + RANGE + " ORDER BY t.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<DeliveryTrackingEvent> streamRange(@Param("deliveryId") Long deliveryId, @Param("since") Long since,
+                                              @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM DeliveryTrackingEvent t WHERE t.deliveryId = :deliveryId")
+    int deleteByDeliveryId(@Param("deliveryId") Long deliveryId);
+}
@@ -1,45 +1,94 @@
 package com.deliveryapp.delivery.service;
 
+import com.deliveryapp.delivery.assignment.AssignmentEngine;
+import com.deliveryapp.delivery.assignment.DelivererIndex;
 import com.deliveryapp.delivery.client.DelivererServiceClient;
 import com.deliveryapp.delivery.client.OrderServiceClient;
+import com.deliveryapp.delivery.client.ScatterGather;
+import com.deliveryapp.delivery.config.DefaultPickupProperties;
+import com.deliveryapp.delivery.dto.DeliveryDTO;
+import com.deliveryapp.delivery.entity.Delivery;
+import com.deliveryapp.delivery.exception.ResourceNotFoundException;
+import com.deliveryapp.delivery.projection.OrderProjection;
+import com.deliveryapp.delivery.projection.ProjectedOrder;
+import com.deliveryapp.delivery.repository.DeliveryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
- * Example Service showing how to use Eureka-based service discovery
- * to communicate between microservices
+ * Coordinates delivery creation and completion across services. Calls to
+ * the other services go through Eureka-resolved Feign clients; independent
+ * calls are made concurrently through {@link ScatterGather}.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class DeliveryOrchestrationService {
     
-    // These clients use Eureka to discover and communicate with other services
+    private static final String ORDER_SERVICE = "order-service";
+    private static final String DELIVERER_SERVICE = "deliverer-service";
+    
     private final OrderServiceClient orderServiceClient;
     private final DelivererServiceClient delivererServiceClient;
+    private final ScatterGather scatterGather;
+    private final OrderProjection orderProjection;
+    private final DeliveryService deliveryService;
+    private final DeliveryRepository deliveryRepository;
+    private final DelivererIndex delivererIndex;
+    private final AssignmentEngine assignmentEngine;
+    private final DefaultPickupProperties defaultPickup;
     
     /**
-     * Example: Create a delivery by fetching order details from Order Service
-     * and finding available deliverers from Deliverer Service
+     * Creates a delivery for an order and tries to assign the nearest
+     * available deliverer immediately. If nobody is in range the delivery
+     * stays PENDING_ASSIGNMENT and is picked up by the assignment engine.
+     * <p>
+     * The order is taken from the {@link OrderProjection}; only if it is not
+     * held there is it fetched from order-service, concurrently with fresh
+     * deliverer positions when the deliverer index is stale. The order is
+     * required; without the positions the previous index is used.
      */
-    public void createDeliveryFromOrder(Long orderId) {
+    public DeliveryDTO createDeliveryFromOrder(Long orderId) {
         log.info("Creating delivery for order ID: {}", orderId);
         
-        // Call Order Service via Eureka
-        var order = orderServiceClient.getOrderById(orderId);
-        log.info("Fetched order: {} from order-service", order.getOrderNumber());
+        CompletableFuture<ProjectedOrder> orderCall = orderProjection.find(orderId)
+            .map(CompletableFuture::completedFuture)
+            .orElseGet(() -> scatterGather.read(ORDER_SERVICE, () -> orderProjection.load(orderId)));
+        CompletableFuture<Void> indexRefresh = delivererIndex.isStale()
+            ? scatterGather.read(DELIVERER_SERVICE, delivererServiceClient::getAvailablePositions)
+                .thenAccept(delivererIndex::rebuild)
+            : CompletableFuture.completedFuture(null);
+        
+        ProjectedOrder order = ScatterGather.required(orderCall, "Order " + orderId);
+        ScatterGather.optional(indexRefresh, null, "Deliverer positions");
         
-        // Call Deliverer Service via Eureka
-        var availableDeliverers = delivererServiceClient.getAvailableDeliverers();
-        log.info("Found {} available deliverers from deliverer-service", availableDeliverers.size());
+        DeliveryDTO dto = new DeliveryDTO();
+        dto.setOrderId(order.id());
+        dto.setOrderNumber(order.orderNumber());
+        dto.setPickupAddress(defaultPickup.getAddress());
+        dto.setPickupCity(defaultPickup.getCity());
+        dto.setPickupPostalCode(defaultPickup.getPostalCode());
+        dto.setPickupLatitude(defaultPickup.getLatitude());
+        dto.setPickupLongitude(defaultPickup.getLongitude());
+        dto.setDeliveryAddress(order.deliveryAddress());
+        dto.setDeliveryCity(order.deliveryCity());
+        dto.setDeliveryPostalCode(order.deliveryPostalCode());
+        DeliveryDTO created = deliveryService.createDelivery(dto);
         
-        // Your business logic here...
-        // Create delivery, assign deliverer, update order status, etc.
+        Delivery delivery = deliveryRepository.findById(created.getId())
+            .orElseThrow(() -> new ResourceNotFoundException("Delivery not found with ID: " + created.getId()));
+        if (assignmentEngine.assign(delivery)) {
+            return deliveryService.getById(created.getId());
+        }
+        log.info("No deliverer in range for delivery {}, leaving it pending", created.getDeliveryNumber());
+        return created;
     }
     
     /**
-     * Example: Update order status when delivery is completed
+     * Marks the order as completed in order-service once its delivery is done.
      */
     public void completeDeliveryAndUpdateOrder(Long orderId, String deliveryNotes) {
         log.info("Completing delivery for order ID: {}", orderId);
@@ -1,10 +1,17 @@
 package com.deliveryapp.delivery.service;
 
-import com.deliveryapp.delivery.client.OrderServiceClient;
+import com.deliveryapp.delivery.config.DefaultPickupProperties;
 import com.deliveryapp.delivery.dto.DeliveryDTO;
+import com.deliveryapp.delivery.dto.TrackingPointDTO;
+import com.deliveryapp.delivery.dto.TrackingTimelineDTO;
 import com.deliveryapp.delivery.entity.Delivery;
 import com.deliveryapp.delivery.entity.DeliveryStatus;
+import com.deliveryapp.delivery.exception.DuplicateResourceException;
 import com.deliveryapp.delivery.exception.ResourceNotFoundException;
+import com.deliveryapp.delivery.generator.IdGenerator;
+import com.deliveryapp.delivery.messaging.DeliveryOutbox;
+import com.deliveryapp.delivery.messaging.OrderReadyForDeliveryEvent;
+import com.deliveryapp.delivery.projection.OrderProjection;
 import com.deliveryapp.delivery.repository.DeliveryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,10 +19,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,21 +33,31 @@ import java.util.stream.Collectors;
 @Transactional
 public class DeliveryService {
 
+    private static final Set<DeliveryStatus> FINISHED = Set.of(DeliveryStatus.DELIVERED, DeliveryStatus.FAILED);
+
     private final DeliveryRepository deliveryRepository;
-    private final OrderServiceClient orderServiceClient;
+    private final OrderProjection orderProjection;
+    private final IdGenerator idGenerator;
+    private final DefaultPickupProperties defaultPickup;
+    private final TrackingLog trackingLog;
+    private final DeliveryOutbox deliveryOutbox;
 
     public DeliveryDTO createDelivery(DeliveryDTO dto) {
         log.info("Creating new delivery for order ID: {}", dto.getOrderId());
-
+        // looked up before the first query, so the single writer connection is not held while order-service answers
         String orderNumber = dto.getOrderNumber();
         if (orderNumber == null || orderNumber.isBlank()) {
             try {
-                orderNumber = orderServiceClient.getOrderById(dto.getOrderId()).getOrderNumber();
+                orderNumber = orderProjection.get(dto.getOrderId()).orderNumber();
             } catch (Exception e) {
                 throw new ResourceNotFoundException("Order not found with ID: " + dto.getOrderId());
             }
         }
 
+        if (!deliveryRepository.findByOrderId(dto.getOrderId()).isEmpty()) {
+            throw new DuplicateResourceException("A delivery already exists for order ID: " + dto.getOrderId());
+        }
+
         Delivery delivery = new Delivery();
         delivery.setDeliveryNumber(generateDeliveryNumber());
         delivery.setOrderId(dto.getOrderId());
@@ -48,6 +67,8 @@ public class DeliveryService {
         delivery.setPickupAddress(dto.getPickupAddress());
         delivery.setPickupCity(dto.getPickupCity());
         delivery.setPickupPostalCode(dto.getPickupPostalCode());
+        delivery.setPickupLatitude(dto.getPickupLatitude());
+        delivery.setPickupLongitude(dto.getPickupLongitude());
         delivery.setDeliveryAddress(dto.getDeliveryAddress());
         delivery.setDeliveryCity(dto.getDeliveryCity());
         delivery.setDeliveryPostalCode(dto.getDeliveryPostalCode());
@@ -58,11 +79,53 @@ public class DeliveryService {
         delivery.setNotes(dto.getNotes());
 
         Delivery saved = deliveryRepository.save(delivery);
+        trackingLog.appendStatus(saved.getId(), saved.getStatus(), "Delivery created");
         log.info("Delivery created successfully: {}", saved.getDeliveryNumber());
 
         return toDto(saved);
     }
 
+    /**
+     * Creates deliveries for a batch of ready-for-delivery events in one
+     * transaction. Events for orders that already have a delivery are
+     * skipped, which makes redelivered messages harmless.
+     */
+    public int createDeliveriesForOrders(List<OrderReadyForDeliveryEvent> events) {
+        Map<Long, OrderReadyForDeliveryEvent> byOrderId = new LinkedHashMap<>();
+        for (OrderReadyForDeliveryEvent event : events) {
+            byOrderId.putIfAbsent(event.getOrderId(), event);
+        }
+        Set<Long> existing = deliveryRepository.findExistingOrderIds(byOrderId.keySet());
+        existing.forEach(byOrderId::remove);
+
+        List<Delivery> deliveries = new ArrayList<>(byOrderId.size());
+        for (OrderReadyForDeliveryEvent event : byOrderId.values()) {
+            Delivery delivery = new Delivery();
+            delivery.setDeliveryNumber(generateDeliveryNumber());
+            delivery.setOrderId(event.getOrderId());
+            delivery.setOrderNumber(event.getOrderNumber());
+            delivery.setStatus(DeliveryStatus.PENDING_ASSIGNMENT);
+            delivery.setPickupAddress(defaultPickup.getAddress());
+            delivery.setPickupCity(defaultPickup.getCity());
+            delivery.setPickupPostalCode(defaultPickup.getPostalCode());
+            delivery.setPickupLatitude(defaultPickup.getLatitude());
+            delivery.setPickupLongitude(defaultPickup.getLongitude());
+            delivery.setDeliveryAddress(event.getDeliveryAddress());
+            delivery.setDeliveryCity(event.getDeliveryCity());
+            delivery.setDeliveryPostalCode(event.getDeliveryPostalCode());
+            delivery.setSpecialInstructions(event.getSpecialInstructions());
+            deliveries.add(delivery);
+        }
+
+        deliveryRepository.saveAll(deliveries);
+        for (Delivery delivery : deliveries) {
+            trackingLog.appendStatus(delivery.getId(), delivery.getStatus(), "Delivery created");
+        }
+        log.info("Created {} deliveries from {} events ({} already existed)",
+                deliveries.size(), events.size(), existing.size());
+        return deliveries.size();
+    }
+
     @Transactional(readOnly = true)
     public DeliveryDTO getById(Long id) {
         Delivery d = deliveryRepository.findById(id)
@@ -75,6 +138,12 @@ public class DeliveryService {
         return deliveryRepository.findAll().stream().map(this::toDto).collect(Collectors.toList());
     }
 
+    /** Deliveries with the given ids, in no particular order; unknown ids are left out. */
+    @Transactional(readOnly = true)
+    public List<DeliveryDTO> getByIds(Collection<Long> ids) {
+        return deliveryRepository.findAllById(ids).stream().map(this::toDto).collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public List<DeliveryDTO> getByDelivererId(Long delivererId) {
         return deliveryRepository.findByDelivererId(delivererId).stream().map(this::toDto).collect(Collectors.toList());
@@ -86,11 +155,17 @@ public class DeliveryService {
         Delivery d = deliveryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Delivery not found with ID: " + id));
 
+        DeliveryStatus oldStatus = d.getStatus();
         if (dto.getDelivererId() != null) d.setDelivererId(dto.getDelivererId());
-        if (dto.getStatus() != null) d.setStatus(dto.getStatus());
+        if (dto.getStatus() != null && dto.getStatus() != d.getStatus()) {
+            d.setStatus(dto.getStatus());
+            trackingLog.appendStatus(id, dto.getStatus(), dto.getNotes());
+        }
         if (dto.getPickupAddress() != null) d.setPickupAddress(dto.getPickupAddress());
         if (dto.getPickupCity() != null) d.setPickupCity(dto.getPickupCity());
         if (dto.getPickupPostalCode() != null) d.setPickupPostalCode(dto.getPickupPostalCode());
+        if (dto.getPickupLatitude() != null) d.setPickupLatitude(dto.getPickupLatitude());
+        if (dto.getPickupLongitude() != null) d.setPickupLongitude(dto.getPickupLongitude());
         if (dto.getDeliveryAddress() != null) d.setDeliveryAddress(dto.getDeliveryAddress());
         if (dto.getDeliveryCity() != null) d.setDeliveryCity(dto.getDeliveryCity());
         if (dto.getDeliveryPostalCode() != null) d.setDeliveryPostalCode(dto.getDeliveryPostalCode());
@@ -102,6 +177,13 @@ public class DeliveryService {
         if (dto.getActualDistance() != null) d.setActualDistance(dto.getActualDistance());
         if (dto.getActualDuration() != null) d.setActualDuration(dto.getActualDuration());
 
+        if (d.getStatus() != oldStatus) {
+            recordTimes(d);
+            if (FINISHED.contains(d.getStatus()) && !FINISHED.contains(oldStatus) && d.getDelivererId() != null) {
+                deliveryOutbox.recordFinished(d);
+            }
+        }
+
         return toDto(deliveryRepository.save(d));
     }
 
@@ -110,20 +192,36 @@ public class DeliveryService {
             throw new ResourceNotFoundException("Delivery not found with ID: " + id);
         }
         deliveryRepository.deleteById(id);
+        trackingLog.forget(id);
         log.info("Delivery deleted: {}", id);
     }
 
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> getTracking(Long id) {
+    public TrackingTimelineDTO getTracking(Long id, Long since, LocalDateTime from, LocalDateTime to,
+                                           Integer maxPoints) {
         if (!deliveryRepository.existsById(id)) {
             throw new ResourceNotFoundException("Delivery not found with ID: " + id);
         }
-        return Collections.emptyList();
+        return trackingLog.read(id, since, from, to, maxPoints);
+    }
+
+    public void addTrackingPoint(Long id, TrackingPointDTO point) {
+        trackingLog.appendLocation(id, point);
+    }
+
+    /** Stamps pickup and delivery times the client did not send itself. */
+    private static void recordTimes(Delivery d) {
+        LocalDateTime now = LocalDateTime.now();
+        if (d.getStatus() == DeliveryStatus.PICKED_UP && d.getActualPickupTime() == null) {
+            d.setActualPickupTime(now);
+        }
+        if (d.getStatus() == DeliveryStatus.DELIVERED && d.getActualDeliveryTime() == null) {
+            d.setActualDeliveryTime(now);
+        }
     }
 
     private String generateDeliveryNumber() {
-        String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        return "DEL-" + ts;
+        return "DEL-" + idGenerator.nextId();
     }
 
     private DeliveryDTO toDto(Delivery d) {
@@ -137,6 +235,8 @@ public class DeliveryService {
         o.setPickupAddress(d.getPickupAddress());
         o.setPickupCity(d.getPickupCity());
         o.setPickupPostalCode(d.getPickupPostalCode());
+        o.setPickupLatitude(d.getPickupLatitude());
+        o.setPickupLongitude(d.getPickupLongitude());
         o.setDeliveryAddress(d.getDeliveryAddress());
         o.setDeliveryCity(d.getDeliveryCity());
         o.setDeliveryPostalCode(d.getDeliveryPostalCode());
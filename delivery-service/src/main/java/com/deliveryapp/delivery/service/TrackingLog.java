@@ -0,0 +1,331 @@
+package com.deliveryapp.delivery.service;
+
+import com.deliveryapp.delivery.dto.TrackingPointDTO;
+import com.deliveryapp.delivery.dto.TrackingTimelineDTO;
+import com.deliveryapp.delivery.entity.DeliveryStatus;
+import com.deliveryapp.delivery.entity.DeliveryTrackingEvent;
+import com.deliveryapp.delivery.exception.ResourceNotFoundException;
+import com.deliveryapp.delivery.repository.DeliveryRepository;
+import com.deliveryapp.delivery.repository.DeliveryTrackingRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Appends entries to the delivery tracking log. Entries are queued and
+ * written by a scheduled flusher as one JDBC batch per run, so a stream of
+ * location points does not cost a transaction each. Status entries recorded
+ * inside a transaction are only queued once it commits.
+ *
+ * <p>Ids are assigned when a batch is written, so an id cursor never skips
+ * entries that were still buffered when the previous read happened.
+ *
+ * <p>A batch that fails to write is held and tried again on later runs,
+ * with exponential backoff, ahead of the entries queued behind it. After
+ * {@code app.tracking.max-attempts} failures its entries are written one
+ * at a time, so only those that cannot be written are dropped. Entries of
+ * deliveries deleted in the meantime are left out of every write.
+ */
+@Service
+@Slf4j
+public class TrackingLog {
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO delivery_tracking (delivery_id, latitude, longitude, location_name, status, description, timestamp) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final DeliveryRepository deliveryRepository;
+    private final DeliveryTrackingRepository trackingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int flushBatchSize;
+    private final int defaultMaxPoints;
+    private final int maxPointsLimit;
+    private final int maxAttempts;
+    private final long retryInitialInterval;
+    private final long retryMaxInterval;
+
+    private final Cache<Long, Boolean> knownDeliveries;
+    // deleted deliveries, kept for longer than a failed batch can be held so late entries are not written
+    private final Cache<Long, Boolean> forgottenDeliveries;
+    private final BlockingQueue<DeliveryTrackingEvent> pending;
+
+    // guarded by flush(boolean), which is synchronized
+    private List<DeliveryTrackingEvent> failedBatch = List.of();
+    private int failedAttempts;
+    private long retryAt;
+
+    private final Counter appendedCounter;
+    private final Counter droppedCounter;
+    private final Counter retriedCounter;
+
+    public TrackingLog(DeliveryRepository deliveryRepository,
+                       DeliveryTrackingRepository trackingRepository,
+                       JdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.tracking.buffer-capacity:50000}") int bufferCapacity,
+                       @Value("${app.tracking.flush-batch-size:2000}") int flushBatchSize,
+                       @Value("${app.tracking.default-max-points:500}") int defaultMaxPoints,
+                       @Value("${app.tracking.max-points-limit:5000}") int maxPointsLimit,
+                       @Value("${app.tracking.max-attempts:5}") int maxAttempts,
+                       @Value("${app.tracking.retry-initial-interval:1000}") long retryInitialInterval,
+                       @Value("${app.tracking.retry-max-interval:30000}") long retryMaxInterval,
+                       @Value("${app.tracking.known-deliveries-max:100000}") long knownDeliveriesMax) {
+        this.deliveryRepository = deliveryRepository;
+        this.trackingRepository = trackingRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.flushBatchSize = flushBatchSize;
+        this.defaultMaxPoints = defaultMaxPoints;
+        this.maxPointsLimit = maxPointsLimit;
+        this.maxAttempts = maxAttempts;
+        this.retryInitialInterval = retryInitialInterval;
+        this.retryMaxInterval = retryMaxInterval;
+        this.knownDeliveries = Caffeine.newBuilder()
+                .maximumSize(knownDeliveriesMax)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+        this.forgottenDeliveries = Caffeine.newBuilder()
+                .maximumSize(knownDeliveriesMax)
+                .expireAfterWrite(Duration.ofMillis(retryMaxInterval * maxAttempts).plusMinutes(5))
+                .build();
+        this.pending = new ArrayBlockingQueue<>(bufferCapacity);
+
+        this.appendedCounter = meterRegistry.counter("delivery.tracking.appended");
+        this.droppedCounter = meterRegistry.counter("delivery.tracking.dropped");
+        this.retriedCounter = meterRegistry.counter("delivery.tracking.retried");
+        Gauge.builder("delivery.tracking.pending", pending, BlockingQueue::size)
+                .description("Tracking entries waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Appends a location point.
+     *
+     * @throws ResourceNotFoundException if the delivery does not exist
+     */
+    public void appendLocation(Long deliveryId, TrackingPointDTO point) {
+        if (knownDeliveries.getIfPresent(deliveryId) == null) {
+            if (forgottenDeliveries.getIfPresent(deliveryId) != null || !deliveryRepository.existsById(deliveryId)) {
+                throw new ResourceNotFoundException("Delivery not found with ID: " + deliveryId);
+            }
+            knownDeliveries.put(deliveryId, Boolean.TRUE);
+        }
+        DeliveryTrackingEvent event = new DeliveryTrackingEvent();
+        event.setDeliveryId(deliveryId);
+        event.setLatitude(point.getLatitude());
+        event.setLongitude(point.getLongitude());
+        event.setLocationName(point.getLocationName());
+        event.setStatus(DeliveryTrackingEvent.LOCATION);
+        event.setDescription(point.getDescription());
+        event.setTimestamp(point.getTimestamp() != null ? point.getTimestamp() : LocalDateTime.now());
+        enqueue(event);
+    }
+
+    /**
+     * Appends a status change. Inside a transaction the entry is queued after
+     * commit, so rolled back changes leave no trace in the log.
+     */
+    public void appendStatus(Long deliveryId, DeliveryStatus status, String description) {
+        DeliveryTrackingEvent event = new DeliveryTrackingEvent();
+        event.setDeliveryId(deliveryId);
+        event.setStatus(status.name());
+        event.setDescription(description);
+        event.setTimestamp(LocalDateTime.now());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    /**
+     * Reads the entries after {@code since} within the optional time range.
+     * When there are more than {@code maxPoints} location points they are
+     * thinned to every n-th one, keeping the first and the last; status
+     * entries are always returned. Must run inside a transaction.
+     */
+    public TrackingTimelineDTO read(Long deliveryId, Long since, LocalDateTime from, LocalDateTime to,
+                                    Integer maxPoints) {
+        long cursor = since != null ? since : 0L;
+        int limit = Math.max(1, Math.min(maxPoints != null ? maxPoints : defaultMaxPoints, maxPointsLimit));
+
+        long total = trackingRepository.countLocations(deliveryId, cursor, from, to);
+        long stride = Math.max(1, (total + limit - 1) / limit);
+
+        List<TrackingPointDTO> points = new ArrayList<>((int) Math.min(total, limit) + 16);
+        Long lastId = null;
+        long seen = 0;
+        DeliveryTrackingEvent skipped = null;
+        int skippedAt = 0;
+        try (Stream<DeliveryTrackingEvent> events = trackingRepository.streamRange(deliveryId, cursor, from, to)) {
+            for (DeliveryTrackingEvent e : (Iterable<DeliveryTrackingEvent>) events::iterator) {
+                lastId = e.getId();
+                if (!DeliveryTrackingEvent.LOCATION.equals(e.getStatus())) {
+                    points.add(toPoint(e));
+                } else if (seen++ % stride == 0) {
+                    points.add(toPoint(e));
+                    skipped = null;
+                } else {
+                    skipped = e;
+                    skippedAt = points.size();
+                }
+            }
+        }
+        if (skipped != null) {
+            // the route ends where the deliverer last was, not at the previous sample
+            points.add(skippedAt, toPoint(skipped));
+        }
+        return new TrackingTimelineDTO(deliveryId, points, total, stride > 1, lastId != null ? lastId : cursor);
+    }
+
+    /**
+     * Removes the log of a deleted delivery, including entries still
+     * buffered. Entries appended concurrently, or held by a failed batch,
+     * are left out when written.
+     */
+    public void forget(Long deliveryId) {
+        forgottenDeliveries.put(deliveryId, Boolean.TRUE);
+        knownDeliveries.invalidate(deliveryId);
+        pending.removeIf(e -> deliveryId.equals(e.getDeliveryId()));
+        trackingRepository.deleteByDeliveryId(deliveryId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.tracking.flush-interval:500}")
+    public void flush() {
+        flush(false);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush(true);
+    }
+
+    private synchronized void flush(boolean shuttingDown) {
+        if (!failedBatch.isEmpty()) {
+            if (!shuttingDown && System.currentTimeMillis() < retryAt) {
+                return;
+            }
+            retriedCounter.increment();
+            if (!writeOrHold(failedBatch, shuttingDown)) {
+                return;
+            }
+        }
+        List<DeliveryTrackingEvent> batch = new ArrayList<>(Math.min(flushBatchSize, pending.size()));
+        while (pending.drainTo(batch, flushBatchSize) > 0) {
+            if (!writeOrHold(batch, shuttingDown)) {
+                return;
+            }
+            batch = new ArrayList<>(Math.min(flushBatchSize, pending.size()));
+        }
+    }
+
+    private void enqueue(DeliveryTrackingEvent event) {
+        try {
+            // Status entries matter more than points; give them a moment if the buffer is full
+            long wait = DeliveryTrackingEvent.LOCATION.equals(event.getStatus()) ? 0 : 100;
+            if (pending.offer(event, wait, TimeUnit.MILLISECONDS)) {
+                appendedCounter.increment();
+            } else {
+                droppedCounter.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedCounter.increment();
+        }
+    }
+
+    private TrackingPointDTO toPoint(DeliveryTrackingEvent e) {
+        return new TrackingPointDTO(e.getId(), e.getLatitude(), e.getLongitude(), e.getLocationName(),
+                e.getStatus(), e.getDescription(), e.getTimestamp());
+    }
+
+    /**
+     * Writes the batch. If that fails it is held for a later run and false is
+     * returned, unless it has used up its attempts or the service is shutting
+     * down, in which case its entries are written one at a time.
+     */
+    private boolean writeOrHold(List<DeliveryTrackingEvent> batch, boolean shuttingDown) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (DeliveryTrackingEvent e : batch) {
+            if (forgottenDeliveries.getIfPresent(e.getDeliveryId()) == null) {
+                rows.add(toRow(e));
+            }
+        }
+        if (rows.isEmpty()) {
+            release();
+            return true;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_EVENT, rows));
+            release();
+            return true;
+        } catch (RuntimeException ex) {
+            failedAttempts++;
+            if (failedAttempts < maxAttempts && !shuttingDown) {
+                long backoff = Math.min(retryInitialInterval << Math.min(failedAttempts - 1, 20), retryMaxInterval);
+                log.warn("Failed to write {} tracking entries (attempt {} of {}), retrying in {} ms",
+                        rows.size(), failedAttempts, maxAttempts, backoff, ex);
+                failedBatch = batch;
+                retryAt = System.currentTimeMillis() + backoff;
+                return false;
+            }
+            log.error("Failed to write {} tracking entries after {} attempts, writing them one at a time",
+                    rows.size(), failedAttempts, ex);
+            writeEach(rows);
+            release();
+            return true;
+        }
+    }
+
+    private void writeEach(List<Object[]> rows) {
+        for (Object[] row : rows) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(INSERT_EVENT, row));
+            } catch (RuntimeException ex) {
+                droppedCounter.increment();
+                log.error("Dropped tracking entry of delivery {}: {}", row[0], ex.getMessage());
+            }
+        }
+    }
+
+    private void release() {
+        failedBatch = List.of();
+        failedAttempts = 0;
+    }
+
+    private static Object[] toRow(DeliveryTrackingEvent e) {
+        return new Object[] {
+                e.getDeliveryId(), e.getLatitude(), e.getLongitude(), e.getLocationName(),
+                e.getStatus(), e.getDescription(), Timestamp.valueOf(e.getTimestamp())
+        };
+    }
+}
@@ -0,0 +1,157 @@
+package com.deliveryapp.delivery.assignment;
+
+import com.deliveryapp.delivery.client.DelivererPositionDTO;
+import com.deliveryapp.delivery.client.DelivererServiceClient;
+import com.deliveryapp.delivery.repository.DeliveryRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Cost of automatic assignment with {@code deliverers} available deliverers
+ * spread over the Paris region and {@code deliveries} pickups in the same
+ * area, with the vehicle ranges of {@code application.yml}:
+ * <ul>
+ * <li>{@code nearest}: one nearest-deliverer query on the grid;</li>
+ * <li>{@code nearestByLinearScan}: the same query over every deliverer, the
+ * cost the grid avoids;</li>
+ * <li>{@code rebuild}: replacing the index with fresh positions, as every
+ * refresh does;</li>
+ * <li>{@code assignAll}: a rebuild, then a claim per delivery, each taking
+ * its deliverer out of the index, as a sweep over that many pending
+ * deliveries does.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DelivererIndexBenchmark {
+
+    private static final String[] VEHICLE_TYPES = {"BIKE", "SCOOTER", "MOTORCYCLE", "CAR", "VAN"};
+    private static final double MIN_LATITUDE = 48.70;
+    private static final double MAX_LATITUDE = 49.00;
+    private static final double MIN_LONGITUDE = 2.15;
+    private static final double MAX_LONGITUDE = 2.55;
+
+    @Param({"50000"})
+    public int deliverers;
+
+    @Param({"10000"})
+    public int deliveries;
+
+    private List<DelivererPositionDTO> positions;
+    private List<SpatialGrid.Entry> entries;
+    private double[][] pickups;
+    private AssignmentProperties properties;
+    private SpatialGrid grid;
+    private DelivererIndex index;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        properties = new AssignmentProperties();
+        properties.setMaxRangeKm(Map.of("BIKE", 3.0, "SCOOTER", 5.0, "MOTORCYCLE", 15.0, "CAR", 30.0, "VAN", 50.0));
+
+        positions = new ArrayList<>(deliverers);
+        entries = new ArrayList<>(deliverers);
+        grid = new SpatialGrid(properties.getCellSizeKm());
+        for (long id = 1; id <= deliverers; id++) {
+            DelivererPositionDTO position = new DelivererPositionDTO();
+            position.setDelivererId(id);
+            position.setVehicleType(VEHICLE_TYPES[random.nextInt(VEHICLE_TYPES.length)]);
+            position.setLatitude(between(random, MIN_LATITUDE, MAX_LATITUDE));
+            position.setLongitude(between(random, MIN_LONGITUDE, MAX_LONGITUDE));
+            positions.add(position);
+            SpatialGrid.Entry entry = new SpatialGrid.Entry(id, position.getVehicleType(),
+                position.getLatitude(), position.getLongitude(), properties.rangeFor(position.getVehicleType()));
+            entries.add(entry);
+            grid.add(entry);
+        }
+        pickups = new double[deliveries][];
+        for (int i = 0; i < deliveries; i++) {
+            pickups[i] = new double[] {between(random, MIN_LATITUDE, MAX_LATITUDE), between(random, MIN_LONGITUDE, MAX_LONGITUDE)};
+        }
+
+        DeliveryRepository deliveryRepository = mock(DeliveryRepository.class);
+        given(deliveryRepository.findDelivererIdsByStatusIn(any())).willReturn(Set.of());
+        // no deliverer stays claimed across rebuilds, so every assignAll starts from the full set
+        properties.setIndexMaxAge(Duration.ZERO);
+        index = new DelivererIndex(mock(DelivererServiceClient.class), deliveryRepository, properties);
+    }
+
+    @Benchmark
+    public Optional<SpatialGrid.Match> nearest() {
+        double[] pickup = nextPickup();
+        return grid.nearest(pickup[0], pickup[1], properties.maxRange());
+    }
+
+    @Benchmark
+    public SpatialGrid.Entry nearestByLinearScan() {
+        double[] pickup = nextPickup();
+        SpatialGrid.Entry best = null;
+        double bestKm = Double.MAX_VALUE;
+        for (SpatialGrid.Entry entry : entries) {
+            double km = SpatialGrid.distanceKm(pickup[0], pickup[1], entry.latitude(), entry.longitude());
+            if (km < bestKm && km <= entry.rangeKm()) {
+                best = entry;
+                bestKm = km;
+            }
+        }
+        return best;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int rebuild() {
+        index.rebuild(positions);
+        return index.size();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int assignAll() {
+        index.rebuild(positions);
+        int assigned = 0;
+        for (double[] pickup : pickups) {
+            if (index.claimNearest(pickup[0], pickup[1]).isPresent()) {
+                assigned++;
+            }
+        }
+        return assigned;
+    }
+
+    private double[] nextPickup() {
+        double[] pickup = pickups[next];
+        next = (next + 1) % pickups.length;
+        return pickup;
+    }
+
+    private static double between(Random random, double min, double max) {
+        return min + random.nextDouble() * (max - min);
+    }
+}
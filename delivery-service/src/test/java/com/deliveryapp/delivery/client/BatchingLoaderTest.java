@@ -0,0 +1,136 @@
+package com.deliveryapp.delivery.client;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Coalescing of concurrent lookups by {@link BatchingLoader}. deliverer-service
+ * has a copy of the same class.
+ */
+class BatchingLoaderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<List<Long>> batchCalls = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void coalescesTheLookupsOfAWindowIntoOneBatchCall() throws Exception {
+        BatchingLoader<Long, String> loader = loader(Duration.ofMillis(300), 100, this::names);
+
+        List<Future<String>> lookups = loadAtOnce(loader, List.of(1L, 2L, 3L, 2L, 404L));
+
+        assertThat(results(lookups)).containsExactly("order-1", "order-2", "order-3", "order-2", null);
+        assertThat(batchCalls).hasSize(1);
+        assertThat(batchCalls.get(0)).containsExactlyInAnyOrder(1L, 2L, 3L, 404L);
+        assertThat(batchSizes().count()).isOne();
+        assertThat(batchSizes().totalAmount()).isEqualTo(4);
+    }
+
+    @Test
+    void startsANewBatchOnceTheWindowHasClosed() {
+        BatchingLoader<Long, String> loader = loader(Duration.ofMillis(5), 100, this::names);
+
+        assertThat(loader.load(1L)).isEqualTo("order-1");
+        assertThat(loader.load(1L)).isEqualTo("order-1");
+
+        assertThat(batchCalls).containsExactly(List.of(1L), List.of(1L));
+    }
+
+    @Test
+    void sendsAFullBatchWithoutWaitingForTheWindow() throws Exception {
+        BatchingLoader<Long, String> loader = loader(Duration.ofSeconds(30), 3, this::names);
+
+        long start = System.nanoTime();
+        List<Future<String>> lookups = loadAtOnce(loader, List.of(1L, 2L, 3L));
+
+        assertThat(results(lookups)).containsExactly("order-1", "order-2", "order-3");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(batchCalls).hasSize(1);
+        assertThat(batchSizes().totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    void handsTheErrorOfTheBatchCallToEveryWaitingCaller() throws Exception {
+        IllegalStateException failure = new IllegalStateException("order-service answered 503");
+        BatchingLoader<Long, String> loader = loader(Duration.ofMillis(300), 100, keys -> {
+            batchCalls.add(keys);
+            throw failure;
+        });
+
+        List<Future<String>> lookups = loadAtOnce(loader, List.of(1L, 2L, 3L));
+
+        for (Future<String> lookup : lookups) {
+            assertThatThrownBy(lookup::get)
+                .isInstanceOf(ExecutionException.class)
+                .cause().isSameAs(failure);
+        }
+        assertThat(batchCalls).hasSize(1);
+        // a failed batch is not kept: the next lookup makes a call of its own
+        assertThatThrownBy(() -> loader.load(1L)).isSameAs(failure);
+        assertThat(batchCalls).hasSize(2);
+    }
+
+    private BatchingLoader<Long, String> loader(Duration window, int maxBatchSize,
+                                                Function<List<Long>, Map<Long, String>> batchCall) {
+        return new BatchingLoader<>("order-service", batchCall, window, maxBatchSize, meterRegistry);
+    }
+
+    /** Known orders are 1 to 99. */
+    private Map<Long, String> names(List<Long> keys) {
+        batchCalls.add(keys);
+        return keys.stream().filter(key -> key < 100).collect(Collectors.toMap(key -> key, key -> "order-" + key));
+    }
+
+    /** Starts a lookup per key on threads of their own, all released together. */
+    private List<Future<String>> loadAtOnce(BatchingLoader<Long, String> loader, List<Long> keys) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(keys.size());
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<String>> lookups = new ArrayList<>();
+        for (Long key : keys) {
+            lookups.add(executor.submit(() -> {
+                ready.countDown();
+                go.await();
+                return loader.load(key);
+            }));
+        }
+        assertThat(ready.await(5, TimeUnit.SECONDS)).isTrue();
+        go.countDown();
+        return lookups;
+    }
+
+    private static List<String> results(List<Future<String>> lookups) throws Exception {
+        List<String> results = new ArrayList<>();
+        for (Future<String> lookup : lookups) {
+            results.add(lookup.get(10, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    private DistributionSummary batchSizes() {
+        return meterRegistry.get("delivery.downstream.batch.size").tag("service", "order-service").summary();
+    }
+}
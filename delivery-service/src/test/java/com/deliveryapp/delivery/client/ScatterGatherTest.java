@@ -0,0 +1,171 @@
+package com.deliveryapp.delivery.client;
+
+import com.deliveryapp.delivery.exception.DownstreamUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Hedged attempts, deadlines and the fallback to the caller's thread of
+ * {@link ScatterGather}, on its pooled executor.
+ */
+class ScatterGatherTest {
+
+    private static final String SERVICE = "order-service";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ScatterGather scatterGather;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        scatterGather.shutdown();
+    }
+
+    @Test
+    void hedgesASlowReadAndTakesTheFirstAnswer() {
+        scatterGather = scatterGather(1000, 50, 4);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // the first attempt hangs until the end of the test, the hedge answers at once
+        String result = ScatterGather.required(scatterGather.read(SERVICE, () ->
+            attempts.incrementAndGet() == 1 ? await(release, "first") : "hedge"), "Order");
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(attempts).hasValue(2);
+        assertThat(meterRegistry.counter("delivery.downstream.hedges", "service", SERVICE).count()).isOne();
+        assertThat(eventually(() -> meterRegistry.counter("delivery.downstream.hedges.won", "service", SERVICE).count(), 1))
+            .isOne();
+    }
+
+    @Test
+    void neverHedgesACallThatMustNotBeSentTwice() throws Exception {
+        scatterGather = scatterGather(1000, 50, 4);
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = scatterGather.call(SERVICE, () -> {
+            attempts.incrementAndGet();
+            return sleep(200, "only");
+        });
+
+        assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo("only");
+        assertThat(attempts).hasValue(1);
+        assertThat(meterRegistry.find("delivery.downstream.hedges").counter()).isNull();
+    }
+
+    @Test
+    void failsOnlyOnceEveryAttemptHasFailed() {
+        scatterGather = scatterGather(1000, 20, 4);
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = scatterGather.read(SERVICE, () -> {
+            int attempt = attempts.incrementAndGet();
+            sleep(attempt == 1 ? 100 : 0, null);
+            throw new IllegalStateException("attempt " + attempt + " failed");
+        });
+
+        // the hedge fails first; the result waits for the first attempt and reports its error
+        assertThatThrownBy(() -> ScatterGather.required(result, "Order"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("attempt 1 failed");
+        assertThat(attempts).hasValue(2);
+    }
+
+    @Test
+    void turnsAMissedDeadlineIntoUnavailableOrTheFallback() {
+        scatterGather = scatterGather(100, null, 4);
+
+        CompletableFuture<String> required = scatterGather.read(SERVICE, () -> await(release, "late"));
+        CompletableFuture<String> optional = scatterGather.read(SERVICE, () -> await(release, "late"));
+
+        assertThatThrownBy(() -> ScatterGather.required(required, "Order 7"))
+            .isInstanceOf(DownstreamUnavailableException.class)
+            .hasMessage("Order 7 did not answer in time");
+        assertThat(ScatterGather.optional(optional, "fallback", "Order 8")).isEqualTo("fallback");
+        assertThat(eventually(() -> meterRegistry.timer("delivery.downstream.latency", "service", SERVICE, "outcome", "timeout").count(), 2))
+            .isEqualTo(2);
+    }
+
+    @Test
+    void runsAFirstAttemptOnTheCallersThreadWhenEveryThreadIsBusyAndSendsNoHedge() {
+        scatterGather = scatterGather(1000, 10, 1);
+        CompletableFuture<String> busy = scatterGather.call(SERVICE, () -> await(release, "busy"));
+        Thread caller = Thread.currentThread();
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<Thread> result = scatterGather.read(SERVICE, () -> {
+            attempts.incrementAndGet();
+            return Thread.currentThread();
+        });
+
+        assertThat(result).isCompletedWithValue(caller);
+        sleep(50, null);
+        assertThat(attempts).hasValue(1);
+
+        // with the busy thread back, a slow read is hedged but the hedge is rejected
+        release.countDown();
+        assertThat(busy.join()).isEqualTo("busy");
+        // lets the thread go back to waiting for work
+        sleep(50, null);
+        CountDownLatch hold = new CountDownLatch(1);
+        CompletableFuture<String> slow = scatterGather.read(SERVICE, () -> {
+            attempts.incrementAndGet();
+            return await(hold, "slow");
+        });
+        sleep(50, null);
+        hold.countDown();
+        assertThat(slow.join()).isEqualTo("slow");
+        assertThat(attempts).hasValue(2);
+        assertThat(meterRegistry.find("delivery.downstream.hedges").counter()).isNull();
+    }
+
+    private ScatterGather scatterGather(long deadlineMillis, Integer hedgeAfterMillis, int poolSize) {
+        DownstreamProperties properties = new DownstreamProperties();
+        properties.setPoolSize(poolSize);
+        DownstreamProperties.Call call = new DownstreamProperties.Call();
+        call.setDeadline(Duration.ofMillis(deadlineMillis));
+        call.setHedgeAfter(hedgeAfterMillis == null ? null : Duration.ofMillis(hedgeAfterMillis));
+        properties.getServices().put(SERVICE, call);
+        return new ScatterGather(properties, meterRegistry, false);
+    }
+
+    /**
+     * Metrics are recorded once the result has been handed over, so a caller
+     * woken by it may look before they are.
+     */
+    private static double eventually(DoubleSupplier metric, double expected) {
+        for (int i = 0; i < 100 && metric.getAsDouble() < expected; i++) {
+            sleep(10, null);
+        }
+        return metric.getAsDouble();
+    }
+
+    private static <T> T await(CountDownLatch latch, T value) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static <T> T sleep(long millis, T value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
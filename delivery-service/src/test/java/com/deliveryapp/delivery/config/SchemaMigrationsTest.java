@@ -0,0 +1,86 @@
+package com.deliveryapp.delivery.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Brings databases created by an earlier {@code database/schema.sql} up to
+ * date with the current one.
+ */
+class SchemaMigrationsTest {
+
+    private static final String SCHEMA = "file:database/schema.sql";
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void keepsOneDeliveryPerOrderBeforeCreatingTheUniqueIndex() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + dataDir.resolve("old.db"), true);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        SchemaMigrations.apply(dataSource, SCHEMA);
+        jdbc.execute("DROP INDEX uq_deliveries_order_id");
+        jdbc.execute("CREATE INDEX idx_deliveries_order_id ON deliveries(order_id)");
+        insertDelivery(jdbc, 1, 10, null);
+        insertDelivery(jdbc, 2, 10, 7L);
+        insertDelivery(jdbc, 3, 10, null);
+        insertDelivery(jdbc, 4, 20, null);
+        insertDelivery(jdbc, 5, 20, null);
+        insertDelivery(jdbc, 6, 30, null);
+        jdbc.update("INSERT INTO delivery_tracking (delivery_id, status) VALUES (3, 'PENDING_ASSIGNMENT')");
+
+        SchemaMigrations.apply(dataSource, SCHEMA);
+        SchemaMigrations.apply(dataSource, SCHEMA);
+
+        // the assigned delivery, else the first one
+        assertThat(jdbc.queryForList("SELECT id FROM deliveries ORDER BY id", Long.class)).containsExactly(2L, 4L, 6L);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM delivery_tracking WHERE delivery_id = 3", Integer.class)).isZero();
+        assertThat(jdbc.queryForObject(
+            "SELECT COUNT(*) FROM sqlite_master WHERE name = 'uq_deliveries_order_id'", Integer.class)).isOne();
+        assertThat(jdbc.queryForObject(
+            "SELECT COUNT(*) FROM sqlite_master WHERE name = 'idx_deliveries_order_id'", Integer.class)).isZero();
+        dataSource.destroy();
+    }
+
+    @Test
+    void addsThePickupCoordinatesToExistingDeliveries() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + dataDir.resolve("old.db"), true);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        SchemaMigrations.apply(dataSource, SCHEMA);
+        jdbc.execute("DROP INDEX uq_deliveries_order_id");
+        jdbc.execute("ALTER TABLE deliveries DROP COLUMN pickup_latitude");
+        jdbc.execute("ALTER TABLE deliveries DROP COLUMN pickup_longitude");
+        insertDelivery(jdbc, 1, 10, null);
+
+        SchemaMigrations.apply(dataSource, SCHEMA);
+
+        assertThat(jdbc.queryForMap("SELECT pickup_latitude, pickup_longitude FROM deliveries WHERE id = 1"))
+            .containsEntry("pickup_latitude", null)
+            .containsEntry("pickup_longitude", null);
+        dataSource.destroy();
+    }
+
+    @Test
+    void leavesTheDatabaseAloneWithoutAScript() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + dataDir.resolve("empty.db"), true);
+
+        SchemaMigrations.apply(dataSource, "file:" + dataDir.resolve("missing.sql"));
+
+        assertThat(new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM sqlite_master", Integer.class)).isZero();
+        dataSource.destroy();
+    }
+
+    private static void insertDelivery(JdbcTemplate jdbc, long id, long orderId, Long delivererId) {
+        jdbc.update("""
+            INSERT INTO deliveries (id, delivery_number, order_id, order_number, deliverer_id, pickup_address, pickup_city,
+                pickup_postal_code, delivery_address, delivery_city, delivery_postal_code)
+            VALUES (?, ?, ?, ?, ?, 'Entrepôt', 'Paris', '75015', 'Rue', 'Paris', '75001')""",
+            id, "DEL-" + id, orderId, "ORD-" + orderId, delivererId);
+    }
+}
@@ -0,0 +1,102 @@
+package com.deliveryapp.delivery.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the delivery-service copy of the SQLite configuration routes
+ * read-only transactions to the reader pool and the others to the writer.
+ * Serialised writes and reads under write load are covered by order-service's
+ * test of the same configuration.
+ */
+class SqliteDataSourceConfigTest {
+
+    private static final String CARRIERS_PROPERTY = "jdk.virtualThreadScheduler.parallelism";
+
+    @TempDir
+    Path dataDir;
+
+    private HikariDataSource writer;
+    private HikariDataSource reader;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        SqliteProperties properties = new SqliteProperties();
+        String url = "jdbc:sqlite:" + dataDir.resolve("test.db");
+        ObjectProvider<MeterRegistry> noRegistry = new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class);
+
+        SqliteDataSourceConfig config = new SqliteDataSourceConfig();
+        writer = config.sqliteWriterDataSource(url, properties, noRegistry);
+        reader = config.sqliteReaderDataSource(url, false, properties, noRegistry);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(config.dataSource(writer, reader));
+        jdbcTemplate = new JdbcTemplate(transactionManager.getDataSource());
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readWrite.executeWithoutResult(status ->
+            jdbcTemplate.execute("CREATE TABLE entries (id INTEGER PRIMARY KEY AUTOINCREMENT, value TEXT NOT NULL)"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reader.close();
+        writer.close();
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToTheReadersAndWritesToTheWriter() {
+        assertThat(writer.getMaximumPoolSize()).isEqualTo(1);
+        assertThat(reader.getMaximumPoolSize()).isEqualTo(new SqliteProperties().getReaderPoolSize());
+
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO entries (value) VALUES (?)", "written");
+            assertThat(writer.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+            assertThat(reader.getHikariPoolMXBean().getActiveConnections()).isZero();
+        });
+        readOnly.executeWithoutResult(status -> {
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM entries", Long.class)).isEqualTo(1);
+            assertThat(reader.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+            assertThat(writer.getHikariPoolMXBean().getActiveConnections()).isZero();
+        });
+    }
+
+    @Test
+    void capsTheReaderPoolOnlyWhenRequestsRunOnVirtualThreads() {
+        SqliteProperties properties = new SqliteProperties();
+        properties.setReaderPoolSize(8);
+        String url = "jdbc:sqlite:" + dataDir.resolve("test.db");
+        ObjectProvider<MeterRegistry> noRegistry = new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class);
+        SqliteDataSourceConfig config = new SqliteDataSourceConfig();
+        String carriers = System.getProperty(CARRIERS_PROPERTY);
+        System.setProperty(CARRIERS_PROPERTY, "4");
+        try (HikariDataSource platformThreads = config.sqliteReaderDataSource(url, false, properties, noRegistry);
+             HikariDataSource virtualThreads = config.sqliteReaderDataSource(url, true, properties, noRegistry)) {
+            assertThat(platformThreads.getMaximumPoolSize()).isEqualTo(8);
+            // the writer and two readers leave one of the four carriers free
+            assertThat(virtualThreads.getMaximumPoolSize()).isEqualTo(2);
+        } finally {
+            if (carriers == null) {
+                System.clearProperty(CARRIERS_PROPERTY);
+            } else {
+                System.setProperty(CARRIERS_PROPERTY, carriers);
+            }
+        }
+    }
+}
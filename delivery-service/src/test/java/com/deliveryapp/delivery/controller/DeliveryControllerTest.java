@@ -0,0 +1,132 @@
+package com.deliveryapp.delivery.controller;
+
+import com.deliveryapp.delivery.assignment.DelivererIndex;
+import com.deliveryapp.delivery.client.DelivererPositionDTO;
+import com.deliveryapp.delivery.client.DelivererServiceClient;
+import com.deliveryapp.delivery.client.OrderDTO;
+import com.deliveryapp.delivery.client.OrderServiceClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Requests to {@code /api/deliveries} through the whole MVC stack against
+ * the real schema, with order-service and deliverer-service mocked.
+ */
+@SpringBootTest(properties = {
+    "spring.cloud.config.enabled=false",
+    "eureka.client.enabled=false",
+    "spring.rabbitmq.listener.simple.auto-startup=false",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.show-sql=false",
+    "app.sqlite.schema-script=file:database/schema.sql",
+    "app.outbox.poll-interval=3600000",
+    "app.assignment.interval=3600000",
+    "app.assignment.index-refresh-interval=3600000"
+})
+@AutoConfigureMockMvc
+class DeliveryControllerTest {
+
+    // next to the default pickup point, Rue de Commerce
+    private static final double NEAR_PICKUP_LATITUDE = 48.8450;
+    private static final double NEAR_PICKUP_LONGITUDE = 2.2950;
+
+    @TempDir
+    static Path dataDir;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dataDir.resolve("deliveries.db"));
+    }
+
+    @MockBean
+    private OrderServiceClient orderServiceClient;
+
+    @MockBean
+    private DelivererServiceClient delivererServiceClient;
+
+    @Autowired
+    private DelivererIndex delivererIndex;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void createsTheDeliveryOfAnOrderAndAssignsTheNearestDeliverer() throws Exception {
+        given(orderServiceClient.getOrderById(301L)).willReturn(order(301L));
+        delivererIndex.rebuild(List.of(position(7L, NEAR_PICKUP_LATITUDE, NEAR_PICKUP_LONGITUDE)));
+
+        mockMvc.perform(post("/api/deliveries/from-order/301"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.orderNumber").value("ORD-301"))
+            .andExpect(jsonPath("$.deliveryAddress").value("1 Rue de Rivoli"))
+            .andExpect(jsonPath("$.pickupCity").value("Paris"))
+            .andExpect(jsonPath("$.status").value("ASSIGNED"))
+            .andExpect(jsonPath("$.delivererId").value(7));
+    }
+
+    @Test
+    void leavesTheDeliveryPendingWithNobodyInRange() throws Exception {
+        given(orderServiceClient.getOrderById(302L)).willReturn(order(302L));
+        // Lyon
+        delivererIndex.rebuild(List.of(position(8L, 45.7640, 4.8357)));
+
+        mockMvc.perform(post("/api/deliveries/from-order/302"))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.orderNumber").value("ORD-302"))
+            .andExpect(jsonPath("$.status").value("PENDING_ASSIGNMENT"))
+            .andExpect(jsonPath("$.delivererId").doesNotExist());
+    }
+
+    @Test
+    void answersTooManyIdsWithAnErrorResponse() throws Exception {
+        String ids = LongStream.rangeClosed(1, 201).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        mockMvc.perform(get("/api/deliveries").param("ids", ids))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.status").value(400))
+            .andExpect(jsonPath("$.error").value("Bad Request"))
+            .andExpect(jsonPath("$.message").value("At most 200 ids per request"))
+            .andExpect(jsonPath("$.path").value("/api/deliveries"));
+    }
+
+    private static OrderDTO order(Long id) {
+        OrderDTO order = new OrderDTO();
+        order.setId(id);
+        order.setOrderNumber("ORD-" + id);
+        order.setStatus("READY_FOR_DELIVERY");
+        order.setDeliveryAddress("1 Rue de Rivoli");
+        order.setDeliveryCity("Paris");
+        order.setDeliveryPostalCode("75001");
+        order.setVersion(0L);
+        return order;
+    }
+
+    private static DelivererPositionDTO position(Long delivererId, double latitude, double longitude) {
+        DelivererPositionDTO position = new DelivererPositionDTO();
+        position.setDelivererId(delivererId);
+        position.setVehicleType("SCOOTER");
+        position.setLatitude(latitude);
+        position.setLongitude(longitude);
+        position.setUpdatedAt(LocalDateTime.now());
+        return position;
+    }
+}
@@ -0,0 +1,165 @@
+package com.deliveryapp.delivery.controller;
+
+import com.deliveryapp.delivery.client.OrderDTO;
+import com.deliveryapp.delivery.client.OrderServiceClient;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.willAnswer;
+
+/**
+ * Throughput and tail latency of {@code POST /api/deliveries} under many
+ * concurrent requests, each of which blocks on a call to order-service for
+ * the order number. order-service is replaced by a mock that answers after
+ * a fixed delay; everything else, Tomcat, validation, JPA and the SQLite
+ * writer included, is the real thing. The subclasses run it with requests
+ * handled on platform threads and on virtual threads.
+ * <p>
+ * Tagged {@code benchmark}, so it only runs with {@code mvn -Pbenchmark test}.
+ * {@code -Dbenchmark.requests} and {@code -Dbenchmark.order-latency-ms}
+ * change the defaults of 2000 concurrent requests and 100 ms per
+ * order-service call.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.cloud.config.enabled=false",
+    "eureka.client.enabled=false",
+    "spring.rabbitmq.listener.simple.auto-startup=false",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "spring.jpa.show-sql=false",
+    "app.outbox.poll-interval=3600000",
+    "app.assignment.interval=3600000",
+    "app.assignment.index-refresh-interval=3600000",
+    // the load generator opens all its connections at once
+    "server.tomcat.accept-count=2000",
+    "logging.level.com.deliveryapp=WARN",
+    "logging.level.com.deliveryapp.delivery.controller.DeliveryCreationLoadTest=INFO"
+})
+@Slf4j
+abstract class DeliveryCreationLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 2000);
+    private static final long ORDER_LATENCY_MS = Long.getLong("benchmark.order-latency-ms", 100);
+    private static final int WARM_UP_REQUESTS = 200;
+
+    @TempDir
+    static Path dataDir;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dataDir.resolve("deliveries.db"));
+    }
+
+    @MockBean
+    private OrderServiceClient orderServiceClient;
+
+    @LocalServerPort
+    private int port;
+
+    // deliveries are unique per order, so every request is for an order of its own
+    private final AtomicLong nextOrderId = new AtomicLong(1);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    @BeforeEach
+    void slowOrderService() {
+        willAnswer(invocation -> {
+            Thread.sleep(ORDER_LATENCY_MS);
+            return order(invocation.getArgument(0));
+        }).given(orderServiceClient).getOrderById(anyLong());
+    }
+
+    /** Name of the thread model under test, for the report. */
+    abstract String threads();
+
+    @Test
+    void createsDeliveriesConcurrently() {
+        // untimed round so the measured one runs on a warm JVM, pools filled
+        fire(WARM_UP_REQUESTS);
+
+        long start = System.nanoTime();
+        List<Response> responses = fire(REQUESTS);
+        long elapsed = System.nanoTime() - start;
+
+        long[] latencies = responses.stream().mapToLong(Response::nanos).sorted().toArray();
+        long failed = responses.stream().filter(response -> response.status() != 201).count();
+        log.info("{} concurrent POST /api/deliveries, order-service answering in {} ms, {}:",
+            REQUESTS, ORDER_LATENCY_MS, threads());
+        log.info(String.format("%8.1f req/s %8.1f ms p50 %8.1f ms p99 %8.1f ms max %6d failed",
+            REQUESTS / (elapsed / 1e9), percentile(latencies, 50) / 1e6, percentile(latencies, 99) / 1e6,
+            latencies[latencies.length - 1] / 1e6, failed));
+
+        assertThat(responses).hasSize(REQUESTS);
+        assertThat(failed).isZero();
+    }
+
+    /** Sends {@code count} requests at once and waits for all of them. */
+    private List<Response> fire(int count) {
+        List<CompletableFuture<Response>> calls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/deliveries"))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body(nextOrderId.getAndIncrement())))
+                .build();
+            long sent = System.nanoTime();
+            calls.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) ->
+                    new Response(response == null ? -1 : response.statusCode(), System.nanoTime() - sent)));
+        }
+        return calls.stream().map(CompletableFuture::join).toList();
+    }
+
+    private record Response(int status, long nanos) {
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    private static String body(long orderId) {
+        return """
+            {"orderId": %d, "pickupAddress": "50 Rue de Commerce", "pickupCity": "Paris",
+             "pickupPostalCode": "75015", "deliveryAddress": "1 Load Test Street", "deliveryCity": "Paris",
+             "deliveryPostalCode": "75011"}
+            """.formatted(orderId);
+    }
+
+    private static OrderDTO order(Long id) {
+        OrderDTO order = new OrderDTO();
+        order.setId(id);
+        order.setOrderNumber("ORD-LOAD-" + id);
+        order.setStatus("READY_FOR_DELIVERY");
+        order.setDeliveryAddress("1 Load Test Street");
+        order.setDeliveryCity("Paris");
+        order.setDeliveryPostalCode("75011");
+        order.setVersion(0L);
+        return order;
+    }
+}
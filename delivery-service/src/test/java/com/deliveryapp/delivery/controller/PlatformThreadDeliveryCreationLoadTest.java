@@ -0,0 +1,13 @@
+package com.deliveryapp.delivery.controller;
+
+import org.springframework.test.context.TestPropertySource;
+
+/** {@link DeliveryCreationLoadTest} with requests handled by Tomcat's thread pool. */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadDeliveryCreationLoadTest extends DeliveryCreationLoadTest {
+
+    @Override
+    String threads() {
+        return "platform threads";
+    }
+}
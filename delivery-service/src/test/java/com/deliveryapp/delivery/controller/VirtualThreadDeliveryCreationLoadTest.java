@@ -0,0 +1,13 @@
+package com.deliveryapp.delivery.controller;
+
+import org.springframework.test.context.TestPropertySource;
+
+/** {@link DeliveryCreationLoadTest} with every request on a virtual thread of its own. */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadDeliveryCreationLoadTest extends DeliveryCreationLoadTest {
+
+    @Override
+    String threads() {
+        return "virtual threads";
+    }
+}
@@ -0,0 +1,39 @@
+package com.deliveryapp.delivery.generator;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The generator is the same as order-service's, whose test covers its
+ * concurrency; this one checks how the delivery-service copy gets its node ID.
+ */
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void idsCarryTheConfiguredNodeIdAndIncrease() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("docker");
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID, environment);
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            assertThat((id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID)
+                    .isEqualTo(SnowflakeIdGenerator.MAX_NODE_ID);
+            previous = id;
+        }
+    }
+
+    @Test
+    void requiresAConfiguredNodeIdWithADeploymentProfile() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("docker");
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(-1, environment))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1, environment))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,138 @@
+package com.deliveryapp.delivery.messaging;
+
+import com.deliveryapp.delivery.client.OrderServiceClient;
+import com.deliveryapp.delivery.entity.Delivery;
+import com.deliveryapp.delivery.repository.DeliveryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Queue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the ready-for-delivery listener the way the batch listener
+ * container does, against the real schema, with a stand-in for the queue
+ * and its dead-letter queue: duplicates within a batch, a batch delivered
+ * twice and a batch holding an event that can never be stored.
+ */
+@SpringBootTest(properties = {
+    "spring.cloud.config.enabled=false",
+    "eureka.client.enabled=false",
+    "spring.rabbitmq.listener.simple.auto-startup=false",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.show-sql=false",
+    "app.sqlite.schema-script=file:database/schema.sql",
+    "app.outbox.poll-interval=3600000",
+    "app.assignment.interval=3600000",
+    "app.assignment.index-refresh-interval=3600000",
+    "app.messaging.retry.initial-interval=1",
+    "app.messaging.retry.max-interval=10"
+})
+class OrderReadyForDeliveryListenerTest {
+
+    @TempDir
+    static Path dataDir;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dataDir.resolve("deliveries.db"));
+    }
+
+    @MockBean
+    private OrderServiceClient orderServiceClient;
+
+    @Autowired
+    private OrderReadyForDeliveryListener listener;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private Queue orderReadyQueue;
+
+    @Test
+    void createsOneDeliveryPerOrderWhateverTheDuplicatesAndRedeliveries() {
+        InMemoryQueue queue = new InMemoryQueue(listener);
+        List<OrderReadyForDeliveryEvent> batch = List.of(event(101L), event(102L), event(101L));
+
+        queue.deliver(batch);
+        queue.deliver(batch);
+        queue.deliver(List.of(event(102L), event(103L)));
+
+        assertThat(queue.deadLettered).isEmpty();
+        assertThat(deliveryRepository.findByOrderId(101L)).hasSize(1);
+        assertThat(deliveryRepository.findByOrderId(102L)).hasSize(1);
+        assertThat(deliveryRepository.findByOrderId(103L)).hasSize(1);
+    }
+
+    @Test
+    void storesTheGoodEventsOfAPoisonBatchAndDeadLettersIt() {
+        InMemoryQueue queue = new InMemoryQueue(listener);
+        OrderReadyForDeliveryEvent poison = event(202L);
+        poison.setDeliveryAddress(null);
+        List<OrderReadyForDeliveryEvent> batch = List.of(event(201L), poison, event(203L));
+
+        queue.deliver(batch);
+
+        assertThat(queue.deadLettered).containsExactly(batch);
+        assertThat(queue.lastRejection).hasMessageContaining("[202]");
+        assertThat(deliveryRepository.findByOrderId(201L)).hasSize(1);
+        assertThat(deliveryRepository.findByOrderId(202L)).isEmpty();
+        assertThat(deliveryRepository.findByOrderId(203L)).hasSize(1);
+
+        // moving the batch back from the dead-letter queue only retries what is still missing
+        queue.deliver(List.of(event(201L), event(202L), event(203L)));
+
+        assertThat(queue.deadLettered).hasSize(1);
+        assertThat(deliveryRepository.findByOrderId(201L)).hasSize(1);
+        assertThat(deliveryRepository.findByOrderId(202L)).extracting(Delivery::getOrderNumber).containsExactly("ORD-202");
+        assertThat(deliveryRepository.findByOrderId(203L)).hasSize(1);
+    }
+
+    @Test
+    void rejectedBatchesGoToTheDeadLetterQueue() {
+        assertThat(orderReadyQueue.getArguments())
+            .containsEntry("x-dead-letter-exchange", "delivery.dead-letter")
+            .containsEntry("x-dead-letter-routing-key", "delivery.order-ready.dlq");
+    }
+
+    private static OrderReadyForDeliveryEvent event(Long orderId) {
+        return new OrderReadyForDeliveryEvent(orderId, "ORD-" + orderId,
+            orderId + " Rue de Rivoli", "Paris", "75001", null);
+    }
+
+    /**
+     * Stands in for the queue and the batch listener container, which
+     * rejects a failed batch without requeueing it, so RabbitMQ moves it to
+     * the dead-letter queue.
+     */
+    private static final class InMemoryQueue {
+
+        private final OrderReadyForDeliveryListener listener;
+        private final List<List<OrderReadyForDeliveryEvent>> deadLettered = new ArrayList<>();
+        private RuntimeException lastRejection;
+
+        InMemoryQueue(OrderReadyForDeliveryListener listener) {
+            this.listener = listener;
+        }
+
+        void deliver(List<OrderReadyForDeliveryEvent> batch) {
+            try {
+                listener.onOrdersReady(batch);
+            } catch (AmqpRejectAndDontRequeueException e) {
+                lastRejection = e;
+                deadLettered.add(batch);
+            }
+        }
+    }
+}
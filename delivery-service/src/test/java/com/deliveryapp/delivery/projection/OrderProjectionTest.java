@@ -0,0 +1,152 @@
+package com.deliveryapp.delivery.projection;
+
+import com.deliveryapp.delivery.client.OrderDTO;
+import com.deliveryapp.delivery.client.OrderPageDTO;
+import com.deliveryapp.delivery.client.OrderServiceClient;
+import com.deliveryapp.delivery.messaging.OrderAddressChangedEvent;
+import com.deliveryapp.delivery.messaging.OrderDeletedEvent;
+import com.deliveryapp.delivery.messaging.OrderStatusChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Order of the copies held by {@link OrderProjection}: by version, whichever
+ * way and in whichever order they arrive, with deletions held as tombstones.
+ */
+class OrderProjectionTest {
+
+    private OrderServiceClient orderServiceClient;
+    private SimpleMeterRegistry meterRegistry;
+    private OrderProjection projection;
+
+    @BeforeEach
+    void setUp() {
+        orderServiceClient = mock(OrderServiceClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        projection = new OrderProjection(orderServiceClient, new OrderProjectionProperties(), meterRegistry);
+    }
+
+    @Test
+    void keepsTheLatestVersionWhateverTheOrderOfTheEvents() {
+        projection.apply(statusChanged(1L, "READY_FOR_DELIVERY", 3L));
+        projection.apply(statusChanged(1L, "PROCESSING", 2L));
+        projection.apply(statusChanged(1L, "CONFIRMED", 1L));
+
+        assertThat(projection.find(1L)).get().extracting(ProjectedOrder::status).isEqualTo("READY_FOR_DELIVERY");
+        assertThat(events("applied")).isEqualTo(1);
+        assertThat(events("stale")).isEqualTo(2);
+    }
+
+    @Test
+    void appliesAddressChangesOverOlderStatusChanges() {
+        projection.apply(statusChanged(1L, "CONFIRMED", 1L));
+        projection.apply(new OrderAddressChangedEvent(1L, "ORD-1", "CONFIRMED",
+            "8 Quai de Saône", "Lyon", "69002", 2L, LocalDateTime.now()));
+        // the status change carrying the old address arrives late
+        projection.apply(statusChanged(1L, "CONFIRMED", 1L));
+
+        assertThat(projection.find(1L)).get()
+            .extracting(ProjectedOrder::deliveryAddress, ProjectedOrder::deliveryCity, ProjectedOrder::version)
+            .containsExactly("8 Quai de Saône", "Lyon", 2L);
+    }
+
+    @Test
+    void holdsDeletedOrdersAsTombstonesThatLateCopiesCannotReplace() {
+        projection.apply(statusChanged(1L, "CONFIRMED", 4L));
+        projection.apply(new OrderDeletedEvent(1L, "ORD-1", 4L, LocalDateTime.now()));
+        projection.apply(statusChanged(1L, "CONFIRMED", 4L));
+        projection.apply(statusChanged(1L, "PENDING", 3L));
+
+        assertThat(projection.find(1L)).isEmpty();
+        assertThat(projection.size()).isEqualTo(1);
+        assertThat(events("stale")).isEqualTo(2);
+    }
+
+    @Test
+    void keepsALookupOnlyWhenItIsNotOlderThanTheCopyHeld() {
+        projection.apply(statusChanged(1L, "READY_FOR_DELIVERY", 5L));
+        given(orderServiceClient.getOrderById(1L)).willReturn(order(1L, "PROCESSING", 4L));
+
+        assertThat(projection.load(1L).status()).isEqualTo("READY_FOR_DELIVERY");
+
+        given(orderServiceClient.getOrderById(1L)).willReturn(order(1L, "DELIVERED", 6L));
+
+        assertThat(projection.load(1L).status()).isEqualTo("DELIVERED");
+    }
+
+    @Test
+    void looksUpOnlyTheOrdersItDoesNotHold() {
+        projection.apply(statusChanged(1L, "CONFIRMED", 1L));
+        given(orderServiceClient.getOrderById(2L)).willReturn(order(2L, "CONFIRMED", 1L));
+
+        assertThat(projection.get(1L).orderNumber()).isEqualTo("ORD-1");
+        assertThat(projection.get(2L).orderNumber()).isEqualTo("ORD-2");
+        assertThat(projection.find(2L)).isPresent();
+        verify(orderServiceClient, never()).getOrderById(1L);
+    }
+
+    @Test
+    void copiesWithoutAVersionReplaceWhateverIsHeld() {
+        projection.apply(statusChanged(1L, "PROCESSING", 2L));
+        projection.apply(statusChanged(1L, "CONFIRMED", null));
+
+        assertThat(projection.find(1L)).get().extracting(ProjectedOrder::status).isEqualTo("CONFIRMED");
+    }
+
+    @Test
+    void warmsUpPageByPageForEveryStatus() {
+        given(orderServiceClient.getOrdersByStatus(any(), any(), anyInt())).willReturn(page(null, false));
+        given(orderServiceClient.getOrdersByStatus(eq("CONFIRMED"), isNull(), anyInt()))
+            .willReturn(page(2L, true, order(1L, "CONFIRMED", 1L), order(2L, "CONFIRMED", 1L)));
+        given(orderServiceClient.getOrdersByStatus(eq("CONFIRMED"), eq(2L), anyInt()))
+            .willReturn(page(null, false, order(3L, "CONFIRMED", 1L)));
+
+        projection.warmUp();
+
+        assertThat(projection.size()).isEqualTo(3);
+        assertThat(projection.find(3L)).isPresent();
+    }
+
+    private double events(String outcome) {
+        return meterRegistry.counter("delivery.order-projection.events", "outcome", outcome).count();
+    }
+
+    private static OrderStatusChangedEvent statusChanged(Long orderId, String status, Long version) {
+        return new OrderStatusChangedEvent(orderId, "ORD-" + orderId, 1L, null, status,
+            "10 Rue de la Paix", "Paris", "75001", version, LocalDateTime.now());
+    }
+
+    private static OrderDTO order(Long id, String status, Long version) {
+        OrderDTO order = new OrderDTO();
+        order.setId(id);
+        order.setOrderNumber("ORD-" + id);
+        order.setStatus(status);
+        order.setDeliveryAddress("10 Rue de la Paix");
+        order.setDeliveryCity("Paris");
+        order.setDeliveryPostalCode("75001");
+        order.setVersion(version);
+        return order;
+    }
+
+    private static OrderPageDTO page(Long nextCursor, boolean hasMore, OrderDTO... orders) {
+        OrderPageDTO page = new OrderPageDTO();
+        page.setItems(List.of(orders));
+        page.setNextCursor(nextCursor);
+        page.setHasMore(hasMore);
+        return page;
+    }
+}
@@ -0,0 +1,199 @@
+package com.deliveryapp.delivery.service;
+
+import com.deliveryapp.delivery.dto.TrackingPointDTO;
+import com.deliveryapp.delivery.dto.TrackingTimelineDTO;
+import com.deliveryapp.delivery.entity.DeliveryStatus;
+import com.deliveryapp.delivery.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Entries appended to {@link TrackingLog} and read back as timelines,
+ * against the real schema. The test flushes the log itself.
+ */
+@SpringBootTest(properties = {
+    "spring.cloud.config.enabled=false",
+    "eureka.client.enabled=false",
+    "spring.rabbitmq.listener.simple.auto-startup=false",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.show-sql=false",
+    "app.sqlite.schema-script=file:database/schema.sql",
+    "app.outbox.poll-interval=3600000",
+    "app.assignment.interval=3600000",
+    "app.assignment.index-refresh-interval=3600000",
+    "app.tracking.flush-interval=3600000",
+    "app.tracking.retry-initial-interval=0"
+})
+class TrackingLogTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 2, 12, 0);
+    private static final AtomicLong NEXT_DELIVERY = new AtomicLong(1);
+
+    @TempDir
+    static Path dataDir;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dataDir.resolve("deliveries.db"));
+    }
+
+    @Autowired
+    private TrackingLog trackingLog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Long deliveryId;
+
+    @BeforeEach
+    void setUp() {
+        deliveryId = NEXT_DELIVERY.getAndIncrement();
+        jdbcTemplate.update("""
+            INSERT INTO deliveries (id, delivery_number, order_id, order_number, pickup_address, pickup_city,
+                pickup_postal_code, delivery_address, delivery_city, delivery_postal_code)
+            VALUES (?, ?, ?, ?, '12 Rue de Commerce', 'Paris', '75015', '1 Rue de Rivoli', 'Paris', '75001')""",
+            deliveryId, "DEL-TEST-" + deliveryId, deliveryId, "ORD-" + deliveryId);
+    }
+
+    @Test
+    void showsEntriesOnceFlushedAndReadsOnFromTheCursor() {
+        trackingLog.appendLocation(deliveryId, point(0));
+        trackingLog.appendLocation(deliveryId, point(1));
+
+        assertThat(read(null, null, null, 100).getPoints()).isEmpty();
+        trackingLog.flush();
+        TrackingTimelineDTO first = read(null, null, null, 100);
+
+        assertThat(first.getPoints()).extracting(TrackingPointDTO::getLocationName).containsExactly("stop 0", "stop 1");
+        assertThat(first.getNextSince()).isEqualTo(first.getPoints().get(1).getId());
+
+        trackingLog.appendLocation(deliveryId, point(2));
+        trackingLog.flush();
+        TrackingTimelineDTO next = read(first.getNextSince(), null, null, 100);
+
+        assertThat(next.getPoints()).extracting(TrackingPointDTO::getLocationName).containsExactly("stop 2");
+        // nothing new: the cursor stays where it was
+        assertThat(read(next.getNextSince(), null, null, 100).getNextSince()).isEqualTo(next.getNextSince());
+    }
+
+    @Test
+    void thinsLocationPointsButKeepsTheLastOneAndEveryStatus() {
+        for (int i = 0; i < 100; i++) {
+            trackingLog.appendLocation(deliveryId, point(i));
+            if (i == 42) {
+                trackingLog.appendStatus(deliveryId, DeliveryStatus.PICKED_UP, "Parcel collected");
+            }
+        }
+        trackingLog.flush();
+
+        TrackingTimelineDTO timeline = read(null, null, null, 10);
+
+        assertThat(timeline.getTotalLocations()).isEqualTo(100);
+        assertThat(timeline.isDownsampled()).isTrue();
+        assertThat(timeline.getPoints()).extracting(p -> p.getLocationName() != null ? p.getLocationName() : p.getStatus())
+            .containsExactly("stop 0", "stop 10", "stop 20", "stop 30", "stop 40", "PICKED_UP",
+                "stop 50", "stop 60", "stop 70", "stop 80", "stop 90", "stop 99");
+    }
+
+    @Test
+    void readsOnlyTheEntriesOfATimeRange() {
+        for (int i = 0; i < 10; i++) {
+            trackingLog.appendLocation(deliveryId, point(i));
+        }
+        trackingLog.flush();
+
+        TrackingTimelineDTO timeline = read(null, START.plusMinutes(3), START.plusMinutes(5), 100);
+
+        assertThat(timeline.getPoints()).extracting(TrackingPointDTO::getLocationName)
+            .containsExactly("stop 3", "stop 4", "stop 5");
+        assertThat(timeline.getTotalLocations()).isEqualTo(3);
+    }
+
+    @Test
+    void logsAStatusChangeOnlyOnceItsTransactionCommits() {
+        transactionTemplate.executeWithoutResult(status -> {
+            trackingLog.appendStatus(deliveryId, DeliveryStatus.ASSIGNED, "rolled back");
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status ->
+            trackingLog.appendStatus(deliveryId, DeliveryStatus.ASSIGNED, "committed"));
+        trackingLog.flush();
+
+        assertThat(read(null, null, null, 100).getPoints()).extracting(TrackingPointDTO::getDescription)
+            .containsExactly("committed");
+    }
+
+    @Test
+    void rejectsPointsForAnUnknownDelivery() {
+        assertThatThrownBy(() -> trackingLog.appendLocation(-1L, point(0)))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void forgetsTheWrittenAndBufferedEntriesOfADeletedDelivery() {
+        trackingLog.appendLocation(deliveryId, point(0));
+        trackingLog.flush();
+        trackingLog.appendLocation(deliveryId, point(1));
+
+        transactionTemplate.executeWithoutResult(status -> trackingLog.forget(deliveryId));
+        trackingLog.flush();
+
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM delivery_tracking WHERE delivery_id = ?", Integer.class, deliveryId)).isZero();
+        assertThatThrownBy(() -> trackingLog.appendLocation(deliveryId, point(2)))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void retriesAFailedBatchAheadOfTheNewerEntries() {
+        double retriedBefore = meterRegistry.get("delivery.tracking.retried").counter().count();
+        trackingLog.appendLocation(deliveryId, point(0));
+        jdbcTemplate.execute("CREATE TRIGGER reject_tracking BEFORE INSERT ON delivery_tracking "
+            + "BEGIN SELECT RAISE(ABORT, 'disk I/O error'); END");
+        try {
+            trackingLog.flush();
+        } finally {
+            jdbcTemplate.execute("DROP TRIGGER reject_tracking");
+        }
+        assertThat(read(null, null, null, 100).getPoints()).isEmpty();
+
+        trackingLog.appendLocation(deliveryId, point(1));
+        trackingLog.flush();
+
+        assertThat(read(null, null, null, 100).getPoints()).extracting(TrackingPointDTO::getLocationName)
+            .containsExactly("stop 0", "stop 1");
+        assertThat(meterRegistry.get("delivery.tracking.retried").counter().count()).isEqualTo(retriedBefore + 1);
+    }
+
+    private TrackingTimelineDTO read(Long since, LocalDateTime from, LocalDateTime to, int maxPoints) {
+        return transactionTemplate.execute(status -> trackingLog.read(deliveryId, since, from, to, maxPoints));
+    }
+
+    /** The n-th stop of a route, a minute after the previous one. */
+    private static TrackingPointDTO point(int n) {
+        return new TrackingPointDTO(null, new BigDecimal("48.8450").add(BigDecimal.valueOf(n, 4)),
+            new BigDecimal("2.2950"), "stop " + n, null, null, START.plusMinutes(n));
+    }
+}
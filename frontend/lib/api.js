@@ -24,6 +24,8 @@ async function apiCall(endpoint, options = {}) {
       return null;
     }
     
+    // A 202 from the gateway is { status: 'QUEUED', id, message } instead of the
+    // entity: the service was down and the write will be applied once it recovers
     return await response.json();
   } catch (error) {
     console.error(`API Error (${endpoint}):`, error);
@@ -31,6 +33,11 @@ async function apiCall(endpoint, options = {}) {
   }
 }
 
+// Message to show instead of the usual confirmation when a write was queued by the gateway
+export function queuedMessage(result) {
+  return result && result.status === 'QUEUED' ? result.message : null;
+}
+
 // Customer API
 export const customerAPI = {
   getAll: () => apiCall('/api/customers'),
@@ -49,12 +56,30 @@ export const customerAPI = {
   }),
 };
 
+// Follows nextCursor through a keyset-paginated listing and returns the items of every page
+async function getAllPages(endpoint, params = {}) {
+  const items = [];
+  let cursor;
+  do {
+    const query = new URLSearchParams({ limit: 200, ...params, ...(cursor ? { cursor } : {}) });
+    const page = await apiCall(`${endpoint}?${query}`);
+    items.push(...(page?.items || []));
+    cursor = page?.hasMore ? page.nextCursor : null;
+  } while (cursor);
+  return items;
+}
+
 // Order API
 export const orderAPI = {
-  getAll: (params = {}) => {
+  // Returns one page: { items, nextCursor, hasMore }
+  getPage: (params = {}) => {
     const queryString = new URLSearchParams(params).toString();
     return apiCall(`/api/orders${queryString ? `?${queryString}` : ''}`);
   },
+  // Every matching order, fetched page by page
+  getAll: (params = {}) => getAllPages('/api/orders', params),
+  // Number, customer, status and total of every matching order, fetched page by page
+  getSummaries: (params = {}) => getAllPages('/api/orders/summary', params),
   getById: (id) => apiCall(`/api/orders/${id}`),
   getByOrderNumber: (orderNumber) => apiCall(`/api/orders/number/${encodeURIComponent(orderNumber)}`),
   create: (data) => apiCall('/api/orders', {
@@ -112,3 +137,23 @@ export const delivererAPI = {
 };
 
 
+
+// Live updates over server-sent events from the gateway.
+// handlers: { [eventName]: (data) => void }; returns a function that closes the stream.
+function subscribe(endpoint, handlers) {
+  if (typeof EventSource === 'undefined') {
+    return () => {};
+  }
+  const source = new EventSource(`${API_BASE_URL}${endpoint}`);
+  Object.entries(handlers).forEach(([name, handler]) => {
+    source.addEventListener(name, (e) => handler(JSON.parse(e.data)));
+  });
+  // Final status or unknown entity: stop the browser from reconnecting
+  source.addEventListener('end', () => source.close());
+  return () => source.close();
+}
+
+export const streamAPI = {
+  order: (id, handlers) => subscribe(`/api/stream/orders/${id}`, handlers),
+  delivery: (id, handlers) => subscribe(`/api/stream/deliveries/${id}`, handlers),
+};
@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react';
 import { useRouter } from 'next/router';
-import { customerAPI } from '../../../lib/api';
+import { customerAPI, queuedMessage } from '../../../lib/api';
 import LoadingSpinner from '../../../components/LoadingSpinner';
 import ErrorAlert from '../../../components/ErrorAlert';
 import SuccessAlert from '../../../components/SuccessAlert';
@@ -62,8 +62,8 @@ export default function EditCustomer() {
     setSuccess(null);
 
     try {
-      await customerAPI.update(id, formData);
-      setSuccess('Customer updated successfully!');
+      const result = await customerAPI.update(id, formData);
+      setSuccess(queuedMessage(result) || 'Customer updated successfully!');
       setTimeout(() => {
         router.push(`/customers/${id}`);
       }, 1500);
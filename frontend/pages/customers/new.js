@@ -1,6 +1,6 @@
 import { useState } from 'react';
 import { useRouter } from 'next/router';
-import { customerAPI } from '../../lib/api';
+import { customerAPI, queuedMessage } from '../../lib/api';
 import ErrorAlert from '../../components/ErrorAlert';
 import SuccessAlert from '../../components/SuccessAlert';
 
@@ -33,8 +33,8 @@ export default function NewCustomer() {
     setSuccess(null);
 
     try {
-      await customerAPI.create(formData);
-      setSuccess('Customer created successfully!');
+      const result = await customerAPI.create(formData);
+      setSuccess(queuedMessage(result) || 'Customer created successfully!');
       setTimeout(() => {
         router.push('/customers');
       }, 1500);
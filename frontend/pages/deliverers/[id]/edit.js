@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react';
 import { useRouter } from 'next/router';
-import { delivererAPI } from '../../../lib/api';
+import { delivererAPI, queuedMessage } from '../../../lib/api';
 import LoadingSpinner from '../../../components/LoadingSpinner';
 import ErrorAlert from '../../../components/ErrorAlert';
 import SuccessAlert from '../../../components/SuccessAlert';
@@ -67,8 +67,8 @@ export default function EditDeliverer() {
     setSuccess(null);
 
     try {
-      await delivererAPI.update(id, formData);
-      setSuccess('Deliverer updated successfully!');
+      const result = await delivererAPI.update(id, formData);
+      setSuccess(queuedMessage(result) || 'Deliverer updated successfully!');
       setTimeout(() => {
         router.push(`/deliverers/${id}`);
       }, 1500);
@@ -1,6 +1,6 @@
 import { useState } from 'react';
 import { useRouter } from 'next/router';
-import { delivererAPI } from '../../lib/api';
+import { delivererAPI, queuedMessage } from '../../lib/api';
 import ErrorAlert from '../../components/ErrorAlert';
 import SuccessAlert from '../../components/SuccessAlert';
 
@@ -35,8 +35,8 @@ export default function NewDeliverer() {
     setSuccess(null);
 
     try {
-      await delivererAPI.create(formData);
-      setSuccess('Deliverer registered successfully!');
+      const result = await delivererAPI.create(formData);
+      setSuccess(queuedMessage(result) || 'Deliverer registered successfully!');
       setTimeout(() => {
         router.push('/deliverers');
       }, 1500);
@@ -1,7 +1,7 @@
 import { useState, useEffect } from 'react';
 import { useRouter } from 'next/router';
 import Link from 'next/link';
-import { deliveryAPI } from '../../lib/api';
+import { deliveryAPI, streamAPI } from '../../lib/api';
 import LoadingSpinner from '../../components/LoadingSpinner';
 import ErrorAlert from '../../components/ErrorAlert';
 import StatusBadge from '../../components/StatusBadge';
@@ -22,10 +22,10 @@ export default function DeliveryDetail() {
         setLoading(true);
         const [deliveryData, trackingData] = await Promise.all([
           deliveryAPI.getById(id),
-          deliveryAPI.track(id).catch(() => []),
+          deliveryAPI.track(id).catch(() => null),
         ]);
         setDelivery(deliveryData);
-        setTracking(Array.isArray(trackingData) ? trackingData : []);
+        setTracking(trackingData?.points || []);
       } catch (err) {
         setError(err.message);
       } finally {
@@ -34,6 +34,12 @@ export default function DeliveryDetail() {
     }
 
     fetchData();
+
+    return streamAPI.delivery(id, {
+      delivery: (data) => setDelivery(data),
+      location: (point) => setTracking((points) =>
+        points.some((p) => p.id === point.id) ? points : [...points, point]),
+    });
   }, [id]);
 
   if (loading) {
@@ -164,11 +170,13 @@ export default function DeliveryDetail() {
               <h2 className="text-xl font-semibold mb-4">Tracking History</h2>
               <div className="space-y-3">
                 {tracking.map((point, index) => (
-                  <div key={index} className="border-l-2 border-primary-500 pl-4">
+                  <div key={point.id ?? index} className="border-l-2 border-primary-500 pl-4">
                     <div className="flex justify-between items-start">
                       <div>
                         <p className="font-medium text-gray-900">
-                          {point.latitude}, {point.longitude}
+                          {point.status && point.status !== 'LOCATION'
+                            ? point.status
+                            : `${point.latitude}, ${point.longitude}`}
                         </p>
                         {point.timestamp && (
                           <p className="text-sm text-gray-500 mt-1">
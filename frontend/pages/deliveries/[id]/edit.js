@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react';
 import { useRouter } from 'next/router';
-import { deliveryAPI, delivererAPI } from '../../../lib/api';
+import { deliveryAPI, delivererAPI, queuedMessage } from '../../../lib/api';
 import LoadingSpinner from '../../../components/LoadingSpinner';
 import ErrorAlert from '../../../components/ErrorAlert';
 import SuccessAlert from '../../../components/SuccessAlert';
@@ -68,8 +68,8 @@ export default function EditDelivery() {
         ...formData,
         delivererId: formData.delivererId ? parseInt(formData.delivererId) : null,
       };
-      await deliveryAPI.update(id, updateData);
-      setSuccess('Delivery updated successfully!');
+      const result = await deliveryAPI.update(id, updateData);
+      setSuccess(queuedMessage(result) || 'Delivery updated successfully!');
       setTimeout(() => {
         router.push(`/deliveries/${id}`);
       }, 1500);
@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react';
 import { useRouter } from 'next/router';
-import { deliveryAPI, orderAPI, delivererAPI } from '../../lib/api';
+import { deliveryAPI, orderAPI, delivererAPI, queuedMessage } from '../../lib/api';
 import ErrorAlert from '../../components/ErrorAlert';
 import SuccessAlert from '../../components/SuccessAlert';
 import LoadingSpinner from '../../components/LoadingSpinner';
@@ -83,8 +83,8 @@ export default function NewDelivery() {
         orderId: parseInt(formData.orderId),
         delivererId: formData.delivererId ? parseInt(formData.delivererId) : null,
       };
-      await deliveryAPI.create(deliveryData);
-      setSuccess('Delivery created successfully!');
+      const result = await deliveryAPI.create(deliveryData);
+      setSuccess(queuedMessage(result) || 'Delivery created successfully!');
       setTimeout(() => {
         router.push('/deliveries');
       }, 1500);
@@ -1,7 +1,7 @@
 import { useState, useEffect } from 'react';
 import { useRouter } from 'next/router';
 import Link from 'next/link';
-import { orderAPI } from '../../lib/api';
+import { orderAPI, streamAPI } from '../../lib/api';
 import LoadingSpinner from '../../components/LoadingSpinner';
 import ErrorAlert from '../../components/ErrorAlert';
 import StatusBadge from '../../components/StatusBadge';
@@ -34,6 +34,10 @@ export default function OrderDetail() {
     }
 
     fetchData();
+
+    return streamAPI.order(id, {
+      order: (data) => setOrder(data),
+    });
   }, [id]);
 
   if (loading) {
@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react';
 import { useRouter } from 'next/router';
-import { orderAPI } from '../../../lib/api';
+import { orderAPI, queuedMessage } from '../../../lib/api';
 import LoadingSpinner from '../../../components/LoadingSpinner';
 import ErrorAlert from '../../../components/ErrorAlert';
 import SuccessAlert from '../../../components/SuccessAlert';
@@ -71,8 +71,8 @@ export default function EditOrder() {
     setSuccess(null);
 
     try {
-      await orderAPI.update(id, formData);
-      setSuccess('Order updated successfully!');
+      const result = await orderAPI.update(id, formData);
+      setSuccess(queuedMessage(result) || 'Order updated successfully!');
       setTimeout(() => {
         router.push(`/orders/${id}`);
       }, 1500);
@@ -95,12 +95,12 @@ export default function EditOrder() {
     setSuccess(null);
 
     try {
-      await orderAPI.updateStatus(id, {
+      const result = await orderAPI.updateStatus(id, {
         status: statusUpdate.status,
         notes: statusUpdate.notes || '',
         changedBy: statusUpdate.changedBy || 'admin@deliveryapp.com',
       });
-      setSuccess('Order status updated successfully!');
+      setSuccess(queuedMessage(result) || 'Order status updated successfully!');
       setTimeout(() => {
         router.push(`/orders/${id}`);
       }, 1500);
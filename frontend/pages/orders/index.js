@@ -20,7 +20,7 @@ export default function OrdersList() {
         const params = {};
         if (filter.status) params.status = filter.status;
         if (filter.customerId) params.customerId = filter.customerId;
-        const data = await orderAPI.getAll(params);
+        const data = await orderAPI.getSummaries(params);
         setOrders(Array.isArray(data) ? data : data?.content || []);
       } catch (err) {
         setError(err.message);
@@ -147,9 +147,9 @@ export default function OrdersList() {
                     </td>
                     <td className="px-6 py-4 whitespace-nowrap">
                       <div className="text-sm text-gray-900">
-                        {order.customer?.firstName} {order.customer?.lastName}
+                        {order.customerName}
                       </div>
-                      <div className="text-sm text-gray-500">{order.customer?.email}</div>
+                      <div className="text-sm text-gray-500">{order.customerEmail}</div>
                     </td>
                     <td className="px-6 py-4 whitespace-nowrap">
                       <StatusBadge status={order.status} type="order" />
@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react';
 import { useRouter } from 'next/router';
-import { orderAPI, customerAPI } from '../../lib/api';
+import { orderAPI, customerAPI, queuedMessage } from '../../lib/api';
 import ErrorAlert from '../../components/ErrorAlert';
 import SuccessAlert from '../../components/SuccessAlert';
 import LoadingSpinner from '../../components/LoadingSpinner';
@@ -83,8 +83,8 @@ export default function NewOrder() {
           weight: parseFloat(item.weight),
         })),
       };
-      await orderAPI.create(orderData);
-      setSuccess('Order created successfully!');
+      const result = await orderAPI.create(orderData);
+      setSuccess(queuedMessage(result) || 'Order created successfully!');
       setTimeout(() => {
         router.push('/orders');
       }, 1500);
@@ -28,6 +28,7 @@ CREATE TABLE IF NOT EXISTS orders (
     delivery_postal_code VARCHAR(20) NOT NULL,
     special_instructions TEXT,
     delivery_fee DECIMAL(10, 2) DEFAULT 0.00,
+    version INTEGER NOT NULL DEFAULT 0, -- incremented on every update, carried by the order events
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (customer_id) REFERENCES customers(id) ON DELETE CASCADE
@@ -59,6 +60,32 @@ CREATE TABLE IF NOT EXISTS order_status_history (
     FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE
 );
 
+-- Table: order_outbox
+-- Events written in the same transaction as the order change, relayed to the broker afterwards
+CREATE TABLE IF NOT EXISTS order_outbox (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    order_id INTEGER NOT NULL,
+    event_type VARCHAR(100) NOT NULL, -- OrderStatusChanged, OrderReadyForDelivery, OrderAddressChanged, OrderDeleted
+    payload TEXT NOT NULL, -- JSON
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP, -- NULL until relayed
+    attempts INTEGER NOT NULL DEFAULT 0, -- failed publish attempts
+    last_error TEXT,
+    next_attempt_at TIMESTAMP, -- not retried before this after a failure
+    parked_at TIMESTAMP -- set once attempts reach the limit; parked events are no longer relayed
+);
+
+-- Table: order_daily_stats
+-- Orders counted under their creation day, delivery city and current status, kept up to date on every order write
+CREATE TABLE IF NOT EXISTS order_daily_stats (
+    day VARCHAR(10) NOT NULL, -- YYYY-MM-DD
+    city VARCHAR(100) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    order_count INTEGER NOT NULL DEFAULT 0,
+    revenue_cents INTEGER NOT NULL DEFAULT 0, -- sum of total_amount, in cents to stay exact
+    PRIMARY KEY (day, city, status)
+) WITHOUT ROWID;
+
 -- Indexes for better query performance
 CREATE INDEX IF NOT EXISTS idx_orders_customer_id ON orders(customer_id);
 CREATE INDEX IF NOT EXISTS idx_orders_status ON orders(status);
@@ -66,6 +93,10 @@ CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders(created_at);
 CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items(order_id);
 CREATE INDEX IF NOT EXISTS idx_order_status_history_order_id ON order_status_history(order_id);
 CREATE INDEX IF NOT EXISTS idx_customers_email ON customers(email);
+DROP INDEX IF EXISTS idx_order_outbox_unpublished;
+CREATE INDEX IF NOT EXISTS idx_order_outbox_pending ON order_outbox(id) WHERE published_at IS NULL AND parked_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_order_outbox_parked ON order_outbox(parked_at) WHERE parked_at IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_order_outbox_published_at ON order_outbox(published_at);
 
 -- Trigger to update updated_at timestamp on orders
 CREATE TRIGGER IF NOT EXISTS update_orders_timestamp 
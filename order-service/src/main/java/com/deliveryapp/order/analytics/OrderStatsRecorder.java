@@ -0,0 +1,116 @@
+package com.deliveryapp.order.analytics;
+
+import com.deliveryapp.order.entity.Order;
+import com.deliveryapp.order.entity.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the order_daily_stats rollup in step with the orders table. Every
+ * order is counted once, under the day it was created, its delivery city and
+ * its current status; a write applies the difference it makes as upserts of
+ * the affected rows. Like {@link com.deliveryapp.order.messaging.OrderOutbox},
+ * it must run in the transaction that changes the orders.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderStatsRecorder {
+
+    static final String UPSERT =
+        "INSERT INTO order_daily_stats (day, city, status, order_count, revenue_cents) VALUES (?, ?, ?, ?, ?) " +
+        "ON CONFLICT (day, city, status) DO UPDATE SET " +
+        "order_count = order_count + excluded.order_count, revenue_cents = revenue_cents + excluded.revenue_cents";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Order order) {
+        apply(List.of(Delta.of(order, day(order), order.getDeliveryCity(), order.getStatus(), 1)));
+    }
+
+    /** Records orders inserted together on {@code day}, whose entities carry no creation time. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Collection<Order> orders, LocalDate day) {
+        List<Delta> deltas = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            deltas.add(Delta.of(order, day, order.getDeliveryCity(), order.getStatus(), 1));
+        }
+        apply(deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(Order order, OrderStatus oldStatus) {
+        if (oldStatus == order.getStatus()) {
+            return;
+        }
+        LocalDate day = day(order);
+        apply(List.of(
+            Delta.of(order, day, order.getDeliveryCity(), oldStatus, -1),
+            Delta.of(order, day, order.getDeliveryCity(), order.getStatus(), 1)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCityChange(Order order, String oldCity) {
+        if (oldCity.equals(order.getDeliveryCity())) {
+            return;
+        }
+        LocalDate day = day(order);
+        apply(List.of(
+            Delta.of(order, day, oldCity, order.getStatus(), -1),
+            Delta.of(order, day, order.getDeliveryCity(), order.getStatus(), 1)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Order order) {
+        apply(List.of(Delta.of(order, day(order), order.getDeliveryCity(), order.getStatus(), -1)));
+    }
+
+    /** Merges deltas of the same row, then upserts each row once. */
+    private void apply(List<Delta> deltas) {
+        Map<Key, long[]> merged = new LinkedHashMap<>();
+        for (Delta delta : deltas) {
+            long[] sums = merged.computeIfAbsent(delta.key(), k -> new long[2]);
+            sums[0] += delta.count();
+            sums[1] += delta.revenueCents();
+        }
+        List<Object[]> rows = new ArrayList<>(merged.size());
+        merged.forEach((key, sums) -> {
+            if (sums[0] != 0 || sums[1] != 0) {
+                rows.add(new Object[] {key.day().toString(), key.city(), key.status().name(), sums[0], sums[1]});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.getJdbcTemplate().batchUpdate(UPSERT, rows);
+        }
+    }
+
+    private static LocalDate day(Order order) {
+        return order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : LocalDate.now();
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact() : 0;
+    }
+
+    record Key(LocalDate day, String city, OrderStatus status) {
+    }
+
+    private record Delta(Key key, long count, long revenueCents) {
+
+        static Delta of(Order order, LocalDate day, String city, OrderStatus status, int sign) {
+            return new Delta(new Key(day, city, status), sign, sign * toCents(order.getTotalAmount()));
+        }
+    }
+}
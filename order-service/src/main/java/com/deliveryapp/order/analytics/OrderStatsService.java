@@ -0,0 +1,159 @@
+package com.deliveryapp.order.analytics;
+
+import com.deliveryapp.order.dto.OrderStatsBucketDTO;
+import com.deliveryapp.order.dto.OrderStatsDTO;
+import com.deliveryapp.order.entity.OrderStatus;
+import com.deliveryapp.order.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Answers order statistics from the order_daily_stats rollup maintained by
+ * {@link OrderStatsRecorder}. A range query reads at most one row per day,
+ * city and status, however many orders the range holds.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderStatsService {
+
+    static final int MAX_RANGE_DAYS = 3660;
+
+    private static final String SELECT_RANGE =
+        "SELECT day, city, status, order_count, revenue_cents FROM order_daily_stats " +
+        "WHERE day BETWEEN :from AND :to AND (:city IS NULL OR city = :city) " +
+        "AND (:status IS NULL OR status = :status)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Transactional(readOnly = true)
+    public OrderStatsDTO getStats(LocalDate from, LocalDate to, String city, OrderStatus status) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new BadRequestException("Range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+
+        Map<String, long[]> byDay = new TreeMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            byDay.put(day.toString(), new long[2]);
+        }
+        Map<String, long[]> byStatus = new TreeMap<>();
+        Map<String, long[]> byCity = new TreeMap<>();
+        long[] total = new long[2];
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("from", from.toString())
+            .addValue("to", to.toString())
+            .addValue("city", city)
+            .addValue("status", status != null ? status.name() : null);
+        jdbcTemplate.query(SELECT_RANGE, params, (RowCallbackHandler) rs -> {
+            long count = rs.getLong("order_count");
+            long cents = rs.getLong("revenue_cents");
+            add(total, count, cents);
+            add(byDay.computeIfAbsent(rs.getString("day"), k -> new long[2]), count, cents);
+            add(byStatus.computeIfAbsent(rs.getString("status"), k -> new long[2]), count, cents);
+            add(byCity.computeIfAbsent(rs.getString("city"), k -> new long[2]), count, cents);
+        });
+
+        List<OrderStatsBucketDTO> cities = buckets(byCity);
+        cities.sort(Comparator.comparingLong(OrderStatsBucketDTO::getOrderCount).reversed());
+        return new OrderStatsDTO(from, to, total[0], BigDecimal.valueOf(total[1], 2),
+            buckets(byDay), buckets(byStatus), cities);
+    }
+
+    /**
+     * Recomputes the whole rollup from the orders table, for backfills and
+     * after changes made to orders outside this service. Runs in one write
+     * transaction, so order writes wait until it is done and none is lost.
+     *
+     * @return the number of orders counted
+     */
+    public int rebuild() {
+        return transactionTemplate.execute(tx -> {
+            log.info("Rebuilding order statistics");
+            jdbcTemplate.getJdbcTemplate().update("DELETE FROM order_daily_stats");
+
+            Map<OrderStatsRecorder.Key, long[]> sums = new HashMap<>();
+            int[] orders = {0};
+            jdbcTemplate.getJdbcTemplate().query(
+                "SELECT created_at, delivery_city, status, total_amount FROM orders",
+                (RowCallbackHandler) rs -> {
+                    OrderStatsRecorder.Key key = new OrderStatsRecorder.Key(
+                        day(rs), rs.getString("delivery_city"), OrderStatus.valueOf(rs.getString("status")));
+                    add(sums.computeIfAbsent(key, k -> new long[2]), 1,
+                        OrderStatsRecorder.toCents(rs.getBigDecimal("total_amount")));
+                    orders[0]++;
+                });
+
+            List<Object[]> rows = new ArrayList<>(sums.size());
+            sums.forEach((key, s) -> rows.add(new Object[] {
+                key.day().toString(), key.city(), key.status().name(), s[0], s[1]}));
+            jdbcTemplate.getJdbcTemplate().batchUpdate(OrderStatsRecorder.UPSERT, rows);
+
+            log.info("Order statistics rebuilt from {} orders into {} rows", orders[0], rows.size());
+            return orders[0];
+        });
+    }
+
+    /** Backfills the rollup when it is empty but orders exist, e.g. on a database created from init.sql. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        Boolean empty = jdbcTemplate.getJdbcTemplate().queryForObject(
+            "SELECT NOT EXISTS (SELECT 1 FROM order_daily_stats) AND EXISTS (SELECT 1 FROM orders)", Boolean.class);
+        if (Boolean.TRUE.equals(empty)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Day of created_at, which holds epoch milliseconds for rows written
+     * through JDBC and SQLite's text timestamps for rows inserted by SQL
+     * defaults.
+     */
+    private static LocalDate day(ResultSet rs) throws SQLException {
+        Object createdAt = rs.getObject("created_at");
+        if (createdAt instanceof Number millis) {
+            return Instant.ofEpochMilli(millis.longValue()).atZone(ZoneId.systemDefault()).toLocalDate();
+        }
+        if (createdAt != null) {
+            return LocalDate.parse(createdAt.toString().substring(0, 10));
+        }
+        return LocalDate.now();
+    }
+
+    private static void add(long[] sums, long count, long cents) {
+        sums[0] += count;
+        sums[1] += cents;
+    }
+
+    private static List<OrderStatsBucketDTO> buckets(Map<String, long[]> sums) {
+        List<OrderStatsBucketDTO> buckets = new ArrayList<>(sums.size());
+        sums.forEach((key, s) -> buckets.add(new OrderStatsBucketDTO(key, s[0], BigDecimal.valueOf(s[1], 2))));
+        return buckets;
+    }
+}
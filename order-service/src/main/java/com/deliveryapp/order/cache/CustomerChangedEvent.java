@@ -0,0 +1,9 @@
+package com.deliveryapp.order.cache;
+
+/**
+ * Published inside a transaction that changed or deleted a customer. Cached
+ * orders embed their customer, so all of the customer's entries are evicted
+ * once the transaction commits.
+ */
+public record CustomerChangedEvent(Long customerId) {
+}
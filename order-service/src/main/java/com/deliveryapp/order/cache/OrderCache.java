@@ -0,0 +1,118 @@
+package com.deliveryapp.order.cache;
+
+import com.deliveryapp.order.dto.CursorPageDTO;
+import com.deliveryapp.order.dto.OrderDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read cache for single orders and for the pages of a customer's order
+ * history. Entries are evicted after the transaction that changed their
+ * orders or customer commits, see {@link OrdersChangedEvent} and
+ * {@link CustomerChangedEvent}.
+ *
+ * <p>A read that started before such a commit may have seen the old rows.
+ * Readers therefore take the {@link #generation()} before querying and pass
+ * it to the put, which drops the value if an eviction happened in between.
+ *
+ * <p>Cached DTOs are shared between callers and must not be modified.
+ * Hit rates are exported as {@code cache.gets{cache=orders.by-id|orders.by-customer}}.
+ */
+@Component
+@Slf4j
+public class OrderCache {
+
+    private final Cache<Long, OrderDTO> orders;
+    private final Cache<PageKey, CursorPageDTO<OrderDTO>> customerPages;
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter invalidations;
+
+    public OrderCache(OrderCacheProperties properties, MeterRegistry meterRegistry) {
+        this.orders = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxOrders())
+            .expireAfterWrite(properties.getTtl())
+            .recordStats()
+            .build();
+        this.customerPages = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxCustomerPages())
+            .expireAfterWrite(properties.getTtl())
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, orders, "orders.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, customerPages, "orders.by-customer");
+        this.invalidations = meterRegistry.counter("order.cache.invalidations");
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public OrderDTO getOrder(Long orderId) {
+        return orders.getIfPresent(orderId);
+    }
+
+    public void putOrder(OrderDTO order, long readGeneration) {
+        if (generation.get() != readGeneration) {
+            return;
+        }
+        orders.put(order.getId(), order);
+        // an eviction may have run between the check and the put
+        if (generation.get() != readGeneration) {
+            orders.invalidate(order.getId());
+        }
+    }
+
+    public CursorPageDTO<OrderDTO> getCustomerPage(Long customerId, Long cursor, int limit) {
+        return customerPages.getIfPresent(new PageKey(customerId, cursor, limit));
+    }
+
+    public void putCustomerPage(Long customerId, Long cursor, int limit, CursorPageDTO<OrderDTO> page,
+                                long readGeneration) {
+        if (generation.get() != readGeneration) {
+            return;
+        }
+        PageKey key = new PageKey(customerId, cursor, limit);
+        customerPages.put(key, page);
+        if (generation.get() != readGeneration) {
+            customerPages.invalidate(key);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdersChanged(OrdersChangedEvent event) {
+        generation.incrementAndGet();
+        orders.invalidateAll(event.orderIds());
+        evictCustomerPages(event.customerIds());
+        invalidations.increment();
+        log.debug("Evicted {} order(s) and the listings of {} customer(s)",
+            event.orderIds().size(), event.customerIds().size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        generation.incrementAndGet();
+        // customer changes are rare, a scan is cheaper than an index kept on every put
+        orders.asMap().values().removeIf(order -> event.customerId().equals(order.getCustomerId()));
+        evictCustomerPages(Set.of(event.customerId()));
+        invalidations.increment();
+    }
+
+    private void evictCustomerPages(Set<Long> customerIds) {
+        if (!customerIds.isEmpty()) {
+            customerPages.asMap().keySet().removeIf(key -> customerIds.contains(key.customerId()));
+        }
+    }
+
+    private record PageKey(Long customerId, Long cursor, int limit) {
+    }
+}
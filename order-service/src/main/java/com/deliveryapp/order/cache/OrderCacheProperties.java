@@ -0,0 +1,28 @@
+package com.deliveryapp.order.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Sizes and lifetime of the order read caches, bound from
+ * {@code app.orders.cache.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.orders.cache")
+public class OrderCacheProperties {
+
+    /** Orders kept by id; 0 turns the cache off. */
+    private long maxOrders = 10000;
+
+    /** Pages of customer order listings kept, across all customers; 0 turns the cache off. */
+    private long maxCustomerPages = 5000;
+
+    /**
+     * Upper bound on how long an entry is served. Writes through this service
+     * evict the entries they affect immediately; the TTL only bounds
+     * staleness from changes made behind its back.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,20 @@
+package com.deliveryapp.order.cache;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published inside a transaction that created, changed or deleted orders.
+ * {@link OrderCache} evicts the orders and the listings of their customers
+ * once the transaction commits.
+ */
+public record OrdersChangedEvent(Set<Long> orderIds, Set<Long> customerIds) {
+
+    public static OrdersChangedEvent of(Long orderId, Long customerId) {
+        return new OrdersChangedEvent(Set.of(orderId), Set.of(customerId));
+    }
+
+    public static OrdersChangedEvent of(Collection<Long> orderIds, Collection<Long> customerIds) {
+        return new OrdersChangedEvent(Set.copyOf(orderIds), Set.copyOf(customerIds));
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,6 +21,10 @@ public interface DeliveryServiceClient {
     
     @GetMapping("/api/deliveries")
     List<DeliveryDTO> getDeliveriesByOrderId(@RequestParam("orderId") Long orderId);
+    
+    /** At most 200 ids; unknown ids are left out of the result. */
+    @GetMapping("/api/deliveries")
+    List<DeliveryDTO> getDeliveriesByIds(@RequestParam("ids") Collection<Long> ids);
 }
 
 // DTOs for communication
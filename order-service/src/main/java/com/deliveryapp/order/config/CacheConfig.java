@@ -0,0 +1,10 @@
+package com.deliveryapp.order.config;
+
+import com.deliveryapp.order.cache.OrderCacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(OrderCacheProperties.class)
+public class CacheConfig {
+}
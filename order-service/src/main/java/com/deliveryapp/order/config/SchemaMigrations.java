@@ -0,0 +1,99 @@
+package com.deliveryapp.order.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Brings the database up to date with {@code database/schema.sql} when the
+ * service starts. The Dockerfile creates the database from that script when
+ * the image is built, but the data volume keeps the database an earlier
+ * version created, without the columns, tables and indexes added since.
+ * Before the data source is handed out, on the writer connection and in one
+ * transaction, columns added since are added to the tables that exist, since
+ * {@code CREATE TABLE IF NOT EXISTS} leaves those alone, then the script
+ * runs; every statement in it can be repeated.
+ *
+ * <p>Nothing is done when the script is not found, e.g. when running outside
+ * the container without {@code app.sqlite.schema-script}.
+ */
+@Slf4j
+final class SchemaMigrations {
+
+    private record Column(String table, String name, String definition) {
+    }
+
+    // in the order they were added to schema.sql
+    private static final List<Column> ADDED_COLUMNS = List.of(
+        new Column("order_outbox", "attempts", "INTEGER NOT NULL DEFAULT 0"),
+        new Column("order_outbox", "last_error", "TEXT"),
+        new Column("order_outbox", "next_attempt_at", "TIMESTAMP"),
+        new Column("order_outbox", "parked_at", "TIMESTAMP"),
+        new Column("orders", "version", "INTEGER NOT NULL DEFAULT 0"));
+
+    private SchemaMigrations() {
+    }
+
+    static void apply(DataSource dataSource, String scriptLocation) {
+        Resource script = new DefaultResourceLoader().getResource(scriptLocation);
+        if (!script.exists()) {
+            log.info("No schema script at {}, leaving the database schema as it is", scriptLocation);
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                for (Column column : ADDED_COLUMNS) {
+                    addColumn(connection, statement, column);
+                }
+                statement.executeUpdate(script.getContentAsString(StandardCharsets.UTF_8));
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not bring the database schema up to date with " + scriptLocation, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Database schema up to date with {}", scriptLocation);
+    }
+
+    private static void addColumn(Connection connection, Statement statement, Column column) throws SQLException {
+        if (exists(connection, column.table()) && !hasColumn(connection, column.table(), column.name())) {
+            log.info("Adding column {}.{}", column.table(), column.name());
+            statement.executeUpdate("ALTER TABLE " + column.table() + " ADD COLUMN " + column.name() + " " + column.definition());
+        }
+    }
+
+    private static boolean exists(Connection connection, String table) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            query.setString(1, table);
+            try (ResultSet rs = query.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement("SELECT 1 FROM pragma_table_info(?) WHERE name = ?")) {
+            query.setString(1, table);
+            query.setString(2, column);
+            try (ResultSet rs = query.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+}
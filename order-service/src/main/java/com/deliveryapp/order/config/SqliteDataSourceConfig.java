@@ -0,0 +1,113 @@
+package com.deliveryapp.order.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Configures SQLite for concurrent access. Every connection runs in WAL mode
+ * with a busy timeout, so readers are not blocked by an in-flight write.
+ * SQLite only ever allows one writer, so writes are serialised through a pool
+ * holding a single connection while read-only transactions use a separate
+ * reader pool. The routing decision is made when the first statement runs,
+ * after Spring has marked the transaction read-only. The schema is brought up
+ * to date before the writer pool is handed out, see {@link SchemaMigrations}.
+ * When request handling runs on virtual threads the reader pool is capped,
+ * see {@link #pinningSafeReaderPoolSize(int)}.
+ */
+@Configuration
+@EnableConfigurationProperties(SqliteProperties.class)
+@Slf4j
+public class SqliteDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource sqliteWriterDataSource(@Value("${spring.datasource.url}") String url,
+                                                   SqliteProperties properties,
+                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource writer = pool("sqlite-writer", url, properties, 1, meterRegistry);
+        try {
+            SchemaMigrations.apply(writer, properties.getSchemaScript());
+        } catch (RuntimeException e) {
+            writer.close();
+            throw e;
+        }
+        return writer;
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource sqliteReaderDataSource(@Value("${spring.datasource.url}") String url,
+                                                   @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                                   SqliteProperties properties,
+                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        int size = virtualThreads
+            ? pinningSafeReaderPoolSize(properties.getReaderPoolSize())
+            : properties.getReaderPoolSize();
+        return pool("sqlite-reader", url, properties, size, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource sqliteWriterDataSource, HikariDataSource sqliteReaderDataSource) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+            ReadWriteRoutingDataSource.Route.WRITER, sqliteWriterDataSource,
+            ReadWriteRoutingDataSource.Route.READER, sqliteReaderDataSource));
+        routing.setDefaultTargetDataSource(sqliteWriterDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * The SQLite driver runs statements in synchronized native code, which pins
+     * a virtual thread to its carrier until the statement returns. Keeps the
+     * connections that can be busy at once, the writer and the readers, below
+     * the number of carriers so that request handling always has one left.
+     */
+    private static int pinningSafeReaderPoolSize(int configured) {
+        int carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+            Runtime.getRuntime().availableProcessors());
+        int size = Math.max(1, Math.min(configured, carriers - 2));
+        if (size < configured) {
+            log.warn("SQLite reader pool capped at {} connection(s) for {} virtual thread carriers; " +
+                "raise jdk.virtualThreadScheduler.parallelism to allow more", size, carriers);
+        }
+        return size;
+    }
+
+    private HikariDataSource pool(String name, String url, SqliteProperties properties, int size,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.valueOf(properties.getJournalMode().toUpperCase()));
+        config.setSynchronous(SQLiteConfig.SynchronousMode.valueOf(properties.getSynchronous().toUpperCase()));
+        config.setBusyTimeout(properties.getBusyTimeout());
+        SQLiteDataSource sqlite = new SQLiteDataSource(config);
+        sqlite.setUrl(url);
+
+        HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName(name);
+        hikari.setDataSource(sqlite);
+        hikari.setMaximumPoolSize(size);
+        hikari.setMinimumIdle(size);
+        hikari.setConnectionTimeout(properties.getConnectionTimeout());
+        hikari.setConnectionInitSql("PRAGMA mmap_size = " + properties.getMmapSize());
+        meterRegistry.ifAvailable(registry -> hikari.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+
+        log.info("Creating SQLite pool {} with {} connection(s), journal_mode={}, synchronous={}",
+            name, size, properties.getJournalMode(), properties.getSynchronous());
+        return new HikariDataSource(hikari);
+    }
+}
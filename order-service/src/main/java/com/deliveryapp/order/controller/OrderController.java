@@ -1,20 +1,33 @@
 package com.deliveryapp.order.controller;
 
+import com.deliveryapp.order.analytics.OrderStatsService;
+import com.deliveryapp.order.dto.BatchOrderResponseDTO;
+import com.deliveryapp.order.dto.CursorPageDTO;
 import com.deliveryapp.order.dto.OrderDTO;
+import com.deliveryapp.order.dto.OrderStatsDTO;
 import com.deliveryapp.order.dto.OrderStatusHistoryDTO;
 import com.deliveryapp.order.dto.OrderStatusUpdateDTO;
+import com.deliveryapp.order.dto.OrderSummaryDTO;
 import com.deliveryapp.order.entity.OrderStatus;
+import com.deliveryapp.order.exception.BadRequestException;
+import com.deliveryapp.order.service.OrderBatchService;
 import com.deliveryapp.order.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -22,7 +35,14 @@ import java.util.List;
 @Slf4j
 public class OrderController {
     
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_BATCH_IDS = 200;
+    private static final String NDJSON = "application/x-ndjson";
+    
     private final OrderService orderService;
+    private final OrderBatchService orderBatchService;
+    private final OrderStatsService orderStatsService;
+    private final ObjectMapper objectMapper;
     
     @PostMapping
     public ResponseEntity<OrderDTO> createOrder(@Valid @RequestBody OrderDTO orderDTO) {
@@ -31,6 +51,13 @@ public class OrderController {
         return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
     }
     
+    @PostMapping("/batch")
+    public ResponseEntity<BatchOrderResponseDTO> createOrders(@RequestBody List<OrderDTO> orderDTOs) {
+        log.info("REST request to create batch of {} orders", orderDTOs.size());
+        BatchOrderResponseDTO response = orderBatchService.createOrders(orderDTOs);
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<OrderDTO> getOrderById(@PathVariable Long id) {
         log.info("REST request to get order by ID: {}", id);
@@ -38,6 +65,19 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
     
+    /**
+     * Batch lookup for other services: the orders with the given ids, at
+     * most {@value #MAX_BATCH_IDS} per request. Unknown ids are left out.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<OrderDTO>> getOrdersByIds(@RequestParam List<Long> ids) {
+        log.info("REST request to get {} orders by ID", ids.size());
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new BadRequestException("At most " + MAX_BATCH_IDS + " ids per request");
+        }
+        return ResponseEntity.ok(orderService.getOrdersByIds(ids));
+    }
+    
     @GetMapping("/number/{orderNumber}")
     public ResponseEntity<OrderDTO> getOrderByOrderNumber(@PathVariable String orderNumber) {
         log.info("REST request to get order by order number: {}", orderNumber);
@@ -46,29 +86,90 @@ public class OrderController {
     }
     
     @GetMapping
-    public ResponseEntity<?> getAllOrders(
+    public ResponseEntity<CursorPageDTO<OrderDTO>> getAllOrders(
             @RequestParam(required = false) Long customerId,
             @RequestParam(required = false) OrderStatus status,
-            Pageable pageable) {
-        log.info("REST request to get orders - customerId: {}, status: {}", customerId, status);
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        log.info("REST request to get orders - customerId: {}, status: {}, cursor: {}", customerId, status, cursor);
+        
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
         
         if (customerId != null) {
-            List<OrderDTO> orders = orderService.getOrdersByCustomerId(customerId);
-            return ResponseEntity.ok(orders);
+            return ResponseEntity.ok(orderService.getOrdersByCustomerId(customerId, cursor, pageSize));
         }
         
         if (status != null) {
-            List<OrderDTO> orders = orderService.getOrdersByStatus(status);
-            return ResponseEntity.ok(orders);
+            return ResponseEntity.ok(orderService.getOrdersByStatus(status, cursor, pageSize));
         }
         
-        if (pageable.isPaged()) {
-            Page<OrderDTO> orders = orderService.getAllOrders(pageable);
-            return ResponseEntity.ok(orders);
-        }
+        return ResponseEntity.ok(orderService.getOrders(cursor, pageSize));
+    }
+    
+    /**
+     * Same filters and paging as {@code GET /api/orders}, returning only the
+     * columns a list shows instead of full orders with customer and items.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<CursorPageDTO<OrderSummaryDTO>> getOrderSummaries(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        log.info("REST request to get order summaries - customerId: {}, status: {}, cursor: {}", customerId, status, cursor);
+        
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(orderService.getOrderSummaries(customerId, status, cursor, pageSize));
+    }
+    
+    /**
+     * Order volume and revenue of orders created in a date range, by day,
+     * status and city. Defaults to the last 30 days.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<OrderStatsDTO> getOrderStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) OrderStatus status) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        log.info("REST request to get order stats - from: {}, to: {}, city: {}, status: {}", start, end, city, status);
+        return ResponseEntity.ok(orderStatsService.getStats(start, end, city, status));
+    }
+    
+    /**
+     * Recomputes the statistics from the orders table. Only needed to backfill
+     * or after orders were changed directly in the database.
+     */
+    @PostMapping("/stats/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildOrderStats() {
+        log.info("REST request to rebuild order stats");
+        return ResponseEntity.ok(Map.of("orders", orderStatsService.rebuild()));
+    }
+    
+    /**
+     * Streaming export selected with {@code Accept: application/x-ndjson}:
+     * one JSON order per line, written as it is read from the database.
+     */
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) OrderStatus status) {
+        log.info("REST request to export orders - customerId: {}, status: {}", customerId, status);
+        
+        StreamingResponseBody body = out -> orderService.exportOrders(customerId, status, order -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(order));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
         
-        List<OrderDTO> orders = orderService.getAllOrders();
-        return ResponseEntity.ok(orders);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(NDJSON))
+            .body(body);
     }
     
     @PutMapping("/{id}")
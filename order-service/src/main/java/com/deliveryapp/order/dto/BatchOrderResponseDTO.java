@@ -0,0 +1,21 @@
+package com.deliveryapp.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderResponseDTO {
+    
+    private int submitted;
+    
+    private int succeeded;
+    
+    private int failed;
+    
+    private List<BatchOrderResultDTO> results;
+}
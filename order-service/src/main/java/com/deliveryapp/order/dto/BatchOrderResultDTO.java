@@ -0,0 +1,33 @@
+package com.deliveryapp.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one order of a batch creation request, identified by its
+ * position in the submitted list.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderResultDTO {
+    
+    private int index;
+    
+    private boolean success;
+    
+    private Long id;
+    
+    private String orderNumber;
+    
+    private String error;
+    
+    public static BatchOrderResultDTO created(int index, Long id, String orderNumber) {
+        return new BatchOrderResultDTO(index, true, id, orderNumber, null);
+    }
+    
+    public static BatchOrderResultDTO failed(int index, String error) {
+        return new BatchOrderResultDTO(index, false, null, null, error);
+    }
+}
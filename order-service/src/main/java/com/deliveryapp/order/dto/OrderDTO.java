@@ -53,4 +53,7 @@ public class OrderDTO {
     private LocalDateTime createdAt;
     
     private LocalDateTime updatedAt;
+    
+    // incremented on every update; orders the copies other services receive by event and by lookup
+    private Long version;
 }
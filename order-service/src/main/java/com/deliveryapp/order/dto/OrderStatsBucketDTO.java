@@ -0,0 +1,22 @@
+package com.deliveryapp.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Order count and revenue of one day, status or city within a stats range.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatsBucketDTO {
+    
+    private String key;
+    
+    private long orderCount;
+    
+    private BigDecimal revenue;
+}
@@ -0,0 +1,36 @@
+package com.deliveryapp.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Order volume and revenue for orders created between {@code from} and
+ * {@code to}, both inclusive. Revenue is the sum of order totals; orders are
+ * counted under their current status, so cancelled orders appear in the
+ * CANCELLED bucket and can be subtracted from the totals.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatsDTO {
+    
+    private LocalDate from;
+    
+    private LocalDate to;
+    
+    private long orderCount;
+    
+    private BigDecimal revenue;
+    
+    /** One bucket per day of the range, including days without orders. */
+    private List<OrderStatsBucketDTO> byDay;
+    
+    private List<OrderStatsBucketDTO> byStatus;
+    
+    private List<OrderStatsBucketDTO> byCity;
+}
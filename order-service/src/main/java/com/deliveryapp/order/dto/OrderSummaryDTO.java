@@ -0,0 +1,38 @@
+package com.deliveryapp.order.dto;
+
+import com.deliveryapp.order.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The columns an order list shows. Selected directly by
+ * {@link com.deliveryapp.order.repository.OrderRepository} queries, so no
+ * order entity, item or customer entity is loaded to build it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDTO {
+    
+    private Long id;
+    
+    private String orderNumber;
+    
+    private Long customerId;
+    
+    private String customerName;
+    
+    private String customerEmail;
+    
+    private OrderStatus status;
+    
+    private BigDecimal totalAmount;
+    
+    private String deliveryCity;
+    
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,10 @@
+package com.deliveryapp.order.generator;
+
+/**
+ * Source of unique, roughly time-ordered identifiers used to build
+ * business numbers (order numbers, delivery numbers, ...).
+ */
+public interface IdGenerator {
+
+    long nextId();
+}
@@ -0,0 +1,24 @@
+package com.deliveryapp.order.messaging;
+
+import com.deliveryapp.order.entity.OrderOutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers outbox events as Spring application events within this service,
+ * for running without a broker. Listeners receive the {@link OrderOutboxEvent}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.publisher", havingValue = "in-process")
+@RequiredArgsConstructor
+public class InProcessOutboxPublisher implements OutboxPublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publish(OrderOutboxEvent event) {
+        eventPublisher.publishEvent(event);
+    }
+}
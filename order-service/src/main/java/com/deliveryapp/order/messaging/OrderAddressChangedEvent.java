@@ -0,0 +1,27 @@
+package com.deliveryapp.order.messaging;
+
+import com.deliveryapp.order.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when the delivery address of an order changes without its
+ * status changing.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderAddressChangedEvent {
+
+    private Long orderId;
+    private String orderNumber;
+    private OrderStatus status;
+    private String deliveryAddress;
+    private String deliveryCity;
+    private String deliveryPostalCode;
+    private Long version;
+    private LocalDateTime changedAt;
+}
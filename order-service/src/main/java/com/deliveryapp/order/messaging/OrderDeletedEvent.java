@@ -0,0 +1,22 @@
+package com.deliveryapp.order.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when an order is deleted. {@code version} is the last version
+ * the order had.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDeletedEvent {
+
+    private Long orderId;
+    private String orderNumber;
+    private Long version;
+    private LocalDateTime deletedAt;
+}
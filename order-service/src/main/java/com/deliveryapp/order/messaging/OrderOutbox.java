@@ -0,0 +1,106 @@
+package com.deliveryapp.order.messaging;
+
+import com.deliveryapp.order.entity.Order;
+import com.deliveryapp.order.entity.OrderOutboxEvent;
+import com.deliveryapp.order.entity.OrderStatus;
+import com.deliveryapp.order.repository.OrderOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records order events in the order_outbox table. Events must be written in
+ * the transaction that changes the order, so they are committed or rolled
+ * back together with it; {@link OutboxRelay} publishes them afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderOutbox {
+
+    public static final String STATUS_CHANGED = "OrderStatusChanged";
+    public static final String READY_FOR_DELIVERY = "OrderReadyForDelivery";
+    public static final String ADDRESS_CHANGED = "OrderAddressChanged";
+    public static final String DELETED = "OrderDeleted";
+
+    private final OrderOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(Order order, OrderStatus oldStatus) {
+        outboxRepository.saveAll(statusChangeEvents(order, oldStatus));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAddressChange(Order order) {
+        outboxRepository.save(event(order, ADDRESS_CHANGED, new OrderAddressChangedEvent(
+            order.getId(),
+            order.getOrderNumber(),
+            order.getStatus(),
+            order.getDeliveryAddress(),
+            order.getDeliveryCity(),
+            order.getDeliveryPostalCode(),
+            order.getVersion(),
+            LocalDateTime.now()
+        )));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Order order) {
+        outboxRepository.save(event(order, DELETED, new OrderDeletedEvent(
+            order.getId(),
+            order.getOrderNumber(),
+            order.getVersion(),
+            LocalDateTime.now()
+        )));
+    }
+
+    /**
+     * Builds, without saving, the events for an order that moved from
+     * {@code oldStatus} (null for a new order) to its current status.
+     */
+    public List<OrderOutboxEvent> statusChangeEvents(Order order, OrderStatus oldStatus) {
+        List<OrderOutboxEvent> events = new ArrayList<>(2);
+        events.add(event(order, STATUS_CHANGED, new OrderStatusChangedEvent(
+            order.getId(),
+            order.getOrderNumber(),
+            order.getCustomer().getId(),
+            oldStatus,
+            order.getStatus(),
+            order.getDeliveryAddress(),
+            order.getDeliveryCity(),
+            order.getDeliveryPostalCode(),
+            order.getVersion(),
+            LocalDateTime.now()
+        )));
+        if (order.getStatus() == OrderStatus.READY_FOR_DELIVERY && oldStatus != OrderStatus.READY_FOR_DELIVERY) {
+            events.add(event(order, READY_FOR_DELIVERY, new OrderReadyForDeliveryEvent(
+                order.getId(),
+                order.getOrderNumber(),
+                order.getDeliveryAddress(),
+                order.getDeliveryCity(),
+                order.getDeliveryPostalCode(),
+                order.getSpecialInstructions()
+            )));
+        }
+        return events;
+    }
+
+    private OrderOutboxEvent event(Order order, String eventType, Object payload) {
+        OrderOutboxEvent event = new OrderOutboxEvent();
+        event.setOrderId(order.getId());
+        event.setEventType(eventType);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + eventType + " for order " + order.getOrderNumber(), e);
+        }
+        return event;
+    }
+}
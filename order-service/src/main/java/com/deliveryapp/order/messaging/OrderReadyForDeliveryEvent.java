@@ -0,0 +1,22 @@
+package com.deliveryapp.order.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published when an order reaches READY_FOR_DELIVERY. Carries everything
+ * delivery-service needs to create the delivery without calling back.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderReadyForDeliveryEvent {
+
+    private Long orderId;
+    private String orderNumber;
+    private String deliveryAddress;
+    private String deliveryCity;
+    private String deliveryPostalCode;
+    private String specialInstructions;
+}
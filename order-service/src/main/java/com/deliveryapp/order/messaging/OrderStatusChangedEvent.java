@@ -0,0 +1,30 @@
+package com.deliveryapp.order.messaging;
+
+import com.deliveryapp.order.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published for every order status change, including creation, in which case
+ * {@code oldStatus} is null. {@code version} is the version of the order
+ * after the change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusChangedEvent {
+
+    private Long orderId;
+    private String orderNumber;
+    private Long customerId;
+    private OrderStatus oldStatus;
+    private OrderStatus newStatus;
+    private String deliveryAddress;
+    private String deliveryCity;
+    private String deliveryPostalCode;
+    private Long version;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,13 @@
+package com.deliveryapp.order.messaging;
+
+import com.deliveryapp.order.entity.OrderOutboxEvent;
+
+/**
+ * Delivers outbox events to their consumers. Implementations must only
+ * return normally once the event has been accepted; any exception leaves the
+ * event in the outbox to be retried.
+ */
+public interface OutboxPublisher {
+
+    void publish(OrderOutboxEvent event);
+}
@@ -0,0 +1,206 @@
+package com.deliveryapp.order.messaging;
+
+import com.deliveryapp.order.entity.OrderOutboxEvent;
+import com.deliveryapp.order.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the order outbox to the configured {@link OutboxPublisher}.
+ * <p>
+ * Unpublished events are read in id order, published outside of any
+ * transaction and then marked as published in one update, so the writer
+ * connection is never held while waiting on the broker. Delivery is
+ * at-least-once: a crash between publishing and marking re-sends the events.
+ * <p>
+ * A failed event is retried with exponential backoff and parked once it has
+ * failed {@code app.outbox.max-attempts} times; parked events are no longer
+ * relayed and are counted by {@code order.outbox.parked}. While an event of
+ * an order waits for its retry, later events of the same order are held
+ * back, which keeps events ordered per order; other orders go on. Pages are
+ * read by id past the previous one, so held events cannot keep the relay
+ * from the events behind them. A broker error ends the run, since the
+ * other events would fail the same way.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OrderOutboxRepository outboxRepository;
+    private final OutboxPublisher publisher;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final int batchSize;
+    private final Duration retention;
+    private final int maxAttempts;
+    private final Duration retryInitialInterval;
+    private final Duration retryMaxInterval;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer deliveryLatency;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final AtomicLong parked = new AtomicLong();
+
+    public OutboxRelay(OrderOutboxRepository outboxRepository,
+                       OutboxPublisher publisher,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.batch-size:200}") int batchSize,
+                       @Value("${app.outbox.retention:P7D}") Duration retention,
+                       @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${app.outbox.retry-initial-interval:PT1S}") Duration retryInitialInterval,
+                       @Value("${app.outbox.retry-max-interval:PT5M}") Duration retryMaxInterval) {
+        this.outboxRepository = outboxRepository;
+        this.publisher = publisher;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.maxAttempts = maxAttempts;
+        this.retryInitialInterval = retryInitialInterval;
+        this.retryMaxInterval = retryMaxInterval;
+
+        this.publishedCounter = meterRegistry.counter("order.outbox.published");
+        this.failedCounter = meterRegistry.counter("order.outbox.failed");
+        this.deliveryLatency = Timer.builder("order.outbox.delivery.latency")
+            .description("Time from an event being written to the outbox until it was published")
+            .register(meterRegistry);
+        Gauge.builder("order.outbox.pending", pending, AtomicLong::get)
+            .description("Outbox events not yet published")
+            .register(meterRegistry);
+        Gauge.builder("order.outbox.lag", lagMillis, AtomicLong::get)
+            .description("Age in milliseconds of the oldest unpublished outbox event")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+        Gauge.builder("order.outbox.parked", parked, AtomicLong::get)
+            .description("Outbox events given up on after too many failed attempts")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:500}")
+    public void relay() {
+        Set<Long> blockedOrders = new HashSet<>();
+        long afterId = 0;
+        List<OrderOutboxEvent> batch;
+        do {
+            long from = afterId;
+            batch = readTransaction.execute(status ->
+                outboxRepository.findPendingAfter(from, PageRequest.of(0, batchSize)));
+            if (batch.isEmpty() || !publishBatch(batch, blockedOrders)) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == batchSize);
+        refreshBacklog();
+    }
+
+    @Scheduled(cron = "${app.outbox.purge-cron:0 0 * * * *}")
+    public void purgePublished() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        Integer deleted = writeTransaction.execute(status -> outboxRepository.deletePublishedBefore(before));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} published outbox events older than {}", deleted, before);
+        }
+    }
+
+    /**
+     * Publishes the events of a batch that are due and whose order is not
+     * blocked by an earlier failure, marks the published ones and records
+     * the failures. Returns false if the broker failed, ending the run.
+     */
+    private boolean publishBatch(List<OrderOutboxEvent> batch, Set<Long> blockedOrders) {
+        List<Long> published = new ArrayList<>(batch.size());
+        Map<OrderOutboxEvent, RuntimeException> failed = new LinkedHashMap<>();
+        boolean brokerFailed = false;
+        LocalDateTime now = LocalDateTime.now();
+
+        for (OrderOutboxEvent event : batch) {
+            if (blockedOrders.contains(event.getOrderId())) {
+                continue;
+            }
+            if (event.getNextAttemptAt() != null && event.getNextAttemptAt().isAfter(now)) {
+                blockedOrders.add(event.getOrderId());
+                continue;
+            }
+            try {
+                publisher.publish(event);
+                published.add(event.getId());
+                if (event.getCreatedAt() != null) {
+                    deliveryLatency.record(Duration.between(event.getCreatedAt(), now));
+                }
+            } catch (RuntimeException e) {
+                blockedOrders.add(event.getOrderId());
+                failed.put(event, e);
+                if (e instanceof AmqpException) {
+                    brokerFailed = true;
+                    break;
+                }
+            }
+        }
+
+        if (!published.isEmpty()) {
+            writeTransaction.executeWithoutResult(status -> outboxRepository.markPublished(published, now));
+            publishedCounter.increment(published.size());
+            log.debug("Relayed {} outbox events", published.size());
+        }
+        failed.forEach((event, error) -> recordFailure(event, error, now));
+        return !brokerFailed;
+    }
+
+    private void recordFailure(OrderOutboxEvent event, RuntimeException error, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        boolean park = attempts >= maxAttempts;
+        LocalDateTime nextAttemptAt = park ? null : now.plus(backoff(attempts));
+        failedCounter.increment();
+        writeTransaction.executeWithoutResult(status -> outboxRepository.recordFailure(
+            event.getId(), attempts, String.valueOf(error), nextAttemptAt, park ? now : null));
+        if (park) {
+            log.error("Parked outbox event {} ({}) for order {} after {} failed attempts: {}",
+                event.getId(), event.getEventType(), event.getOrderId(), attempts, error.toString());
+        } else {
+            log.warn("Failed to publish outbox event {} ({}) for order {}, attempt {}: {}",
+                event.getId(), event.getEventType(), event.getOrderId(), attempts, error.getMessage());
+        }
+    }
+
+    /** Wait before the next attempt, doubling from the initial interval up to the maximum. */
+    private Duration backoff(int attempts) {
+        Duration wait = retryInitialInterval.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return wait.compareTo(retryMaxInterval) > 0 ? retryMaxInterval : wait;
+    }
+
+    private void refreshBacklog() {
+        readTransaction.executeWithoutResult(status -> {
+            pending.set(outboxRepository.countByPublishedAtIsNullAndParkedAtIsNull());
+            parked.set(outboxRepository.countByParkedAtIsNotNull());
+            lagMillis.set(outboxRepository.findFirstByPublishedAtIsNullAndParkedAtIsNullOrderByIdAsc()
+                .map(oldest -> Duration.between(oldest.getCreatedAt(), LocalDateTime.now()).toMillis())
+                .orElse(0L));
+        });
+    }
+}
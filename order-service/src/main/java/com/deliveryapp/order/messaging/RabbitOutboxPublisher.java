@@ -0,0 +1,65 @@
+package com.deliveryapp.order.messaging;
+
+import com.deliveryapp.order.entity.OrderOutboxEvent;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Publishes outbox events to the order exchange and waits for the broker's
+ * publisher confirm, so an event is only marked as published once RabbitMQ
+ * has taken responsibility for it.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.publisher", havingValue = "rabbit", matchIfMissing = true)
+public class RabbitOutboxPublisher implements OutboxPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final String exchange;
+    private final Map<String, String> routingKeys;
+    private final long confirmTimeout;
+
+    public RabbitOutboxPublisher(RabbitTemplate rabbitTemplate,
+                                 @Value("${app.messaging.order-exchange}") String exchange,
+                                 @Value("${app.messaging.order-status-routing-key}") String statusRoutingKey,
+                                 @Value("${app.messaging.order-ready-routing-key}") String readyRoutingKey,
+                                 @Value("${app.messaging.order-address-routing-key}") String addressRoutingKey,
+                                 @Value("${app.messaging.order-deleted-routing-key}") String deletedRoutingKey,
+                                 @Value("${app.outbox.confirm-timeout:5000}") long confirmTimeout) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.exchange = exchange;
+        this.routingKeys = Map.of(
+            OrderOutbox.STATUS_CHANGED, statusRoutingKey,
+            OrderOutbox.READY_FOR_DELIVERY, readyRoutingKey,
+            OrderOutbox.ADDRESS_CHANGED, addressRoutingKey,
+            OrderOutbox.DELETED, deletedRoutingKey);
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    @Override
+    public void publish(OrderOutboxEvent event) {
+        String routingKey = routingKeys.get(event.getEventType());
+        if (routingKey == null) {
+            throw new IllegalStateException("No routing key for event type " + event.getEventType());
+        }
+        Message message = MessageBuilder.withBody(event.getPayload().getBytes(StandardCharsets.UTF_8))
+            .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+            .setContentEncoding(StandardCharsets.UTF_8.name())
+            .setMessageId(String.valueOf(event.getId()))
+            .setType(event.getEventType())
+            .setHeader("orderId", event.getOrderId())
+            .build();
+        rabbitTemplate.invoke(operations -> {
+            operations.send(exchange, routingKey, message);
+            operations.waitForConfirmsOrDie(confirmTimeout);
+            return null;
+        });
+    }
+}
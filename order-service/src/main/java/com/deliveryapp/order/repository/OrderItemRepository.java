@@ -4,10 +4,13 @@ import com.deliveryapp.order.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     
     List<OrderItem> findByOrderId(Long orderId);
+    
+    List<OrderItem> findByOrderIdIn(Collection<Long> orderIds);
 }
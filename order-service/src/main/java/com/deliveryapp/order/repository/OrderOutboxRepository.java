@@ -0,0 +1,46 @@
+package com.deliveryapp.order.repository;
+
+import com.deliveryapp.order.entity.OrderOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+    
+    /** Events still to publish, parked ones excepted, from the one after {@code afterId} on. */
+    @Query("SELECT e FROM OrderOutboxEvent e WHERE e.publishedAt IS NULL AND e.parkedAt IS NULL " +
+           "AND e.id > :afterId ORDER BY e.id")
+    List<OrderOutboxEvent> findPendingAfter(@Param("afterId") long afterId, Pageable pageable);
+    
+    Optional<OrderOutboxEvent> findFirstByPublishedAtIsNullAndParkedAtIsNullOrderByIdAsc();
+    
+    long countByPublishedAtIsNullAndParkedAtIsNull();
+    
+    long countByParkedAtIsNotNull();
+    
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.attempts = :attempts, e.lastError = :error, " +
+           "e.nextAttemptAt = :nextAttemptAt, e.parkedAt = :parkedAt WHERE e.id = :id")
+    int recordFailure(@Param("id") Long id,
+                      @Param("attempts") int attempts,
+                      @Param("error") String error,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("parkedAt") LocalDateTime parkedAt);
+    
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+    
+    @Modifying
+    @Query("DELETE FROM OrderOutboxEvent e WHERE e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,30 +1,77 @@
 package com.deliveryapp.order.repository;
 
+import com.deliveryapp.order.dto.OrderSummaryDTO;
 import com.deliveryapp.order.entity.Order;
 import com.deliveryapp.order.entity.OrderStatus;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
     Optional<Order> findByOrderNumber(String orderNumber);
     
-    List<Order> findByCustomerId(Long customerId);
+    @EntityGraph(attributePaths = "customer")
+    List<Order> findByIdIn(Collection<Long> ids);
     
-    Page<Order> findByCustomerId(Long customerId, Pageable pageable);
+    // Keyset pagination: newest first, the cursor is the last id of the previous page
     
-    List<Order> findByStatus(OrderStatus status);
+    @EntityGraph(attributePaths = "customer")
+    List<Order> findByIdLessThanOrderByIdDesc(Long cursor, Pageable pageable);
     
-    Page<Order> findByStatus(OrderStatus status, Pageable pageable);
+    @EntityGraph(attributePaths = "customer")
+    List<Order> findByCustomerIdAndIdLessThanOrderByIdDesc(Long customerId, Long cursor, Pageable pageable);
+    
+    @EntityGraph(attributePaths = "customer")
+    List<Order> findByStatusAndIdLessThanOrderByIdDesc(OrderStatus status, Long cursor, Pageable pageable);
+    
+    // Summary projections: the same keyset pages, selecting only the listed columns
+    
+    String SUMMARY_SELECT = "SELECT new com.deliveryapp.order.dto.OrderSummaryDTO(o.id, o.orderNumber, c.id, " +
+        "CONCAT(c.firstName, ' ', c.lastName), c.email, o.status, o.totalAmount, o.deliveryCity, o.createdAt) " +
+        "FROM Order o JOIN o.customer c ";
+    
+    @Query(SUMMARY_SELECT + "WHERE o.id < :cursor ORDER BY o.id DESC")
+    List<OrderSummaryDTO> findSummaries(@Param("cursor") Long cursor, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE o.customer.id = :customerId AND o.id < :cursor ORDER BY o.id DESC")
+    List<OrderSummaryDTO> findSummariesByCustomerId(
+        @Param("customerId") Long customerId,
+        @Param("cursor") Long cursor,
+        Pageable pageable
+    );
+    
+    @Query(SUMMARY_SELECT + "WHERE o.status = :status AND o.id < :cursor ORDER BY o.id DESC")
+    List<OrderSummaryDTO> findSummariesByStatus(
+        @Param("status") OrderStatus status,
+        @Param("cursor") Long cursor,
+        Pageable pageable
+    );
+    
+    @EntityGraph(attributePaths = "customer")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o WHERE (:customerId IS NULL OR o.customer.id = :customerId) " +
+           "AND (:status IS NULL OR o.status = :status) ORDER BY o.id")
+    Stream<Order> streamOrders(
+        @Param("customerId") Long customerId,
+        @Param("status") OrderStatus status
+    );
     
     @Query("SELECT o FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate")
     List<Order> findOrdersBetweenDates(
@@ -1,5 +1,6 @@
 package com.deliveryapp.order.service;
 
+import com.deliveryapp.order.cache.CustomerChangedEvent;
 import com.deliveryapp.order.dto.CustomerDTO;
 import com.deliveryapp.order.entity.Customer;
 import com.deliveryapp.order.exception.DuplicateResourceException;
@@ -7,6 +8,7 @@ import com.deliveryapp.order.exception.ResourceNotFoundException;
 import com.deliveryapp.order.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +22,7 @@ import java.util.stream.Collectors;
 public class CustomerService {
     
     private final CustomerRepository customerRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     public CustomerDTO createCustomer(CustomerDTO customerDTO) {
         log.info("Creating new customer with email: {}", customerDTO.getEmail());
@@ -85,6 +88,8 @@ public class CustomerService {
         customer.setPostalCode(customerDTO.getPostalCode());
         
         Customer updatedCustomer = customerRepository.save(customer);
+        // cached orders embed the customer
+        eventPublisher.publishEvent(new CustomerChangedEvent(id));
         log.info("Customer updated successfully");
         
         return convertToDTO(updatedCustomer);
@@ -98,6 +103,7 @@ public class CustomerService {
         }
         
         customerRepository.deleteById(id);
+        eventPublisher.publishEvent(new CustomerChangedEvent(id));
         log.info("Customer deleted successfully");
     }
     
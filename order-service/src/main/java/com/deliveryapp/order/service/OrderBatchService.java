@@ -0,0 +1,233 @@
+package com.deliveryapp.order.service;
+
+import com.deliveryapp.order.analytics.OrderStatsRecorder;
+import com.deliveryapp.order.cache.OrdersChangedEvent;
+import com.deliveryapp.order.dto.BatchOrderResponseDTO;
+import com.deliveryapp.order.dto.BatchOrderResultDTO;
+import com.deliveryapp.order.dto.OrderDTO;
+import com.deliveryapp.order.entity.Customer;
+import com.deliveryapp.order.entity.Order;
+import com.deliveryapp.order.entity.OrderItem;
+import com.deliveryapp.order.entity.OrderOutboxEvent;
+import com.deliveryapp.order.entity.OrderStatusHistory;
+import com.deliveryapp.order.exception.BadRequestException;
+import com.deliveryapp.order.messaging.OrderOutbox;
+import com.deliveryapp.order.repository.CustomerRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates orders in bulk. Orders are validated individually, their customers
+ * are loaded with a single query, and valid orders are written in chunks:
+ * each chunk inserts its orders, items, status history rows and outbox events
+ * as JDBC batches inside one transaction. Hibernate cannot batch these inserts
+ * itself because the entities use IDENTITY ids.
+ */
+@Service
+@Slf4j
+public class OrderBatchService {
+
+    private static final String INSERT_ORDER =
+        "INSERT INTO orders (order_number, customer_id, status, total_amount, delivery_address, " +
+        "delivery_city, delivery_postal_code, special_instructions, delivery_fee, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ITEM =
+        "INSERT INTO order_items (order_id, product_name, product_description, quantity, unit_price, " +
+        "total_price, weight, dimensions, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_HISTORY =
+        "INSERT INTO order_status_history (order_id, status, notes, changed_by, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_OUTBOX =
+        "INSERT INTO order_outbox (order_id, event_type, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    private static final String SELECT_IDS =
+        "SELECT id, order_number FROM orders WHERE order_number IN (:orderNumbers)";
+
+    private final CustomerRepository customerRepository;
+    private final OrderFactory orderFactory;
+    private final OrderOutbox orderOutbox;
+    private final OrderStatsRecorder orderStatsRecorder;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxBatchSize;
+
+    public OrderBatchService(CustomerRepository customerRepository,
+                             OrderFactory orderFactory,
+                             OrderOutbox orderOutbox,
+                             OrderStatsRecorder orderStatsRecorder,
+                             NamedParameterJdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             Validator validator,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${app.orders.batch.chunk-size:500}") int chunkSize,
+                             @Value("${app.orders.batch.max-size:10000}") int maxBatchSize) {
+        this.customerRepository = customerRepository;
+        this.orderFactory = orderFactory;
+        this.orderOutbox = orderOutbox;
+        this.orderStatsRecorder = orderStatsRecorder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public BatchOrderResponseDTO createOrders(List<OrderDTO> orderDTOs) {
+        if (orderDTOs.size() > maxBatchSize) {
+            throw new BadRequestException("Batch must not contain more than " + maxBatchSize + " orders");
+        }
+        log.info("Creating batch of {} orders", orderDTOs.size());
+
+        List<BatchOrderResultDTO> results = new ArrayList<>(orderDTOs.size());
+        Map<Integer, OrderDTO> valid = new LinkedHashMap<>();
+
+        for (int i = 0; i < orderDTOs.size(); i++) {
+            OrderDTO orderDTO = orderDTOs.get(i);
+            String violations = validate(orderDTO);
+            if (violations != null) {
+                results.add(BatchOrderResultDTO.failed(i, violations));
+            } else {
+                valid.put(i, orderDTO);
+            }
+        }
+
+        // Validate all customers with one query
+        Set<Long> customerIds = valid.values().stream()
+            .map(OrderDTO::getCustomerId)
+            .collect(Collectors.toSet());
+        Map<Long, Customer> customers = customerRepository.findAllById(customerIds).stream()
+            .collect(Collectors.toMap(Customer::getId, Function.identity()));
+
+        Map<Integer, Order> pending = new LinkedHashMap<>();
+        valid.forEach((index, orderDTO) -> {
+            Customer customer = customers.get(orderDTO.getCustomerId());
+            if (customer == null) {
+                results.add(BatchOrderResultDTO.failed(index, "Customer not found with ID: " + orderDTO.getCustomerId()));
+            } else {
+                pending.put(index, orderFactory.newOrder(orderDTO, customer));
+            }
+        });
+
+        List<Map.Entry<Integer, Order>> entries = new ArrayList<>(pending.entrySet());
+        for (int from = 0; from < entries.size(); from += chunkSize) {
+            List<Map.Entry<Integer, Order>> chunk = entries.subList(from, Math.min(from + chunkSize, entries.size()));
+            results.addAll(persistChunk(chunk));
+        }
+
+        results.sort(Comparator.comparingInt(BatchOrderResultDTO::getIndex));
+        int succeeded = (int) results.stream().filter(BatchOrderResultDTO::isSuccess).count();
+        log.info("Batch finished: {} created, {} failed", succeeded, results.size() - succeeded);
+
+        return new BatchOrderResponseDTO(orderDTOs.size(), succeeded, results.size() - succeeded, results);
+    }
+
+    private List<BatchOrderResultDTO> persistChunk(List<Map.Entry<Integer, Order>> chunk) {
+        try {
+            Map<String, Long> ids = transactionTemplate.execute(status -> insertChunk(chunk));
+            return chunk.stream()
+                .map(entry -> {
+                    String orderNumber = entry.getValue().getOrderNumber();
+                    return BatchOrderResultDTO.created(entry.getKey(), ids.get(orderNumber), orderNumber);
+                })
+                .collect(Collectors.toList());
+        } catch (DataAccessException e) {
+            log.error("Failed to persist chunk of {} orders", chunk.size(), e);
+            return chunk.stream()
+                .map(entry -> BatchOrderResultDTO.failed(entry.getKey(), "Could not persist order: " + e.getMostSpecificCause().getMessage()))
+                .collect(Collectors.toList());
+        }
+    }
+
+    private Map<String, Long> insertChunk(List<Map.Entry<Integer, Order>> chunk) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Order> orders = chunk.stream().map(Map.Entry::getValue).collect(Collectors.toList());
+
+        List<Object[]> orderRows = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            orderRows.add(new Object[] {
+                order.getOrderNumber(), order.getCustomer().getId(), order.getStatus().name(),
+                order.getTotalAmount(), order.getDeliveryAddress(), order.getDeliveryCity(),
+                order.getDeliveryPostalCode(), order.getSpecialInstructions(), order.getDeliveryFee(), now, now
+            });
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_ORDER, orderRows);
+
+        // Order numbers are unique, so they map the generated ids back to the orders
+        Map<String, Long> ids = new HashMap<>();
+        List<String> orderNumbers = orders.stream().map(Order::getOrderNumber).collect(Collectors.toList());
+        jdbcTemplate.query(SELECT_IDS, new MapSqlParameterSource("orderNumbers", orderNumbers),
+            (RowCallbackHandler) rs -> { ids.put(rs.getString("order_number"), rs.getLong("id")); });
+
+        List<Object[]> itemRows = new ArrayList<>();
+        List<Object[]> historyRows = new ArrayList<>(orders.size());
+        List<Object[]> outboxRows = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            Long orderId = ids.get(order.getOrderNumber());
+            order.setId(orderId);
+            order.setVersion(0L);
+            for (OrderItem item : order.getItems()) {
+                itemRows.add(new Object[] {
+                    orderId, item.getProductName(), item.getProductDescription(), item.getQuantity(),
+                    item.getUnitPrice(), item.getTotalPrice(), item.getWeight(), item.getDimensions(), now
+                });
+            }
+            for (OrderStatusHistory history : order.getStatusHistory()) {
+                historyRows.add(new Object[] {
+                    orderId, history.getStatus().name(), history.getNotes(), history.getChangedBy(), now
+                });
+            }
+            for (OrderOutboxEvent event : orderOutbox.statusChangeEvents(order, null)) {
+                outboxRows.add(new Object[] { orderId, event.getEventType(), event.getPayload(), now });
+            }
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_ITEM, itemRows);
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_HISTORY, historyRows);
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_OUTBOX, outboxRows);
+        orderStatsRecorder.recordCreated(orders, now.toLocalDateTime().toLocalDate());
+
+        eventPublisher.publishEvent(OrdersChangedEvent.of(ids.values(),
+            orders.stream().map(order -> order.getCustomer().getId()).collect(Collectors.toSet())));
+        return ids;
+    }
+
+    private String validate(OrderDTO orderDTO) {
+        if (orderDTO == null) {
+            return "Order must not be null";
+        }
+        Set<ConstraintViolation<OrderDTO>> violations = validator.validate(orderDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+}
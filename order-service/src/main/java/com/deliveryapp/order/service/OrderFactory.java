@@ -0,0 +1,70 @@
+package com.deliveryapp.order.service;
+
+import com.deliveryapp.order.dto.OrderDTO;
+import com.deliveryapp.order.dto.OrderItemDTO;
+import com.deliveryapp.order.entity.Customer;
+import com.deliveryapp.order.entity.Order;
+import com.deliveryapp.order.entity.OrderItem;
+import com.deliveryapp.order.entity.OrderStatus;
+import com.deliveryapp.order.entity.OrderStatusHistory;
+import com.deliveryapp.order.generator.IdGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Builds new, not yet persisted orders (items, totals and initial status
+ * history) from an incoming OrderDTO.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderFactory {
+    
+    private final IdGenerator idGenerator;
+    
+    public Order newOrder(OrderDTO orderDTO, Customer customer) {
+        Order order = new Order();
+        order.setOrderNumber(generateOrderNumber());
+        order.setCustomer(customer);
+        order.setStatus(OrderStatus.PENDING);
+        order.setDeliveryAddress(orderDTO.getDeliveryAddress());
+        order.setDeliveryCity(orderDTO.getDeliveryCity());
+        order.setDeliveryPostalCode(orderDTO.getDeliveryPostalCode());
+        order.setSpecialInstructions(orderDTO.getSpecialInstructions());
+        order.setDeliveryFee(orderDTO.getDeliveryFee() != null ? orderDTO.getDeliveryFee() : BigDecimal.ZERO);
+        
+        // Add items
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (OrderItemDTO itemDTO : orderDTO.getItems()) {
+            OrderItem item = new OrderItem();
+            item.setProductName(itemDTO.getProductName());
+            item.setProductDescription(itemDTO.getProductDescription());
+            item.setQuantity(itemDTO.getQuantity());
+            item.setUnitPrice(itemDTO.getUnitPrice());
+            
+            BigDecimal itemTotal = itemDTO.getUnitPrice().multiply(BigDecimal.valueOf(itemDTO.getQuantity()));
+            item.setTotalPrice(itemTotal);
+            item.setWeight(itemDTO.getWeight());
+            item.setDimensions(itemDTO.getDimensions());
+            
+            order.addItem(item);
+            totalAmount = totalAmount.add(itemTotal);
+        }
+        
+        order.setTotalAmount(totalAmount.add(order.getDeliveryFee()));
+        
+        // Add initial status history
+        OrderStatusHistory history = new OrderStatusHistory();
+        history.setStatus(OrderStatus.PENDING);
+        history.setNotes("Order created");
+        history.setChangedBy("SYSTEM");
+        order.addStatusHistory(history);
+        
+        return order;
+    }
+    
+    private String generateOrderNumber() {
+        return "ORD-" + idGenerator.nextId();
+    }
+}
@@ -1,21 +1,32 @@
 package com.deliveryapp.order.service;
 
+import com.deliveryapp.order.analytics.OrderStatsRecorder;
+import com.deliveryapp.order.cache.OrderCache;
+import com.deliveryapp.order.cache.OrdersChangedEvent;
 import com.deliveryapp.order.dto.*;
 import com.deliveryapp.order.entity.*;
 import com.deliveryapp.order.exception.ResourceNotFoundException;
+import com.deliveryapp.order.messaging.OrderOutbox;
 import com.deliveryapp.order.repository.*;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -23,10 +34,18 @@ import java.util.stream.Collectors;
 @Transactional
 public class OrderService {
     
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
     private final OrderItemRepository orderItemRepository;
     private final OrderStatusHistoryRepository statusHistoryRepository;
+    private final OrderFactory orderFactory;
+    private final EntityManager entityManager;
+    private final OrderOutbox orderOutbox;
+    private final OrderStatsRecorder orderStatsRecorder;
+    private final OrderCache orderCache;
+    private final ApplicationEventPublisher eventPublisher;
     
     public OrderDTO createOrder(OrderDTO orderDTO) {
         log.info("Creating new order for customer ID: {}", orderDTO.getCustomerId());
@@ -35,45 +54,11 @@ public class OrderService {
         Customer customer = customerRepository.findById(orderDTO.getCustomerId())
             .orElseThrow(() -> new ResourceNotFoundException("Customer not found with ID: " + orderDTO.getCustomerId()));
         
-        // Create order
-        Order order = new Order();
-        order.setOrderNumber(generateOrderNumber());
-        order.setCustomer(customer);
-        order.setStatus(OrderStatus.PENDING);
-        order.setDeliveryAddress(orderDTO.getDeliveryAddress());
-        order.setDeliveryCity(orderDTO.getDeliveryCity());
-        order.setDeliveryPostalCode(orderDTO.getDeliveryPostalCode());
-        order.setSpecialInstructions(orderDTO.getSpecialInstructions());
-        order.setDeliveryFee(orderDTO.getDeliveryFee() != null ? orderDTO.getDeliveryFee() : BigDecimal.ZERO);
-        
-        // Add items
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        for (OrderItemDTO itemDTO : orderDTO.getItems()) {
-            OrderItem item = new OrderItem();
-            item.setProductName(itemDTO.getProductName());
-            item.setProductDescription(itemDTO.getProductDescription());
-            item.setQuantity(itemDTO.getQuantity());
-            item.setUnitPrice(itemDTO.getUnitPrice());
-            
-            BigDecimal itemTotal = itemDTO.getUnitPrice().multiply(BigDecimal.valueOf(itemDTO.getQuantity()));
-            item.setTotalPrice(itemTotal);
-            item.setWeight(itemDTO.getWeight());
-            item.setDimensions(itemDTO.getDimensions());
-            
-            order.addItem(item);
-            totalAmount = totalAmount.add(itemTotal);
-        }
-        
-        order.setTotalAmount(totalAmount.add(order.getDeliveryFee()));
-        
-        // Add initial status history
-        OrderStatusHistory history = new OrderStatusHistory();
-        history.setStatus(OrderStatus.PENDING);
-        history.setNotes("Order created");
-        history.setChangedBy("SYSTEM");
-        order.addStatusHistory(history);
-        
+        Order order = orderFactory.newOrder(orderDTO, customer);
         Order savedOrder = orderRepository.save(order);
+        orderOutbox.recordStatusChange(savedOrder, null);
+        orderStatsRecorder.recordCreated(savedOrder);
+        eventPublisher.publishEvent(OrdersChangedEvent.of(savedOrder.getId(), customer.getId()));
         log.info("Order created successfully with order number: {}", savedOrder.getOrderNumber());
         
         return convertToDTO(savedOrder);
@@ -81,9 +66,52 @@ public class OrderService {
     
     @Transactional(readOnly = true)
     public OrderDTO getOrderById(Long id) {
+        OrderDTO cached = orderCache.getOrder(id);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = orderCache.generation();
         Order order = orderRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + id));
-        return convertToDTO(order);
+        OrderDTO dto = convertToDTO(order);
+        orderCache.putOrder(dto, generation);
+        return dto;
+    }
+    
+    /**
+     * Orders with the given ids, in the order they were asked for; ids with
+     * no order are left out. Orders held by {@link OrderCache} are served
+     * from it and the others are loaded with one IN query.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderDTO> getOrdersByIds(Collection<Long> ids) {
+        Set<Long> wanted = new LinkedHashSet<>(ids);
+        Map<Long, OrderDTO> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : wanted) {
+            OrderDTO cached = orderCache.getOrder(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long generation = orderCache.generation();
+            for (OrderDTO dto : convertToDTOs(orderRepository.findByIdIn(missing))) {
+                orderCache.putOrder(dto, generation);
+                found.put(dto.getId(), dto);
+            }
+        }
+        
+        List<OrderDTO> orders = new ArrayList<>(found.size());
+        for (Long id : wanted) {
+            OrderDTO order = found.get(id);
+            if (order != null) {
+                orders.add(order);
+            }
+        }
+        return orders;
     }
     
     @Transactional(readOnly = true)
@@ -94,32 +122,85 @@ public class OrderService {
     }
     
     @Transactional(readOnly = true)
-    public List<OrderDTO> getAllOrders() {
-        return orderRepository.findAll().stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+    public CursorPageDTO<OrderDTO> getOrders(Long cursor, int limit) {
+        return toCursorPage(orderRepository.findByIdLessThanOrderByIdDesc(
+            startCursor(cursor), PageRequest.of(0, limit + 1)), limit);
     }
     
+    /**
+     * Pages are served from {@link OrderCache} when possible; a hit runs no
+     * query at all, since the connection is only taken on the first statement.
+     */
     @Transactional(readOnly = true)
-    public Page<OrderDTO> getAllOrders(Pageable pageable) {
-        return orderRepository.findAll(pageable).map(this::convertToDTO);
+    public CursorPageDTO<OrderDTO> getOrdersByCustomerId(Long customerId, Long cursor, int limit) {
+        CursorPageDTO<OrderDTO> cached = orderCache.getCustomerPage(customerId, cursor, limit);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = orderCache.generation();
+        if (!customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("Customer not found with ID: " + customerId);
+        }
+        CursorPageDTO<OrderDTO> page = toCursorPage(orderRepository.findByCustomerIdAndIdLessThanOrderByIdDesc(
+            customerId, startCursor(cursor), PageRequest.of(0, limit + 1)), limit);
+        orderCache.putCustomerPage(customerId, cursor, limit, page, generation);
+        return page;
     }
     
     @Transactional(readOnly = true)
-    public List<OrderDTO> getOrdersByCustomerId(Long customerId) {
-        if (!customerRepository.existsById(customerId)) {
-            throw new ResourceNotFoundException("Customer not found with ID: " + customerId);
+    public CursorPageDTO<OrderDTO> getOrdersByStatus(OrderStatus status, Long cursor, int limit) {
+        return toCursorPage(orderRepository.findByStatusAndIdLessThanOrderByIdDesc(
+            status, startCursor(cursor), PageRequest.of(0, limit + 1)), limit);
+    }
+    
+    /**
+     * Lightweight listing: a page of {@link OrderSummaryDTO}s read with a
+     * single projection query, without loading entities, items or customers
+     * into the persistence context.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderSummaryDTO> getOrderSummaries(Long customerId, OrderStatus status, Long cursor, int limit) {
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<OrderSummaryDTO> summaries;
+        if (customerId != null) {
+            if (!customerRepository.existsById(customerId)) {
+                throw new ResourceNotFoundException("Customer not found with ID: " + customerId);
+            }
+            summaries = orderRepository.findSummariesByCustomerId(customerId, startCursor(cursor), page);
+        } else if (status != null) {
+            summaries = orderRepository.findSummariesByStatus(status, startCursor(cursor), page);
+        } else {
+            summaries = orderRepository.findSummaries(startCursor(cursor), page);
         }
-        return orderRepository.findByCustomerId(customerId).stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+        
+        boolean hasMore = summaries.size() > limit;
+        List<OrderSummaryDTO> items = hasMore ? summaries.subList(0, limit) : summaries;
+        Long nextCursor = hasMore ? items.get(items.size() - 1).getId() : null;
+        return new CursorPageDTO<>(new ArrayList<>(items), nextCursor, hasMore);
     }
     
+    /**
+     * Streams every order matching the optional filters to the given consumer
+     * in id order. Orders are read through a JPA stream and converted in
+     * chunks; the persistence context is cleared after each chunk so memory
+     * stays constant regardless of the number of orders exported.
+     */
     @Transactional(readOnly = true)
-    public List<OrderDTO> getOrdersByStatus(OrderStatus status) {
-        return orderRepository.findByStatus(status).stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+    public void exportOrders(Long customerId, OrderStatus status, Consumer<OrderDTO> consumer) {
+        log.info("Exporting orders - customerId: {}, status: {}", customerId, status);
+        
+        try (Stream<Order> orders = orderRepository.streamOrders(customerId, status)) {
+            List<Order> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE || !iterator.hasNext()) {
+                    convertToDTOs(chunk).forEach(consumer);
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
     }
     
     public OrderDTO updateOrderStatus(Long orderId, OrderStatusUpdateDTO statusUpdateDTO) {
@@ -138,9 +219,14 @@ public class OrderService {
         history.setChangedBy(statusUpdateDTO.getChangedBy() != null ? statusUpdateDTO.getChangedBy() : "SYSTEM");
         order.addStatusHistory(history);
         
-        Order updatedOrder = orderRepository.save(order);
+        // flushed so that the events carry the incremented version
+        Order updatedOrder = orderRepository.saveAndFlush(order);
         log.info("Order {} status updated from {} to {}", order.getOrderNumber(), oldStatus, statusUpdateDTO.getStatus());
         
+        orderOutbox.recordStatusChange(updatedOrder, oldStatus);
+        orderStatsRecorder.recordStatusChange(updatedOrder, oldStatus);
+        eventPublisher.publishEvent(OrdersChangedEvent.of(orderId, order.getCustomer().getId()));
+        
         return convertToDTO(updatedOrder);
     }
     
@@ -150,6 +236,11 @@ public class OrderService {
         Order order = orderRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + id));
         
+        String oldCity = order.getDeliveryCity();
+        boolean addressChanged = changes(orderDTO.getDeliveryAddress(), order.getDeliveryAddress())
+            || changes(orderDTO.getDeliveryCity(), order.getDeliveryCity())
+            || changes(orderDTO.getDeliveryPostalCode(), order.getDeliveryPostalCode());
+        
         // Update basic fields
         if (orderDTO.getDeliveryAddress() != null) {
             order.setDeliveryAddress(orderDTO.getDeliveryAddress());
@@ -164,8 +255,13 @@ public class OrderService {
             order.setSpecialInstructions(orderDTO.getSpecialInstructions());
         }
         
-        Order updatedOrder = orderRepository.save(order);
+        Order updatedOrder = orderRepository.saveAndFlush(order);
         log.info("Order {} updated successfully", order.getOrderNumber());
+        if (addressChanged) {
+            orderOutbox.recordAddressChange(updatedOrder);
+        }
+        orderStatsRecorder.recordCityChange(updatedOrder, oldCity);
+        eventPublisher.publishEvent(OrdersChangedEvent.of(id, order.getCustomer().getId()));
         
         return convertToDTO(updatedOrder);
     }
@@ -173,11 +269,14 @@ public class OrderService {
     public void deleteOrder(Long id) {
         log.info("Deleting order ID: {}", id);
         
-        if (!orderRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Order not found with ID: " + id);
-        }
+        // loaded rather than checked for existence: the customer's listings must be evicted too
+        Order order = orderRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + id));
         
-        orderRepository.deleteById(id);
+        orderRepository.delete(order);
+        orderOutbox.recordDeleted(order);
+        orderStatsRecorder.recordDeleted(order);
+        eventPublisher.publishEvent(OrdersChangedEvent.of(id, order.getCustomer().getId()));
         log.info("Order deleted successfully");
     }
     
@@ -192,12 +291,50 @@ public class OrderService {
             .collect(Collectors.toList());
     }
     
-    private String generateOrderNumber() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        return "ORD-" + timestamp;
+    private static Long startCursor(Long cursor) {
+        return cursor != null ? cursor : Long.MAX_VALUE;
+    }
+    
+    /** Whether an update carrying {@code value} changes a field currently holding {@code current}. */
+    private static boolean changes(String value, String current) {
+        return value != null && !value.equals(current);
+    }
+    
+    /**
+     * Builds a page from a query that fetched one row more than the limit,
+     * the extra row only telling whether another page exists.
+     */
+    private CursorPageDTO<OrderDTO> toCursorPage(List<Order> orders, int limit) {
+        boolean hasMore = orders.size() > limit;
+        List<Order> pageOrders = hasMore ? orders.subList(0, limit) : orders;
+        Long nextCursor = hasMore ? pageOrders.get(pageOrders.size() - 1).getId() : null;
+        return new CursorPageDTO<>(convertToDTOs(pageOrders), nextCursor, hasMore);
     }
     
     private OrderDTO convertToDTO(Order order) {
+        return convertToDTO(order, order.getItems());
+    }
+    
+    /**
+     * Converts a list of orders whose customer was fetched with the query.
+     * Items of all orders are loaded with a single IN query instead of one
+     * lazy load per order.
+     */
+    private List<OrderDTO> convertToDTOs(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        List<Long> orderIds = orders.stream().map(Order::getId).collect(Collectors.toList());
+        Map<Long, List<OrderItem>> itemsByOrderId = orderItemRepository.findByOrderIdIn(orderIds).stream()
+            .collect(Collectors.groupingBy(item -> item.getOrder().getId()));
+        
+        return orders.stream()
+            .map(order -> convertToDTO(order, itemsByOrderId.getOrDefault(order.getId(), List.of())))
+            .collect(Collectors.toList());
+    }
+    
+    private OrderDTO convertToDTO(Order order, List<OrderItem> items) {
         OrderDTO dto = new OrderDTO();
         dto.setId(order.getId());
         dto.setOrderNumber(order.getOrderNumber());
@@ -210,11 +347,12 @@ public class OrderService {
         dto.setDeliveryPostalCode(order.getDeliveryPostalCode());
         dto.setSpecialInstructions(order.getSpecialInstructions());
         dto.setDeliveryFee(order.getDeliveryFee());
-        dto.setItems(order.getItems().stream()
+        dto.setItems(items.stream()
             .map(this::convertItemToDTO)
             .collect(Collectors.toList()));
         dto.setCreatedAt(order.getCreatedAt());
         dto.setUpdatedAt(order.getUpdatedAt());
+        dto.setVersion(order.getVersion());
         return dto;
     }
     
@@ -0,0 +1,176 @@
+package com.deliveryapp.order.analytics;
+
+import com.deliveryapp.order.dto.OrderDTO;
+import com.deliveryapp.order.dto.OrderItemDTO;
+import com.deliveryapp.order.dto.OrderStatusUpdateDTO;
+import com.deliveryapp.order.entity.Customer;
+import com.deliveryapp.order.entity.OrderStatus;
+import com.deliveryapp.order.repository.CustomerRepository;
+import com.deliveryapp.order.service.OrderBatchService;
+import com.deliveryapp.order.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The order_daily_stats rows {@link OrderStatsRecorder} maintains write by
+ * write, checked against the rows {@link OrderStatsService#rebuild()}
+ * recomputes from the orders themselves.
+ */
+@SpringBootTest(properties = {
+    "spring.cloud.config.enabled=false",
+    "eureka.client.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.show-sql=false",
+    "app.sqlite.schema-script=file:database/schema.sql",
+    "app.outbox.publisher=in-process",
+    "app.outbox.poll-interval=3600000"
+})
+class OrderStatsRecorderTest {
+
+    @TempDir
+    static Path dataDir;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dataDir.resolve("orders.db"));
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderStatsService orderStatsService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM order_daily_stats");
+        jdbcTemplate.update("DELETE FROM order_status_history");
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM orders");
+        Customer customer = new Customer();
+        customer.setFirstName("Jean");
+        customer.setLastName("Dupont");
+        customer.setEmail("jean.dupont." + System.nanoTime() + "@email.com");
+        customer.setPhone("+33123456789");
+        customer.setAddress("10 Rue de la Paix");
+        customer.setCity("Paris");
+        customer.setPostalCode("75001");
+        customerId = customerRepository.save(customer).getId();
+    }
+
+    @Test
+    void movesAnOrderBetweenStatusRowsWhenItsStatusChanges() {
+        orderService.createOrder(order("Paris"));
+        OrderDTO moved = orderService.createOrder(order("Paris"));
+        long cents = OrderStatsRecorder.toCents(moved.getTotalAmount());
+
+        orderService.updateOrderStatus(moved.getId(), new OrderStatusUpdateDTO(OrderStatus.CONFIRMED, null, null));
+
+        assertThat(row("Paris", OrderStatus.PENDING)).containsExactly(1L, cents);
+        assertThat(row("Paris", OrderStatus.CONFIRMED)).containsExactly(1L, cents);
+    }
+
+    @Test
+    void movesAnOrderBetweenCityRowsWhenItsCityChanges() {
+        OrderDTO created = orderService.createOrder(order("Paris"));
+        OrderDTO update = new OrderDTO();
+        update.setDeliveryCity("Lyon");
+
+        orderService.updateOrder(created.getId(), update);
+
+        assertThat(row("Paris", OrderStatus.PENDING)).containsExactly(0L, 0L);
+        assertThat(row("Lyon", OrderStatus.PENDING))
+            .containsExactly(1L, OrderStatsRecorder.toCents(created.getTotalAmount()));
+    }
+
+    @Test
+    void leavesTheRowsAloneWhenNeitherStatusNorCityChanges() {
+        OrderDTO created = orderService.createOrder(order("Paris"));
+        OrderDTO update = new OrderDTO();
+        update.setDeliveryCity("Paris");
+        update.setSpecialInstructions("Ring twice");
+
+        orderService.updateOrder(created.getId(), update);
+        orderService.updateOrderStatus(created.getId(), new OrderStatusUpdateDTO(OrderStatus.PENDING, null, null));
+
+        assertThat(row("Paris", OrderStatus.PENDING))
+            .containsExactly(1L, OrderStatsRecorder.toCents(created.getTotalAmount()));
+    }
+
+    @Test
+    void matchesARebuildAfterAMixOfWrites() {
+        Long a = orderService.createOrder(order("Paris")).getId();
+        Long b = orderService.createOrder(order("Paris")).getId();
+        Long c = orderService.createOrder(order("Lyon")).getId();
+        orderBatchService.createOrders(List.of(order("Lyon"), order("Marseille"), order("Paris")));
+
+        orderService.updateOrderStatus(a, new OrderStatusUpdateDTO(OrderStatus.CONFIRMED, null, null));
+        orderService.updateOrderStatus(a, new OrderStatusUpdateDTO(OrderStatus.PROCESSING, null, null));
+        OrderDTO toLyon = new OrderDTO();
+        toLyon.setDeliveryCity("Lyon");
+        orderService.updateOrder(a, toLyon);
+        orderService.updateOrder(b, toLyon);
+        orderService.updateOrderStatus(b, new OrderStatusUpdateDTO(OrderStatus.CANCELLED, null, null));
+        orderService.deleteOrder(c);
+
+        List<List<Object>> maintained = rows();
+        int counted = orderStatsService.rebuild();
+
+        assertThat(counted).isEqualTo(5);
+        assertThat(maintained).isEqualTo(rows()).isNotEmpty();
+    }
+
+    /** Count and revenue in cents of one of today's rows, zeros when there is none. */
+    private List<Long> row(String city, OrderStatus status) {
+        List<List<Long>> rows = jdbcTemplate.query(
+            "SELECT order_count, revenue_cents FROM order_daily_stats WHERE day = ? AND city = ? AND status = ?",
+            (rs, n) -> List.of(rs.getLong(1), rs.getLong(2)), LocalDate.now().toString(), city, status.name());
+        return rows.isEmpty() ? List.of(0L, 0L) : rows.get(0);
+    }
+
+    /** Rows still counting something: a rebuild leaves out those a write has brought back to zero. */
+    private List<List<Object>> rows() {
+        return jdbcTemplate.query(
+            "SELECT day, city, status, order_count, revenue_cents FROM order_daily_stats "
+                + "WHERE order_count <> 0 OR revenue_cents <> 0 ORDER BY day, city, status",
+            (rs, n) -> List.of(rs.getString(1), rs.getString(2), rs.getString(3), rs.getLong(4), rs.getLong(5)));
+    }
+
+    private OrderDTO order(String city) {
+        OrderItemDTO item = new OrderItemDTO();
+        item.setProductName("Colis");
+        item.setQuantity(2);
+        item.setUnitPrice(new BigDecimal("12.50"));
+        OrderDTO order = new OrderDTO();
+        order.setCustomerId(customerId);
+        order.setDeliveryAddress("10 Rue de la Paix");
+        order.setDeliveryCity(city);
+        order.setDeliveryPostalCode("75001");
+        order.setItems(List.of(item));
+        return order;
+    }
+}
@@ -0,0 +1,135 @@
+package com.deliveryapp.order.cache;
+
+import com.deliveryapp.order.dto.CursorPageDTO;
+import com.deliveryapp.order.dto.OrderDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Puts racing evictions in {@link OrderCache}: a value read before an
+ * eviction committed must not outlive it.
+ */
+class OrderCacheTest {
+
+    private static final int RACES = 20_000;
+
+    private final OrderCache cache = new OrderCache(new OrderCacheProperties(), new SimpleMeterRegistry());
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void keepsAValueReadSinceTheLastEviction() {
+        long generation = cache.generation();
+
+        cache.putOrder(order(1L, 10L), generation);
+        cache.putCustomerPage(10L, null, 20, page(order(1L, 10L)), generation);
+
+        assertThat(cache.getOrder(1L)).isNotNull();
+        assertThat(cache.getCustomerPage(10L, null, 20)).isNotNull();
+    }
+
+    @Test
+    void dropsAValueReadBeforeAnEviction() {
+        long generation = cache.generation();
+        // another order of another customer: the generation is global
+        cache.onOrdersChanged(OrdersChangedEvent.of(2L, 20L));
+
+        cache.putOrder(order(1L, 10L), generation);
+        cache.putCustomerPage(10L, null, 20, page(order(1L, 10L)), generation);
+
+        assertThat(cache.getOrder(1L)).isNull();
+        assertThat(cache.getCustomerPage(10L, null, 20)).isNull();
+    }
+
+    @Test
+    void evictsTheOrdersAndListingsOfAChangedCustomer() {
+        long generation = cache.generation();
+        cache.putOrder(order(1L, 10L), generation);
+        cache.putOrder(order(2L, 10L), generation);
+        cache.putOrder(order(3L, 30L), generation);
+        cache.putCustomerPage(10L, null, 20, page(order(1L, 10L), order(2L, 10L)), generation);
+        cache.putCustomerPage(30L, null, 20, page(order(3L, 30L)), generation);
+
+        cache.onCustomerChanged(new CustomerChangedEvent(10L));
+
+        assertThat(cache.getOrder(1L)).isNull();
+        assertThat(cache.getOrder(2L)).isNull();
+        assertThat(cache.getCustomerPage(10L, null, 20)).isNull();
+        assertThat(cache.getOrder(3L)).isNotNull();
+        assertThat(cache.getCustomerPage(30L, null, 20)).isNotNull();
+    }
+
+    @Test
+    void dropsAnOrderEvictedBetweenTheCheckAndThePut() {
+        long generation = cache.generation();
+        // the cache reads the id after checking the generation: evict right then
+        OrderDTO order = new OrderDTO() {
+            private boolean evicted;
+
+            @Override
+            public Long getId() {
+                if (!evicted) {
+                    evicted = true;
+                    cache.onOrdersChanged(OrdersChangedEvent.of(1L, 10L));
+                }
+                return 1L;
+            }
+        };
+
+        cache.putOrder(order, generation);
+
+        assertThat(cache.getOrder(1L)).isNull();
+    }
+
+    /**
+     * Puts a page while its customer's orders are evicted, over and over. The
+     * eviction always comes after the read, so it must win whatever the
+     * interleaving. With a single core the two threads rarely interleave; the
+     * test above forces the narrowest window for orders.
+     */
+    @Test
+    void neverKeepsAPagePutWhileItWasEvicted() throws Exception {
+        CyclicBarrier start = new CyclicBarrier(2);
+        for (int i = 0; i < RACES; i++) {
+            long readGeneration = cache.generation();
+            Future<?> eviction = executor.submit(() -> {
+                start.await();
+                cache.onOrdersChanged(OrdersChangedEvent.of(1L, 10L));
+                return null;
+            });
+            start.await();
+            cache.putCustomerPage(10L, null, 20, page(order(1L, 10L)), readGeneration);
+            eviction.get(5, TimeUnit.SECONDS);
+
+            assertThat(cache.getCustomerPage(10L, null, 20)).as("page kept after race %d", i).isNull();
+        }
+    }
+
+    private static OrderDTO order(Long id, Long customerId) {
+        OrderDTO order = new OrderDTO();
+        order.setId(id);
+        order.setCustomerId(customerId);
+        return order;
+    }
+
+    private static CursorPageDTO<OrderDTO> page(OrderDTO... orders) {
+        CursorPageDTO<OrderDTO> page = new CursorPageDTO<>();
+        page.setItems(List.of(orders));
+        page.setHasMore(false);
+        return page;
+    }
+}
@@ -0,0 +1,92 @@
+package com.deliveryapp.order.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Brings a database created by an earlier {@code database/schema.sql} up to
+ * date with the current one.
+ */
+class SchemaMigrationsTest {
+
+    private static final String SCHEMA = "file:database/schema.sql";
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void addsTheOutboxRetryColumnsToAnExistingOutbox() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + dataDir.resolve("old.db"), true);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("""
+            CREATE TABLE order_outbox (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                order_id INTEGER NOT NULL,
+                event_type VARCHAR(100) NOT NULL,
+                payload TEXT NOT NULL,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                published_at TIMESTAMP)""");
+        jdbc.execute("CREATE INDEX idx_order_outbox_unpublished ON order_outbox(id) WHERE published_at IS NULL");
+        jdbc.update("INSERT INTO order_outbox (order_id, event_type, payload) VALUES (1, 'OrderStatusChanged', '{}')");
+
+        SchemaMigrations.apply(dataSource, SCHEMA);
+        SchemaMigrations.apply(dataSource, SCHEMA);
+
+        Map<String, Object> event = jdbc.queryForMap(
+            "SELECT attempts, last_error, next_attempt_at, parked_at FROM order_outbox WHERE order_id = 1");
+        assertThat(event).containsEntry("attempts", 0)
+            .containsEntry("last_error", null)
+            .containsEntry("next_attempt_at", null)
+            .containsEntry("parked_at", null);
+        assertThat(jdbc.queryForList("SELECT name FROM sqlite_master WHERE type = 'index' AND tbl_name = 'order_outbox'", String.class))
+            .contains("idx_order_outbox_pending", "idx_order_outbox_parked")
+            .doesNotContain("idx_order_outbox_unpublished");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM sqlite_master WHERE name = 'order_daily_stats'", Integer.class)).isOne();
+        dataSource.destroy();
+    }
+
+    @Test
+    void startsExistingOrdersAtVersionZero() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + dataDir.resolve("old.db"), true);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("""
+            CREATE TABLE orders (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                order_number VARCHAR(50) UNIQUE NOT NULL,
+                customer_id INTEGER NOT NULL,
+                status VARCHAR(50) NOT NULL DEFAULT 'PENDING',
+                total_amount DECIMAL(10, 2) NOT NULL,
+                delivery_address TEXT NOT NULL,
+                delivery_city VARCHAR(100) NOT NULL,
+                delivery_postal_code VARCHAR(20) NOT NULL,
+                delivery_fee DECIMAL(10, 2) DEFAULT 0.00,
+                special_instructions TEXT,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)""");
+        jdbc.update("""
+            INSERT INTO orders (order_number, customer_id, total_amount, delivery_address, delivery_city, delivery_postal_code)
+            VALUES ('ORD-1', 1, 10.00, '10 Rue de la Paix', 'Paris', '75001')""");
+
+        SchemaMigrations.apply(dataSource, SCHEMA);
+
+        assertThat(jdbc.queryForObject("SELECT version FROM orders WHERE order_number = 'ORD-1'", Long.class)).isZero();
+        dataSource.destroy();
+    }
+
+    @Test
+    void leavesTheDatabaseAloneWithoutAScript() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + dataDir.resolve("empty.db"), true);
+
+        SchemaMigrations.apply(dataSource, "file:" + dataDir.resolve("missing.sql"));
+
+        assertThat(new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM sqlite_master", Integer.class)).isZero();
+        dataSource.destroy();
+    }
+}
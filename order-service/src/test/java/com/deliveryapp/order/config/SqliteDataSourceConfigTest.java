@@ -0,0 +1,255 @@
+package com.deliveryapp.order.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the routing of the SQLite data source, read-only transactions to
+ * the reader pool and everything else to the single writer connection, and
+ * that reads keep going while a write transaction is open.
+ */
+@Slf4j
+class SqliteDataSourceConfigTest {
+
+    private static final int READERS = 4;
+    private static final String CARRIERS_PROPERTY = "jdk.virtualThreadScheduler.parallelism";
+
+    @TempDir
+    Path dataDir;
+
+    private HikariDataSource writer;
+    private HikariDataSource reader;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        SqliteProperties properties = new SqliteProperties();
+        properties.setReaderPoolSize(READERS);
+        properties.setConnectionTimeout(10000);
+        String url = "jdbc:sqlite:" + dataDir.resolve("test.db");
+        ObjectProvider<MeterRegistry> noRegistry = new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class);
+
+        SqliteDataSourceConfig config = new SqliteDataSourceConfig();
+        writer = config.sqliteWriterDataSource(url, properties, noRegistry);
+        reader = config.sqliteReaderDataSource(url, false, properties, noRegistry);
+        DataSource dataSource = config.dataSource(writer, reader);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        executor = Executors.newCachedThreadPool();
+
+        readWrite.executeWithoutResult(status ->
+            jdbcTemplate.execute("CREATE TABLE entries (id INTEGER PRIMARY KEY AUTOINCREMENT, value TEXT NOT NULL)"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        reader.close();
+        writer.close();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReaderPool() {
+        readOnly.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM entries", Long.class);
+            assertThat(reader.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+            assertThat(writer.getHikariPoolMXBean().getActiveConnections()).isZero();
+        });
+    }
+
+    @Test
+    void capsTheReaderPoolOnlyWhenRequestsRunOnVirtualThreads() {
+        SqliteProperties properties = new SqliteProperties();
+        properties.setReaderPoolSize(8);
+        String url = "jdbc:sqlite:" + dataDir.resolve("test.db");
+        ObjectProvider<MeterRegistry> noRegistry = new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class);
+        SqliteDataSourceConfig config = new SqliteDataSourceConfig();
+        String carriers = System.getProperty(CARRIERS_PROPERTY);
+        System.setProperty(CARRIERS_PROPERTY, "4");
+        try (HikariDataSource platformThreads = config.sqliteReaderDataSource(url, false, properties, noRegistry);
+             HikariDataSource virtualThreads = config.sqliteReaderDataSource(url, true, properties, noRegistry)) {
+            assertThat(platformThreads.getMaximumPoolSize()).isEqualTo(8);
+            // the writer and two readers leave one of the four carriers free
+            assertThat(virtualThreads.getMaximumPoolSize()).isEqualTo(2);
+        } finally {
+            if (carriers == null) {
+                System.clearProperty(CARRIERS_PROPERTY);
+            } else {
+                System.setProperty(CARRIERS_PROPERTY, carriers);
+            }
+        }
+    }
+
+    @Test
+    void writeTransactionsUseTheWriterConnection() {
+        readWrite.executeWithoutResult(status -> {
+            insert("written");
+            assertThat(writer.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+            assertThat(reader.getHikariPoolMXBean().getActiveConnections()).isZero();
+        });
+        assertThat(count()).isEqualTo(1);
+    }
+
+    @Test
+    void writesAreSerialisedThroughOneConnection() throws Exception {
+        assertThat(writer.getMaximumPoolSize()).isEqualTo(1);
+
+        CountDownLatch firstWriting = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        Future<?> first = executor.submit(() -> readWrite.executeWithoutResult(status -> {
+            insert("first");
+            firstWriting.countDown();
+            await(releaseFirst);
+        }));
+        assertThat(firstWriting.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Future<?> second = executor.submit(() -> readWrite.executeWithoutResult(status -> insert("second")));
+        Thread.sleep(300);
+        assertThat(second.isDone()).as("second write waits for the writer connection").isFalse();
+
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertThat(count()).isEqualTo(2);
+    }
+
+    @Test
+    void readsProceedWhileAWriteTransactionIsOpen() throws Exception {
+        insertCommitted("before");
+
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch releaseWriter = new CountDownLatch(1);
+        Future<?> write = executor.submit(() -> readWrite.executeWithoutResult(status -> {
+            insert("uncommitted");
+            writing.countDown();
+            await(releaseWriter);
+        }));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // WAL readers see the last committed state instead of waiting for the writer
+        Future<Long> read = executor.submit(this::count);
+        assertThat(read.get(1, TimeUnit.SECONDS)).isEqualTo(1);
+
+        releaseWriter.countDown();
+        write.get(5, TimeUnit.SECONDS);
+        assertThat(count()).isEqualTo(2);
+    }
+
+    /**
+     * Load check: read throughput with a writer constantly holding a write
+     * transaction open stays within the same order as without writes.
+     */
+    @Test
+    void readThroughputHoldsUpUnderConcurrentWrites() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            insertCommitted("seed-" + i);
+        }
+
+        long idle = readsPerSecond(false);
+        long loaded = readsPerSecond(true);
+        log.info("SQLite reads/s with {} readers: {} without writes, {} with a writer always in a transaction",
+            READERS, idle, loaded);
+
+        assertThat(loaded).isGreaterThan(idle / 4);
+    }
+
+    private long readsPerSecond(boolean withWriter) throws Exception {
+        long durationMillis = 2000;
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        AtomicLong writes = new AtomicLong();
+        List<Future<?>> workers = new ArrayList<>();
+
+        if (withWriter) {
+            workers.add(executor.submit(() -> {
+                while (running.get()) {
+                    readWrite.executeWithoutResult(status -> {
+                        for (int i = 0; i < 20; i++) {
+                            insert("load");
+                        }
+                        sleep(5);
+                    });
+                    writes.incrementAndGet();
+                }
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            workers.add(executor.submit(() -> {
+                while (running.get()) {
+                    readOnly.executeWithoutResult(status ->
+                        jdbcTemplate.queryForList("SELECT id, value FROM entries ORDER BY id DESC LIMIT 50"));
+                    reads.incrementAndGet();
+                }
+            }));
+        }
+
+        Thread.sleep(durationMillis);
+        running.set(false);
+        for (Future<?> worker : workers) {
+            worker.get(10, TimeUnit.SECONDS);
+        }
+        if (withWriter) {
+            assertThat(writes.get()).as("write transactions committed").isPositive();
+        }
+        return reads.get() * 1000 / durationMillis;
+    }
+
+    private void insert(String value) {
+        jdbcTemplate.update("INSERT INTO entries (value) VALUES (?)", value);
+    }
+
+    private void insertCommitted(String value) {
+        readWrite.executeWithoutResult(status -> insert(value));
+    }
+
+    private long count() {
+        return readOnly.execute(status -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM entries", Long.class));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.deliveryapp.order.config;
+
+import com.deliveryapp.order.dto.CustomerDTO;
+import com.deliveryapp.order.dto.OrderDTO;
+import com.deliveryapp.order.dto.OrderItemDTO;
+import com.deliveryapp.order.entity.OrderStatus;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of encoding and decoding a list of orders, as returned by the
+ * batch lookup, in JSON and in Smile. Both mappers are built like Boot's
+ * and {@link WireFormatConfig}'s, from a {@link Jackson2ObjectMapperBuilder}.
+ * The encode benchmarks also report the size of what they produce, as the
+ * secondary results {@code bytes} and {@code bytesPerOrder}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<OrderDTO>> ORDER_LIST = new TypeReference<>() { };
+
+    @Param({"1000"})
+    public int orders;
+
+    private ObjectMapper json;
+    private ObjectMapper smile;
+    private List<OrderDTO> list;
+    private byte[] jsonBytes;
+    private byte[] smileBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        json = Jackson2ObjectMapperBuilder.json().build();
+        smile = Jackson2ObjectMapperBuilder.smile().build();
+        list = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            list.add(order(i));
+        }
+        jsonBytes = json.writeValueAsBytes(list);
+        smileBytes = smile.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public byte[] encodeJson(PayloadSize size) throws IOException {
+        return size.of(json.writeValueAsBytes(list), orders);
+    }
+
+    @Benchmark
+    public byte[] encodeSmile(PayloadSize size) throws IOException {
+        return size.of(smile.writeValueAsBytes(list), orders);
+    }
+
+    @Benchmark
+    public List<OrderDTO> decodeJson() throws IOException {
+        return json.readValue(jsonBytes, ORDER_LIST);
+    }
+
+    @Benchmark
+    public List<OrderDTO> decodeSmile() throws IOException {
+        return smile.readValue(smileBytes, ORDER_LIST);
+    }
+
+    /**
+     * Size of the encoded list. JMH adds event counts up over the measurement
+     * iterations, so the size is only recorded during the first of them.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+
+        public long bytes;
+        public double bytesPerOrder;
+
+        private boolean recording;
+        private boolean recorded;
+
+        @Setup(Level.Iteration)
+        public void startIteration(IterationParams iteration) {
+            bytes = 0;
+            bytesPerOrder = 0;
+            recording = iteration.getType() == IterationType.MEASUREMENT && !recorded;
+            recorded |= recording;
+        }
+
+        byte[] of(byte[] payload, int orders) {
+            if (recording) {
+                bytes = payload.length;
+                bytesPerOrder = (double) payload.length / orders;
+            }
+            return payload;
+        }
+    }
+
+    private static OrderDTO order(int n) {
+        CustomerDTO customer = new CustomerDTO();
+        customer.setId((long) (n % 50));
+        customer.setFirstName("Customer");
+        customer.setLastName("Number " + (n % 50));
+        customer.setEmail("customer" + (n % 50) + "@example.com");
+        customer.setPhone("+212600000" + String.format("%03d", n % 50));
+        customer.setAddress((n % 50) + " Boulevard Mohammed V");
+        customer.setCity("Casablanca");
+        customer.setPostalCode("20000");
+
+        List<OrderItemDTO> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            OrderItemDTO item = new OrderItemDTO();
+            item.setId(n * 3L + i);
+            item.setProductName("Product " + i);
+            item.setProductDescription("Description of product " + i);
+            item.setQuantity(i + 1);
+            item.setUnitPrice(new BigDecimal("12.50"));
+            item.setTotalPrice(new BigDecimal("12.50").multiply(BigDecimal.valueOf(i + 1)));
+            item.setWeight(new BigDecimal("0.75"));
+            item.setDimensions("20x15x10");
+            items.add(item);
+        }
+
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 20, 14, 15, 30).plusMinutes(n);
+        OrderDTO order = new OrderDTO();
+        order.setId((long) n);
+        order.setOrderNumber("ORD-" + (734_000_000_000_000_000L + n));
+        order.setCustomerId(customer.getId());
+        order.setCustomer(customer);
+        order.setStatus(OrderStatus.values()[n % OrderStatus.values().length]);
+        order.setTotalAmount(new BigDecimal("80.00"));
+        order.setDeliveryAddress(n + " Rue des Fleurs");
+        order.setDeliveryCity("Casablanca");
+        order.setDeliveryPostalCode("20000");
+        order.setSpecialInstructions(n % 4 == 0 ? "Ring twice" : null);
+        order.setDeliveryFee(new BigDecimal("5.00"));
+        order.setItems(items);
+        order.setCreatedAt(createdAt);
+        order.setUpdatedAt(createdAt.plusMinutes(5));
+        order.setVersion((long) (n % 5));
+        return order;
+    }
+}
@@ -0,0 +1,170 @@
+package com.deliveryapp.order.controller;
+
+import com.deliveryapp.order.dto.OrderDTO;
+import com.deliveryapp.order.dto.OrderItemDTO;
+import com.deliveryapp.order.entity.Customer;
+import com.deliveryapp.order.repository.CustomerRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Orders created per second through {@code POST /api/orders}, one request
+ * per order, and through {@code POST /api/orders/batch}, against the real
+ * schema. Requests go through the whole MVC stack, validation, JPA or JDBC
+ * batches, outbox and daily stats included, but not the network.
+ * <p>
+ * Tagged {@code benchmark}, so it only runs with {@code mvn -Pbenchmark test}.
+ * {@code -Dbenchmark.orders} and {@code -Dbenchmark.batch-size} change the
+ * defaults of 2000 orders each way, sent in batches of 500.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.cloud.config.enabled=false",
+    "eureka.client.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.show-sql=false",
+    "app.sqlite.schema-script=file:database/schema.sql",
+    "app.outbox.publisher=in-process",
+    "app.outbox.poll-interval=3600000",
+    "logging.level.com.deliveryapp=WARN",
+    "logging.level.com.deliveryapp.order.controller.OrderBatchBenchmarkTest=INFO"
+})
+@AutoConfigureMockMvc
+@Slf4j
+class OrderBatchBenchmarkTest {
+
+    private static final int ORDERS = Integer.getInteger("benchmark.orders", 2000);
+    private static final int BATCH_SIZE = Integer.getInteger("benchmark.batch-size", 500);
+    private static final int WARM_UP_ORDERS = 200;
+
+    @TempDir
+    static Path dataDir;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dataDir.resolve("orders.db"));
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void comparesBatchCreationWithOneRequestPerOrder() throws Exception {
+        Long customerId = customerRepository.save(customer()).getId();
+        // untimed passes so both run on a warm JVM
+        createOneByOne(orders(customerId, WARM_UP_ORDERS));
+        createInBatches(orders(customerId, WARM_UP_ORDERS));
+
+        List<OrderDTO> single = orders(customerId, ORDERS);
+        long singleStart = System.nanoTime();
+        createOneByOne(single);
+        long singleNanos = System.nanoTime() - singleStart;
+
+        List<OrderDTO> batched = orders(customerId, ORDERS);
+        long batchStart = System.nanoTime();
+        createInBatches(batched);
+        long batchNanos = System.nanoTime() - batchStart;
+
+        log.info("Created {} orders each way:", ORDERS);
+        log.info("{}", format("POST /api/orders", ORDERS, singleNanos));
+        log.info("{}", format("POST /api/orders/batch", ORDERS / BATCH_SIZE, batchNanos));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class))
+            .isEqualTo(2 * (WARM_UP_ORDERS + ORDERS));
+        assertThat(batchNanos).isLessThan(singleNanos);
+    }
+
+    private void createOneByOne(List<OrderDTO> orders) throws Exception {
+        for (OrderDTO order : orders) {
+            mockMvc.perform(post("/api/orders")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsBytes(order)))
+                .andExpect(status().isCreated());
+        }
+    }
+
+    private void createInBatches(List<OrderDTO> orders) throws Exception {
+        for (int from = 0; from < orders.size(); from += BATCH_SIZE) {
+            List<OrderDTO> batch = orders.subList(from, Math.min(from + BATCH_SIZE, orders.size()));
+            byte[] body = mockMvc.perform(post("/api/orders/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsBytes(batch)))
+                .andReturn().getResponse().getContentAsByteArray();
+            JsonNode response = objectMapper.readTree(body);
+            assertThat(response.path("succeeded").asInt()).isEqualTo(batch.size());
+        }
+    }
+
+    private static String format(String name, int requests, long nanos) {
+        return String.format("%-24s %5d requests %9.0f orders/s %8.2f ms/request",
+            name, requests, ORDERS / (nanos / 1e9), nanos / 1e6 / requests);
+    }
+
+    private static List<OrderDTO> orders(Long customerId, int count) {
+        List<OrderDTO> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            orders.add(order(customerId));
+        }
+        return orders;
+    }
+
+    private static Customer customer() {
+        Customer customer = new Customer();
+        customer.setFirstName("Bench");
+        customer.setLastName("Mark");
+        customer.setEmail("benchmark@example.com");
+        customer.setPhone("0600000000");
+        customer.setAddress("1 Benchmark Street");
+        customer.setCity("Casablanca");
+        customer.setPostalCode("20000");
+        return customer;
+    }
+
+    private static OrderDTO order(Long customerId) {
+        OrderDTO order = new OrderDTO();
+        order.setCustomerId(customerId);
+        order.setDeliveryAddress("1 Benchmark Street");
+        order.setDeliveryCity("Casablanca");
+        order.setDeliveryPostalCode("20000");
+        order.setItems(List.of(item("Item A", 2, "12.50"), item("Item B", 1, "40.00")));
+        return order;
+    }
+
+    private static OrderItemDTO item(String name, int quantity, String unitPrice) {
+        OrderItemDTO item = new OrderItemDTO();
+        item.setProductName(name);
+        item.setQuantity(quantity);
+        item.setUnitPrice(new BigDecimal(unitPrice));
+        return item;
+    }
+}
@@ -0,0 +1,221 @@
+package com.deliveryapp.order.controller;
+
+import com.deliveryapp.order.analytics.OrderStatsService;
+import com.deliveryapp.order.entity.Customer;
+import com.deliveryapp.order.entity.Order;
+import com.deliveryapp.order.entity.OrderItem;
+import com.deliveryapp.order.entity.OrderStatus;
+import com.deliveryapp.order.repository.CustomerRepository;
+import com.deliveryapp.order.repository.OrderRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Bytes and latency of reading the same orders through the full listing,
+ * {@code GET /api/orders}, and the summary projection,
+ * {@code GET /api/orders/summary}, page by page. Requests go through the
+ * whole MVC stack, query and JSON encoding included, but not the network.
+ * <p>
+ * Tagged {@code benchmark}, so it only runs with {@code mvn -Pbenchmark test}.
+ * {@code -Dbenchmark.orders} and {@code -Dbenchmark.page-size} change the
+ * defaults of 10000 orders in pages of 200.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.cloud.config.enabled=false",
+    "eureka.client.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "spring.jpa.show-sql=false",
+    "app.outbox.publisher=in-process",
+    "app.outbox.poll-interval=3600000",
+    "logging.level.com.deliveryapp=WARN",
+    "logging.level.com.deliveryapp.order.controller.OrderSummaryBenchmarkTest=INFO"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class OrderSummaryBenchmarkTest {
+
+    private static final int ORDERS = Integer.getInteger("benchmark.orders", 10_000);
+    private static final int PAGE_SIZE = Integer.getInteger("benchmark.page-size", 200);
+    private static final int ROUNDS = 5;
+
+    // not a @TempDir: the per-class instance starts the context before JUnit sets static @TempDir fields
+    private static final Path dataDir = createDataDir();
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dataDir.resolve("orders.db"));
+    }
+
+    private static Path createDataDir() {
+        try {
+            return Files.createTempDirectory("orders");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterAll
+    void deleteDataDir() throws IOException {
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    // its rollup table is not part of the entity model the schema is created from
+    @MockBean
+    private OrderStatsService orderStatsService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    void createOrders() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Customer customer = customerRepository.save(customer());
+            List<Order> orders = new ArrayList<>(ORDERS);
+            for (int i = 0; i < ORDERS; i++) {
+                orders.add(order(customer, i));
+            }
+            orderRepository.saveAll(orders);
+        });
+    }
+
+    @Test
+    void comparesTheSummaryListingWithTheFullOne() throws Exception {
+        // untimed passes so both run on a warm JVM and page cache
+        readAll("/api/orders");
+        readAll("/api/orders/summary");
+
+        Result full = median("/api/orders");
+        Result summary = median("/api/orders/summary");
+
+        log.info("Read {} orders, {} per page, median of {} rounds:", ORDERS, PAGE_SIZE, ROUNDS);
+        log.info("{}", full.format("GET /api/orders"));
+        log.info("{}", summary.format("GET /api/orders/summary"));
+
+        assertThat(full.orders()).isEqualTo(ORDERS);
+        assertThat(summary.orders()).isEqualTo(ORDERS);
+        assertThat(summary.bytes()).isLessThan(full.bytes());
+    }
+
+    private Result median(String path) throws Exception {
+        Result[] results = new Result[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            results[round] = readAll(path);
+        }
+        Arrays.sort(results, (a, b) -> Long.compare(a.nanos(), b.nanos()));
+        return results[ROUNDS / 2];
+    }
+
+    private Result readAll(String path) throws Exception {
+        int requests = 0;
+        int orders = 0;
+        long bytes = 0;
+        long nanos = 0;
+        String cursor = null;
+        boolean hasMore = true;
+        while (hasMore) {
+            var request = get(path).accept(MediaType.APPLICATION_JSON).param("limit", String.valueOf(PAGE_SIZE));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            long start = System.nanoTime();
+            MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+            nanos += System.nanoTime() - start;
+
+            byte[] body = response.getContentAsByteArray();
+            JsonNode page = objectMapper.readTree(body);
+            requests++;
+            bytes += body.length;
+            orders += page.path("items").size();
+            hasMore = page.path("hasMore").asBoolean();
+            cursor = page.path("nextCursor").asText(null);
+        }
+        return new Result(requests, orders, bytes, nanos);
+    }
+
+    private record Result(int requests, int orders, long bytes, long nanos) {
+
+        String format(String name) {
+            return String.format("%-24s %5d requests %10d bytes %8.1f KB/request %8.2f ms/request",
+                name, requests, bytes, bytes / 1024.0 / requests, nanos / 1e6 / requests);
+        }
+    }
+
+    private static Customer customer() {
+        Customer customer = new Customer();
+        customer.setFirstName("Bench");
+        customer.setLastName("Mark");
+        customer.setEmail("benchmark@example.com");
+        customer.setPhone("0600000000");
+        customer.setAddress("1 Benchmark Street");
+        customer.setCity("Casablanca");
+        customer.setPostalCode("20000");
+        return customer;
+    }
+
+    private static Order order(Customer customer, int n) {
+        Order order = new Order();
+        order.setOrderNumber("ORD-BENCH-" + n);
+        order.setCustomer(customer);
+        order.setStatus(OrderStatus.PENDING);
+        order.setDeliveryAddress("1 Benchmark Street");
+        order.setDeliveryCity("Casablanca");
+        order.setDeliveryPostalCode("20000");
+        order.addItem(item("Item A", 2, "12.50", "0.5"));
+        order.addItem(item("Item B", 1, "40.00", "1.2"));
+        order.setTotalAmount(new BigDecimal("65.00"));
+        return order;
+    }
+
+    private static OrderItem item(String name, int quantity, String unitPrice, String weight) {
+        OrderItem item = new OrderItem();
+        item.setProductName(name);
+        item.setQuantity(quantity);
+        item.setUnitPrice(new BigDecimal(unitPrice));
+        item.setTotalPrice(new BigDecimal(unitPrice).multiply(BigDecimal.valueOf(quantity)));
+        item.setWeight(new BigDecimal(weight));
+        return item;
+    }
+}
@@ -0,0 +1,137 @@
+package com.deliveryapp.order.generator;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 200_000;
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        long[][] perThread = generateConcurrently(generator);
+
+        long[] all = Arrays.stream(perThread).flatMapToLong(Arrays::stream).sorted().toArray();
+        assertThat(all).hasSize(THREADS * IDS_PER_THREAD);
+        for (int i = 1; i < all.length; i++) {
+            assertThat(all[i]).as("id %d", i).isGreaterThan(all[i - 1]);
+        }
+    }
+
+    @Test
+    void idsIncreaseWithinEachThread() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        for (long[] ids : generateConcurrently(generator)) {
+            for (int i = 1; i < ids.length; i++) {
+                assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+            }
+        }
+    }
+
+    @Test
+    void idsStayUniqueWhenTheSequenceOverflowsWithinOneMillisecond() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        int count = 4 * (1 << SnowflakeIdGenerator.SEQUENCE_BITS);
+        long previous = generator.nextId();
+        for (int i = 1; i < count; i++) {
+            long next = generator.nextId();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void idsCarryTheNodeId() {
+        long nodeId = SnowflakeIdGenerator.MAX_NODE_ID;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(nodeId);
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertThat((id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID).isEqualTo(nodeId);
+        }
+    }
+
+    @Test
+    void generatorsOnDifferentNodesNeverCollide() {
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(1);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(2);
+        long[] ids = new long[200_000];
+        for (int i = 0; i < ids.length; i += 2) {
+            ids[i] = first.nextId();
+            ids[i + 1] = second.nextId();
+        }
+        assertThat(Arrays.stream(ids).distinct().count()).isEqualTo(ids.length);
+    }
+
+    @Test
+    void rejectsNodeIdsThatDoNotFitInTenBits() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void requiresAConfiguredNodeIdWithADeploymentProfile() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("docker");
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(-1, environment))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("ID_GENERATOR_NODE_ID");
+
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(42, environment);
+        assertThat((generator.nextId() >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID)
+                .isEqualTo(42);
+    }
+
+    @Test
+    void derivesANodeIdForLocalRuns() {
+        MockEnvironment dev = new MockEnvironment();
+        dev.setActiveProfiles("dev");
+        for (MockEnvironment environment : List.of(new MockEnvironment(), dev)) {
+            long id = new SnowflakeIdGenerator(-1, environment).nextId();
+            assertThat((id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID)
+                    .isBetween(0L, SnowflakeIdGenerator.MAX_NODE_ID);
+        }
+    }
+
+    private static long[][] generateConcurrently(SnowflakeIdGenerator generator) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[]>> futures = new ArrayList<>(THREADS);
+            for (int t = 0; t < THREADS; t++) {
+                Callable<long[]> task = () -> {
+                    start.await();
+                    long[] ids = new long[IDS_PER_THREAD];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+
+            long[][] perThread = new long[THREADS][];
+            for (int t = 0; t < THREADS; t++) {
+                perThread[t] = futures.get(t).get(30, TimeUnit.SECONDS);
+            }
+            return perThread;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
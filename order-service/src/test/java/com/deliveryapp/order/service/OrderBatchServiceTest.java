@@ -0,0 +1,153 @@
+package com.deliveryapp.order.service;
+
+import com.deliveryapp.order.dto.BatchOrderResponseDTO;
+import com.deliveryapp.order.dto.BatchOrderResultDTO;
+import com.deliveryapp.order.dto.OrderDTO;
+import com.deliveryapp.order.dto.OrderItemDTO;
+import com.deliveryapp.order.entity.Customer;
+import com.deliveryapp.order.repository.CustomerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Outcome reported per order by {@link OrderBatchService} when orders fail
+ * validation, refer to unknown customers, or belong to a chunk the database
+ * rejects, against the real schema with chunks of two orders.
+ */
+@SpringBootTest(properties = {
+    "spring.cloud.config.enabled=false",
+    "eureka.client.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.show-sql=false",
+    "app.sqlite.schema-script=file:database/schema.sql",
+    "app.outbox.publisher=in-process",
+    "app.outbox.poll-interval=3600000",
+    "app.orders.batch.chunk-size=2"
+})
+class OrderBatchServiceTest {
+
+    private static final String REJECTED_CITY = "Atlantis";
+
+    @TempDir
+    static Path dataDir;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dataDir.resolve("orders.db"));
+    }
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = new Customer();
+        customer.setFirstName("Jean");
+        customer.setLastName("Dupont");
+        customer.setEmail("jean.dupont." + System.nanoTime() + "@email.com");
+        customer.setPhone("+33123456789");
+        customer.setAddress("10 Rue de la Paix");
+        customer.setCity("Paris");
+        customer.setPostalCode("75001");
+        customerId = customerRepository.save(customer).getId();
+        // stands in for any failure of the database within one chunk
+        jdbcTemplate.execute("CREATE TRIGGER reject_city BEFORE INSERT ON orders WHEN NEW.delivery_city = '"
+            + REJECTED_CITY + "' BEGIN SELECT RAISE(ABORT, 'no deliveries to " + REJECTED_CITY + "'); END");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TRIGGER reject_city");
+    }
+
+    @Test
+    void reportsTheOrdersOfAFailedChunkAsFailedAndCreatesTheOthers() {
+        List<OrderDTO> orders = List.of(
+            order(customerId, "Paris"),
+            order(customerId, "Lyon"),
+            order(customerId, "Paris"),
+            order(customerId, REJECTED_CITY),
+            order(customerId, "Marseille"));
+
+        BatchOrderResponseDTO response = orderBatchService.createOrders(orders);
+
+        assertThat(response.getSubmitted()).isEqualTo(5);
+        assertThat(response.getSucceeded()).isEqualTo(3);
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(BatchOrderResultDTO::getIndex, BatchOrderResultDTO::isSuccess)
+            .containsExactly(
+                tuple(0, true),
+                tuple(1, true),
+                tuple(2, false),
+                tuple(3, false),
+                tuple(4, true));
+        // the chunk of orders 2 and 3 is rolled back as a whole
+        assertThat(response.getResults().get(2).getError())
+            .startsWith("Could not persist order: ")
+            .contains("no deliveries to " + REJECTED_CITY);
+        assertThat(response.getResults().get(2).getId()).isNull();
+        assertThat(response.getResults().get(3).getError()).isEqualTo(response.getResults().get(2).getError());
+
+        List<Long> createdIds = response.getResults().stream()
+            .filter(BatchOrderResultDTO::isSuccess).map(BatchOrderResultDTO::getId).toList();
+        assertThat(createdIds).doesNotContainNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE customer_id = ?", Integer.class, customerId))
+            .isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_items WHERE order_id IN ("
+            + createdIds.stream().map(String::valueOf).collect(Collectors.joining(",")) + ")", Integer.class))
+            .isEqualTo(3);
+    }
+
+    @Test
+    void reportsInvalidOrdersAndUnknownCustomersWithoutFailingTheirChunk() {
+        OrderDTO invalid = order(customerId, "Paris");
+        invalid.setDeliveryAddress(" ");
+        List<OrderDTO> orders = List.of(invalid, order(-1L, "Paris"), order(customerId, "Paris"));
+
+        BatchOrderResponseDTO response = orderBatchService.createOrders(orders);
+
+        assertThat(response.getSucceeded()).isEqualTo(1);
+        assertThat(response.getResults().get(0).getError()).isEqualTo("deliveryAddress: Delivery address is required");
+        assertThat(response.getResults().get(1).getError()).isEqualTo("Customer not found with ID: -1");
+        assertThat(response.getResults().get(2).isSuccess()).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM orders WHERE id = ?", Long.class,
+            response.getResults().get(2).getId())).isZero();
+    }
+
+    private static OrderDTO order(Long customerId, String city) {
+        OrderItemDTO item = new OrderItemDTO();
+        item.setProductName("Colis");
+        item.setQuantity(2);
+        item.setUnitPrice(new BigDecimal("12.50"));
+        OrderDTO order = new OrderDTO();
+        order.setCustomerId(customerId);
+        order.setDeliveryAddress("10 Rue de la Paix");
+        order.setDeliveryCity(city);
+        order.setDeliveryPostalCode("75001");
+        order.setItems(List.of(item));
+        return order;
+    }
+}
@@ -0,0 +1,206 @@
+package com.deliveryapp.order.service;
+
+import com.deliveryapp.order.analytics.OrderStatsService;
+import com.deliveryapp.order.dto.CursorPageDTO;
+import com.deliveryapp.order.dto.OrderDTO;
+import com.deliveryapp.order.entity.Customer;
+import com.deliveryapp.order.entity.Order;
+import com.deliveryapp.order.entity.OrderItem;
+import com.deliveryapp.order.entity.OrderStatus;
+import com.deliveryapp.order.repository.CustomerRepository;
+import com.deliveryapp.order.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements the order listings run, with Hibernate statistics,
+ * to keep them from falling back to a lazy load per order: a page costs the
+ * same number of statements whatever its size.
+ */
+@SpringBootTest(properties = {
+    "spring.cloud.config.enabled=false",
+    "eureka.client.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "app.outbox.publisher=in-process",
+    "app.outbox.poll-interval=3600000"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderServiceQueryCountTest {
+
+    private static final int ORDERS_PER_CUSTOMER = 60;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    // not a @TempDir: the per-class instance starts the context before JUnit sets static @TempDir fields
+    private static final Path dataDir = createDataDir();
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dataDir.resolve("orders.db"));
+    }
+
+    private static Path createDataDir() {
+        try {
+            return Files.createTempDirectory("orders");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterAll
+    void deleteDataDir() throws IOException {
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    // its rollup table is not part of the entity model the schema is created from
+    @MockBean
+    private OrderStatsService orderStatsService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<Long> customerIds = new ArrayList<>();
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeAll
+    void createOrders() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int c = 0; c < 2; c++) {
+                Customer customer = customerRepository.save(customer(c));
+                customerIds.add(customer.getId());
+                for (int o = 0; o < ORDERS_PER_CUSTOMER; o++) {
+                    orderIds.add(orderRepository.save(order(customer, c * ORDERS_PER_CUSTOMER + o)).getId());
+                }
+            }
+        });
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20, 100})
+    void getOrdersRunsTwoStatementsWhateverThePageSize(int limit) {
+        CursorPageDTO<OrderDTO> page = orderService.getOrders(null, limit);
+
+        assertThat(page.getItems()).hasSize(limit);
+        assertFullyLoaded(page.getItems());
+        // orders with their customer, then the items of the whole page
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20, 100})
+    void getOrdersByStatusRunsTwoStatementsWhateverThePageSize(int limit) {
+        CursorPageDTO<OrderDTO> page = orderService.getOrdersByStatus(OrderStatus.PENDING, null, limit);
+
+        assertThat(page.getItems()).hasSize(limit);
+        assertFullyLoaded(page.getItems());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20, 50})
+    void getOrdersByCustomerIdRunsThreeStatementsWhateverThePageSize(int limit) {
+        CursorPageDTO<OrderDTO> page = orderService.getOrdersByCustomerId(customerIds.get(0), null, limit);
+
+        assertThat(page.getItems()).hasSize(limit);
+        assertFullyLoaded(page.getItems());
+        // the customer's existence check comes first
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void getOrdersByIdsRunsTwoStatementsForOrdersNotCached() {
+        List<Long> ids = orderIds.subList(10, 90);
+
+        List<OrderDTO> orders = orderService.getOrdersByIds(ids);
+
+        assertThat(orders).extracting(OrderDTO::getId).containsExactlyElementsOf(ids);
+        assertFullyLoaded(orders);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private static void assertFullyLoaded(List<OrderDTO> orders) {
+        assertThat(orders).allSatisfy(order -> {
+            assertThat(order.getCustomer().getEmail()).isNotNull();
+            assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER);
+        });
+    }
+
+    private static Customer customer(int n) {
+        Customer customer = new Customer();
+        customer.setFirstName("First" + n);
+        customer.setLastName("Last" + n);
+        customer.setEmail("customer" + n + "@example.com");
+        customer.setPhone("0600000" + n);
+        customer.setAddress(n + " Test Street");
+        customer.setCity("Paris");
+        customer.setPostalCode("75001");
+        return customer;
+    }
+
+    private static Order order(Customer customer, int n) {
+        Order order = new Order();
+        order.setOrderNumber("ORD-TEST-" + n);
+        order.setCustomer(customer);
+        order.setStatus(OrderStatus.PENDING);
+        order.setDeliveryAddress(n + " Delivery Street");
+        order.setDeliveryCity("Paris");
+        order.setDeliveryPostalCode("75011");
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            OrderItem item = new OrderItem();
+            item.setProductName("Item " + i);
+            item.setQuantity(1);
+            item.setUnitPrice(BigDecimal.TEN);
+            item.setTotalPrice(BigDecimal.TEN);
+            order.addItem(item);
+            total = total.add(BigDecimal.TEN);
+        }
+        order.setTotalAmount(total);
+        return order;
+    }
+}